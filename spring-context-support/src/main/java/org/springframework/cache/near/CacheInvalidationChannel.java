@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.util.function.Consumer;
+
+/**
+ * Channel through which {@link NearCacheManager near cache managers} on
+ * different nodes exchange {@link CacheInvalidationMessage invalidation messages}.
+ *
+ * <p>Implementations may adapt any messaging infrastructure, e.g. a JMS topic
+ * or a Spring messaging {@code SubscribableChannel}, delivering each published
+ * message to the subscribers of all nodes, including the publishing one.
+ * Delivery may be asynchronous; subscribers ignore their own messages.
+ *
+ * @author agent
+ * @since 6.0
+ * @see LocalCacheInvalidationChannel
+ */
+public interface CacheInvalidationChannel {
+
+	/**
+	 * Publish the given message to all subscribers.
+	 * @param message the message to publish
+	 */
+	void publish(CacheInvalidationMessage message);
+
+	/**
+	 * Register a subscriber for published messages.
+	 * @param subscriber the subscriber to register
+	 */
+	void subscribe(Consumer<CacheInvalidationMessage> subscriber);
+
+	/**
+	 * Remove a previously registered subscriber.
+	 * @param subscriber the subscriber to remove
+	 */
+	void unsubscribe(Consumer<CacheInvalidationMessage> subscriber);
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.io.Serializable;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Message published through a {@link CacheInvalidationChannel} when an entry
+ * of a near cache has been modified, or the cache has been cleared.
+ *
+ * <p>Messages are serializable as long as their key is, in order to be sent
+ * through messaging infrastructure such as JMS.
+ *
+ * @author agent
+ * @since 6.0
+ * @see NearCacheManager
+ */
+public final class CacheInvalidationMessage implements Serializable {
+
+	private final String origin;
+
+	private final String cacheName;
+
+	@Nullable
+	private final Object key;
+
+
+	/**
+	 * Create a new invalidation message.
+	 * @param origin the identifier of the node the modification happened on
+	 * @param cacheName the name of the modified cache
+	 * @param key the modified key, or {@code null} if the cache has been cleared
+	 */
+	public CacheInvalidationMessage(String origin, String cacheName, @Nullable Object key) {
+		Assert.notNull(origin, "Origin must not be null");
+		Assert.notNull(cacheName, "Cache name must not be null");
+		this.origin = origin;
+		this.cacheName = cacheName;
+		this.key = key;
+	}
+
+
+	/**
+	 * Return the identifier of the node the modification happened on.
+	 */
+	public String getOrigin() {
+		return this.origin;
+	}
+
+	/**
+	 * Return the name of the modified cache.
+	 */
+	public String getCacheName() {
+		return this.cacheName;
+	}
+
+	/**
+	 * Return the modified key, or {@code null} if the whole cache has been
+	 * cleared.
+	 */
+	@Nullable
+	public Object getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Return whether the whole cache has been cleared.
+	 */
+	public boolean isClear() {
+		return (this.key == null);
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		return (this == other || (other instanceof CacheInvalidationMessage that &&
+				this.origin.equals(that.origin) && this.cacheName.equals(that.cacheName) &&
+				ObjectUtils.nullSafeEquals(this.key, that.key)));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.cacheName.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.key);
+	}
+
+	@Override
+	public String toString() {
+		return "CacheInvalidationMessage [origin='" + this.origin + "', cacheName='" + this.cacheName +
+				"', key=" + (this.key != null ? this.key : "<all>") + "]";
+	}
+
+}
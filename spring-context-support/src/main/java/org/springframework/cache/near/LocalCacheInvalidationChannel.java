@@ -0,0 +1,71 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * In-memory {@link CacheInvalidationChannel}, delivering messages
+ * synchronously on the publishing thread to all subscribers within
+ * the same JVM.
+ *
+ * <p>Suitable for a single node, where near caches only need to be kept
+ * consistent with modifications through other cache managers, and for
+ * simulating several nodes within a single JVM by sharing one channel.
+ *
+ * @author agent
+ * @since 6.0
+ */
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+
+	private static final Log logger = LogFactory.getLog(LocalCacheInvalidationChannel.class);
+
+	private final List<Consumer<CacheInvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+
+	@Override
+	public void publish(CacheInvalidationMessage message) {
+		Assert.notNull(message, "Message must not be null");
+		for (Consumer<CacheInvalidationMessage> subscriber : this.subscribers) {
+			try {
+				subscriber.accept(message);
+			}
+			catch (Throwable ex) {
+				logger.warn("Cache invalidation subscriber failed to process " + message, ex);
+			}
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<CacheInvalidationMessage> subscriber) {
+		Assert.notNull(subscriber, "Subscriber must not be null");
+		this.subscribers.add(subscriber);
+	}
+
+	@Override
+	public void unsubscribe(Consumer<CacheInvalidationMessage> subscriber) {
+		this.subscribers.remove(subscriber);
+	}
+
+}
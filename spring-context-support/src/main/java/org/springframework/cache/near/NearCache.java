@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Two-level {@link Cache} decorator, serving reads from a local cache in
+ * front of a (usually remote or shared) target cache.
+ *
+ * <p>Reads fall back to the target cache on a local miss, populating the local
+ * cache with the value found. Modifications are applied to the target cache
+ * first and then to the local cache, and are published as
+ * {@link CacheInvalidationMessage invalidation messages} so that other nodes
+ * evict their local copies. A local entry is not populated if an invalidation
+ * has been received while its value was being read from the target cache.
+ *
+ * <p>Typically obtained from a {@link NearCacheManager}.
+ *
+ * @author agent
+ * @since 6.0
+ * @see NearCacheManager
+ */
+public class NearCache implements Cache {
+
+	private final Cache localCache;
+
+	private final Cache targetCache;
+
+	private final CacheInvalidationChannel invalidationChannel;
+
+	private final String origin;
+
+	private final AtomicLong invalidations = new AtomicLong();
+
+
+	/**
+	 * Create a new NearCache.
+	 * @param localCache the local cache, which needs to accept {@code null} values
+	 * if the target cache does
+	 * @param targetCache the target cache to decorate
+	 * @param invalidationChannel the channel to publish invalidations through
+	 * @param origin the identifier of this node in published invalidations
+	 */
+	public NearCache(Cache localCache, Cache targetCache, CacheInvalidationChannel invalidationChannel, String origin) {
+		Assert.notNull(localCache, "Local Cache must not be null");
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.notNull(invalidationChannel, "CacheInvalidationChannel must not be null");
+		Assert.notNull(origin, "Origin must not be null");
+		this.localCache = localCache;
+		this.targetCache = targetCache;
+		this.invalidationChannel = invalidationChannel;
+		this.origin = origin;
+	}
+
+
+	/**
+	 * Return the local cache that this cache serves reads from.
+	 */
+	public Cache getLocalCache() {
+		return this.localCache;
+	}
+
+	/**
+	 * Return the target cache that this cache delegates to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			return wrapper;
+		}
+		long invalidations = this.invalidations.get();
+		wrapper = this.targetCache.get(key);
+		if (wrapper != null) {
+			populateLocally(key, wrapper.get(), invalidations);
+		}
+		return wrapper;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		ValueWrapper wrapper = get(key);
+		Object value = (wrapper != null ? wrapper.get() : null);
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		ValueWrapper wrapper = this.localCache.get(key);
+		if (wrapper != null) {
+			return (T) wrapper.get();
+		}
+		long invalidations = this.invalidations.get();
+		boolean[] loaded = new boolean[1];
+		T value = this.targetCache.get(key, () -> {
+			loaded[0] = true;
+			return valueLoader.call();
+		});
+		if (loaded[0]) {
+			// Other nodes may still hold a copy of a previously expired value
+			this.invalidations.incrementAndGet();
+			this.localCache.put(key, value);
+			publish(key);
+		}
+		else {
+			populateLocally(key, value, invalidations);
+		}
+		return value;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.targetCache.put(key, value);
+		this.invalidations.incrementAndGet();
+		this.localCache.put(key, value);
+		publish(key);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, value);
+		this.invalidations.incrementAndGet();
+		if (existing == null) {
+			this.localCache.put(key, value);
+			publish(key);
+		}
+		else {
+			this.localCache.put(key, existing.get());
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+		invalidateLocally(key);
+		publish(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean evicted = this.targetCache.evictIfPresent(key);
+		invalidateLocally(key);
+		publish(key);
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+		invalidateLocally(null);
+		publish(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = this.targetCache.invalidate();
+		this.invalidations.incrementAndGet();
+		this.localCache.invalidate();
+		publish(null);
+		return invalidated;
+	}
+
+	/**
+	 * Evict the given key from the local cache only, e.g. in response to an
+	 * invalidation received from another node.
+	 * @param key the key to evict, or {@code null} to clear the local cache
+	 */
+	public void invalidateLocally(@Nullable Object key) {
+		this.invalidations.incrementAndGet();
+		if (key != null) {
+			this.localCache.evict(key);
+		}
+		else {
+			this.localCache.clear();
+		}
+	}
+
+
+	private void populateLocally(Object key, @Nullable Object value, long invalidations) {
+		this.localCache.put(key, value);
+		if (this.invalidations.get() != invalidations) {
+			// Invalidated concurrently: value read from the target cache may be stale
+			this.localCache.evict(key);
+		}
+	}
+
+	private void publish(@Nullable Object key) {
+		this.invalidationChannel.publish(new CacheInvalidationMessage(this.origin, getName(), key));
+	}
+
+}
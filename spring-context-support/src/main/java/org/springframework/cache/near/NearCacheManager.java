@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link CacheManager} decorator exposing two-level {@link NearCache near caches}:
+ * a bounded in-process {@link BoundedConcurrentMapCache} in front of each cache
+ * of a target CacheManager, e.g. a JCache-based or otherwise shared store.
+ *
+ * <p>Modifications through a near cache are published to a
+ * {@link CacheInvalidationChannel}, shared by the near cache managers of all
+ * nodes, which evict the affected entries from their local caches in turn.
+ * By default, a {@link LocalCacheInvalidationChannel} is used, which only
+ * reaches subscribers within the same JVM; multi-node deployments need to plug
+ * in a channel backed by messaging infrastructure. Since invalidations are
+ * delivered asynchronously in general, and may get lost, a
+ * {@linkplain #setTimeToLive time to live} bounds the staleness of local entries.
+ *
+ * <p>Like other {@link AbstractTransactionSupportingCacheManager} implementations,
+ * this cache manager can be made {@linkplain #setTransactionAware transaction-aware},
+ * deferring put, evict and clear operations, including the publication of
+ * the corresponding invalidations, to the after-commit phase of a transaction.
+ *
+ * @author agent
+ * @since 6.0
+ * @see NearCache
+ * @see CacheInvalidationChannel
+ */
+public class NearCacheManager extends AbstractTransactionSupportingCacheManager implements DisposableBean {
+
+	private final CacheManager targetCacheManager;
+
+	private final Consumer<CacheInvalidationMessage> invalidationSubscriber = this::onInvalidation;
+
+	private CacheInvalidationChannel invalidationChannel = new LocalCacheInvalidationChannel();
+
+	private String nodeId = UUID.randomUUID().toString();
+
+	private long maximumSize = 10_000;
+
+	@Nullable
+	private Duration timeToLive;
+
+	private boolean subscribed;
+
+
+	/**
+	 * Create a new NearCacheManager for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to decorate
+	 */
+	public NearCacheManager(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Return the target CacheManager that this CacheManager decorates.
+	 */
+	public CacheManager getTargetCacheManager() {
+		return this.targetCacheManager;
+	}
+
+	/**
+	 * Set the channel to exchange invalidations with other nodes through.
+	 * <p>Default is a {@link LocalCacheInvalidationChannel} for this cache manager.
+	 */
+	public void setInvalidationChannel(CacheInvalidationChannel invalidationChannel) {
+		Assert.notNull(invalidationChannel, "CacheInvalidationChannel must not be null");
+		Assert.state(!this.subscribed, "CacheInvalidationChannel already subscribed to");
+		this.invalidationChannel = invalidationChannel;
+	}
+
+	/**
+	 * Return the channel to exchange invalidations with other nodes through.
+	 */
+	public CacheInvalidationChannel getInvalidationChannel() {
+		return this.invalidationChannel;
+	}
+
+	/**
+	 * Set the identifier of this node, used to ignore its own invalidations.
+	 * <p>Default is a random UUID.
+	 */
+	public void setNodeId(String nodeId) {
+		Assert.hasText(nodeId, "Node id must not be empty");
+		this.nodeId = nodeId;
+	}
+
+	/**
+	 * Return the identifier of this node.
+	 */
+	public String getNodeId() {
+		return this.nodeId;
+	}
+
+	/**
+	 * Set the maximum number of entries in each local cache.
+	 * <p>Default is 10,000.
+	 */
+	public void setMaximumSize(long maximumSize) {
+		Assert.isTrue(maximumSize > 0, "Maximum size must be greater than 0");
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Set the time to live of local cache entries, bounding how long a local
+	 * entry may be served after a missed invalidation.
+	 * <p>Default is none, with entries only removed on invalidation or eviction.
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		synchronized (this) {
+			if (!this.subscribed) {
+				this.invalidationChannel.subscribe(this.invalidationSubscriber);
+				this.subscribed = true;
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		synchronized (this) {
+			if (this.subscribed) {
+				this.invalidationChannel.unsubscribe(this.invalidationSubscriber);
+				this.subscribed = false;
+			}
+		}
+	}
+
+	@Override
+	protected Collection<? extends Cache> loadCaches() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	@Nullable
+	protected Cache getMissingCache(String name) {
+		Cache targetCache = this.targetCacheManager.getCache(name);
+		return (targetCache != null ? createNearCache(targetCache) : null);
+	}
+
+	/**
+	 * Create a near cache in front of the given target cache.
+	 * @param targetCache the target cache
+	 * @return the near cache
+	 */
+	protected NearCache createNearCache(Cache targetCache) {
+		BoundedConcurrentMapCache localCache =
+				new BoundedConcurrentMapCache(targetCache.getName(), this.maximumSize, true);
+		localCache.setTimeToLive(this.timeToLive);
+		return new NearCache(localCache, targetCache, this.invalidationChannel, this.nodeId);
+	}
+
+	/**
+	 * Process an invalidation received through the
+	 * {@linkplain #setInvalidationChannel invalidation channel}.
+	 * @param message the invalidation message
+	 */
+	protected void onInvalidation(CacheInvalidationMessage message) {
+		if (this.nodeId.equals(message.getOrigin())) {
+			return;
+		}
+		Cache cache = lookupCache(message.getCacheName());
+		if (cache instanceof TransactionAwareCacheDecorator decorator) {
+			cache = decorator.getTargetCache();
+		}
+		if (cache instanceof NearCache nearCache) {
+			nearCache.invalidateLocally(message.getKey());
+		}
+	}
+
+}
@@ -0,0 +1,11 @@
+/**
+ * Two-level near cache support: a bounded in-process cache in front of
+ * any target cache, kept consistent across nodes through a pluggable
+ * invalidation channel.
+ */
+@NonNullApi
+@NonNullFields
+package org.springframework.cache.near;
+
+import org.springframework.lang.NonNullApi;
+import org.springframework.lang.NonNullFields;
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.near;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.testfixture.CallCountingTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link NearCacheManager}, simulating two nodes through two
+ * application contexts sharing a target cache manager and an invalidation channel.
+ *
+ * @author agent
+ */
+public class NearCacheManagerTests {
+
+	private final CacheManager sharedCacheManager = new ConcurrentMapCacheManager();
+
+	private final CacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+
+	private final TransactionTemplate txTemplate = new TransactionTemplate(new CallCountingTransactionManager());
+
+	private GenericApplicationContext node1;
+
+	private GenericApplicationContext node2;
+
+
+	@AfterEach
+	public void closeContexts() {
+		if (this.node1 != null) {
+			this.node1.close();
+		}
+		if (this.node2 != null) {
+			this.node2.close();
+		}
+	}
+
+
+	@Test
+	public void servesReadsFromLocalCache() {
+		startNodes(false);
+		Cache shared = this.sharedCacheManager.getCache("test");
+		shared.put("key", "v1");
+		Cache cache = getCache(this.node1);
+
+		assertThat(cache.get("key", String.class)).isEqualTo("v1");
+		shared.put("key", "modified behind the near cache");
+		assertThat(cache.get("key", String.class)).isEqualTo("v1");
+		assertThat(cache).isInstanceOf(NearCache.class);
+		assertThat(((NearCache) cache).getTargetCache()).isSameAs(shared);
+	}
+
+	@Test
+	public void putInvalidatesOtherNodes() {
+		startNodes(false);
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		cache1.put("key", "v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+
+		cache1.put("key", "v2");
+		assertThat(cache1.get("key", String.class)).isEqualTo("v2");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v2");
+	}
+
+	@Test
+	public void evictInvalidatesOtherNodes() {
+		startNodes(false);
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		cache1.put("key", "v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+
+		cache1.evict("key");
+		assertThat(cache1.get("key")).isNull();
+		assertThat(cache2.get("key")).isNull();
+	}
+
+	@Test
+	public void clearInvalidatesOtherNodes() {
+		startNodes(false);
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		cache1.put("key1", "v1");
+		cache1.put("key2", "v2");
+		assertThat(cache2.get("key1", String.class)).isEqualTo("v1");
+		assertThat(cache2.get("key2", String.class)).isEqualTo("v2");
+
+		cache1.clear();
+		assertThat(cache2.get("key1")).isNull();
+		assertThat(cache2.get("key2")).isNull();
+	}
+
+	@Test
+	public void loadInvalidatesOtherNodes() {
+		startNodes(false);
+		Cache shared = this.sharedCacheManager.getCache("test");
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		shared.put("key", "v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+		shared.evict("key");
+
+		assertThat(cache1.get("key", () -> "v2")).isEqualTo("v2");
+		assertThat(cache1.get("key", () -> "v3")).isEqualTo("v2");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v2");
+	}
+
+	@Test
+	public void cachesNullValues() {
+		startNodes(false);
+		Cache cache1 = getCache(this.node1);
+		cache1.put("key", null);
+
+		Cache.ValueWrapper wrapper = getCache(this.node2).get("key");
+		assertThat(wrapper).isNotNull();
+		assertThat(wrapper.get()).isNull();
+	}
+
+	@Test
+	public void putTransactional() {
+		startNodes(true);
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		assertThat(cache1).isInstanceOf(TransactionAwareCacheDecorator.class);
+		cache1.put("key", "v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+
+		this.txTemplate.executeWithoutResult(status -> {
+			cache1.put("key", "v2");
+			assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+		});
+		assertThat(cache2.get("key", String.class)).isEqualTo("v2");
+	}
+
+	@Test
+	public void evictTransactionalWithRollback() {
+		startNodes(true);
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		cache1.put("key", "v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+
+		this.txTemplate.executeWithoutResult(status -> {
+			cache1.evict("key");
+			status.setRollbackOnly();
+		});
+		assertThat(cache1.get("key", String.class)).isEqualTo("v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+	}
+
+	@Test
+	public void closedNodeIsUnsubscribed() {
+		startNodes(false);
+		Cache cache1 = getCache(this.node1);
+		Cache cache2 = getCache(this.node2);
+		cache1.put("key", "v1");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+		this.node2.close();
+
+		cache1.put("key", "v2");
+		assertThat(cache2.get("key", String.class)).isEqualTo("v1");
+	}
+
+
+	private void startNodes(boolean transactionAware) {
+		this.node1 = startNode("node1", transactionAware);
+		this.node2 = startNode("node2", transactionAware);
+	}
+
+	private GenericApplicationContext startNode(String nodeId, boolean transactionAware) {
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(NearCacheManager.class, () -> {
+			NearCacheManager cacheManager = new NearCacheManager(this.sharedCacheManager);
+			cacheManager.setInvalidationChannel(this.channel);
+			cacheManager.setNodeId(nodeId);
+			cacheManager.setTransactionAware(transactionAware);
+			return cacheManager;
+		});
+		context.refresh();
+		return context;
+	}
+
+	private static Cache getCache(GenericApplicationContext context) {
+		return context.getBean(CacheManager.class).getCache("test");
+	}
+
+}
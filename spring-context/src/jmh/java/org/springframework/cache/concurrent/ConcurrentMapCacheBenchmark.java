@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Benchmarks for {@link ConcurrentMapCache} and {@link BoundedConcurrentMapCache}
+ * with keys following a Zipf distribution, measuring throughput of cache hits
+ * and loads as well as the hit rate of bounded caches.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ConcurrentMapCacheBenchmark {
+
+	private static final int KEY_SPACE = 100_000;
+
+	private static final int SAMPLE_SIZE = 1 << 20;
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"unbounded", "bounded"})
+		public String cacheType;
+
+		@Param({"1000", "10000"})
+		public int maximumSize;
+
+		public Cache cache;
+
+		public Integer[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.cache = ("bounded".equals(this.cacheType) ?
+					new BoundedConcurrentMapCache("benchmark", this.maximumSize) : new ConcurrentMapCache("benchmark"));
+			this.keys = zipfKeys();
+		}
+
+		private static Integer[] zipfKeys() {
+			double[] cumulative = new double[KEY_SPACE];
+			double sum = 0;
+			for (int i = 0; i < KEY_SPACE; i++) {
+				sum += 1.0 / (i + 1);
+				cumulative[i] = sum;
+			}
+			Random random = new Random(42);
+			Integer[] keys = new Integer[SAMPLE_SIZE];
+			for (int i = 0; i < SAMPLE_SIZE; i++) {
+				double target = random.nextDouble() * sum;
+				int low = 0;
+				int high = KEY_SPACE - 1;
+				while (low < high) {
+					int mid = (low + high) >>> 1;
+					if (cumulative[mid] < target) {
+						low = mid + 1;
+					}
+					else {
+						high = mid;
+					}
+				}
+				keys[i] = low;
+			}
+			return keys;
+		}
+	}
+
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HitRate {
+
+		public long hits;
+
+		public long misses;
+
+		private int index = new Random().nextInt(SAMPLE_SIZE);
+
+		Integer nextKey(BenchmarkData data) {
+			this.index = (this.index + 1) & (SAMPLE_SIZE - 1);
+			return data.keys[this.index];
+		}
+	}
+
+
+	@Benchmark
+	public Object getWithLoader(BenchmarkData data, HitRate counters) {
+		return getWithLoader(data.cache, counters.nextKey(data), counters);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object getWithLoaderContended(BenchmarkData data, HitRate counters) {
+		return getWithLoader(data.cache, counters.nextKey(data), counters);
+	}
+
+	private static Object getWithLoader(Cache cache, Integer key, HitRate counters) {
+		long misses = counters.misses;
+		Object value = cache.get(key, () -> {
+			counters.misses++;
+			return key;
+		});
+		if (counters.misses == misses) {
+			counters.hits++;
+		}
+		return value;
+	}
+
+	@Benchmark
+	public Object getOrPut(BenchmarkData data, HitRate counters) {
+		Integer key = counters.nextKey(data);
+		Cache.ValueWrapper wrapper = data.cache.get(key);
+		if (wrapper != null) {
+			counters.hits++;
+			return wrapper.get();
+		}
+		counters.misses++;
+		data.cache.put(key, key);
+		return key;
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Benchmark for the overhead of invoking a {@link Cacheable} method through
+ * a {@link CacheInterceptor} on a cache hit, with various kinds of keys.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CacheInterceptorBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public CachedService service;
+
+		public User user = new User(new Address("Berlin"));
+
+		@Setup
+		public void setup() {
+			CacheInterceptor interceptor = new CacheInterceptor();
+			interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+			interceptor.setCacheManager(new ConcurrentMapCacheManager());
+			interceptor.afterPropertiesSet();
+			interceptor.afterSingletonsInstantiated();
+			ProxyFactory proxyFactory = new ProxyFactory(new CachedService());
+			proxyFactory.setProxyTargetClass(true);
+			proxyFactory.addAdvice(interceptor);
+			this.service = (CachedService) proxyFactory.getProxy();
+		}
+	}
+
+
+	@Benchmark
+	public Object defaultKey(BenchmarkState state) {
+		return state.service.defaultKey(42L);
+	}
+
+	@Benchmark
+	public Object namedArgumentKey(BenchmarkState state) {
+		return state.service.namedArgumentKey(42L);
+	}
+
+	@Benchmark
+	public Object indexedArgumentKey(BenchmarkState state) {
+		return state.service.indexedArgumentKey(42L);
+	}
+
+	@Benchmark
+	public Object propertyKey(BenchmarkState state) {
+		return state.service.propertyKey(state.user);
+	}
+
+	@Benchmark
+	public Object rootPropertyKey(BenchmarkState state) {
+		return state.service.rootPropertyKey(42L);
+	}
+
+	@Benchmark
+	public Object keyWithCondition(BenchmarkState state) {
+		return state.service.keyWithCondition(42L);
+	}
+
+	@Benchmark
+	public Object expressionKey(BenchmarkState state) {
+		return state.service.expressionKey(42L);
+	}
+
+
+	public static class CachedService {
+
+		@Cacheable("default")
+		public Object defaultKey(long id) {
+			return id;
+		}
+
+		@Cacheable(cacheNames = "named", key = "#id")
+		public Object namedArgumentKey(long id) {
+			return id;
+		}
+
+		@Cacheable(cacheNames = "indexed", key = "#p0")
+		public Object indexedArgumentKey(long id) {
+			return id;
+		}
+
+		@Cacheable(cacheNames = "property", key = "#user.address.city")
+		public Object propertyKey(User user) {
+			return user;
+		}
+
+		@Cacheable(cacheNames = "root", key = "#root.methodName")
+		public Object rootPropertyKey(long id) {
+			return id;
+		}
+
+		@Cacheable(cacheNames = "condition", key = "#id", condition = "#id > 0")
+		public Object keyWithCondition(long id) {
+			return id;
+		}
+
+		@Cacheable(cacheNames = "expression", key = "'id-' + #id")
+		public Object expressionKey(long id) {
+			return id;
+		}
+	}
+
+
+	public static class User {
+
+		private final Address address;
+
+		public User(Address address) {
+			this.address = address;
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+	}
+
+
+	public static class Address {
+
+		private final String city;
+
+		public Address(String city) {
+			this.city = city;
+		}
+
+		public String getCity() {
+			return this.city;
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Benchmark for the end-to-end throughput of {@link SimpleApplicationEventMulticaster}
+ * with synchronous invocation, a task per listener invocation on a thread pool,
+ * and mailbox dispatch on the same thread pool, with plain and batching listeners.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class EventDispatchBenchmark {
+
+	private static final int EVENTS_PER_INVOCATION = 1000;
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"sync", "executor", "mailbox", "mailboxBatching"})
+		public String dispatchMode;
+
+		@Param({"1", "10"})
+		public int listenerCount;
+
+		public SimpleApplicationEventMulticaster multicaster;
+
+		public ExecutorService executorService;
+
+		public final LongAdder processed = new LongAdder();
+
+		public final TestEvent event = new TestEvent(this);
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.multicaster = new SimpleApplicationEventMulticaster();
+			if (!"sync".equals(this.dispatchMode)) {
+				this.executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+				this.multicaster.setTaskExecutor(this.executorService);
+				this.multicaster.setMailboxDispatch(this.dispatchMode.startsWith("mailbox"));
+			}
+			for (int i = 0; i < this.listenerCount; i++) {
+				this.multicaster.addApplicationListener("mailboxBatching".equals(this.dispatchMode) ?
+						new CountingBatchListener(this.processed) : new CountingListener(this.processed));
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			if (this.executorService != null) {
+				this.executorService.shutdown();
+			}
+		}
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(EVENTS_PER_INVOCATION)
+	public void publish(BenchmarkState state) {
+		long expected = state.processed.sum() + (long) EVENTS_PER_INVOCATION * state.listenerCount;
+		for (int i = 0; i < EVENTS_PER_INVOCATION; i++) {
+			state.multicaster.multicastEvent(state.event);
+		}
+		while (state.processed.sum() < expected) {
+			Thread.onSpinWait();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class TestEvent extends ApplicationEvent {
+
+		TestEvent(Object source) {
+			super(source);
+		}
+	}
+
+
+	static class CountingListener implements ApplicationListener<TestEvent> {
+
+		private final LongAdder processed;
+
+		CountingListener(LongAdder processed) {
+			this.processed = processed;
+		}
+
+		@Override
+		public void onApplicationEvent(TestEvent event) {
+			this.processed.increment();
+		}
+	}
+
+
+	static class CountingBatchListener implements BatchingApplicationListener<TestEvent> {
+
+		private final LongAdder processed;
+
+		CountingBatchListener(LongAdder processed) {
+			this.processed = processed;
+		}
+
+		@Override
+		public void onApplicationEvents(List<TestEvent> events) {
+			this.processed.add(events.size());
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Benchmark for {@code publishEvent} throughput with 50 listeners: plain
+ * {@link ApplicationListener} beans for application events, as well as
+ * {@link EventListener @EventListener} methods for payload events, some of
+ * them with a condition.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class EventPublicationBenchmark {
+
+	private static final int LISTENER_COUNT = 50;
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		public AnnotationConfigApplicationContext context;
+
+		public final TestEvent event = new TestEvent(this);
+
+		public final TestPayload payload = new TestPayload(42);
+
+		@Setup
+		public void setup(Blackhole blackhole) {
+			this.context = new AnnotationConfigApplicationContext();
+			for (int i = 0; i < LISTENER_COUNT; i++) {
+				switch (i % 5) {
+					case 0, 1 -> this.context.registerBean("listener" + i, TestEventListener.class,
+							() -> new TestEventListener(blackhole));
+					case 2, 3 -> this.context.registerBean("listener" + i, PayloadListener.class,
+							() -> new PayloadListener(blackhole));
+					default -> this.context.registerBean("listener" + i, ConditionalPayloadListener.class,
+							() -> new ConditionalPayloadListener(blackhole));
+				}
+			}
+			this.context.refresh();
+		}
+
+		@TearDown
+		public void teardown() {
+			this.context.close();
+		}
+	}
+
+
+	@Benchmark
+	public void publishApplicationEvent(BenchmarkState state) {
+		state.context.publishEvent(state.event);
+	}
+
+	@Benchmark
+	public void publishPayloadEvent(BenchmarkState state) {
+		state.context.publishEvent(state.payload);
+	}
+
+
+	@SuppressWarnings("serial")
+	static class TestEvent extends ApplicationEvent {
+
+		TestEvent(Object source) {
+			super(source);
+		}
+	}
+
+
+	public static class TestPayload {
+
+		private final int amount;
+
+		public TestPayload(int amount) {
+			this.amount = amount;
+		}
+
+		public int getAmount() {
+			return this.amount;
+		}
+	}
+
+
+	static class TestEventListener implements ApplicationListener<TestEvent> {
+
+		private final Blackhole blackhole;
+
+		TestEventListener(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void onApplicationEvent(TestEvent event) {
+			this.blackhole.consume(event);
+		}
+	}
+
+
+	static class PayloadListener {
+
+		private final Blackhole blackhole;
+
+		PayloadListener(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@EventListener
+		public void onPayload(TestPayload payload) {
+			this.blackhole.consume(payload);
+		}
+	}
+
+
+	static class ConditionalPayloadListener {
+
+		private final Blackhole blackhole;
+
+		ConditionalPayloadListener(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@EventListener(condition = "#payload.amount > 10")
+		public void onPayload(TestPayload payload) {
+			this.blackhole.consume(payload);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmark for scheduling and cancelling timeouts with {@link ThreadPoolTaskScheduler}
+ * and {@link TimingWheelTaskScheduler}, with a large number of pending tasks.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class TaskSchedulerBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({"threadPool", "timingWheel"})
+		public String scheduler;
+
+		@Param({"1000", "1000000"})
+		public int pendingTasks;
+
+		public ThreadPoolTaskScheduler taskScheduler;
+
+		public ScheduledExecutorService executor;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.taskScheduler = ("timingWheel".equals(this.scheduler) ?
+					new TimingWheelTaskScheduler() : new ThreadPoolTaskScheduler());
+			// Cancelled tasks would otherwise pile up in the ScheduledThreadPoolExecutor's queue
+			this.taskScheduler.setRemoveOnCancelPolicy(true);
+			this.taskScheduler.afterPropertiesSet();
+			this.executor = this.taskScheduler.getScheduledExecutor();
+			Runnable task = () -> {};
+			for (int i = 0; i < this.pendingTasks; i++) {
+				this.executor.schedule(task, 10 + ThreadLocalRandom.current().nextInt(60), TimeUnit.MINUTES);
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.taskScheduler.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public boolean scheduleAndCancel(BenchmarkState state) {
+		ScheduledFuture<?> future = state.executor.schedule(() -> {}, 30, TimeUnit.SECONDS);
+		return future.cancel(false);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public boolean scheduleAndCancelConcurrently(BenchmarkState state) {
+		ScheduledFuture<?> future = state.executor.schedule(() -> {}, 30, TimeUnit.SECONDS);
+		return future.cancel(false);
+	}
+
+}
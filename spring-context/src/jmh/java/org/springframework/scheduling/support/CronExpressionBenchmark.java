@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for {@link CronExpression#next} across families of expressions,
+ * including Quartz-style expressions and their plain equivalents.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class CronExpressionBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkState {
+
+		@Param({
+				"*/10 * * * * *",        // every ten seconds
+				"0 0 * * * *",           // hourly
+				"0 0 9-17 * * MON-FRI",  // business hours
+				"0 0 0 25-31 * MON",     // last Monday of 31-day months
+				"0 0 0 29 2 *",          // leap day
+				"0 0 0 ? * MON#1",       // first Monday of the month, Quartz-style
+				"0 0 0 1-7 * MON",       // first Monday of the month, plain
+				"0 0 0 * * 5L"           // last Friday of the month
+		})
+		public String expression;
+
+		public CronExpression cronExpression;
+
+		public ZonedDateTime dateTime;
+
+		@Setup
+		public void setup() {
+			this.cronExpression = CronExpression.parse(this.expression);
+			this.dateTime = ZonedDateTime.of(2021, 11, 5, 10, 17, 31, 0, ZoneId.of("Europe/Amsterdam"));
+		}
+	}
+
+
+	@Benchmark
+	public ZonedDateTime next(BenchmarkState state) {
+		return state.cronExpression.next(state.dateTime);
+	}
+
+	@Benchmark
+	public List<ZonedDateTime> nextTen(BenchmarkState state) {
+		return state.cronExpression.next(state.dateTime, 10);
+	}
+
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.ToIntBiFunction;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link org.springframework.cache.Cache} implementation based on a
+ * {@link ConcurrentHashMap}, bounded by a maximum total weight and with
+ * optional per-entry expiration.
+ *
+ * <p>Entries are evicted according to a segmented LRU policy: new entries
+ * are admitted into a probationary segment and promoted into a protected
+ * segment when accessed again, so that a burst of entries which are only
+ * accessed once does not flush frequently used entries out of the cache.
+ * Each entry has a weight of 1 by default, which makes the maximum weight
+ * the maximum number of entries; a custom {@link #setWeigher weigher} can be
+ * specified for size-based limits instead.
+ *
+ * <p>Reads never block: accesses are recorded on a best-effort basis and
+ * skipped if the eviction policy is being updated by another thread at the
+ * same time. Expired entries are removed when they are accessed, or evicted
+ * according to the policy otherwise.
+ *
+ * <p>Hit, miss and eviction counts are available through
+ * {@link #getHitCount()}, {@link #getMissCount()} and {@link #getEvictionCount()}.
+ *
+ * @author agent
+ * @since 6.0
+ * @see ConcurrentMapCache
+ * @see ConcurrentMapCacheManager#setMaximumSize
+ */
+public class BoundedConcurrentMapCache extends AbstractValueAdaptingCache {
+
+	private static final long NEVER = Long.MAX_VALUE;
+
+	private static final int NEW = 0;
+
+	private static final int PROBATION = 1;
+
+	private static final int PROTECTED = 2;
+
+	private static final int RETIRED = 3;
+
+
+	private final String name;
+
+	private final long maximumWeight;
+
+	private final long maximumProtectedWeight;
+
+	private final ConcurrentMap<Object, Node> store = new ConcurrentHashMap<>(256);
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final Node probation = new Node(null, null, 0, NEVER);
+
+	private final Node protectedSegment = new Node(null, null, 0, NEVER);
+
+	private long weightedSize;
+
+	private long protectedWeightedSize;
+
+	private ToIntBiFunction<Object, Object> weigher = (key, value) -> 1;
+
+	@Nullable
+	private BiFunction<Object, Object, Duration> timeToLiveFunction;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and
+	 * maximum number of entries.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of all entries, that is,
+	 * the maximum number of entries unless a {@link #setWeigher weigher} is set
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumWeight) {
+		this(name, maximumWeight, true);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and
+	 * maximum number of entries.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of all entries, that is,
+	 * the maximum number of entries unless a {@link #setWeigher weigher} is set
+	 * @param allowNullValues whether to accept and convert {@code null}
+	 * values for this cache
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumWeight, boolean allowNullValues) {
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(maximumWeight > 0, "Maximum weight must be greater than 0");
+		this.name = name;
+		this.maximumWeight = maximumWeight;
+		this.maximumProtectedWeight = maximumWeight - maximumWeight / 5;
+		this.probation.prev = this.probation;
+		this.probation.next = this.probation;
+		this.protectedSegment.prev = this.protectedSegment;
+		this.protectedSegment.next = this.protectedSegment;
+	}
+
+
+	/**
+	 * Set the function that determines the weight of an entry from its key
+	 * and value (which may be {@code null}), counted against the maximum
+	 * weight of this cache.
+	 * <p>Default is a weight of 1 for each entry.
+	 */
+	public void setWeigher(ToIntBiFunction<Object, Object> weigher) {
+		Assert.notNull(weigher, "Weigher must not be null");
+		this.weigher = weigher;
+	}
+
+	/**
+	 * Set the time to live for all entries, starting from their creation
+	 * or latest update.
+	 * <p>Default is none, keeping entries until evicted.
+	 * @see #setTimeToLiveFunction
+	 */
+	public void setTimeToLive(@Nullable Duration timeToLive) {
+		if (timeToLive != null) {
+			Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "Time to live must be positive");
+			this.timeToLiveFunction = (key, value) -> timeToLive;
+		}
+		else {
+			this.timeToLiveFunction = null;
+		}
+	}
+
+	/**
+	 * Set the function that determines the time to live of each entry from
+	 * its key and value (which may be {@code null}), starting from the entry's
+	 * creation or latest update. The function may return {@code null} for
+	 * entries that do not expire.
+	 * @see #setTimeToLive
+	 */
+	public void setTimeToLiveFunction(@Nullable BiFunction<Object, Object, Duration> timeToLiveFunction) {
+		this.timeToLiveFunction = timeToLiveFunction;
+	}
+
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	/**
+	 * This implementation returns the cache itself.
+	 */
+	@Override
+	public final Object getNativeCache() {
+		return this;
+	}
+
+	/**
+	 * Return the maximum total weight of all entries.
+	 */
+	public long getMaximumWeight() {
+		return this.maximumWeight;
+	}
+
+	/**
+	 * Return the current total weight of all entries.
+	 */
+	public long getWeightedSize() {
+		this.evictionLock.lock();
+		try {
+			return this.weightedSize;
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the approximate number of entries, possibly including
+	 * expired entries that have not been removed yet.
+	 */
+	public long getEstimatedSize() {
+		return this.store.size();
+	}
+
+	/**
+	 * Return the number of lookups that found a (non-expired) entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a (non-expired) entry.
+	 */
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries that have been evicted because of the
+	 * maximum weight or removed because they expired.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Node node = this.store.get(key);
+		if (node == null) {
+			this.missCount.increment();
+			return null;
+		}
+		if (isExpired(node)) {
+			if (this.store.remove(key, node)) {
+				this.evictionCount.increment();
+				afterRemoval(node);
+			}
+			this.missCount.increment();
+			return null;
+		}
+		this.hitCount.increment();
+		afterRead(node);
+		return node.value;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Node node = this.store.get(key);
+		if (node != null && !isExpired(node)) {
+			this.hitCount.increment();
+			afterRead(node);
+			return (T) fromStoreValue(node.value);
+		}
+		Node[] created = new Node[2];
+		node = this.store.compute(key, (k, existing) -> {
+			if (existing != null && !isExpired(existing)) {
+				return existing;
+			}
+			Object value;
+			try {
+				value = valueLoader.call();
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			created[0] = createNode(k, value);
+			created[1] = existing;
+			return created[0];
+		});
+		if (node == created[0]) {
+			this.missCount.increment();
+			afterWrite(node, created[1]);
+		}
+		else {
+			this.hitCount.increment();
+			afterRead(node);
+		}
+		return (T) fromStoreValue(node.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Node node = createNode(key, value);
+		afterWrite(node, this.store.put(key, node));
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		Node node = createNode(key, value);
+		Node[] replaced = new Node[1];
+		Node existing = this.store.compute(key, (k, current) -> {
+			if (current != null && !isExpired(current)) {
+				return current;
+			}
+			replaced[0] = current;
+			return node;
+		});
+		if (existing == node) {
+			afterWrite(node, replaced[0]);
+			return null;
+		}
+		return toValueWrapper(existing.value);
+	}
+
+	@Override
+	public void evict(Object key) {
+		Node node = this.store.remove(key);
+		if (node != null) {
+			afterRemoval(node);
+		}
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		Node node = this.store.remove(key);
+		if (node != null) {
+			afterRemoval(node);
+			return !isExpired(node);
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		List<Node> removed = new ArrayList<>();
+		for (Node node : this.store.values()) {
+			if (this.store.remove(node.key, node)) {
+				removed.add(node);
+			}
+		}
+		if (!removed.isEmpty()) {
+			this.evictionLock.lock();
+			try {
+				for (Node node : removed) {
+					retire(node);
+				}
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = !this.store.isEmpty();
+		clear();
+		return notEmpty;
+	}
+
+
+	private Node createNode(Object key, @Nullable Object value) {
+		int weight = this.weigher.applyAsInt(key, value);
+		Assert.isTrue(weight >= 0, () -> "Weight of cache entry for key '" + key + "' must not be negative");
+		long expirationTime = NEVER;
+		BiFunction<Object, Object, Duration> timeToLiveFunction = this.timeToLiveFunction;
+		if (timeToLiveFunction != null) {
+			Duration timeToLive = timeToLiveFunction.apply(key, value);
+			if (timeToLive != null) {
+				expirationTime = System.nanoTime() + timeToLive.toNanos();
+			}
+		}
+		return new Node(key, toStoreValue(value), weight, expirationTime);
+	}
+
+	private boolean isExpired(Node node) {
+		long expirationTime = node.expirationTime;
+		return (expirationTime != NEVER && System.nanoTime() - expirationTime >= 0);
+	}
+
+	/**
+	 * Record an access to the given node, unless another thread currently
+	 * updates the eviction policy.
+	 */
+	private void afterRead(Node node) {
+		if (this.protectedSegment.next == node) {
+			// Most recently used entry already
+			return;
+		}
+		if (this.evictionLock.tryLock()) {
+			try {
+				if (node.segment == PROBATION) {
+					unlink(node);
+					linkFirst(this.protectedSegment, node, PROTECTED);
+					this.protectedWeightedSize += node.weight;
+					while (this.protectedWeightedSize > this.maximumProtectedWeight) {
+						Node demoted = this.protectedSegment.prev;
+						unlink(demoted);
+						linkFirst(this.probation, demoted, PROBATION);
+						this.protectedWeightedSize -= demoted.weight;
+					}
+				}
+				else if (node.segment == PROTECTED) {
+					unlink(node);
+					linkFirst(this.protectedSegment, node, PROTECTED);
+				}
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Admit the given node into the eviction policy, evicting entries from
+	 * the cache if the maximum weight is exceeded.
+	 */
+	private void afterWrite(Node node, @Nullable Node replaced) {
+		List<Node> victims = null;
+		this.evictionLock.lock();
+		try {
+			if (replaced != null) {
+				retire(replaced);
+			}
+			if (node.segment == NEW && this.store.get(node.key) == node) {
+				linkFirst(this.probation, node, PROBATION);
+				this.weightedSize += node.weight;
+			}
+			while (this.weightedSize > this.maximumWeight) {
+				Node victim = (this.probation.prev != this.probation ?
+						this.probation.prev : this.protectedSegment.prev);
+				if (victim == this.protectedSegment) {
+					break;
+				}
+				retire(victim);
+				if (victims == null) {
+					victims = new ArrayList<>(1);
+				}
+				victims.add(victim);
+			}
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+		// Remove victims outside of the lock, since a value loader may
+		// block a map entry while trying to obtain the lock itself
+		if (victims != null) {
+			for (Node victim : victims) {
+				if (this.store.remove(victim.key, victim)) {
+					this.evictionCount.increment();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove the given node, which has been removed from the map, from
+	 * the eviction policy.
+	 */
+	private void afterRemoval(Node node) {
+		this.evictionLock.lock();
+		try {
+			retire(node);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	private void retire(Node node) {
+		if (node.segment == PROBATION || node.segment == PROTECTED) {
+			unlink(node);
+			this.weightedSize -= node.weight;
+			if (node.segment == PROTECTED) {
+				this.protectedWeightedSize -= node.weight;
+			}
+		}
+		node.segment = RETIRED;
+	}
+
+	private static void linkFirst(Node head, Node node, int segment) {
+		node.prev = head;
+		node.next = head.next;
+		head.next.prev = node;
+		head.next = node;
+		node.segment = segment;
+	}
+
+	private static void unlink(Node node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.next = null;
+	}
+
+
+	/**
+	 * A cache entry, linked into one of the segments of the eviction policy.
+	 * Updates to an entry replace its node.
+	 */
+	private static final class Node {
+
+		@Nullable
+		final Object key;
+
+		@Nullable
+		final Object value;
+
+		final int weight;
+
+		final long expirationTime;
+
+		// Guarded by the eviction lock
+		int segment = NEW;
+
+		@Nullable
+		Node prev;
+
+		@Nullable
+		Node next;
+
+		Node(@Nullable Object key, @Nullable Object value, int weight, long expirationTime) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expirationTime = expirationTime;
+		}
+	}
+
+}
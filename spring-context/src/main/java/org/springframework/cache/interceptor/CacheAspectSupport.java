@@ -18,17 +18,27 @@ package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -41,8 +51,11 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.BoundedConcurrentMapCache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -69,6 +82,15 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture} or {@link CompletionStage}, or
+ * a reactive type such as a Reactor {@code Mono} or {@code Flux}, can have their
+ * resolved values cached rather than the asynchronous handles themselves
+ * through {@link #setAsyncResultCaching}.
+ *
+ * <p>Concurrent misses for the same key can be coalesced into a single invocation
+ * through {@link #setSingleFlight}, and entries can be refreshed in the background
+ * while still being served from the cache through {@link #setRefreshAfterWrite}.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -83,6 +105,15 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Mono", CacheAspectSupport.class.getClassLoader());
+
+	/**
+	 * Maximum number of keys for which write times are tracked for refreshing.
+	 */
+	private static final int MAX_TRACKED_WRITE_TIMES = 10_000;
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -102,6 +133,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private boolean initialized = false;
 
+	@Nullable
+	private final ReactiveCachingHandler reactiveCachingHandler = (reactorPresent ? new ReactiveCachingHandler() : null);
+
+	private final ConcurrentMap<LoadKey, InFlightLoad> inFlightLoads = new ConcurrentHashMap<>(64);
+
+	private boolean asyncResultCaching = false;
+
+	private boolean singleFlight = false;
+
+	private long refreshAfterWriteNanos = -1;
+
+	@Nullable
+	private BoundedConcurrentMapCache writeTimes;
+
+	private Executor refreshExecutor = ForkJoinPool.commonPool();
+
 
 	/**
 	 * Configure this aspect with the given error handler, key generator and cache resolver/manager
@@ -194,6 +241,97 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Specify whether methods returning a {@link CompletableFuture} or
+	 * {@link CompletionStage}, or a reactive type known to the
+	 * {@link ReactiveAdapterRegistry} such as a Reactor {@code Mono} or
+	 * {@code Flux}, should have their resolved values cached rather than the
+	 * returned objects themselves. Puts and late evictions are then applied
+	 * once the result is available, and cache hits are returned wrapped in the
+	 * declared return type again.
+	 * <p>Note that a multi-value publisher such as a {@code Flux} is collected
+	 * into a {@link List} of its elements for caching, holding all of them in
+	 * memory. {@code @Cacheable(sync = true)} operations always cache the
+	 * returned object itself.
+	 * <p>Default is "false", caching the returned objects as they are.
+	 * @since 6.0
+	 */
+	public void setAsyncResultCaching(boolean asyncResultCaching) {
+		this.asyncResultCaching = asyncResultCaching;
+	}
+
+	/**
+	 * Return whether the resolved values of asynchronous results are cached.
+	 * @since 6.0
+	 */
+	public boolean isAsyncResultCaching() {
+		return this.asyncResultCaching;
+	}
+
+	/**
+	 * Specify whether concurrent {@code @Cacheable} misses for the same key in
+	 * the same caches should be coalesced: only the first caller invokes the method
+	 * and puts its result into the caches, while the other callers wait for that
+	 * result rather than invoking the method themselves.
+	 * <p>Unlike {@code @Cacheable(sync = true)}, this applies to any combination
+	 * of cache operations and caches, and does not rely on the locking semantics
+	 * of the underlying cache. It is not applied to reactive return types.
+	 * <p>A call for the same key from within the invocation that is loading it,
+	 * on the same thread, does not wait for the load but invokes the method
+	 * directly, as it would otherwise never complete.
+	 * <p>Default is "false".
+	 * @since 6.0
+	 */
+	public void setSingleFlight(boolean singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
+	/**
+	 * Return whether concurrent misses for the same key are coalesced.
+	 * @since 6.0
+	 */
+	public boolean isSingleFlight() {
+		return this.singleFlight;
+	}
+
+	/**
+	 * Specify the time after which a cached {@code @Cacheable} result is refreshed
+	 * in the background on the next cache hit, while that hit still returns the
+	 * cached value (stale-while-revalidate). Refreshes for the same key are not
+	 * run concurrently.
+	 * <p>Write times are tracked for the entries put into the caches by this
+	 * aspect, for a limited number of most recently used keys; entries without
+	 * a tracked write time are not refreshed. The original method invocation of
+	 * the cache hit is proceeded on the {@link #setRefreshExecutor refresh executor},
+	 * which requires an invoker that can be called asynchronously, as is the
+	 * case for {@link CacheInterceptor}.
+	 * <p>Default is none, only reloading entries after they have been evicted.
+	 * @since 6.0
+	 */
+	public void setRefreshAfterWrite(@Nullable Duration refreshAfterWrite) {
+		if (refreshAfterWrite != null) {
+			Assert.isTrue(!refreshAfterWrite.isNegative() && !refreshAfterWrite.isZero(),
+					"Refresh duration must be positive");
+			this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+			this.writeTimes = new BoundedConcurrentMapCache("writeTimes", MAX_TRACKED_WRITE_TIMES, false);
+		}
+		else {
+			this.refreshAfterWriteNanos = -1;
+			this.writeTimes = null;
+		}
+	}
+
+	/**
+	 * Set the {@link Executor} to refresh cache entries on.
+	 * <p>Default is the {@link ForkJoinPool#commonPool() common pool}.
+	 * @since 6.0
+	 * @see #setRefreshAfterWrite
+	 */
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		Assert.notNull(refreshExecutor, "Executor must not be null");
+		this.refreshExecutor = refreshExecutor;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -301,6 +439,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			metadata = new CacheOperationMetadata(operation, method, targetClass,
 					operationKeyGenerator, operationCacheResolver);
+			if (StringUtils.hasText(operation.getKey())) {
+				metadata.keyAccessor = this.evaluator.compileKey(
+						operation.getKey(), metadata.method, metadata.targetMethod, targetClass);
+			}
 			this.metadataCache.put(cacheKey, metadata);
 		}
 		return metadata;
@@ -415,12 +557,39 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			// If there are no put requests, just use the cache hit
 			cacheValue = cacheHit.get();
 			returnValue = wrapCacheValue(method, cacheValue);
+			if (this.refreshAfterWriteNanos > 0) {
+				refreshIfNecessary(invoker, method, contexts);
+			}
+		}
+		else if (cacheHit == null && this.singleFlight && !cachePutRequests.isEmpty() &&
+				!isReactive(method) && !hasCachePut(contexts)) {
+			return executeSingleFlight(invoker, method, contexts, cachePutRequests);
 		}
 		else {
 			// Invoke the method if we don't have a cache hit
-			returnValue = invokeOperation(invoker);
-			cacheValue = unwrapReturnValue(returnValue);
+			return invokeAndCompleteOperations(invoker, method, contexts, cachePutRequests);
+		}
+
+		completeOperations(contexts, cacheValue, cachePutRequests);
+		return returnValue;
+	}
+
+	@Nullable
+	private Object invokeAndCompleteOperations(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, List<CachePutRequest> cachePutRequests) {
+
+		Object returnValue = invokeOperation(invoker);
+		if (isAsyncResult(method, returnValue)) {
+			// Process any put requests and late evictions once the result is available
+			return processAsyncResult(method, returnValue,
+					value -> completeOperations(contexts, value, cachePutRequests));
 		}
+		completeOperations(contexts, unwrapReturnValue(returnValue), cachePutRequests);
+		return returnValue;
+	}
+
+	private void completeOperations(CacheOperationContexts contexts, @Nullable Object cacheValue,
+			List<CachePutRequest> cachePutRequests) {
 
 		// Collect any explicit @CachePuts
 		collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
@@ -432,10 +601,219 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		// Process any late evictions
 		processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+	}
+
+	/**
+	 * Handle a {@code @Cacheable} miss such that only one caller per key invokes
+	 * the method, with concurrent callers for the same key receiving its result.
+	 */
+	@Nullable
+	private Object executeSingleFlight(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, List<CachePutRequest> cachePutRequests) {
+
+		CachePutRequest firstRequest = cachePutRequests.get(0);
+		LoadKey loadKey = new LoadKey(firstRequest.context.getCacheNames(), firstRequest.key);
+		InFlightLoad load = new InFlightLoad();
+		load.invokingThread = Thread.currentThread();
+		InFlightLoad inFlight = this.inFlightLoads.putIfAbsent(loadKey, load);
+		if (inFlight != null) {
+			if (inFlight.invokingThread == Thread.currentThread()) {
+				// Reentrant call from within the load: waiting for it would never complete
+				return invokeAndCompleteOperations(invoker, method, contexts, cachePutRequests);
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Awaiting in-flight load for key '" + loadKey.key + "' in cache(s) " + loadKey.cacheNames);
+			}
+			if (this.asyncResultCaching && CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+				return inFlight.copy().thenApply(value -> {
+					completeOperations(contexts, value, new ArrayList<>());
+					return value;
+				});
+			}
+			Object cacheValue = awaitLoad(inFlight);
+			completeOperations(contexts, cacheValue, new ArrayList<>());
+			return wrapCacheValue(method, cacheValue);
+		}
 
+		load.whenComplete((value, ex) -> this.inFlightLoads.remove(loadKey, load));
+		Object returnValue;
+		try {
+			returnValue = invokeOperation(invoker);
+		}
+		catch (RuntimeException | Error ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			load.invokingThread = null;
+		}
+		if (isAsyncResult(method, returnValue)) {
+			return processAsyncResult(method, returnValue, new AsyncResultCallback() {
+				@Override
+				public void onValue(@Nullable Object value) {
+					try {
+						completeOperations(contexts, value, cachePutRequests);
+					}
+					finally {
+						load.complete(value);
+					}
+				}
+				@Override
+				public void onError(Throwable ex) {
+					load.completeExceptionally(ex);
+				}
+			});
+		}
+		Object cacheValue = unwrapReturnValue(returnValue);
+		try {
+			completeOperations(contexts, cacheValue, cachePutRequests);
+		}
+		finally {
+			load.complete(cacheValue);
+		}
 		return returnValue;
 	}
 
+	@Nullable
+	private Object awaitLoad(CompletableFuture<Object> load) {
+		try {
+			return load.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Refresh the entry of a {@code @Cacheable} hit in the background if it has
+	 * been written longer ago than the configured refresh duration.
+	 */
+	private void refreshIfNecessary(CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		BoundedConcurrentMapCache writeTimes = this.writeTimes;
+		if (writeTimes == null) {
+			return;
+		}
+		Collection<CacheOperationContext> cacheableContexts = contexts.get(CacheableOperation.class);
+		CacheOperationContext context = null;
+		for (CacheOperationContext candidate : cacheableContexts) {
+			if (isConditionPassing(candidate, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				context = candidate;
+				break;
+			}
+		}
+		if (context == null) {
+			return;
+		}
+		LoadKey loadKey = new LoadKey(context.getCacheNames(), generateKey(context, CacheOperationExpressionEvaluator.NO_RESULT));
+		Long writeTime = writeTimes.get(loadKey, Long.class);
+		if (writeTime == null || System.nanoTime() - writeTime < this.refreshAfterWriteNanos) {
+			return;
+		}
+		InFlightLoad refresh = new InFlightLoad();
+		if (this.inFlightLoads.putIfAbsent(loadKey, refresh) != null) {
+			// Already being loaded or refreshed
+			return;
+		}
+		refresh.whenComplete((value, ex) -> this.inFlightLoads.remove(loadKey, refresh));
+		List<CachePutRequest> cachePutRequests = new ArrayList<>();
+		collectPutRequests(cacheableContexts, CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Refreshing cache entry for key '" + loadKey.key + "' in cache(s) " + loadKey.cacheNames);
+		}
+		AsyncResultCallback callback = new AsyncResultCallback() {
+			@Override
+			public void onValue(@Nullable Object value) {
+				try {
+					for (CachePutRequest cachePutRequest : cachePutRequests) {
+						cachePutRequest.apply(value);
+					}
+				}
+				finally {
+					refresh.complete(value);
+				}
+			}
+			@Override
+			public void onError(Throwable ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to refresh cache entry for key '" + loadKey.key + "' in cache(s) " +
+							loadKey.cacheNames, ex);
+				}
+				refresh.completeExceptionally(ex);
+			}
+		};
+		try {
+			this.refreshExecutor.execute(() -> {
+				try {
+					Object returnValue;
+					refresh.invokingThread = Thread.currentThread();
+					try {
+						returnValue = invokeOperation(invoker);
+					}
+					finally {
+						refresh.invokingThread = null;
+					}
+					if (isAsyncResult(method, returnValue)) {
+						Object result = processAsyncResult(method, returnValue, callback);
+						if (!(result instanceof CompletionStage) && this.reactiveCachingHandler != null) {
+							// Reactive results need to be subscribed to in order to be resolved
+							this.reactiveCachingHandler.subscribe(method.getReturnType(), result);
+						}
+					}
+					else {
+						callback.onValue(unwrapReturnValue(returnValue));
+					}
+				}
+				catch (Throwable ex) {
+					callback.onError(ex instanceof CacheOperationInvoker.ThrowableWrapper wrapper ?
+							wrapper.getOriginal() : ex);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			callback.onError(ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given value returned from the given method is an
+	 * asynchronous result whose resolved value is to be cached.
+	 */
+	private boolean isAsyncResult(Method method, @Nullable Object returnValue) {
+		return (this.asyncResultCaching &&
+				(returnValue instanceof CompletionStage || (returnValue != null && isReactive(method))));
+	}
+
+	private boolean isReactive(Method method) {
+		return (this.reactiveCachingHandler != null &&
+				this.reactiveCachingHandler.getAdapter(method.getReturnType()) != null);
+	}
+
+	/**
+	 * Apply the given callback once the given asynchronous result is available,
+	 * returning a result of the same type that completes after the callback.
+	 */
+	private Object processAsyncResult(Method method, Object returnValue, AsyncResultCallback callback) {
+		if (returnValue instanceof CompletionStage<?> stage) {
+			return stage.whenComplete((value, ex) -> {
+				if (ex == null) {
+					callback.onValue(unwrapReturnValue(value));
+				}
+				else {
+					callback.onError(ex);
+				}
+			});
+		}
+		Assert.state(this.reactiveCachingHandler != null, "No reactive caching support");
+		return this.reactiveCachingHandler.processResult(method.getReturnType(), returnValue, callback);
+	}
+
 	@Nullable
 	private Object handleSynchronizedGet(CacheOperationInvoker invoker, Object key, Cache cache) {
 		InvocationAwareResult invocationResult = new InvocationAwareResult();
@@ -454,10 +832,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
-		if (method.getReturnType() == Optional.class &&
+		Class<?> returnType = method.getReturnType();
+		if (returnType == Optional.class &&
 				(cacheValue == null || cacheValue.getClass() != Optional.class)) {
 			return Optional.ofNullable(cacheValue);
 		}
+		if (returnType.isInstance(cacheValue) || returnType == Object.class || !this.asyncResultCaching) {
+			return cacheValue;
+		}
+		if (returnType.isAssignableFrom(CompletableFuture.class)) {
+			return CompletableFuture.completedFuture(cacheValue);
+		}
+		if (this.reactiveCachingHandler != null) {
+			ReactiveAdapter adapter = this.reactiveCachingHandler.getAdapter(returnType);
+			if (adapter != null) {
+				return this.reactiveCachingHandler.wrapCacheValue(adapter, cacheValue);
+			}
+		}
 		return cacheValue;
 	}
 
@@ -684,6 +1075,9 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final CacheResolver cacheResolver;
 
+		@Nullable
+		private CacheOperationExpressionEvaluator.KeyAccessor keyAccessor;
+
 		public CacheOperationMetadata(CacheOperation operation, Method method, Class<?> targetClass,
 				KeyGenerator keyGenerator, CacheResolver cacheResolver) {
 
@@ -717,6 +1111,12 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		private Boolean conditionPassing;
 
+		@Nullable
+		private EvaluationContext evaluationContext;
+
+		@Nullable
+		private Object evaluationResult;
+
 		public CacheOperationContext(CacheOperationMetadata metadata, Object[] args, Object target) {
 			this.metadata = metadata;
 			this.args = extractArgs(metadata.method, args);
@@ -791,6 +1191,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		@Nullable
 		protected Object generateKey(@Nullable Object result) {
 			if (StringUtils.hasText(this.metadata.operation.getKey())) {
+				if (this.metadata.keyAccessor != null) {
+					// Compiled key expression: no evaluation context needed
+					return this.metadata.keyAccessor.getKey(this.args, this.target);
+				}
 				EvaluationContext evaluationContext = createEvaluationContext(result);
 				return evaluator.key(this.metadata.operation.getKey(), this.metadata.methodKey, evaluationContext);
 			}
@@ -798,8 +1202,15 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 
 		private EvaluationContext createEvaluationContext(@Nullable Object result) {
-			return evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
-					this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
+			// Reuse the evaluation context for further expressions with the same result
+			EvaluationContext evaluationContext = this.evaluationContext;
+			if (evaluationContext == null || this.evaluationResult != result) {
+				evaluationContext = evaluator.createEvaluationContext(this.caches, this.metadata.method, this.args,
+						this.target, this.metadata.targetClass, this.metadata.targetMethod, result, beanFactory);
+				this.evaluationContext = evaluationContext;
+				this.evaluationResult = result;
+			}
+			return evaluationContext;
 		}
 
 		protected Collection<? extends Cache> getCaches() {
@@ -836,6 +1247,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				for (Cache cache : this.context.getCaches()) {
 					doPut(cache, this.key, result);
 				}
+				BoundedConcurrentMapCache writeTimes = CacheAspectSupport.this.writeTimes;
+				if (writeTimes != null && this.context.getOperation() instanceof CacheableOperation) {
+					writeTimes.put(new LoadKey(this.context.getCacheNames(), this.key), System.nanoTime());
+				}
 			}
 		}
 	}
@@ -884,6 +1299,117 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		}
 	}
 
+	/**
+	 * A load or refresh of a cache entry in progress, recording the thread
+	 * invoking the method while it does so in order to detect reentrant calls.
+	 */
+	private static final class InFlightLoad extends CompletableFuture<Object> {
+
+		@Nullable
+		volatile Thread invokingThread;
+	}
+
+
+	/**
+	 * Key of a value loaded into a set of caches, identifying concurrent loads
+	 * and refreshes of the same entry.
+	 */
+	private static final class LoadKey {
+
+		private final Collection<String> cacheNames;
+
+		private final Object key;
+
+		LoadKey(Collection<String> cacheNames, Object key) {
+			this.cacheNames = cacheNames;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof LoadKey otherKey)) {
+				return false;
+			}
+			return (this.key.equals(otherKey.key) && this.cacheNames.equals(otherKey.cacheNames));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.key.hashCode() * 31 + this.cacheNames.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return this.key + " in " + this.cacheNames;
+		}
+	}
+
+
+	/**
+	 * Callback for the resolved value of an asynchronous method result.
+	 */
+	private interface AsyncResultCallback {
+
+		void onValue(@Nullable Object value);
+
+		default void onError(Throwable ex) {
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime: caches the
+	 * resolved values of reactive return types, with a multi-value publisher
+	 * being cached as a {@link List} of its elements.
+	 */
+	private static class ReactiveCachingHandler {
+
+		private final ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+
+		@Nullable
+		ReactiveAdapter getAdapter(Class<?> returnType) {
+			if (CompletionStage.class.isAssignableFrom(returnType)) {
+				// Handled as a CompletionStage
+				return null;
+			}
+			ReactiveAdapter adapter = this.registry.getAdapter(returnType);
+			return (adapter != null && !adapter.isNoValue() ? adapter : null);
+		}
+
+		Object wrapCacheValue(ReactiveAdapter adapter, @Nullable Object cacheValue) {
+			if (adapter.isMultiValue()) {
+				return adapter.fromPublisher(cacheValue instanceof Iterable<?> iterable ? Flux.fromIterable(iterable) :
+						(cacheValue != null ? Flux.just(cacheValue) : Flux.empty()));
+			}
+			return adapter.fromPublisher(Mono.justOrEmpty(cacheValue));
+		}
+
+		Object processResult(Class<?> returnType, Object returnValue, AsyncResultCallback callback) {
+			ReactiveAdapter adapter = getAdapter(returnType);
+			Assert.state(adapter != null, () -> "No reactive adapter for " + returnType);
+			if (adapter.isMultiValue()) {
+				return adapter.fromPublisher(Flux.from(adapter.toPublisher(returnValue))
+						.collectList()
+						.doOnNext(callback::onValue)
+						.doOnError(callback::onError)
+						.flatMapIterable(list -> list));
+			}
+			return adapter.fromPublisher(Mono.from(adapter.toPublisher(returnValue))
+					.doOnSuccess(callback::onValue)
+					.doOnError(callback::onError));
+		}
+
+		void subscribe(Class<?> returnType, Object result) {
+			ReactiveAdapter adapter = getAdapter(returnType);
+			Assert.state(adapter != null, () -> "No reactive adapter for " + returnType);
+			Flux.from(adapter.toPublisher(result)).subscribe(value -> {}, ex -> {});
+		}
+	}
+
+
 	/**
 	 * Internal holder class for recording that a cache method was invoked.
 	 */
@@ -17,9 +17,12 @@
 package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cache.Cache;
@@ -28,6 +31,10 @@ import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
@@ -35,7 +42,10 @@ import org.springframework.lang.Nullable;
  * Meant to be used as a reusable, thread-safe component.
  *
  * <p>Performs internal caching for performance reasons
- * using {@link AnnotatedElementKey}.
+ * using {@link AnnotatedElementKey}. Simple key expressions referring to a
+ * method argument or a property of the root object, optionally followed by
+ * a chain of property references, can also be {@linkplain #compileKey compiled}
+ * into a {@link KeyAccessor} that does not require an evaluation context.
  *
  * @author Costin Leau
  * @author Phillip Webb
@@ -60,6 +70,15 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	 */
 	public static final String RESULT_VARIABLE = "result";
 
+	/**
+	 * Pattern for key expressions that can be compiled: a variable or a root
+	 * object property, followed by an optional chain of property references.
+	 */
+	private static final Pattern SIMPLE_KEY_PATTERN = Pattern.compile(
+			"#(root\\.)?([A-Za-z_$][\\w$]*)((?:\\.[A-Za-z_$][\\w$]*)*)");
+
+	private static final Pattern INDEXED_ARGUMENT_PATTERN = Pattern.compile("[ap](\\d+)");
+
 
 	private final Map<ExpressionKey, Expression> keyCache = new ConcurrentHashMap<>(64);
 
@@ -67,6 +86,9 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
+	private final SpelExpressionParser propertyParser = new SpelExpressionParser(
+			new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()));
+
 
 	/**
 	 * Create an {@link EvaluationContext}.
@@ -99,6 +121,98 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		return evaluationContext;
 	}
 
+	/**
+	 * Compile the given key expression into a {@link KeyAccessor}, if possible.
+	 * <p>Supported are references to method arguments by name ({@code #id}) or
+	 * index ({@code #p0}, {@code #a0}) and to properties of the root object
+	 * ({@code #root.methodName}), each optionally followed by a chain of property
+	 * references ({@code #user.address.city}) which is evaluated against the
+	 * referenced value in compiled SpEL mode.
+	 * @param keyExpression the key expression
+	 * @param method the method, as exposed by the root object
+	 * @param targetMethod the target method, declaring the parameter names
+	 * @param targetClass the target class
+	 * @return the compiled accessor, or {@code null} if the expression
+	 * needs to be evaluated against an evaluation context
+	 */
+	@Nullable
+	public KeyAccessor compileKey(String keyExpression, Method method, Method targetMethod, Class<?> targetClass) {
+		Matcher matcher = SIMPLE_KEY_PATTERN.matcher(keyExpression.trim());
+		if (!matcher.matches()) {
+			return null;
+		}
+		String name = matcher.group(2);
+		KeyAccessor head = (matcher.group(1) != null ?
+				compileRootProperty(name, method, targetClass) : compileArgument(name, targetMethod));
+		if (head == null) {
+			return null;
+		}
+		String properties = matcher.group(3);
+		if (properties.isEmpty()) {
+			return head;
+		}
+		Expression propertyExpression;
+		try {
+			propertyExpression = this.propertyParser.parseExpression("#this" + properties);
+		}
+		catch (ParseException ex) {
+			return null;
+		}
+		return (args, target) -> propertyExpression.getValue(head.getKey(args, target));
+	}
+
+	@Nullable
+	private KeyAccessor compileRootProperty(String name, Method method, Class<?> targetClass) {
+		return switch (name) {
+			case "method" -> (args, target) -> method;
+			case "methodName" -> {
+				String methodName = method.getName();
+				yield (args, target) -> methodName;
+			}
+			case "args" -> (args, target) -> args;
+			case "target" -> (args, target) -> target;
+			case "targetClass" -> (args, target) -> targetClass;
+			default -> null;
+		};
+	}
+
+	@Nullable
+	private KeyAccessor compileArgument(String name, Method targetMethod) {
+		if (RESULT_VARIABLE.equals(name) || "root".equals(name) || "this".equals(name)) {
+			return null;
+		}
+		String[] paramNames = getParameterNameDiscoverer().getParameterNames(targetMethod);
+		int paramCount = (paramNames != null ? paramNames.length : targetMethod.getParameterCount());
+		int namedIndex = (paramNames != null ? Arrays.asList(paramNames).indexOf(name) : -1);
+		int indexedIndex = -1;
+		Matcher matcher = INDEXED_ARGUMENT_PATTERN.matcher(name);
+		if (matcher.matches()) {
+			try {
+				indexedIndex = Integer.parseInt(matcher.group(1));
+			}
+			catch (NumberFormatException ex) {
+				return null;
+			}
+		}
+		else if (namedIndex == -1) {
+			return null;
+		}
+		if (namedIndex == -1 && indexedIndex >= paramCount) {
+			// Not exposed as a variable
+			return (args, target) -> null;
+		}
+		// Same as MethodBasedEvaluationContext, which exposes the variables of
+		// each parameter in order, potentially overriding earlier ones
+		int paramIndex = Math.max(namedIndex, (indexedIndex < paramCount ? indexedIndex : -1));
+		return (args, target) -> {
+			if (args.length > paramCount && paramIndex == paramCount - 1) {
+				// Remaining arguments as vararg array for last parameter
+				return Arrays.copyOfRange(args, paramIndex, args.length);
+			}
+			return (paramIndex < args.length ? args[paramIndex] : null);
+		};
+	}
+
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
 		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
@@ -123,4 +237,16 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		this.unlessCache.clear();
 	}
 
+
+	/**
+	 * Compiled key expression, computing a key directly from the
+	 * invocation arguments and target.
+	 */
+	@FunctionalInterface
+	interface KeyAccessor {
+
+		@Nullable
+		Object getKey(Object[] args, Object target);
+	}
+
 }
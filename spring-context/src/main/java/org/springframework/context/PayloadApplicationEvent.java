@@ -16,11 +16,13 @@
 
 package org.springframework.context;
 
+import java.util.Map;
 import java.util.function.Consumer;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * An {@link ApplicationEvent} that carries an arbitrary payload.
@@ -35,6 +37,9 @@ import org.springframework.util.Assert;
 @SuppressWarnings("serial")
 public class PayloadApplicationEvent<T> extends ApplicationEvent implements ResolvableTypeProvider {
 
+	/** Cache of resolved event types for plain PayloadApplicationEvents, by payload class. */
+	private static final Map<Class<?>, ResolvableType> resolvableTypeCache = new ConcurrentReferenceHashMap<>(64);
+
 	private final T payload;
 
 
@@ -52,7 +57,12 @@ public class PayloadApplicationEvent<T> extends ApplicationEvent implements Reso
 
 	@Override
 	public ResolvableType getResolvableType() {
-		return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(getPayload()));
+		T payload = getPayload();
+		if (getClass() == PayloadApplicationEvent.class && !(payload instanceof ResolvableTypeProvider)) {
+			return resolvableTypeCache.computeIfAbsent(payload.getClass(), payloadClass ->
+					ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, ResolvableType.forClass(payloadClass)));
+		}
+		return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(payload));
 	}
 
 	/**
@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +69,10 @@ public abstract class AbstractApplicationEventMulticaster
 
 	final Map<ListenerCacheKey, CachedListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	/** Index into the retriever cache by event type and source type, for allocation-free lookups. */
+	private final Map<ResolvableType, Map<Class<?>, CachedListenerRetriever>> retrieverIndex =
+			new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
@@ -110,7 +115,7 @@ public abstract class AbstractApplicationEventMulticaster
 				this.defaultRetriever.applicationListeners.remove(singletonTarget);
 			}
 			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
@@ -118,7 +123,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void addApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
@@ -126,7 +131,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
@@ -134,7 +139,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBean(String listenerBeanName) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
@@ -142,7 +147,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.removeIf(predicate);
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
@@ -150,7 +155,7 @@ public abstract class AbstractApplicationEventMulticaster
 	public void removeApplicationListenerBeans(Predicate<String> predicate) {
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListenerBeans.removeIf(predicate);
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
@@ -159,11 +164,18 @@ public abstract class AbstractApplicationEventMulticaster
 		synchronized (this.defaultRetriever) {
 			this.defaultRetriever.applicationListeners.clear();
 			this.defaultRetriever.applicationListenerBeans.clear();
-			this.retrieverCache.clear();
+			clearRetrieverCache();
 		}
 	}
 
 
+	private void clearRetrieverCache() {
+		// Clear the cache before the index: see getApplicationListeners
+		this.retrieverCache.clear();
+		this.retrieverIndex.clear();
+	}
+
+
 	/**
 	 * Return a Collection containing all ApplicationListeners.
 	 * @return a Collection of ApplicationListeners
@@ -181,7 +193,7 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @param event the event to be propagated. Allows for excluding
 	 * non-matching listeners early, based on cached matching information.
 	 * @param eventType the event type
-	 * @return a Collection of ApplicationListeners
+	 * @return a Collection of ApplicationListeners, not to be modified
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners(
@@ -189,22 +201,40 @@ public abstract class AbstractApplicationEventMulticaster
 
 		Object source = event.getSource();
 		Class<?> sourceType = (source != null ? source.getClass() : null);
-		ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
+		// No source type is indexed as void.class, which cannot be the type of any source
+		Class<?> sourceIndexKey = (sourceType != null ? sourceType : void.class);
 
 		// Potential new retriever to populate
 		CachedListenerRetriever newRetriever = null;
 
-		// Quick check for existing entry on ConcurrentHashMap
-		CachedListenerRetriever existingRetriever = this.retrieverCache.get(cacheKey);
+		// Quick check for existing entry in the index, not requiring a cache key
+		Map<Class<?>, CachedListenerRetriever> retrieversBySourceType = this.retrieverIndex.get(eventType);
+		CachedListenerRetriever existingRetriever =
+				(retrieversBySourceType != null ? retrieversBySourceType.get(sourceIndexKey) : null);
 		if (existingRetriever == null) {
-			// Caching a new ListenerRetriever if possible
-			if (this.beanClassLoader == null ||
-					(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
-							(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-				newRetriever = new CachedListenerRetriever();
-				existingRetriever = this.retrieverCache.putIfAbsent(cacheKey, newRetriever);
-				if (existingRetriever != null) {
-					newRetriever = null;  // no need to populate it in retrieveApplicationListeners
+			ListenerCacheKey cacheKey = new ListenerCacheKey(eventType, sourceType);
+			existingRetriever = this.retrieverCache.get(cacheKey);
+			if (existingRetriever == null) {
+				// Caching a new ListenerRetriever if possible
+				if (this.beanClassLoader == null ||
+						(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
+								(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
+					newRetriever = new CachedListenerRetriever();
+					existingRetriever = this.retrieverCache.putIfAbsent(cacheKey, newRetriever);
+					if (existingRetriever != null) {
+						newRetriever = null;  // no need to populate it in retrieveApplicationListeners
+					}
+				}
+			}
+			CachedListenerRetriever cachedRetriever = (existingRetriever != null ? existingRetriever : newRetriever);
+			if (cachedRetriever != null) {
+				Map<Class<?>, CachedListenerRetriever> index =
+						this.retrieverIndex.computeIfAbsent(eventType, key -> new ConcurrentHashMap<>(4));
+				index.put(sourceIndexKey, cachedRetriever);
+				// Re-check the cache after indexing: if the retriever has been removed from it
+				// in the meantime, the index may have been cleared before the retriever got added
+				if (this.retrieverCache.get(cacheKey) != cachedRetriever) {
+					index.remove(sourceIndexKey, cachedRetriever);
 				}
 			}
 		}
@@ -447,6 +477,9 @@ public abstract class AbstractApplicationEventMulticaster
 		@Nullable
 		public volatile Set<String> applicationListenerBeans;
 
+		@Nullable
+		private volatile List<ApplicationListener<?>> singletonListeners;
+
 		@Nullable
 		public Collection<ApplicationListener<?>> getApplicationListeners() {
 			Set<ApplicationListener<?>> applicationListeners = this.applicationListeners;
@@ -456,6 +489,16 @@ public abstract class AbstractApplicationEventMulticaster
 				return null;
 			}
 
+			if (applicationListenerBeans.isEmpty()) {
+				// Only singleton listeners: same list for every event
+				List<ApplicationListener<?>> singletonListeners = this.singletonListeners;
+				if (singletonListeners == null) {
+					singletonListeners = Collections.unmodifiableList(new ArrayList<>(applicationListeners));
+					this.singletonListeners = singletonListeners;
+				}
+				return singletonListeners;
+			}
+
 			List<ApplicationListener<?>> allListeners = new ArrayList<>(
 					applicationListeners.size() + applicationListenerBeans.size());
 			allListeners.addAll(applicationListeners);
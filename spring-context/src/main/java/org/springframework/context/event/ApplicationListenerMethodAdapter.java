@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletionStage;
 
@@ -42,11 +43,13 @@ import org.springframework.core.Ordered;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -85,6 +88,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final List<ResolvableType> declaredEventTypes;
 
+	/** Declared event type matching each event class, or {@link ResolvableType#NONE} if none. */
+	private final Map<Class<?>, ResolvableType> eventTypeCache = new ConcurrentReferenceHashMap<>(16);
+
+	/** Declared event type matching each payload class of plain payload events. */
+	private final Map<Class<?>, ResolvableType> payloadTypeCache = new ConcurrentReferenceHashMap<>(16);
+
 	@Nullable
 	private final String condition;
 
@@ -439,6 +448,32 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	@Nullable
 	private ResolvableType getResolvableType(ApplicationEvent event) {
+		if (event instanceof PayloadApplicationEvent<?> payloadEvent) {
+			Object payload = payloadEvent.getPayload();
+			if (event.getClass() != PayloadApplicationEvent.class || payload instanceof ResolvableTypeProvider) {
+				// Event type not determined by the payload class alone
+				return resolveDeclaredEventType(event);
+			}
+			return getCachedDeclaredEventType(this.payloadTypeCache, payload.getClass(), event);
+		}
+		return getCachedDeclaredEventType(this.eventTypeCache, event.getClass(), event);
+	}
+
+	@Nullable
+	private ResolvableType getCachedDeclaredEventType(
+			Map<Class<?>, ResolvableType> cache, Class<?> cacheKey, ApplicationEvent event) {
+
+		ResolvableType declaredEventType = cache.get(cacheKey);
+		if (declaredEventType == null) {
+			declaredEventType = resolveDeclaredEventType(event);
+			cache.put(cacheKey, (declaredEventType != null ? declaredEventType : ResolvableType.NONE));
+			return declaredEventType;
+		}
+		return (declaredEventType != ResolvableType.NONE ? declaredEventType : null);
+	}
+
+	@Nullable
+	private ResolvableType resolveDeclaredEventType(ApplicationEvent event) {
 		ResolvableType payloadType = null;
 		if (event instanceof PayloadApplicationEvent) {
 			PayloadApplicationEvent<?> payloadEvent = (PayloadApplicationEvent<?>) event;
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Extended variant of the standard {@link ApplicationListener} interface,
+ * accepting events in batches.
+ *
+ * <p>With {@linkplain SimpleApplicationEventMulticaster#setMailboxDispatch
+ * mailbox dispatch}, events queued for such a listener are delivered in
+ * batches of up to {@link #getMaxBatchSize()} events, in publication order.
+ * Otherwise, each event is delivered as a batch of its own.
+ *
+ * @author agent
+ * @since 6.0
+ * @param <E> the specific {@code ApplicationEvent} subclass to listen to
+ * @see SimpleApplicationEventMulticaster#setMailboxDispatch
+ */
+public interface BatchingApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+	/**
+	 * Handle a batch of application events.
+	 * @param events the events to respond to, in publication order
+	 */
+	void onApplicationEvents(List<E> events);
+
+	/**
+	 * Delegates to {@link #onApplicationEvents} with a single event.
+	 */
+	@Override
+	default void onApplicationEvent(E event) {
+		onApplicationEvents(Collections.singletonList(event));
+	}
+
+	/**
+	 * Return the maximum number of events to deliver in a single batch.
+	 * <p>The default implementation returns 100.
+	 */
+	default int getMaxBatchSize() {
+		return 100;
+	}
+
+}
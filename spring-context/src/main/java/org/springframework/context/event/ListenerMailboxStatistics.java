@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.time.Duration;
+
+/**
+ * Statistics of a listener's mailbox, with
+ * {@linkplain SimpleApplicationEventMulticaster#setMailboxDispatch mailbox dispatch}.
+ *
+ * <p>Latencies are measured from the publication of an event until the
+ * listener has processed it, including the time spent in the mailbox.
+ *
+ * @author agent
+ * @since 6.0
+ * @see SimpleApplicationEventMulticaster#getMailboxStatistics()
+ */
+public interface ListenerMailboxStatistics {
+
+	/**
+	 * Return the number of events currently waiting in the mailbox.
+	 */
+	int getQueuedCount();
+
+	/**
+	 * Return the number of events processed by the listener so far,
+	 * including those that failed.
+	 */
+	long getProcessedCount();
+
+	/**
+	 * Return the number of events dropped due to a full mailbox so far.
+	 * @see MailboxOverflowPolicy
+	 */
+	long getDroppedCount();
+
+	/**
+	 * Return the average latency of processed events.
+	 */
+	Duration getAverageLatency();
+
+	/**
+	 * Return the maximum latency of processed events.
+	 */
+	Duration getMaxLatency();
+
+}
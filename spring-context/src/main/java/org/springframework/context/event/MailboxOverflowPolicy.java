@@ -0,0 +1,46 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+/**
+ * Policy for publishing an event to a listener whose mailbox is full, with
+ * {@linkplain SimpleApplicationEventMulticaster#setMailboxDispatch mailbox dispatch}.
+ *
+ * @author agent
+ * @since 6.0
+ * @see SimpleApplicationEventMulticaster#setMailboxOverflowPolicy
+ */
+public enum MailboxOverflowPolicy {
+
+	/**
+	 * Block the publishing thread until the mailbox has room for the event,
+	 * applying back-pressure to publishers.
+	 */
+	BLOCK,
+
+	/**
+	 * Drop the event being published for the listener.
+	 */
+	DROP_NEWEST,
+
+	/**
+	 * Drop the oldest event in the mailbox to make room for the event
+	 * being published.
+	 */
+	DROP_OLDEST
+
+}
@@ -16,7 +16,19 @@
 
 package org.springframework.context.event;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -26,7 +38,10 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -42,11 +57,19 @@ import org.springframework.util.ErrorHandler;
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
  *
+ * <p>With {@linkplain #setMailboxDispatch mailbox dispatch}, events for each
+ * listener are queued in a bounded mailbox of that listener instead, which is
+ * drained on the task executor: each listener receives its events in
+ * publication order, one at a time, while different listeners process their
+ * events in parallel. {@link BatchingApplicationListener Batching listeners}
+ * receive the queued events in batches.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @author Brian Clozel
  * @see #setTaskExecutor
+ * @see #setMailboxDispatch
  */
 public class SimpleApplicationEventMulticaster extends AbstractApplicationEventMulticaster {
 
@@ -56,6 +79,16 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Nullable
 	private ErrorHandler errorHandler;
 
+	private boolean mailboxDispatch = false;
+
+	private int mailboxCapacity = 1024;
+
+	private MailboxOverflowPolicy mailboxOverflowPolicy = MailboxOverflowPolicy.BLOCK;
+
+	private final ConcurrentMap<ApplicationListener<?>, ListenerMailbox> mailboxes = new ConcurrentHashMap<>(64);
+
+	private final Map<Class<?>, ResolvableType> eventTypeCache = new ConcurrentReferenceHashMap<>(64);
+
 	@Nullable
 	private volatile Log lazyLogger;
 
@@ -126,6 +159,79 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return this.errorHandler;
 	}
 
+	/**
+	 * Set whether to dispatch events through a bounded mailbox per listener,
+	 * drained on the {@linkplain #setTaskExecutor task executor}.
+	 * <p>Default is "false", invoking each listener through a separate task
+	 * on the task executor, if any, without any ordering guarantees. Switch
+	 * this flag to "true" to preserve the publication order of events per
+	 * listener, while processing events for different listeners in parallel,
+	 * and to apply the {@linkplain #setMailboxOverflowPolicy overflow policy}
+	 * when a listener falls behind.
+	 * <p>Only takes effect if a task executor has been specified. Mailboxes are
+	 * kept per listener instance, so this is meant for singleton listeners.
+	 * An {@linkplain #setErrorHandler error handler} is recommended; exceptions
+	 * thrown by listeners are logged otherwise.
+	 * @since 6.0
+	 * @see #setMailboxCapacity
+	 * @see #setMailboxOverflowPolicy
+	 * @see BatchingApplicationListener
+	 */
+	public void setMailboxDispatch(boolean mailboxDispatch) {
+		this.mailboxDispatch = mailboxDispatch;
+	}
+
+	/**
+	 * Set the maximum number of events queued per listener with
+	 * {@linkplain #setMailboxDispatch mailbox dispatch}.
+	 * <p>Default is 1024.
+	 * @since 6.0
+	 */
+	public void setMailboxCapacity(int mailboxCapacity) {
+		Assert.isTrue(mailboxCapacity > 0, "Mailbox capacity must be greater than 0");
+		this.mailboxCapacity = mailboxCapacity;
+	}
+
+	/**
+	 * Set the policy to apply when publishing an event to a listener with a
+	 * full mailbox, with {@linkplain #setMailboxDispatch mailbox dispatch}.
+	 * <p>Default is {@link MailboxOverflowPolicy#BLOCK}, blocking the publisher.
+	 * Note that a listener publishing events to itself may deadlock then.
+	 * @since 6.0
+	 */
+	public void setMailboxOverflowPolicy(MailboxOverflowPolicy mailboxOverflowPolicy) {
+		Assert.notNull(mailboxOverflowPolicy, "MailboxOverflowPolicy must not be null");
+		this.mailboxOverflowPolicy = mailboxOverflowPolicy;
+	}
+
+	/**
+	 * Return the statistics of all current listener mailboxes, with
+	 * {@linkplain #setMailboxDispatch mailbox dispatch}.
+	 * @since 6.0
+	 */
+	public Map<ApplicationListener<?>, ListenerMailboxStatistics> getMailboxStatistics() {
+		return Collections.unmodifiableMap(this.mailboxes);
+	}
+
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.mailboxes.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListeners(Predicate<ApplicationListener<?>> predicate) {
+		super.removeApplicationListeners(predicate);
+		this.mailboxes.keySet().removeIf(predicate);
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.mailboxes.clear();
+	}
+
 	@Override
 	public void multicastEvent(ApplicationEvent event) {
 		multicastEvent(event, resolveDefaultEventType(event));
@@ -135,6 +241,13 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
 		Executor executor = getTaskExecutor();
+		if (executor != null && this.mailboxDispatch) {
+			MailboxEntry entry = new MailboxEntry(event, System.nanoTime());
+			for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+				this.mailboxes.computeIfAbsent(listener, key -> new ListenerMailbox(key, executor)).enqueue(entry);
+			}
+			return;
+		}
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
 			if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
@@ -146,7 +259,10 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	}
 
 	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
-		return ResolvableType.forInstance(event);
+		if (event instanceof ResolvableTypeProvider) {
+			return ResolvableType.forInstance(event);
+		}
+		return this.eventTypeCache.computeIfAbsent(event.getClass(), ResolvableType::forClass);
 	}
 
 	/**
@@ -170,6 +286,37 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Invoke the given batching listener with the given events.
+	 * @param listener the BatchingApplicationListener to invoke
+	 * @param events the current events to propagate
+	 * @since 6.0
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	protected void invokeListener(BatchingApplicationListener<?> listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				((BatchingApplicationListener) listener).onApplicationEvents(events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			((BatchingApplicationListener) listener).onApplicationEvents(events);
+		}
+	}
+
+	private Log getLogger() {
+		Log loggerToUse = this.lazyLogger;
+		if (loggerToUse == null) {
+			loggerToUse = LogFactory.getLog(getClass());
+			this.lazyLogger = loggerToUse;
+		}
+		return loggerToUse;
+	}
+
 	@SuppressWarnings({"rawtypes", "unchecked"})
 	private void doInvokeListener(ApplicationListener listener, ApplicationEvent event) {
 		try {
@@ -182,11 +329,7 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 							matchesClassCastMessage(msg, ((PayloadApplicationEvent) event).getPayload().getClass()))) {
 				// Possibly a lambda-defined listener which we could not resolve the generic event type for
 				// -> let's suppress the exception.
-				Log loggerToUse = this.lazyLogger;
-				if (loggerToUse == null) {
-					loggerToUse = LogFactory.getLog(getClass());
-					this.lazyLogger = loggerToUse;
-				}
+				Log loggerToUse = getLogger();
 				if (loggerToUse.isTraceEnabled()) {
 					loggerToUse.trace("Non-matching event type for listener: " + listener, ex);
 				}
@@ -215,4 +358,197 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		return false;
 	}
 
+
+	/**
+	 * An event queued in listener mailboxes, shared by all listeners.
+	 */
+	private static final class MailboxEntry {
+
+		final ApplicationEvent event;
+
+		final long publishedAt;
+
+		MailboxEntry(ApplicationEvent event, long publishedAt) {
+			this.event = event;
+			this.publishedAt = publishedAt;
+		}
+	}
+
+
+	/**
+	 * Bounded mailbox of a single listener, drained by at most one task
+	 * on the task executor at any time.
+	 */
+	private final class ListenerMailbox implements Runnable, ListenerMailboxStatistics {
+
+		/** Maximum number of events to process per task, in fairness to other mailboxes. */
+		private static final int THROUGHPUT = 256;
+
+		private final ApplicationListener<?> listener;
+
+		private final Executor executor;
+
+		private final BlockingQueue<MailboxEntry> queue = new ArrayBlockingQueue<>(mailboxCapacity);
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private final List<MailboxEntry> drained = new ArrayList<>();
+
+		private final LongAdder droppedCount = new LongAdder();
+
+		// Only written by the draining task, which is guarded by the scheduled flag
+		private volatile long processedCount;
+
+		private volatile long totalLatency;
+
+		private volatile long maxLatency;
+
+		ListenerMailbox(ApplicationListener<?> listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		void enqueue(MailboxEntry entry) {
+			switch (mailboxOverflowPolicy) {
+				case BLOCK -> {
+					if (!this.queue.offer(entry)) {
+						schedule();
+						try {
+							this.queue.put(entry);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							this.droppedCount.increment();
+							return;
+						}
+					}
+				}
+				case DROP_NEWEST -> {
+					if (!this.queue.offer(entry)) {
+						this.droppedCount.increment();
+						return;
+					}
+				}
+				case DROP_OLDEST -> {
+					while (!this.queue.offer(entry)) {
+						if (this.queue.poll() != null) {
+							this.droppedCount.increment();
+						}
+					}
+				}
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					this.executor.execute(this);
+				}
+				catch (RuntimeException ex) {
+					this.scheduled.set(false);
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				int remaining = THROUGHPUT;
+				while (remaining > 0) {
+					int processed = processNext(remaining);
+					if (processed == 0) {
+						break;
+					}
+					remaining -= processed;
+				}
+			}
+			finally {
+				this.scheduled.set(false);
+				if (!this.queue.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+
+		private int processNext(int limit) {
+			if (this.listener instanceof BatchingApplicationListener<?> batchingListener) {
+				this.queue.drainTo(this.drained, Math.min(limit, Math.max(batchingListener.getMaxBatchSize(), 1)));
+				int size = this.drained.size();
+				if (size == 0) {
+					return 0;
+				}
+				List<ApplicationEvent> events = new ArrayList<>(size);
+				for (MailboxEntry entry : this.drained) {
+					events.add(entry.event);
+				}
+				try {
+					invokeListener(batchingListener, events);
+				}
+				catch (Throwable ex) {
+					getLogger().error("Unexpected error occurred in batching event listener " + this.listener, ex);
+				}
+				long now = System.nanoTime();
+				for (MailboxEntry entry : this.drained) {
+					recordLatency(now - entry.publishedAt);
+				}
+				this.drained.clear();
+				return size;
+			}
+			MailboxEntry entry = this.queue.poll();
+			if (entry == null) {
+				return 0;
+			}
+			try {
+				invokeListener(this.listener, entry.event);
+			}
+			catch (Throwable ex) {
+				getLogger().error("Unexpected error occurred in event listener " + this.listener, ex);
+			}
+			recordLatency(System.nanoTime() - entry.publishedAt);
+			return 1;
+		}
+
+		private void recordLatency(long latency) {
+			this.processedCount++;
+			this.totalLatency += latency;
+			if (latency > this.maxLatency) {
+				this.maxLatency = latency;
+			}
+		}
+
+		@Override
+		public int getQueuedCount() {
+			return this.queue.size();
+		}
+
+		@Override
+		public long getProcessedCount() {
+			return this.processedCount;
+		}
+
+		@Override
+		public long getDroppedCount() {
+			return this.droppedCount.sum();
+		}
+
+		@Override
+		public Duration getAverageLatency() {
+			long processedCount = this.processedCount;
+			return Duration.ofNanos(processedCount > 0 ? this.totalLatency / processedCount : 0);
+		}
+
+		@Override
+		public Duration getMaxLatency() {
+			return Duration.ofNanos(this.maxLatency);
+		}
+
+		@Override
+		public String toString() {
+			return "ListenerMailbox for " + this.listener + ": queued=" + getQueuedCount() +
+					", processed=" + this.processedCount + ", dropped=" + getDroppedCount();
+		}
+	}
+
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for timing information about the tasks executed by a
+ * {@link ThreadPoolTaskExecutor}, e.g. to record queue time and execution
+ * time histograms in a metrics system.
+ *
+ * <p>Callbacks are invoked on the thread that executed or submitted the task,
+ * respectively, and should therefore return quickly. Exceptions thrown from
+ * a callback are logged and otherwise ignored.
+ *
+ * @author agent
+ * @since 6.0
+ * @see ThreadPoolTaskExecutor#setTaskExecutionListener
+ */
+public interface TaskExecutionListener {
+
+	/**
+	 * Called after a task has been executed.
+	 * <p>The given task is the one handed to the underlying executor before
+	 * any {@link org.springframework.core.task.TaskDecorator} has been applied,
+	 * i.e. a {@link java.util.concurrent.FutureTask} for tasks submitted through
+	 * {@code submit} variants, which do not expose the failure of a task here.
+	 * @param task the executed task
+	 * @param queueTimeNanos the time between submission and start of execution,
+	 * in nanoseconds
+	 * @param executionTimeNanos the time the task took to execute, in nanoseconds
+	 * @param failure the exception thrown from the task, if any
+	 */
+	default void taskExecuted(Runnable task, long queueTimeNanos, long executionTimeNanos,
+			@Nullable Throwable failure) {
+	}
+
+	/**
+	 * Called when a task has been rejected by the executor, before the
+	 * executor's {@link java.util.concurrent.RejectedExecutionHandler}
+	 * is invoked.
+	 * @param task the rejected task
+	 */
+	default void taskRejected(Runnable task) {
+	}
+
+}
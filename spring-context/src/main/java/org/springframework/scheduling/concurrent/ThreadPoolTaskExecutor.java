@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
@@ -29,6 +31,9 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.TaskDecorator;
@@ -58,6 +63,13 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * {@link #setCorePoolSize "corePoolSize"} (see also the
  * {@link #setAllowCoreThreadTimeOut "allowCoreThreadTimeOut"} mode of scaling).
  *
+ * <p>Alternatively, {@link #setGrowBeforeQueueing "growBeforeQueueing"} starts
+ * additional threads up to the max pool size before queueing tasks, and a
+ * {@link #setTargetQueueLatency "targetQueueLatency"} lets the executor adapt
+ * its core pool size to the observed time that tasks wait in the queue. Timing
+ * information for individual tasks is available through a
+ * {@link #setTaskExecutionListener TaskExecutionListener}.
+ *
  * <p><b>NOTE:</b> This class implements Spring's
  * {@link org.springframework.core.task.TaskExecutor} interface as well as the
  * {@link java.util.concurrent.Executor} interface, with the former being the primary
@@ -82,6 +94,8 @@ import org.springframework.util.concurrent.ListenableFutureTask;
 public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor {
 
+	private static final long POOL_SIZE_ADJUSTMENT_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
 	private final Object poolSizeMonitor = new Object();
 
 	private int corePoolSize = 1;
@@ -94,12 +108,29 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 	private boolean allowCoreThreadTimeOut = false;
 
+	private boolean growBeforeQueueing = false;
+
+	private long targetQueueLatencyNanos = 0;
+
 	@Nullable
 	private TaskDecorator taskDecorator;
 
+	@Nullable
+	private TaskExecutionListener taskExecutionListener;
+
 	@Nullable
 	private ThreadPoolExecutor threadPoolExecutor;
 
+	private final LongAdder rejectedCount = new LongAdder();
+
+	// Number of tasks submitted but neither completed nor removed yet, for growBeforeQueueing
+	private final AtomicInteger submittedCount = new AtomicInteger();
+
+	// Moving average of queue latencies, updated without synchronization
+	private volatile long averageQueueLatencyNanos;
+
+	private final AtomicLong nextPoolSizeAdjustment = new AtomicLong(System.nanoTime());
+
 	// Runnable decorator to user-level FutureTask, if different
 	private final Map<Runnable, Object> decoratedTaskMap =
 			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
@@ -136,6 +167,10 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	public void setMaxPoolSize(int maxPoolSize) {
 		synchronized (this.poolSizeMonitor) {
 			if (this.threadPoolExecutor != null) {
+				if (this.threadPoolExecutor.getCorePoolSize() > maxPoolSize && this.corePoolSize <= maxPoolSize) {
+					// Core pool size grown through targetQueueLatency
+					this.threadPoolExecutor.setCorePoolSize(maxPoolSize);
+				}
 				this.threadPoolExecutor.setMaximumPoolSize(maxPoolSize);
 			}
 			this.maxPoolSize = maxPoolSize;
@@ -197,6 +232,40 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.allowCoreThreadTimeOut = allowCoreThreadTimeOut;
 	}
 
+	/**
+	 * Specify whether to start additional threads, up to the max pool size,
+	 * for tasks that cannot be executed by an idle thread right away, and
+	 * to only queue tasks once the max pool size has been reached.
+	 * <p>By default, a {@code ThreadPoolExecutor} only grows beyond its core
+	 * pool size once the queue is full. This setting only applies to a positive
+	 * {@link #setQueueCapacity "queueCapacity"}; threads beyond the core pool
+	 * size time out after the {@link #setKeepAliveSeconds "keepAliveSeconds"}.
+	 * <p>Default is "false".
+	 * @since 6.0
+	 */
+	public void setGrowBeforeQueueing(boolean growBeforeQueueing) {
+		this.growBeforeQueueing = growBeforeQueueing;
+	}
+
+	/**
+	 * Set a target for the time that tasks wait in the queue before they are
+	 * executed, in order to adapt the core pool size to the load at runtime:
+	 * while the observed queue latency exceeds the target, the core pool size
+	 * is increased up to the {@link #setMaxPoolSize "maxPoolSize"}; once it
+	 * drops well below the target, the core pool size is decreased step by
+	 * step down to the configured {@link #setCorePoolSize "corePoolSize"}.
+	 * <p>The queue latency is observed on task submission and completion, at
+	 * most ten times per second. Consider setting a max pool size at that point.
+	 * <p>Default is none, i.e. a core pool size that only changes when set.
+	 * @since 6.0
+	 * @see ThreadPoolExecutor#setCorePoolSize(int)
+	 */
+	public void setTargetQueueLatency(@Nullable Duration targetQueueLatency) {
+		Assert.isTrue(targetQueueLatency == null || !targetQueueLatency.isNegative(),
+				"Target queue latency must not be negative");
+		this.targetQueueLatencyNanos = (targetQueueLatency != null ? targetQueueLatency.toNanos() : 0);
+	}
+
 	/**
 	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
 	 * about to be executed.
@@ -218,6 +287,15 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		this.taskDecorator = taskDecorator;
 	}
 
+	/**
+	 * Specify a {@link TaskExecutionListener} to be notified of the queue time
+	 * and execution time of every task, and of rejected tasks.
+	 * @since 6.0
+	 */
+	public void setTaskExecutionListener(TaskExecutionListener taskExecutionListener) {
+		this.taskExecutionListener = taskExecutionListener;
+	}
+
 
 	/**
 	 * Note: This method exposes an {@link ExecutorService} to its base class
@@ -232,25 +310,12 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
 
 		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
-			executor = new ThreadPoolExecutor(
-					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
-					queue, threadFactory, rejectedExecutionHandler) {
-				@Override
-				public void execute(Runnable command) {
-					Runnable decorated = taskDecorator.decorate(command);
-					if (decorated != command) {
-						decoratedTaskMap.put(decorated, command);
-					}
-					super.execute(decorated);
-				}
-			};
+		if (this.taskDecorator != null || this.taskExecutionListener != null ||
+				this.targetQueueLatencyNanos > 0 || queue instanceof ThreadPreferringQueue) {
+			executor = new InstrumentedThreadPoolExecutor(queue, threadFactory, rejectedExecutionHandler);
 		}
 		else {
-			executor = new ThreadPoolExecutor(
-					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
-					queue, threadFactory, rejectedExecutionHandler);
-
+			executor = new RejectionCountingThreadPoolExecutor(queue, threadFactory, rejectedExecutionHandler);
 		}
 
 		if (this.allowCoreThreadTimeOut) {
@@ -264,7 +329,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	/**
 	 * Create the BlockingQueue to use for the ThreadPoolExecutor.
 	 * <p>A LinkedBlockingQueue instance will be created for a positive
-	 * capacity value; a SynchronousQueue else.
+	 * capacity value, which prefers starting threads over queueing tasks
+	 * in case of {@link #setGrowBeforeQueueing "growBeforeQueueing"};
+	 * a SynchronousQueue else.
 	 * @param queueCapacity the specified queue capacity
 	 * @return the BlockingQueue instance
 	 * @see java.util.concurrent.LinkedBlockingQueue
@@ -272,6 +339,9 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	 */
 	protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
 		if (queueCapacity > 0) {
+			if (this.growBeforeQueueing) {
+				return new ThreadPreferringQueue(queueCapacity);
+			}
 			return new LinkedBlockingQueue<>(queueCapacity);
 		}
 		else {
@@ -281,6 +351,11 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 
 	/**
 	 * Return the underlying ThreadPoolExecutor for native access.
+	 * <p>Its {@link ThreadPoolExecutor#getRejectedExecutionHandler()} returns the
+	 * configured {@link RejectedExecutionHandler}, which is internally wrapped for
+	 * counting rejected tasks. Replacing the handler on the ThreadPoolExecutor
+	 * stops rejected tasks from being counted and from being reported to the
+	 * {@link #setTaskExecutionListener TaskExecutionListener}.
 	 * @return the underlying ThreadPoolExecutor (never {@code null})
 	 * @throws IllegalStateException if the ThreadPoolTaskExecutor hasn't been initialized yet
 	 */
@@ -313,6 +388,38 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		return this.threadPoolExecutor.getActiveCount();
 	}
 
+	/**
+	 * Return the number of tasks waiting in the queue.
+	 * @since 6.0
+	 * @see java.util.concurrent.ThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		if (this.threadPoolExecutor == null) {
+			// Not initialized yet: assume empty queue.
+			return 0;
+		}
+		return this.threadPoolExecutor.getQueue().size();
+	}
+
+	/**
+	 * Return the number of tasks rejected so far, independent of the
+	 * {@link RejectedExecutionHandler} that handled them.
+	 * @since 6.0
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Return a moving average of the time that tasks have waited in the queue.
+	 * <p>Only measured with a {@link #setTaskExecutionListener TaskExecutionListener}
+	 * or a {@link #setTargetQueueLatency "targetQueueLatency"}; zero otherwise.
+	 * @since 6.0
+	 */
+	public Duration getQueueLatency() {
+		return Duration.ofNanos(this.averageQueueLatencyNanos);
+	}
+
 
 	@Override
 	public void execute(Runnable task) {
@@ -382,10 +489,246 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 	protected void cancelRemainingTask(Runnable task) {
 		super.cancelRemainingTask(task);
 		// Cancel associated user-level Future handle as well
-		Object original = this.decoratedTaskMap.get(task);
+		Object original = getOriginalTask(task);
 		if (original instanceof Future) {
 			((Future<?>) original).cancel(true);
 		}
 	}
 
+	@Nullable
+	private Object getOriginalTask(Runnable task) {
+		return (task instanceof TimedTask timedTask ? timedTask.original : this.decoratedTaskMap.get(task));
+	}
+
+	private void recordQueueLatency(long queueLatencyNanos) {
+		// Exponentially weighted with 1/8: concurrent updates may get lost, which is acceptable here
+		long average = this.averageQueueLatencyNanos;
+		this.averageQueueLatencyNanos = average + ((queueLatencyNanos - average) >> 3);
+	}
+
+	private void adjustPoolSizeIfNecessary(ThreadPoolExecutor executor) {
+		long now = System.nanoTime();
+		long nextAdjustment = this.nextPoolSizeAdjustment.get();
+		if (now - nextAdjustment < 0 ||
+				!this.nextPoolSizeAdjustment.compareAndSet(nextAdjustment, now + POOL_SIZE_ADJUSTMENT_INTERVAL)) {
+			return;
+		}
+		// Tasks stuck in the queue do not contribute to the average until they start
+		long queueLatency = this.averageQueueLatencyNanos;
+		if (executor.getQueue().peek() instanceof TimedTask oldestTask) {
+			queueLatency = Math.max(queueLatency, now - oldestTask.submitted);
+		}
+		synchronized (this.poolSizeMonitor) {
+			int currentCorePoolSize = executor.getCorePoolSize();
+			if (queueLatency > this.targetQueueLatencyNanos && currentCorePoolSize < this.maxPoolSize) {
+				int increment = Math.max(1, currentCorePoolSize / 4);
+				executor.setCorePoolSize((int) Math.min((long) currentCorePoolSize + increment, this.maxPoolSize));
+			}
+			else if (queueLatency < this.targetQueueLatencyNanos / 4 && currentCorePoolSize > this.corePoolSize) {
+				executor.setCorePoolSize(currentCorePoolSize - 1);
+			}
+		}
+	}
+
+
+	/**
+	 * ThreadPoolExecutor that counts rejected tasks, exposing the configured
+	 * RejectedExecutionHandler rather than the handler counting on its behalf.
+	 */
+	private class RejectionCountingThreadPoolExecutor extends ThreadPoolExecutor {
+
+		RejectionCountingThreadPoolExecutor(BlockingQueue<Runnable> queue, ThreadFactory threadFactory,
+				RejectedExecutionHandler rejectedExecutionHandler) {
+
+			super(corePoolSize, maxPoolSize, keepAliveSeconds, TimeUnit.SECONDS,
+					queue, threadFactory, new CountingRejectedExecutionHandler(rejectedExecutionHandler));
+		}
+
+		@Override
+		public RejectedExecutionHandler getRejectedExecutionHandler() {
+			RejectedExecutionHandler handler = super.getRejectedExecutionHandler();
+			return (handler instanceof CountingRejectedExecutionHandler countingHandler ?
+					countingHandler.delegate : handler);
+		}
+	}
+
+
+	/**
+	 * ThreadPoolExecutor that applies the TaskDecorator, measures queue time
+	 * and execution time of tasks, and keeps track of submitted tasks.
+	 */
+	private class InstrumentedThreadPoolExecutor extends RejectionCountingThreadPoolExecutor {
+
+		InstrumentedThreadPoolExecutor(BlockingQueue<Runnable> queue, ThreadFactory threadFactory,
+				RejectedExecutionHandler rejectedExecutionHandler) {
+
+			super(queue, threadFactory, rejectedExecutionHandler);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			Runnable task = command;
+			if (taskDecorator != null) {
+				task = taskDecorator.decorate(task);
+			}
+			if (taskExecutionListener != null || targetQueueLatencyNanos > 0) {
+				task = new TimedTask(task, command);
+			}
+			else if (task != command) {
+				decoratedTaskMap.put(task, command);
+			}
+			submittedCount.incrementAndGet();
+			super.execute(task);
+			if (targetQueueLatencyNanos > 0) {
+				adjustPoolSizeIfNecessary(this);
+			}
+		}
+
+		@Override
+		protected void afterExecute(Runnable task, Throwable ex) {
+			submittedCount.decrementAndGet();
+			if (targetQueueLatencyNanos > 0) {
+				adjustPoolSizeIfNecessary(this);
+			}
+		}
+
+		@Override
+		public boolean remove(Runnable task) {
+			boolean removed = super.remove(task);
+			if (removed) {
+				submittedCount.decrementAndGet();
+			}
+			return removed;
+		}
+
+		@Override
+		public void purge() {
+			// Remove cancelled tasks through remove(Runnable), also if wrapped by this executor
+			for (Runnable task : getQueue()) {
+				Object original = (task instanceof Future ? task : getOriginalTask(task));
+				if (original instanceof Future<?> future && future.isCancelled()) {
+					remove(task);
+				}
+			}
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			List<Runnable> tasks = super.shutdownNow();
+			submittedCount.addAndGet(-tasks.size());
+			return tasks;
+		}
+	}
+
+
+	/**
+	 * Runnable that measures queue time and execution time of a task.
+	 */
+	private final class TimedTask implements Runnable {
+
+		private final Runnable task;
+
+		final Runnable original;
+
+		final long submitted = System.nanoTime();
+
+		TimedTask(Runnable task, Runnable original) {
+			this.task = task;
+			this.original = original;
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			long queueTime = start - this.submitted;
+			recordQueueLatency(queueTime);
+			Throwable failure = null;
+			try {
+				this.task.run();
+			}
+			catch (Throwable ex) {
+				failure = ex;
+				throw ex;
+			}
+			finally {
+				TaskExecutionListener listener = taskExecutionListener;
+				if (listener != null) {
+					try {
+						listener.taskExecuted(this.original, queueTime, System.nanoTime() - start, failure);
+					}
+					catch (Throwable ex) {
+						logger.warn("TaskExecutionListener failed for task: " + this.original, ex);
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * LinkedBlockingQueue that rejects offered tasks while there are fewer
+	 * threads than submitted tasks and the pool can still grow, letting the
+	 * ThreadPoolExecutor start a new thread instead.
+	 */
+	private class ThreadPreferringQueue extends LinkedBlockingQueue<Runnable> {
+
+		ThreadPreferringQueue(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public boolean offer(Runnable task) {
+			ThreadPoolExecutor executor = threadPoolExecutor;
+			if (executor != null) {
+				int poolSize = executor.getPoolSize();
+				if (submittedCount.get() > poolSize && poolSize < executor.getMaximumPoolSize()) {
+					return false;
+				}
+			}
+			return super.offer(task);
+		}
+
+		boolean force(Runnable task) {
+			return super.offer(task);
+		}
+	}
+
+
+	/**
+	 * RejectedExecutionHandler that counts rejected tasks, and queues tasks
+	 * rejected by a {@link ThreadPreferringQueue} while the max pool size
+	 * has been reached concurrently.
+	 */
+	private class CountingRejectedExecutionHandler implements RejectedExecutionHandler {
+
+		final RejectedExecutionHandler delegate;
+
+		CountingRejectedExecutionHandler(RejectedExecutionHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			if (executor.getQueue() instanceof ThreadPreferringQueue queue && !executor.isShutdown() &&
+					queue.force(task)) {
+				return;
+			}
+			if (executor instanceof InstrumentedThreadPoolExecutor) {
+				submittedCount.decrementAndGet();
+			}
+			rejectedCount.increment();
+			TaskExecutionListener listener = taskExecutionListener;
+			if (listener != null) {
+				Object original = getOriginalTask(task);
+				try {
+					listener.taskRejected(original instanceof Runnable runnable ? runnable : task);
+				}
+				catch (Throwable ex) {
+					logger.warn("TaskExecutionListener failed for rejected task: " + task, ex);
+				}
+			}
+			this.delegate.rejectedExecution(task, executor);
+		}
+	}
+
 }
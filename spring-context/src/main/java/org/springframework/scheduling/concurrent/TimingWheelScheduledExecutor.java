@@ -0,0 +1,542 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ScheduledExecutorService} that keeps delayed tasks in a hierarchical
+ * timing wheel and executes due tasks on a fixed-size worker pool.
+ *
+ * <p>Each wheel consists of a fixed number of buckets covering one tick each;
+ * tasks beyond the range of a wheel go to an overflow wheel whose ticks span
+ * the range of the wheel below, and are moved down as time advances. Adding
+ * and cancelling a task is therefore O(1), apart from buckets becoming non-empty,
+ * which are kept in a {@link DelayQueue} for a dedicated ticker thread to wait on.
+ * Tasks run up to one tick late but never early; cancelled tasks are removed
+ * immediately.
+ *
+ * <p>Delayed tasks that have not been started on shutdown are cancelled.
+ *
+ * @author agent
+ * @since 6.0
+ * @see TimingWheelTaskScheduler
+ */
+class TimingWheelScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+	// Leaves headroom for the elapsed time since the origin
+	private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+	private final long tickMillis;
+
+	private final int wheelSize;
+
+	private final long originNanos = System.nanoTime();
+
+	private final ThreadPoolExecutor workerExecutor;
+
+	private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+
+	// Adding tasks with the read lock, advancing the wheels with the write lock
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final TimingWheel timingWheel;
+
+	private final Thread tickerThread;
+
+	private volatile boolean shutdown;
+
+
+	/**
+	 * Create a new TimingWheelScheduledExecutor.
+	 * @param tickMillis the duration of a tick of the innermost wheel, in milliseconds
+	 * @param wheelSize the number of buckets per wheel
+	 * @param poolSize the number of worker threads
+	 * @param threadFactory the factory for the ticker thread and the worker threads
+	 * @param rejectedExecutionHandler the handler for tasks rejected by the worker pool
+	 */
+	TimingWheelScheduledExecutor(long tickMillis, int wheelSize, int poolSize,
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		Assert.isTrue(tickMillis > 0, "Tick duration must be positive");
+		Assert.isTrue(wheelSize > 0, "Wheel size must be greater than 0");
+		this.tickMillis = tickMillis;
+		this.wheelSize = wheelSize;
+		this.workerExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler);
+		this.timingWheel = new TimingWheel(tickMillis, 0);
+		this.tickerThread = threadFactory.newThread(this::tick);
+		this.tickerThread.start();
+	}
+
+
+	/**
+	 * Return the underlying pool of worker threads.
+	 */
+	ThreadPoolExecutor getWorkerExecutor() {
+		return this.workerExecutor;
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return delayedExecute(new ScheduledTask<>(command, null, triggerTime(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return delayedExecute(new ScheduledTask<>(callable, triggerTime(delay, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		Assert.isTrue(period > 0, "Period must be positive");
+		return delayedExecute(new ScheduledTask<>(command, null, triggerTime(initialDelay, unit),
+				Math.max(unit.toMillis(period), 1)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		Assert.isTrue(delay > 0, "Delay must be positive");
+		return delayedExecute(new ScheduledTask<>(command, null, triggerTime(initialDelay, unit),
+				-Math.max(unit.toMillis(delay), 1)));
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		this.workerExecutor.execute(command);
+	}
+
+	@Override
+	public void shutdown() {
+		this.shutdown = true;
+		this.tickerThread.interrupt();
+		for (ScheduledTask<?> task : drainDelayedTasks()) {
+			task.cancel(false);
+		}
+		this.workerExecutor.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		this.shutdown = true;
+		this.tickerThread.interrupt();
+		List<Runnable> remainingTasks = new ArrayList<>(drainDelayedTasks());
+		remainingTasks.addAll(this.workerExecutor.shutdownNow());
+		return remainingTasks;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return (this.workerExecutor.isTerminated() && !this.tickerThread.isAlive());
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (!this.workerExecutor.awaitTermination(timeout, unit)) {
+			return false;
+		}
+		long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		if (remainingMillis > 0) {
+			this.tickerThread.join(remainingMillis);
+		}
+		return !this.tickerThread.isAlive();
+	}
+
+	/**
+	 * Return the number of delayed tasks waiting in the timing wheel.
+	 */
+	long getDelayedTaskCount() {
+		return this.timingWheel.taskCount.get();
+	}
+
+
+	private long currentTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.originNanos);
+	}
+
+	private long triggerTime(long delay, TimeUnit unit) {
+		long delayNanos = Math.min(unit.toNanos(Math.max(delay, 0)), MAX_DELAY_NANOS);
+		long triggerNanos = System.nanoTime() - this.originNanos + delayNanos;
+		// Round up to the next millisecond, never down to a time before the due time
+		return (triggerNanos + 999_999) / 1_000_000;
+	}
+
+	private <T extends ScheduledTask<?>> T delayedExecute(T task) {
+		if (this.shutdown) {
+			throw new RejectedExecutionException("Executor has been shut down");
+		}
+		Lock readLock = this.lock.readLock();
+		readLock.lock();
+		try {
+			addOrRun(task.entry);
+		}
+		finally {
+			readLock.unlock();
+		}
+		if (this.shutdown) {
+			// Shut down concurrently, possibly after the delayed tasks have been drained
+			task.cancel(false);
+		}
+		return task;
+	}
+
+	private void addOrRun(Entry entry) {
+		if (!this.timingWheel.add(entry) && !entry.task.isCancelled()) {
+			this.workerExecutor.execute(entry.task);
+		}
+	}
+
+	private void tick() {
+		while (!this.shutdown) {
+			Bucket bucket;
+			try {
+				bucket = this.delayQueue.take();
+			}
+			catch (InterruptedException ex) {
+				continue;
+			}
+			Lock writeLock = this.lock.writeLock();
+			writeLock.lock();
+			try {
+				while (bucket != null && !this.shutdown) {
+					this.timingWheel.advanceClock(bucket.getExpiration());
+					bucket.flush(this::reinsert);
+					bucket = this.delayQueue.poll();
+				}
+			}
+			finally {
+				writeLock.unlock();
+			}
+		}
+	}
+
+	private void reinsert(Entry entry) {
+		try {
+			addOrRun(entry);
+		}
+		catch (RejectedExecutionException ex) {
+			// Worker pool shut down concurrently
+			entry.task.cancel(false);
+		}
+	}
+
+	private List<ScheduledTask<?>> drainDelayedTasks() {
+		List<ScheduledTask<?>> tasks = new ArrayList<>();
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			// Walk the wheels rather than the delay queue, which does not contain
+			// a bucket that the ticker thread has taken but not flushed yet
+			for (TimingWheel wheel = this.timingWheel; wheel != null; wheel = wheel.overflowWheel) {
+				for (Bucket bucket : wheel.buckets) {
+					bucket.flush(entry -> tasks.add(entry.task));
+				}
+			}
+			this.delayQueue.clear();
+		}
+		finally {
+			writeLock.unlock();
+		}
+		return tasks;
+	}
+
+
+	/**
+	 * A wheel of buckets with a fixed tick duration, and a lazily created
+	 * overflow wheel for tasks beyond its range.
+	 */
+	private final class TimingWheel {
+
+		private final long tickMillis;
+
+		private final long interval;
+
+		private final Bucket[] buckets;
+
+		private final AtomicLong taskCount;
+
+		private volatile long currentTime;
+
+		@Nullable
+		private volatile TimingWheel overflowWheel;
+
+		TimingWheel(long tickMillis, long startMillis) {
+			this(tickMillis, startMillis, new AtomicLong());
+		}
+
+		private TimingWheel(long tickMillis, long startMillis, AtomicLong taskCount) {
+			this.tickMillis = tickMillis;
+			this.interval = tickMillis * wheelSize;
+			this.buckets = new Bucket[wheelSize];
+			for (int i = 0; i < wheelSize; i++) {
+				this.buckets[i] = new Bucket(taskCount);
+			}
+			this.taskCount = taskCount;
+			this.currentTime = startMillis - (startMillis % tickMillis);
+		}
+
+		/**
+		 * Add the given entry to this wheel or an overflow wheel.
+		 * @return {@code false} if the task is due or cancelled
+		 */
+		boolean add(Entry entry) {
+			long expiration = entry.task.time;
+			if (entry.task.isCancelled() || expiration <= this.currentTime) {
+				return false;
+			}
+			if (expiration < this.currentTime + this.interval) {
+				// Buckets expire at the start of their tick; a task within the current
+				// tick goes to the next one, so that no task runs before its due time
+				long virtualId = Math.max(expiration / this.tickMillis, this.currentTime / this.tickMillis + 1);
+				Bucket bucket = this.buckets[(int) (virtualId % wheelSize)];
+				bucket.add(entry);
+				if (bucket.setExpiration(virtualId * this.tickMillis)) {
+					// Bucket has been flushed before or is new: (re-)register with the ticker
+					delayQueue.offer(bucket);
+				}
+				return true;
+			}
+			return obtainOverflowWheel().add(entry);
+		}
+
+		void advanceClock(long timeMillis) {
+			if (timeMillis >= this.currentTime + this.tickMillis) {
+				this.currentTime = timeMillis - (timeMillis % this.tickMillis);
+				TimingWheel overflowWheel = this.overflowWheel;
+				if (overflowWheel != null) {
+					overflowWheel.advanceClock(this.currentTime);
+				}
+			}
+		}
+
+		private TimingWheel obtainOverflowWheel() {
+			TimingWheel overflowWheel = this.overflowWheel;
+			if (overflowWheel == null) {
+				synchronized (this) {
+					overflowWheel = this.overflowWheel;
+					if (overflowWheel == null) {
+						overflowWheel = new TimingWheel(this.interval, this.currentTime, this.taskCount);
+						this.overflowWheel = overflowWheel;
+					}
+				}
+			}
+			return overflowWheel;
+		}
+	}
+
+
+	/**
+	 * A doubly linked list of entries that expire within the same tick.
+	 */
+	private final class Bucket implements Delayed {
+
+		private final Entry root = new Entry(null);
+
+		private final AtomicLong expiration = new AtomicLong(-1);
+
+		private final AtomicLong taskCount;
+
+		Bucket(AtomicLong taskCount) {
+			this.taskCount = taskCount;
+			this.root.next = this.root;
+			this.root.prev = this.root;
+		}
+
+		long getExpiration() {
+			return this.expiration.get();
+		}
+
+		boolean setExpiration(long expiration) {
+			return (this.expiration.getAndSet(expiration) != expiration);
+		}
+
+		synchronized void add(Entry entry) {
+			Entry tail = this.root.prev;
+			entry.next = this.root;
+			entry.prev = tail;
+			entry.bucket = this;
+			tail.next = entry;
+			this.root.prev = entry;
+			this.taskCount.incrementAndGet();
+		}
+
+		synchronized void remove(Entry entry) {
+			if (entry.bucket == this) {
+				entry.next.prev = entry.prev;
+				entry.prev.next = entry.next;
+				entry.next = null;
+				entry.prev = null;
+				entry.bucket = null;
+				this.taskCount.decrementAndGet();
+			}
+		}
+
+		synchronized void flush(Consumer<Entry> action) {
+			Entry head = this.root.next;
+			while (head != this.root) {
+				remove(head);
+				action.accept(head);
+				head = this.root.next;
+			}
+			this.expiration.set(-1);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(Math.max(getExpiration() - currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(getExpiration(), ((Bucket) other).getExpiration());
+		}
+	}
+
+
+	/**
+	 * The position of a task within a bucket.
+	 */
+	private static final class Entry {
+
+		@Nullable
+		final ScheduledTask<?> task;
+
+		@Nullable
+		volatile Bucket bucket;
+
+		@Nullable
+		Entry next;
+
+		@Nullable
+		Entry prev;
+
+		Entry(@Nullable ScheduledTask<?> task) {
+			this.task = task;
+		}
+
+		void remove() {
+			Bucket bucket = this.bucket;
+			while (bucket != null) {
+				bucket.remove(this);
+				bucket = this.bucket;
+			}
+		}
+	}
+
+
+	/**
+	 * A delayed or periodic task.
+	 */
+	private final class ScheduledTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+		final Entry entry = new Entry(this);
+
+		volatile long time;
+
+		// Positive for fixed-rate, negative for fixed-delay execution, 0 for a one-shot task
+		private final long period;
+
+		ScheduledTask(Runnable runnable, @Nullable V result, long time, long period) {
+			super(runnable, result);
+			this.time = time;
+			this.period = period;
+		}
+
+		ScheduledTask(Callable<V> callable, long time) {
+			super(callable);
+			this.time = time;
+			this.period = 0;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return (this.period != 0);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.time - currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) {
+				return 0;
+			}
+			return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+		}
+
+		@Override
+		public void run() {
+			if (!isPeriodic()) {
+				super.run();
+			}
+			else if (runAndReset()) {
+				this.time = (this.period > 0 ? this.time + this.period : triggerTime(-this.period, TimeUnit.MILLISECONDS));
+				if (shutdown) {
+					cancel(false);
+				}
+				else {
+					try {
+						delayedExecute(this);
+					}
+					catch (RejectedExecutionException ex) {
+						cancel(false);
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				this.entry.remove();
+			}
+			return cancelled;
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Variant of {@link ThreadPoolTaskScheduler} that keeps scheduled tasks in a
+ * hierarchical timing wheel instead of the heap of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}, for large numbers
+ * of pending tasks such as request timeouts and heartbeats: scheduling and
+ * cancelling a task does not depend on the number of pending tasks, and
+ * cancelled tasks are removed right away.
+ *
+ * <p>Supports the same triggers, e.g. a
+ * {@link org.springframework.scheduling.support.CronTrigger} or
+ * {@link org.springframework.scheduling.support.PeriodicTrigger}, and can be used
+ * wherever a {@link org.springframework.scheduling.TaskScheduler} is expected.
+ * In exchange, tasks are executed with the precision of the
+ * {@linkplain #setTickDuration tick duration}, i.e. up to one tick late.
+ *
+ * <p>The wheel is advanced by a dedicated ticker thread, which hands due tasks
+ * over to a fixed-size pool of worker threads. Delayed and periodic tasks that
+ * have not been started are cancelled on shutdown; the
+ * {@code ScheduledThreadPoolExecutor} specific policies do not apply.
+ *
+ * @author agent
+ * @since 6.0
+ * @see #setTickDuration
+ * @see #setWheelSize
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ThreadPoolTaskScheduler {
+
+	private long tickMillis = 1;
+
+	private int wheelSize = 512;
+
+	@Nullable
+	private TimingWheelScheduledExecutor timingWheelExecutor;
+
+
+	/**
+	 * Set the duration of a tick of the timing wheel, i.e. the precision
+	 * in which tasks are executed.
+	 * <p>Default is 1 millisecond.
+	 */
+	public void setTickDuration(Duration tickDuration) {
+		Assert.isTrue(tickDuration.toMillis() > 0, "Tick duration must be at least 1 millisecond");
+		this.tickMillis = tickDuration.toMillis();
+	}
+
+	/**
+	 * Set the number of ticks per wheel. Tasks beyond the range of a wheel are
+	 * kept in an overflow wheel with a tick duration of the range of the wheel
+	 * below, so that a larger wheel size means less cascading of tasks between
+	 * wheels, in exchange for more memory per wheel.
+	 * <p>Default is 512.
+	 */
+	public void setWheelSize(int wheelSize) {
+		Assert.isTrue(wheelSize > 0, "Wheel size must be greater than 0");
+		this.wheelSize = wheelSize;
+	}
+
+	@Override
+	public void setPoolSize(int poolSize) {
+		super.setPoolSize(poolSize);
+		if (this.timingWheelExecutor != null) {
+			ThreadPoolExecutor workerExecutor = this.timingWheelExecutor.getWorkerExecutor();
+			if (poolSize > workerExecutor.getMaximumPoolSize()) {
+				workerExecutor.setMaximumPoolSize(poolSize);
+				workerExecutor.setCorePoolSize(poolSize);
+			}
+			else {
+				workerExecutor.setCorePoolSize(poolSize);
+				workerExecutor.setMaximumPoolSize(poolSize);
+			}
+		}
+	}
+
+
+	/**
+	 * Creates a {@code ScheduledExecutorService} based on a timing wheel.
+	 */
+	@Override
+	protected ScheduledExecutorService createExecutor(
+			int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.timingWheelExecutor = new TimingWheelScheduledExecutor(
+				this.tickMillis, this.wheelSize, poolSize, threadFactory, rejectedExecutionHandler);
+		return this.timingWheelExecutor;
+	}
+
+	/**
+	 * Return the current number of worker threads.
+	 */
+	@Override
+	public int getPoolSize() {
+		if (this.timingWheelExecutor == null) {
+			// Not initialized yet: assume initial pool size.
+			return super.getPoolSize();
+		}
+		return this.timingWheelExecutor.getWorkerExecutor().getPoolSize();
+	}
+
+	/**
+	 * Return the number of currently active worker threads.
+	 */
+	@Override
+	public int getActiveCount() {
+		if (this.timingWheelExecutor == null) {
+			// Not initialized yet: assume no active threads.
+			return 0;
+		}
+		return this.timingWheelExecutor.getWorkerExecutor().getActiveCount();
+	}
+
+	/**
+	 * Return the number of scheduled tasks that are waiting for their
+	 * execution time.
+	 */
+	public long getScheduledTaskCount() {
+		return (this.timingWheelExecutor != null ? this.timingWheelExecutor.getDelayedTaskCount() : 0);
+	}
+
+}
@@ -205,6 +205,14 @@ final class BitsCronField extends CronField {
 		}
 	}
 
+	/**
+	 * Return the bits of this field, with bit {@code n} set if value {@code n}
+	 * is enabled.
+	 */
+	long getBits() {
+		return this.bits;
+	}
+
 	boolean getBit(int index) {
 		return (this.bits & (1L << index)) != 0;
 	}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Precomputed representation of a {@link CronExpression} that consists of
+ * {@link BitsCronField} instances only, i.e. without {@code L}, {@code W} or
+ * {@code #} characters.
+ *
+ * <p>Rather than adjusting a {@link Temporal} field by field until it no
+ * longer changes, the next match is determined on the plain year, month, day,
+ * hour, minute and second values, jumping directly to the next set bit of
+ * each field and carrying over into the next larger unit when there is none.
+ * The days of the month that match both the day-of-month and day-of-week
+ * fields are determined with a single mask, precomputed for each day of the
+ * week that a month can start on.
+ *
+ * <p>Supports {@link LocalDateTime}, {@link OffsetDateTime} and
+ * {@link ZonedDateTime}; for the latter, only as long as the next match is
+ * not on the day of a zone offset transition, since the date-time arithmetic
+ * of {@link CronField} skips or repeats local times around such a transition.
+ *
+ * @author agent
+ * @since 6.0
+ */
+final class BitsCronSchedule {
+
+	private static final long MASK = 0xFFFFFFFFFFFFFFFFL;
+
+	// any combination of day of month, month and day of week recurs within the
+	// 400-year cycle of the Gregorian calendar
+	private static final int MAX_YEARS = 400;
+
+	private static final int[] MONTH_LENGTHS = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+	private static final int[] MONTH_START_DAYS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	private final long months;
+
+	// matching days of the month, indexed by the day of the week of the first day of
+	// the month (1 for Monday to 7 for Sunday)
+	private final long[] daysOfMonth = new long[8];
+
+
+	private BitsCronSchedule(BitsCronField seconds, BitsCronField minutes, BitsCronField hours,
+			BitsCronField daysOfMonth, BitsCronField months, BitsCronField daysOfWeek) {
+
+		this.seconds = seconds.getBits();
+		this.minutes = minutes.getBits();
+		this.hours = hours.getBits();
+		this.months = months.getBits();
+		for (int firstDayOfWeek = 1; firstDayOfWeek <= 7; firstDayOfWeek++) {
+			long days = 0;
+			for (int day = 1; day <= 31; day++) {
+				int dayOfWeek = (firstDayOfWeek + day - 2) % 7 + 1;
+				if (daysOfWeek.getBit(dayOfWeek)) {
+					days |= 1L << day;
+				}
+			}
+			this.daysOfMonth[firstDayOfWeek] = days & daysOfMonth.getBits();
+		}
+	}
+
+	/**
+	 * Create a {@code BitsCronSchedule} for the given fields, if all of them
+	 * are {@link BitsCronField} instances.
+	 * @return the schedule, or {@code null} if not applicable
+	 */
+	@Nullable
+	static BitsCronSchedule of(CronField seconds, CronField minutes, CronField hours,
+			CronField daysOfMonth, CronField months, CronField daysOfWeek) {
+
+		if (seconds instanceof BitsCronField bitsSeconds && minutes instanceof BitsCronField bitsMinutes &&
+				hours instanceof BitsCronField bitsHours && daysOfMonth instanceof BitsCronField bitsDaysOfMonth &&
+				months instanceof BitsCronField bitsMonths && daysOfWeek instanceof BitsCronField bitsDaysOfWeek) {
+			return new BitsCronSchedule(bitsSeconds, bitsMinutes, bitsHours, bitsDaysOfMonth, bitsMonths, bitsDaysOfWeek);
+		}
+		return null;
+	}
+
+
+	/**
+	 * Calculate the next temporal after the given one that matches this schedule.
+	 * @param temporal the seed value
+	 * @return the next match, or {@code null} if the given temporal is not
+	 * supported, if the next match is on the day of a zone offset transition,
+	 * or if there is no match at all
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	<T extends Temporal & Comparable<? super T>> T next(T temporal) {
+		if (temporal instanceof LocalDateTime dateTime) {
+			return (T) next(dateTime);
+		}
+		else if (temporal instanceof ZonedDateTime dateTime) {
+			return (T) next(dateTime);
+		}
+		else if (temporal instanceof OffsetDateTime dateTime) {
+			LocalDateTime next = next(dateTime.toLocalDateTime());
+			return (next != null ? (T) OffsetDateTime.of(next, dateTime.getOffset()) : null);
+		}
+		return null;
+	}
+
+	@Nullable
+	private ZonedDateTime next(ZonedDateTime dateTime) {
+		LocalDateTime next = next(dateTime.toLocalDateTime());
+		if (next == null) {
+			return null;
+		}
+		ZoneOffset offset = dateTime.getOffset();
+		ZoneRules rules = dateTime.getZone().getRules();
+		if (!rules.isFixedOffset()) {
+			LocalDateTime start = dateTime.toLocalDateTime();
+			LocalDate nextDate = next.toLocalDate();
+			ZoneOffsetTransition transition = rules.nextTransition(dateTime.toInstant());
+			while (transition != null && next.toEpochSecond(offset) >= transition.toEpochSecond()) {
+				// local times from the start up to the next match have been searched, so
+				// skipped or repeated local times only matter if the start falls within
+				// them, or if the next match is on the day of the transition
+				LocalDateTime before = transition.getDateTimeBefore();
+				LocalDateTime after = transition.getDateTimeAfter();
+				if (!start.isBefore(before) || !start.isBefore(after) ||
+						!nextDate.isAfter(before.toLocalDate()) || !nextDate.isAfter(after.toLocalDate())) {
+					return null;
+				}
+				offset = transition.getOffsetAfter();
+				transition = rules.nextTransition(transition.getInstant());
+			}
+		}
+		return ZonedDateTime.ofLocal(next, dateTime.getZone(), offset);
+	}
+
+	@Nullable
+	private LocalDateTime next(LocalDateTime dateTime) {
+		int year = dateTime.getYear();
+		int month = dateTime.getMonthValue();
+		int day = dateTime.getDayOfMonth();
+		int hour = dateTime.getHour();
+		int minute = dateTime.getMinute();
+		// matches are always at 0 nanos, so the next one is at least one second later
+		int second = dateTime.getSecond() + 1;
+		int maxYear = year + MAX_YEARS;
+
+		// all values are at most 60, so shifting a 64-bit mask by them is safe
+		while (year <= maxYear) {
+			int nextMonth = nextSetBit(this.months, month);
+			if (nextMonth == -1) {
+				year++;
+				month = 1;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+			int nextDay = nextDay(year, month, day);
+			if (nextDay == -1) {
+				month++;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+			int nextHour = nextSetBit(this.hours, hour);
+			if (nextHour == -1) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+			int nextMinute = nextSetBit(this.minutes, minute);
+			if (nextMinute == -1) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+			int nextSecond = nextSetBit(this.seconds, second);
+			if (nextSecond == -1) {
+				minute++;
+				second = 0;
+				continue;
+			}
+			return LocalDateTime.of(year, month, day, hour, minute, nextSecond);
+		}
+		return null;
+	}
+
+	private int nextDay(int year, int month, int fromDay) {
+		int length = lengthOfMonth(year, month);
+		if (fromDay > length) {
+			return -1;
+		}
+		long days = this.daysOfMonth[firstDayOfWeek(year, month)] & (MASK << fromDay) & (MASK >>> (63 - length));
+		return (days != 0 ? Long.numberOfTrailingZeros(days) : -1);
+	}
+
+
+	private static int nextSetBit(long bits, int fromIndex) {
+		long result = bits & (MASK << fromIndex);
+		return (result != 0 ? Long.numberOfTrailingZeros(result) : -1);
+	}
+
+	private static boolean isLeapYear(int year) {
+		return ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0));
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		return (month == 2 && isLeapYear(year) ? 29 : MONTH_LENGTHS[month - 1]);
+	}
+
+	/**
+	 * Return the day of the week of the first day of the given month, from
+	 * 1 for Monday to 7 for Sunday.
+	 */
+	private static int firstDayOfWeek(int year, int month) {
+		// Sakamoto's method, which yields 0 for Sunday
+		int y = (month < 3 ? year - 1 : year);
+		int dayOfWeek = Math.floorMod(y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) +
+				MONTH_START_DAYS[month - 1] + 1, 7);
+		return (dayOfWeek == 0 ? 7 : dayOfWeek);
+	}
+
+}
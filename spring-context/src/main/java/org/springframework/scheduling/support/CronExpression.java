@@ -18,7 +18,9 @@ package org.springframework.scheduling.support;
 
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -54,6 +56,9 @@ public final class CronExpression {
 
 	private final CronField[] fields;
 
+	@Nullable
+	private final BitsCronSchedule schedule;
+
 	private final String expression;
 
 
@@ -69,6 +74,7 @@ public final class CronExpression {
 		// reverse order, to make big changes first
 		// to make sure we end up at 0 nanos, we add an extra field
 		this.fields = new CronField[]{daysOfWeek, months, daysOfMonth, hours, minutes, seconds, CronField.zeroNanos()};
+		this.schedule = BitsCronSchedule.of(seconds, minutes, hours, daysOfMonth, months, daysOfWeek);
 		this.expression = expression;
 	}
 
@@ -242,9 +248,40 @@ public final class CronExpression {
 	 */
 	@Nullable
 	public <T extends Temporal & Comparable<? super T>> T next(T temporal) {
+		if (this.schedule != null) {
+			T result = this.schedule.next(temporal);
+			if (result != null) {
+				return result;
+			}
+		}
 		return nextOrSame(ChronoUnit.NANOS.addTo(temporal, 1));
 	}
 
+	/**
+	 * Calculate the next {@code count} {@link Temporal temporals} that match
+	 * this expression, in order.
+	 * @param temporal the seed value
+	 * @param count the number of matches to calculate
+	 * @param <T> the type of temporal
+	 * @return the next temporals that match this expression; fewer than
+	 * {@code count} if no further temporal can be found
+	 * @since 6.0
+	 * @see #next(Temporal)
+	 */
+	public <T extends Temporal & Comparable<? super T>> List<T> next(T temporal, int count) {
+		Assert.isTrue(count >= 0, "Count must not be negative");
+		List<T> result = new ArrayList<>(Math.min(count, 16));
+		T current = temporal;
+		while (result.size() < count) {
+			current = next(current);
+			if (current == null) {
+				break;
+			}
+			result.add(current);
+		}
+		return result;
+	}
+
 
 	@Nullable
 	private <T extends Temporal & Comparable<? super T>> T nextOrSame(T temporal) {
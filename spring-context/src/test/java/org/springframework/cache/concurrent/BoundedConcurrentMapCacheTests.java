@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.testfixture.cache.AbstractValueAdaptingCacheTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BoundedConcurrentMapCache}.
+ *
+ * @author agent
+ */
+class BoundedConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<BoundedConcurrentMapCache> {
+
+	private BoundedConcurrentMapCache cache;
+
+	private BoundedConcurrentMapCache cacheNoNull;
+
+
+	@BeforeEach
+	void setup() {
+		this.cache = new BoundedConcurrentMapCache(CACHE_NAME, 100);
+		this.cacheNoNull = new BoundedConcurrentMapCache(CACHE_NAME_NO_NULL, 100, false);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache(boolean allowNull) {
+		return (allowNull ? this.cache : this.cacheNoNull);
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache;
+	}
+
+
+	@Test
+	void evictsLeastRecentlyUsedEntries() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10);
+		for (int i = 0; i < 25; i++) {
+			cache.put(i, i);
+		}
+
+		assertThat(cache.getEstimatedSize()).isEqualTo(10);
+		assertThat(cache.getWeightedSize()).isEqualTo(10);
+		assertThat(cache.getEvictionCount()).isEqualTo(15);
+		assertThat(cache.get(14)).isNull();
+		assertThat(cache.get(15)).isNotNull();
+		assertThat(cache.get(24)).isNotNull();
+	}
+
+	@Test
+	void retainsFrequentlyUsedEntriesOnScan() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100);
+		for (int i = 0; i < 50; i++) {
+			cache.put("hot" + i, i);
+			cache.get("hot" + i);
+		}
+		for (int i = 0; i < 1000; i++) {
+			cache.put("scan" + i, i);
+		}
+
+		for (int i = 0; i < 50; i++) {
+			assertThat(cache.get("hot" + i)).isNotNull();
+		}
+		assertThat(cache.getEstimatedSize()).isEqualTo(100);
+	}
+
+	@Test
+	void evictsByWeight() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100);
+		cache.setWeigher((key, value) -> ((String) value).length());
+		cache.put("a", "x".repeat(40));
+		cache.put("b", "x".repeat(40));
+		assertThat(cache.getWeightedSize()).isEqualTo(80);
+
+		cache.put("c", "x".repeat(40));
+		assertThat(cache.getWeightedSize()).isEqualTo(80);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("c")).isNotNull();
+
+		cache.put("b", "x");
+		assertThat(cache.getWeightedSize()).isEqualTo(41);
+	}
+
+	@Test
+	void expiresEntries() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 100);
+		cache.setTimeToLiveFunction((key, value) -> ("short".equals(key) ? Duration.ofMillis(10) : null));
+		cache.put("short", "value");
+		cache.put("long", "value");
+		Thread.sleep(50);
+
+		assertThat(cache.get("short")).isNull();
+		assertThat(cache.get("long")).isNotNull();
+		assertThat(cache.getEstimatedSize()).isEqualTo(1);
+		assertThat(cache.getWeightedSize()).isEqualTo(1);
+		assertThat(cache.get("short", () -> "reloaded")).isEqualTo("reloaded");
+		assertThat(cache.putIfAbsent("long", "other").get()).isEqualTo("value");
+	}
+
+	@Test
+	void recordsStatistics() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 1);
+		cache.get("key");
+		cache.get("key", () -> "value");
+		cache.get("key", () -> "other");
+		cache.get("key");
+		cache.put("other", "value");
+
+		assertThat(cache.getHitCount()).isEqualTo(2);
+		assertThat(cache.getMissCount()).isEqualTo(2);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void clearResetsWeight() {
+		for (int i = 0; i < 10; i++) {
+			this.cache.put(i, i);
+		}
+		assertThat(this.cache.invalidate()).isTrue();
+
+		assertThat(this.cache.getEstimatedSize()).isZero();
+		assertThat(this.cache.getWeightedSize()).isZero();
+		assertThat(this.cache.invalidate()).isFalse();
+	}
+
+}
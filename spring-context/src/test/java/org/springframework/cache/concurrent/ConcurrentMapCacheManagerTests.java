@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * @author Juergen Hoeller
@@ -131,4 +132,30 @@ public class ConcurrentMapCacheManagerTests {
 		assertThat(cache1x.get("key")).isNull();
 	}
 
+	@Test
+	public void testChangeMaximumSize() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager("c1", "c2");
+		Cache cache1 = cm.getCache("c1");
+		cache1.put("key", "value");
+
+		cm.setMaximumSize(10);
+		assertThat(cm.getMaximumSize()).isEqualTo(10);
+		Cache cache1x = cm.getCache("c1");
+		assertThat(cache1x).isInstanceOf(BoundedConcurrentMapCache.class);
+		assertThat(((BoundedConcurrentMapCache) cache1x).getMaximumWeight()).isEqualTo(10);
+		assertThat(cache1x.get("key")).isNull();
+		for (int i = 0; i < 20; i++) {
+			cache1x.put(i, i);
+		}
+		assertThat(((BoundedConcurrentMapCache) cache1x).getEstimatedSize()).isEqualTo(10);
+	}
+
+	@Test
+	public void testMaximumSizeWithStoreByValue() {
+		ConcurrentMapCacheManager cm = new ConcurrentMapCacheManager();
+		cm.setStoreByValue(true);
+		cm.setMaximumSize(10);
+		assertThatIllegalStateException().isThrownBy(() -> cm.getCache("c1"));
+	}
+
 }
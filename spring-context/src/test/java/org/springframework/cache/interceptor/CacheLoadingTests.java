@@ -0,0 +1,318 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for single-flight loading, asynchronous results and refreshing
+ * in {@link CacheAspectSupport}.
+ *
+ * @author agent
+ */
+class CacheLoadingTests {
+
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+	private final CacheInterceptor interceptor = new CacheInterceptor();
+
+	private final DefaultService target = new DefaultService();
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	private Service service;
+
+
+	@BeforeEach
+	void setup() {
+		this.interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		this.interceptor.setCacheManager(this.cacheManager);
+		this.interceptor.afterPropertiesSet();
+		this.interceptor.afterSingletonsInstantiated();
+		ProxyFactory proxyFactory = new ProxyFactory(this.target);
+		proxyFactory.addInterface(Service.class);
+		proxyFactory.addAdvice(this.interceptor);
+		this.service = (Service) proxyFactory.getProxy();
+		this.target.self = this.service;
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void singleFlightInvokesMethodOnce() throws Exception {
+		this.interceptor.setSingleFlight(true);
+		this.target.latch = new CountDownLatch(1);
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(this.executor.submit(() -> this.service.load("key")));
+		}
+		awaitInvocations(1);
+		Thread.sleep(50);
+		this.target.latch.countDown();
+
+		for (Future<Long> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+		}
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+		assertThat(getCache().get("key", Long.class)).isEqualTo(1L);
+	}
+
+	@Test
+	void singleFlightPropagatesFailureAndAllowsRetry() throws Exception {
+		this.interceptor.setSingleFlight(true);
+		this.target.failure = new IllegalStateException("expected");
+		assertThatIllegalStateException().isThrownBy(() -> this.service.load("key"));
+
+		this.target.failure = null;
+		assertThat(this.service.load("key")).isEqualTo(2L);
+		assertThat(this.service.load("key")).isEqualTo(2L);
+	}
+
+	@Test
+	void singleFlightInvokesReentrantCallDirectly() throws Exception {
+		this.interceptor.setSingleFlight(true);
+		Future<Long> result = this.executor.submit(() -> this.service.loadReentrant("key"));
+
+		assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+		assertThat(this.target.invocations.get()).isEqualTo(2);
+	}
+
+	@Test
+	void withoutSingleFlightInvokesMethodPerMiss() throws Exception {
+		this.target.latch = new CountDownLatch(1);
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			results.add(this.executor.submit(() -> this.service.load("key")));
+		}
+		awaitInvocations(4);
+		this.target.latch.countDown();
+		for (Future<Long> result : results) {
+			result.get(5, TimeUnit.SECONDS);
+		}
+		assertThat(this.target.invocations.get()).isEqualTo(4);
+	}
+
+	@Test
+	void cachesCompletableFutureByDefault() {
+		CompletableFuture<Long> first = this.service.loadAsync("key");
+		assertThat(getCache().get("key").get()).isSameAs(first);
+
+		assertThat(this.service.loadAsync("key")).isSameAs(first);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	void cachesFluxByDefault() {
+		Flux<Long> first = this.service.loadFlux("key");
+		assertThat(getCache().get("key").get()).isSameAs(first);
+
+		assertThat(this.service.loadFlux("key")).isSameAs(first);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	void cachesResolvedValueOfCompletableFuture() {
+		this.interceptor.setAsyncResultCaching(true);
+		CompletableFuture<Long> first = this.service.loadAsync("key");
+		assertThat(first.join()).isEqualTo(1L);
+		assertThat(getCache().get("key", Long.class)).isEqualTo(1L);
+
+		CompletableFuture<Long> second = this.service.loadAsync("key");
+		assertThat(second).isCompletedWithValue(1L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	void doesNotCacheFailedCompletableFuture() {
+		this.interceptor.setAsyncResultCaching(true);
+		this.target.failure = new IllegalStateException("expected");
+		assertThat(this.service.loadAsync("key")).isCompletedExceptionally();
+		assertThat(getCache().get("key")).isNull();
+	}
+
+	@Test
+	void cachesResolvedValueOfMono() {
+		this.interceptor.setAsyncResultCaching(true);
+		Mono<Long> mono = this.service.loadMono("key");
+		assertThat(getCache().get("key")).isNull();
+		assertThat(mono.block()).isEqualTo(1L);
+		assertThat(getCache().get("key", Long.class)).isEqualTo(1L);
+
+		assertThat(this.service.loadMono("key").block()).isEqualTo(1L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	void cachesElementsOfFlux() {
+		this.interceptor.setAsyncResultCaching(true);
+		assertThat(this.service.loadFlux("key").collectList().block()).containsExactly(1L, 2L, 3L);
+		assertThat(getCache().get("key").get()).isEqualTo(List.of(1L, 2L, 3L));
+
+		assertThat(this.service.loadFlux("key").collectList().block()).containsExactly(1L, 2L, 3L);
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	void refreshesStaleEntryInBackground() throws Exception {
+		this.interceptor.setRefreshAfterWrite(Duration.ofMillis(20));
+		this.interceptor.setRefreshExecutor(this.executor);
+		assertThat(this.service.load("key")).isEqualTo(1L);
+		assertThat(this.service.load("key")).isEqualTo(1L);
+		Thread.sleep(50);
+
+		// Stale value is returned while the entry is refreshed
+		assertThat(this.service.load("key")).isEqualTo(1L);
+		awaitInvocations(2);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!Long.valueOf(2L).equals(getCache().get("key", Long.class)) && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(this.service.load("key")).isEqualTo(2L);
+		assertThat(this.target.invocations.get()).isEqualTo(2);
+	}
+
+	@Test
+	void doesNotRefreshFreshEntry() {
+		this.interceptor.setRefreshAfterWrite(Duration.ofHours(1));
+		this.interceptor.setRefreshExecutor(this.executor);
+		for (int i = 0; i < 10; i++) {
+			assertThat(this.service.load("key")).isEqualTo(1L);
+		}
+		assertThat(this.target.invocations.get()).isEqualTo(1);
+	}
+
+
+	private Cache getCache() {
+		Cache cache = this.cacheManager.getCache("test");
+		assertThat(cache).isNotNull();
+		return cache;
+	}
+
+	private void awaitInvocations(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.target.invocations.get() < count && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(this.target.invocations.get()).isGreaterThanOrEqualTo(count);
+	}
+
+
+	public interface Service {
+
+		Long load(String key);
+
+		Long loadReentrant(String key);
+
+		CompletableFuture<Long> loadAsync(String key);
+
+		Mono<Long> loadMono(String key);
+
+		Flux<Long> loadFlux(String key);
+	}
+
+
+	static class DefaultService implements Service {
+
+		final AtomicInteger invocations = new AtomicInteger();
+
+		volatile CountDownLatch latch;
+
+		volatile RuntimeException failure;
+
+		volatile Service self;
+
+		@Override
+		@Cacheable("test")
+		public Long load(String key) {
+			long count = this.invocations.incrementAndGet();
+			if (this.latch != null) {
+				try {
+					this.latch.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (this.failure != null) {
+				throw this.failure;
+			}
+			return count;
+		}
+
+		@Override
+		@Cacheable("test")
+		public Long loadReentrant(String key) {
+			long count = this.invocations.incrementAndGet();
+			if (count == 1) {
+				this.self.loadReentrant(key);
+			}
+			return count;
+		}
+
+		@Override
+		@Cacheable("test")
+		public CompletableFuture<Long> loadAsync(String key) {
+			long count = this.invocations.incrementAndGet();
+			if (this.failure != null) {
+				return CompletableFuture.failedFuture(this.failure);
+			}
+			return CompletableFuture.completedFuture(count);
+		}
+
+		@Override
+		@Cacheable("test")
+		public Mono<Long> loadMono(String key) {
+			return Mono.fromSupplier(() -> (long) this.invocations.incrementAndGet());
+		}
+
+		@Override
+		@Cacheable("test")
+		public Flux<Long> loadFlux(String key) {
+			this.invocations.incrementAndGet();
+			return Flux.just(1L, 2L, 3L);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,47 @@ public class ExpressionEvaluatorTests {
 		assertThat(value).isEqualTo(String.class.getName());
 	}
 
+	@Test
+	public void compiledKeyMatchesEvaluation() {
+		AnnotatedClass target = new AnnotatedClass();
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		Object[] args = new Object[] {"first", 2};
+		String[] expressions = {"#a", "#b", "#p0", "#a1", "#p5", "#root.methodName", "#root.method",
+				"#root.target", "#root.targetClass", "#root.args", "#a.class.name", "#b.class.simpleName", " #a "};
+		for (String expression : expressions) {
+			CacheOperationExpressionEvaluator.KeyAccessor accessor =
+					this.eval.compileKey(expression, method, method, AnnotatedClass.class);
+			assertThat(accessor).as(expression).isNotNull();
+			EvaluationContext context = this.eval.createEvaluationContext(Collections.emptySet(), method, args,
+					target, AnnotatedClass.class, method, CacheOperationExpressionEvaluator.NO_RESULT, null);
+			Object expected = this.eval.key(expression, new AnnotatedElementKey(method, AnnotatedClass.class), context);
+			assertThat(accessor.getKey(args, target)).as(expression).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void compiledKeyWithVarArgs() {
+		Method method = ReflectionUtils.findMethod(AnnotatedClass.class, "varArgs", Object.class, Object[].class);
+		CacheOperationExpressionEvaluator.KeyAccessor accessor =
+				this.eval.compileKey("#rest", method, method, AnnotatedClass.class);
+		assertThat(accessor).isNotNull();
+		assertThat((Object[]) accessor.getKey(new Object[] {"a", "b", "c"}, new AnnotatedClass()))
+				.containsExactly("b", "c");
+		assertThat(accessor.getKey(new Object[] {"a", "b"}, new AnnotatedClass())).isEqualTo("b");
+	}
+
+	@Test
+	public void keyNotCompiled() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		String[] expressions = {"#result", "#root", "#this", "#a + #b", "#root.caches", "#unknown",
+				"#a?.length", "#a[0]", "'constant'", "@myBean"};
+		for (String expression : expressions) {
+			assertThat(this.eval.compileKey(expression, method, method, AnnotatedClass.class)).as(expression).isNull();
+		}
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
@@ -156,6 +197,9 @@ public class ExpressionEvaluatorTests {
 		@Caching(cacheable = { @Cacheable(value = "test", key = "#a"), @Cacheable(value = "test", key = "#b") })
 		public void multipleCaching(Object a, Object b) {
 		}
+
+		public void varArgs(Object a, Object... rest) {
+		}
 	}
 
 }
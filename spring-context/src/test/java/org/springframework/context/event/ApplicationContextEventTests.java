@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,14 @@
 package org.springframework.context.event;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.Test;
@@ -134,6 +138,53 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		verify(listener, times(invocation)).onApplicationEvent(event);
 	}
 
+	@Test
+	public void cachedListenersReusedUntilListenersChange() {
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		smc.addApplicationListener(listener1);
+		ApplicationEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forInstance(event);
+
+		Collection<ApplicationListener<?>> listeners = smc.getApplicationListeners(event, eventType);
+		assertThat(listeners).containsExactly(listener1);
+		assertThat(smc.getApplicationListeners(new MyEvent(this), ResolvableType.forClass(MyEvent.class)))
+				.isSameAs(listeners);
+
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		smc.addApplicationListener(listener2);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener1, listener2);
+		smc.removeApplicationListener(listener1);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener2);
+	}
+
+	@Test
+	public void cachedListenersUpdatedWhenListenersChangeConcurrently() throws Exception {
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		ApplicationEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forInstance(event);
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 4; i++) {
+				executor.execute(() -> {
+					while (running.get()) {
+						smc.getApplicationListeners(event, eventType);
+					}
+				});
+			}
+			for (int i = 0; i < 500; i++) {
+				MyOrderedListener1 listener = new MyOrderedListener1();
+				smc.addApplicationListener(listener);
+				assertThat(smc.getApplicationListeners(event, eventType)).contains(listener).hasSize(i + 1);
+			}
+		}
+		finally {
+			running.set(false);
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void simpleApplicationEventMulticasterWithTaskExecutor() {
 		@SuppressWarnings("unchecked")
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -218,6 +218,19 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(1)).handleGenericAnyPayload(payload);
 	}
 
+	@Test
+	public void invokeListenerRepeatedlyWithDifferentPayloadTypes() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "first"));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, 123));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "second"));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, 456));
+		verify(this.sampleEvents, times(1)).handleString("first");
+		verify(this.sampleEvents, times(1)).handleString("second");
+		verify(this.sampleEvents, times(2)).handleString(anyString());
+	}
+
 	@Test
 	public void invokeListenerRuntimeException() {
 		Method method = ReflectionUtils.findMethod(
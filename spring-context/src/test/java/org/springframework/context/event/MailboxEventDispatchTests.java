@@ -0,0 +1,289 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SimpleApplicationEventMulticaster} with
+ * {@linkplain SimpleApplicationEventMulticaster#setMailboxDispatch mailbox dispatch}.
+ *
+ * @author agent
+ */
+public class MailboxEventDispatchTests {
+
+	private final SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private ExecutorService executorService;
+
+
+	@AfterEach
+	public void shutdown() {
+		if (this.executorService != null) {
+			this.executorService.shutdownNow();
+		}
+	}
+
+
+	@Test
+	public void preservesOrderPerListener() {
+		this.executorService = Executors.newFixedThreadPool(4);
+		this.multicaster.setTaskExecutor(this.executorService);
+		this.multicaster.setMailboxDispatch(true);
+		this.multicaster.setMailboxCapacity(16);
+		List<CollectingListener> listeners = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			CollectingListener listener = new CollectingListener();
+			listeners.add(listener);
+			this.multicaster.addApplicationListener(listener);
+		}
+
+		publish(0, 1000);
+
+		Awaitility.await()
+				.atMost(5, TimeUnit.SECONDS)
+				.until(() -> listeners.stream().allMatch(listener -> listener.ids.size() == 1000));
+		for (CollectingListener listener : listeners) {
+			assertThat(listener.ids).isEqualTo(range(0, 1000));
+			ListenerMailboxStatistics statistics = this.multicaster.getMailboxStatistics().get(listener);
+			assertThat(statistics.getProcessedCount()).isEqualTo(1000);
+			assertThat(statistics.getDroppedCount()).isZero();
+			assertThat(statistics.getMaxLatency()).isGreaterThanOrEqualTo(statistics.getAverageLatency());
+		}
+	}
+
+	@Test
+	public void deliversBatchesToBatchingListener() {
+		useManualExecutor();
+		CollectingBatchListener listener = new CollectingBatchListener(4);
+		this.multicaster.addApplicationListener(listener);
+
+		publish(0, 10);
+		assertThat(this.tasks).hasSize(1);
+		assertThat(listener.batches).isEmpty();
+		runTasks();
+
+		assertThat(listener.batches).containsExactly(range(0, 4), range(4, 8), range(8, 10));
+	}
+
+	@Test
+	public void dropsNewestEventsWhenFull() {
+		useManualExecutor();
+		this.multicaster.setMailboxCapacity(2);
+		this.multicaster.setMailboxOverflowPolicy(MailboxOverflowPolicy.DROP_NEWEST);
+		CollectingListener listener = new CollectingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish(0, 5);
+		assertThat(this.multicaster.getMailboxStatistics().get(listener).getQueuedCount()).isEqualTo(2);
+		runTasks();
+
+		assertThat(listener.ids).containsExactly(0, 1);
+		assertThat(this.multicaster.getMailboxStatistics().get(listener).getDroppedCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void dropsOldestEventsWhenFull() {
+		useManualExecutor();
+		this.multicaster.setMailboxCapacity(2);
+		this.multicaster.setMailboxOverflowPolicy(MailboxOverflowPolicy.DROP_OLDEST);
+		CollectingListener listener = new CollectingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish(0, 5);
+		runTasks();
+
+		assertThat(listener.ids).containsExactly(3, 4);
+		assertThat(this.multicaster.getMailboxStatistics().get(listener).getDroppedCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void blocksPublisherWhenFull() throws Exception {
+		this.executorService = Executors.newSingleThreadExecutor();
+		this.multicaster.setTaskExecutor(this.executorService);
+		this.multicaster.setMailboxDispatch(true);
+		this.multicaster.setMailboxCapacity(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		CollectingListener listener = new CollectingListener() {
+			@Override
+			public void onApplicationEvent(TestEvent event) {
+				awaitQuietly(latch);
+				super.onApplicationEvent(event);
+			}
+		};
+		this.multicaster.addApplicationListener(listener);
+
+		Thread publisher = new Thread(() -> publish(0, 3));
+		publisher.start();
+		Awaitility.await()
+				.atMost(5, TimeUnit.SECONDS)
+				.until(() -> publisher.getState() == Thread.State.WAITING);
+		assertThat(listener.ids).isEmpty();
+		latch.countDown();
+		publisher.join(5000);
+
+		Awaitility.await()
+				.atMost(5, TimeUnit.SECONDS)
+				.until(() -> listener.ids.size() == 3);
+		assertThat(listener.ids).containsExactly(0, 1, 2);
+		assertThat(this.multicaster.getMailboxStatistics().get(listener).getDroppedCount()).isZero();
+	}
+
+	@Test
+	public void continuesAfterListenerException() {
+		useManualExecutor();
+		List<Throwable> errors = new ArrayList<>();
+		this.multicaster.setErrorHandler(errors::add);
+		CollectingListener listener = new CollectingListener() {
+			@Override
+			public void onApplicationEvent(TestEvent event) {
+				if (event.id == 1) {
+					throw new IllegalStateException("Test exception");
+				}
+				super.onApplicationEvent(event);
+			}
+		};
+		this.multicaster.addApplicationListener(listener);
+
+		publish(0, 3);
+		runTasks();
+
+		assertThat(listener.ids).containsExactly(0, 2);
+		assertThat(errors).singleElement().isInstanceOf(IllegalStateException.class);
+		assertThat(this.multicaster.getMailboxStatistics().get(listener).getProcessedCount()).isEqualTo(3);
+	}
+
+	@Test
+	public void removesMailboxOfRemovedListener() {
+		useManualExecutor();
+		CollectingListener listener = new CollectingListener();
+		this.multicaster.addApplicationListener(listener);
+		publish(0, 1);
+		assertThat(this.multicaster.getMailboxStatistics()).containsKey(listener);
+
+		this.multicaster.removeApplicationListener(listener);
+		assertThat(this.multicaster.getMailboxStatistics()).isEmpty();
+	}
+
+	@Test
+	public void invokesListenersDirectlyWithoutTaskExecutor() {
+		this.multicaster.setMailboxDispatch(true);
+		CollectingListener listener = new CollectingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		publish(0, 3);
+
+		assertThat(listener.ids).containsExactly(0, 1, 2);
+		assertThat(this.multicaster.getMailboxStatistics()).isEmpty();
+	}
+
+
+	private void useManualExecutor() {
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setMailboxDispatch(true);
+	}
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+	}
+
+	private void publish(int from, int to) {
+		for (int i = from; i < to; i++) {
+			this.multicaster.multicastEvent(new TestEvent(this, i));
+		}
+	}
+
+	private static List<Integer> range(int from, int to) {
+		return IntStream.range(from, to).boxed().collect(Collectors.toList());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class TestEvent extends ApplicationEvent {
+
+		final int id;
+
+		TestEvent(Object source, int id) {
+			super(source);
+			this.id = id;
+		}
+	}
+
+
+	static class CollectingListener implements ApplicationListener<TestEvent> {
+
+		final List<Integer> ids = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onApplicationEvent(TestEvent event) {
+			this.ids.add(event.id);
+		}
+	}
+
+
+	static class CollectingBatchListener implements BatchingApplicationListener<TestEvent> {
+
+		final List<List<Integer>> batches = new ArrayList<>();
+
+		private final int maxBatchSize;
+
+		CollectingBatchListener(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		@Override
+		public void onApplicationEvents(List<TestEvent> events) {
+			this.batches.add(events.stream().map(event -> event.id).collect(Collectors.toList()));
+		}
+
+		@Override
+		public int getMaxBatchSize() {
+			return this.maxBatchSize;
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.ResolvableType;
 import org.springframework.stereotype.Component;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,6 +46,17 @@ public class PayloadApplicationEventTests {
 		assertThat(ac.getBean(AuditableListener.class).events.contains(event)).isTrue();
 	}
 
+	@Test
+	public void testResolvableType() {
+		ResolvableType type = new PayloadApplicationEvent<>(this, "xyz").getResolvableType();
+		assertThat(type).isEqualTo(ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, String.class));
+		assertThat(new PayloadApplicationEvent<>(this, "abc").getResolvableType()).isSameAs(type);
+		assertThat(new PayloadApplicationEvent<>(this, 123).getResolvableType())
+				.isEqualTo(ResolvableType.forClassWithGenerics(PayloadApplicationEvent.class, Integer.class));
+		assertThat(new AuditablePayloadEvent<>(this, "xyz").getResolvableType())
+				.isEqualTo(ResolvableType.forClassWithGenerics(AuditablePayloadEvent.class, String.class));
+	}
+
 	@Test
 	public void testProgrammaticEventListener() {
 		List<Auditable> events = new ArrayList<>();
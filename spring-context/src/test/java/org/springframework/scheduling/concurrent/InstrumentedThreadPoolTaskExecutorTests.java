@@ -0,0 +1,292 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.support.DelegatingErrorHandlingRunnable;
+import org.springframework.scheduling.support.TaskUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link ThreadPoolTaskExecutor} with a {@link TaskExecutionListener},
+ * "growBeforeQueueing" and "targetQueueLatency".
+ *
+ * @author agent
+ */
+class InstrumentedThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	private final CapturingListener listener = new CapturingListener();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Nullable
+	private ThreadPoolTaskExecutor customExecutor;
+
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskDecorator(runnable ->
+				new DelegatingErrorHandlingRunnable(runnable, TaskUtils.LOG_AND_PROPAGATE_ERROR_HANDLER));
+		executor.setTaskExecutionListener(this.listener);
+		executor.setGrowBeforeQueueing(true);
+		executor.setTargetQueueLatency(Duration.ofSeconds(1));
+		executor.setQueueCapacity(10);
+		executor.setThreadNamePrefix(this.threadNamePrefix);
+		executor.setMaxPoolSize(1);
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+	@AfterEach
+	void shutdownCustomExecutor() {
+		this.release.countDown();
+		if (this.customExecutor != null) {
+			this.customExecutor.shutdown();
+		}
+	}
+
+
+	@Test
+	void notifiesListenerOfExecutedTask() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 1, 10);
+		executor.initialize();
+		Runnable task = () -> sleep(20);
+		executor.execute(task);
+
+		Awaitility.await().dontCatchUncaughtExceptions().atMost(5, TimeUnit.SECONDS).until(() -> !this.listener.executed.isEmpty());
+		ExecutedTask executed = this.listener.executed.get(0);
+		assertThat(executed.task).isSameAs(task);
+		assertThat(executed.queueTimeNanos).isNotNegative();
+		assertThat(executed.executionTimeNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+		assertThat(executed.failure).isNull();
+	}
+
+	@Test
+	void notifiesListenerOfFailedTask() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 1, 10);
+		executor.initialize();
+		executor.execute(() -> {
+			throw new IllegalStateException("failure");
+		});
+
+		Awaitility.await().dontCatchUncaughtExceptions().atMost(5, TimeUnit.SECONDS).until(() -> !this.listener.executed.isEmpty());
+		assertThat(this.listener.executed.get(0).failure).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void countsRejectedTasks() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 1, 1);
+		executor.initialize();
+		executor.execute(this::awaitRelease);
+		executor.execute(this::awaitRelease);
+		Runnable rejected = () -> {};
+
+		assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(rejected));
+		assertThat(executor.getRejectedCount()).isEqualTo(1);
+		assertThat(executor.getQueueSize()).isEqualTo(1);
+		assertThat(this.listener.rejected).containsExactly(rejected);
+	}
+
+	@Test
+	void growsPoolBeforeQueueing() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 4, 10);
+		executor.setGrowBeforeQueueing(true);
+		executor.initialize();
+		for (int i = 0; i < 4; i++) {
+			executor.execute(this::awaitRelease);
+		}
+		assertThat(executor.getPoolSize()).isEqualTo(4);
+		assertThat(executor.getQueueSize()).isEqualTo(0);
+
+		executor.execute(this::awaitRelease);
+		assertThat(executor.getPoolSize()).isEqualTo(4);
+		assertThat(executor.getQueueSize()).isEqualTo(1);
+		assertThat(executor.getRejectedCount()).isEqualTo(0);
+	}
+
+	@Test
+	void doesNotGrowPoolForPurgedTasks() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 2, 10);
+		executor.setGrowBeforeQueueing(true);
+		executor.initialize();
+		executor.execute(this::awaitRelease);
+		executor.execute(this::awaitRelease);
+		List<Future<?>> queued = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			queued.add(executor.submit(this::awaitRelease));
+		}
+		assertThat(executor.getQueueSize()).isEqualTo(3);
+		queued.forEach(future -> future.cancel(false));
+		executor.getThreadPoolExecutor().purge();
+		assertThat(executor.getQueueSize()).isEqualTo(0);
+
+		this.release.countDown();
+		Awaitility.await().dontCatchUncaughtExceptions().atMost(5, TimeUnit.SECONDS).until(() -> executor.getActiveCount() == 0);
+		executor.setMaxPoolSize(4);
+		executor.execute(() -> {});
+		assertThat(executor.getPoolSize()).isEqualTo(2);
+	}
+
+	@Test
+	void exposesConfiguredRejectedExecutionHandler() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 1, 1);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		executor.execute(this::awaitRelease);
+		executor.execute(this::awaitRelease);
+		Thread caller = Thread.currentThread();
+		AtomicReference<Thread> runner = new AtomicReference<>();
+		executor.execute(() -> runner.set(Thread.currentThread()));
+
+		assertThat(executor.getThreadPoolExecutor().getRejectedExecutionHandler())
+				.isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+		assertThat(runner.get()).isSameAs(caller);
+		assertThat(executor.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void queuesBeforeGrowingByDefault() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 4, 10);
+		executor.initialize();
+		for (int i = 0; i < 4; i++) {
+			executor.execute(this::awaitRelease);
+		}
+		assertThat(executor.getPoolSize()).isEqualTo(1);
+		assertThat(executor.getQueueSize()).isEqualTo(3);
+	}
+
+	@Test
+	void growsCorePoolSizeWhenQueueLatencyExceedsTarget() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 4, 100);
+		executor.setTargetQueueLatency(Duration.ofMillis(1));
+		executor.initialize();
+		for (int i = 0; i < 10; i++) {
+			executor.execute(this::awaitRelease);
+		}
+
+		Awaitility.await().dontCatchUncaughtExceptions().atMost(5, TimeUnit.SECONDS).pollInterval(50, TimeUnit.MILLISECONDS).until(() -> {
+			executor.execute(() -> {});
+			return executor.getThreadPoolExecutor().getCorePoolSize() == 4;
+		});
+		assertThat(executor.getPoolSize()).isEqualTo(4);
+		assertThat(executor.getCorePoolSize()).isEqualTo(1);
+	}
+
+	@Test
+	void shrinksCorePoolSizeWhenQueueLatencyDropsBelowTarget() {
+		ThreadPoolTaskExecutor executor = createExecutor(1, 4, 100);
+		executor.setTargetQueueLatency(Duration.ofSeconds(1));
+		executor.initialize();
+		executor.getThreadPoolExecutor().setCorePoolSize(3);
+
+		Awaitility.await().dontCatchUncaughtExceptions().atMost(5, TimeUnit.SECONDS).pollInterval(50, TimeUnit.MILLISECONDS).until(() -> {
+			executor.execute(() -> {});
+			return executor.getThreadPoolExecutor().getCorePoolSize() == 1;
+		});
+		assertThat(executor.getQueueLatency()).isLessThan(Duration.ofSeconds(1));
+	}
+
+
+	private ThreadPoolTaskExecutor createExecutor(int corePoolSize, int maxPoolSize, int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(corePoolSize);
+		executor.setMaxPoolSize(maxPoolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setTaskExecutionListener(this.listener);
+		executor.setThreadNamePrefix(this.threadNamePrefix);
+		this.customExecutor = executor;
+		return executor;
+	}
+
+	private void awaitRelease() {
+		try {
+			this.release.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static class CapturingListener implements TaskExecutionListener {
+
+		final List<ExecutedTask> executed = new CopyOnWriteArrayList<>();
+
+		final List<Runnable> rejected = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void taskExecuted(Runnable task, long queueTimeNanos, long executionTimeNanos,
+				@Nullable Throwable failure) {
+
+			this.executed.add(new ExecutedTask(task, queueTimeNanos, executionTimeNanos, failure));
+		}
+
+		@Override
+		public void taskRejected(Runnable task) {
+			this.rejected.add(task);
+		}
+	}
+
+
+	private static class ExecutedTask {
+
+		final Runnable task;
+
+		final long queueTimeNanos;
+
+		final long executionTimeNanos;
+
+		@Nullable
+		final Throwable failure;
+
+		ExecutedTask(Runnable task, long queueTimeNanos, long executionTimeNanos, @Nullable Throwable failure) {
+			this.task = task;
+			this.queueTimeNanos = queueTimeNanos;
+			this.executionTimeNanos = executionTimeNanos;
+			this.failure = failure;
+		}
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TimingWheelTaskScheduler}.
+ *
+ * @author agent
+ */
+class TimingWheelTaskSchedulerTests extends AbstractSchedulingTaskExecutorTests {
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		this.scheduler.setThreadNamePrefix(this.threadNamePrefix);
+		this.scheduler.setWheelSize(8);
+		this.scheduler.afterPropertiesSet();
+		return this.scheduler;
+	}
+
+
+	@Test
+	void executesDelayedTasksAcrossWheelsNotBeforeDueTime() throws Exception {
+		int taskCount = 500;
+		CountDownLatch latch = new CountDownLatch(taskCount);
+		AtomicInteger early = new AtomicInteger();
+		Random random = new Random(42);
+		for (int i = 0; i < taskCount; i++) {
+			long delay = random.nextInt(200);
+			long dueTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+			this.scheduler.getScheduledExecutor().schedule(() -> {
+				if (System.nanoTime() < dueTime) {
+					early.incrementAndGet();
+				}
+				latch.countDown();
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(early).hasValue(0);
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(0);
+	}
+
+	@Test
+	void executesDelayedTasksNotBeforeDueTimeWithCoarseTick() throws Exception {
+		TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+		scheduler.setTickDuration(Duration.ofMillis(100));
+		scheduler.setWheelSize(4);
+		scheduler.afterPropertiesSet();
+		try {
+			int taskCount = 50;
+			CountDownLatch latch = new CountDownLatch(taskCount);
+			AtomicInteger early = new AtomicInteger();
+			Random random = new Random(42);
+			for (int i = 0; i < taskCount; i++) {
+				long delay = random.nextInt(1000);
+				long dueTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+				scheduler.getScheduledExecutor().schedule(() -> {
+					if (System.nanoTime() < dueTime) {
+						early.incrementAndGet();
+					}
+					latch.countDown();
+				}, delay, TimeUnit.MILLISECONDS);
+				Thread.sleep(random.nextInt(20));
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(early).hasValue(0);
+		}
+		finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void cancelRemovesTask() {
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			futures.add(this.scheduler.getScheduledExecutor().schedule(() -> {}, 1, TimeUnit.HOURS));
+		}
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(100);
+
+		futures.forEach(future -> future.cancel(false));
+
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(0);
+		assertThat(futures).allMatch(ScheduledFuture::isCancelled);
+	}
+
+	@Test
+	void scheduleAtFixedRate() {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.scheduleAtFixedRate(count::incrementAndGet, Duration.ofMillis(10));
+
+		Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> count.get() >= 5);
+		future.cancel(false);
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(0);
+	}
+
+	@Test
+	void scheduleWithFixedDelay() {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.scheduleWithFixedDelay(count::incrementAndGet, Duration.ofMillis(10));
+
+		Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> count.get() >= 5);
+		future.cancel(false);
+	}
+
+	@Test
+	void schedulePeriodicTrigger() {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet, new PeriodicTrigger(10));
+
+		Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> count.get() >= 5);
+		future.cancel(false);
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	void scheduleCronTrigger() {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledFuture<?> future = this.scheduler.schedule(count::incrementAndGet, new CronTrigger("* * * * * *"));
+
+		Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> count.get() >= 2);
+		future.cancel(false);
+	}
+
+	@Test
+	void shutdownCancelsDelayedTasks() {
+		ScheduledFuture<?> future = this.scheduler.getScheduledExecutor().schedule(() -> {}, 1, TimeUnit.HOURS);
+
+		this.scheduler.shutdown();
+
+		assertThat(future.isCancelled()).isTrue();
+		assertThat(this.scheduler.getScheduledExecutor().isShutdown()).isTrue();
+	}
+
+	@Test
+	void shutdownCancelsDelayedTasksWhileTicking() {
+		List<ScheduledFuture<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			futures.add(this.scheduler.getScheduledExecutor().schedule(() -> {}, i % 20, TimeUnit.MILLISECONDS));
+		}
+
+		this.scheduler.shutdown();
+
+		Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> futures.stream().allMatch(ScheduledFuture::isDone));
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(0);
+	}
+
+	@Test
+	void modifyPoolSizeWhileRunning() {
+		assertThat(this.scheduler.getScheduledTaskCount()).isEqualTo(0);
+		this.scheduler.setPoolSize(4);
+		for (int i = 0; i < 4; i++) {
+			this.scheduler.execute(() -> {});
+		}
+		Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> this.scheduler.getPoolSize() == 4);
+		this.scheduler.setPoolSize(1);
+	}
+
+}
@@ -19,11 +19,14 @@ package org.springframework.scheduling.support;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.time.Year;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoField;
 import java.time.temporal.Temporal;
+import java.util.List;
 
 import org.assertj.core.api.Condition;
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,7 @@ import static java.time.DayOfWeek.TUESDAY;
 import static java.time.DayOfWeek.WEDNESDAY;
 import static java.time.temporal.TemporalAdjusters.next;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * @author Arjen Poutsma
@@ -1336,4 +1340,80 @@ class CronExpressionTests {
 		assertThat(actual).isEqualTo(expected);
 	}
 
+	@Test
+	void lastMondayOfLongMonths() {
+		CronExpression expression = CronExpression.parse("0 0 0 25-31 * MON");
+
+		LocalDateTime last = LocalDateTime.of(2021, 1, 1, 0, 0);
+		assertThat(expression.next(last)).isEqualTo(LocalDateTime.of(2021, 1, 25, 0, 0));
+		last = LocalDateTime.of(2021, 1, 25, 0, 0);
+		assertThat(expression.next(last)).isEqualTo(LocalDateTime.of(2021, 3, 29, 0, 0));
+	}
+
+	@Test
+	void leapDayOnMonday() {
+		CronExpression expression = CronExpression.parse("0 0 0 29 2 MON");
+
+		LocalDateTime last = LocalDateTime.of(2021, 1, 1, 0, 0);
+		assertThat(expression.next(last)).isEqualTo(LocalDateTime.of(2044, 2, 29, 0, 0));
+	}
+
+	@Test
+	void offsetDateTime() {
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+
+		OffsetDateTime last = OffsetDateTime.of(2021, 3, 28, 1, 0, 0, 0, ZoneOffset.ofHours(1));
+		assertThat(expression.next(last)).isEqualTo(OffsetDateTime.of(2021, 3, 28, 2, 30, 0, 0, ZoneOffset.ofHours(1)));
+	}
+
+	@Test
+	void repeatedLocalTime() {
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+
+		ZonedDateTime last = ZonedDateTime.parse("2021-10-31T02:30:00+02:00[Europe/Amsterdam]");
+		ZonedDateTime expected = ZonedDateTime.parse("2021-10-31T02:30:00+01:00[Europe/Amsterdam]");
+		assertThat(expression.next(last)).isEqualTo(expected);
+		expected = ZonedDateTime.parse("2021-11-01T02:30:00+01:00[Europe/Amsterdam]");
+		assertThat(expression.next(last, 2)).last().isEqualTo(expected);
+	}
+
+	@Test
+	void nthDayOfWeekAsDayOfMonthRange() {
+		// Quartz field vs. plain day-of-month range
+		CronExpression quartz = CronExpression.parse("0 0 2 ? * FRI#2");
+		CronExpression range = CronExpression.parse("0 0 2 8-14 * FRI");
+
+		for (String zone : new String[] {"UTC", "Europe/Amsterdam", "America/New_York"}) {
+			ZonedDateTime quartzNext = ZonedDateTime.of(2015, 1, 1, 0, 0, 0, 0, ZoneId.of(zone));
+			ZonedDateTime rangeNext = quartzNext;
+			for (int i = 0; i < 200; i++) {
+				quartzNext = quartz.next(quartzNext);
+				rangeNext = range.next(rangeNext);
+				assertThat(rangeNext).isEqualTo(quartzNext);
+			}
+		}
+	}
+
+	@Test
+	void nextCount() {
+		CronExpression expression = CronExpression.parse("0 0 9 * * MON-FRI");
+
+		LocalDateTime last = LocalDateTime.of(2021, 10, 22, 10, 0);
+		List<LocalDateTime> actual = expression.next(last, 4);
+		assertThat(actual).containsExactly(
+				LocalDateTime.of(2021, 10, 25, 9, 0),
+				LocalDateTime.of(2021, 10, 26, 9, 0),
+				LocalDateTime.of(2021, 10, 27, 9, 0),
+				LocalDateTime.of(2021, 10, 28, 9, 0));
+		assertThat(expression.next(last, 0)).isEmpty();
+		assertThatIllegalArgumentException().isThrownBy(() -> expression.next(last, -1));
+	}
+
+	@Test
+	void nextCountWithoutMatch() {
+		CronExpression expression = CronExpression.parse("0 0 0 30 2 *");
+
+		assertThat(expression.next(LocalDateTime.of(2021, 1, 1, 0, 0), 3)).isEmpty();
+	}
+
 }
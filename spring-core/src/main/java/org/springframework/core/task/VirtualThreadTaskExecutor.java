@@ -0,0 +1,198 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * {@link TaskExecutor} implementation that starts a new virtual thread for
+ * each task, as available on JDK 21 and higher.
+ *
+ * <p>Virtual threads are cheap to create and block, so there is no need to
+ * pool them: this executor is a good fit for blocking tasks such as
+ * {@code @Async} methods, {@link Callable} controller return values via
+ * {@code WebAsyncManager}, or the invocation of Spring MVC handler methods.
+ * For {@code @Scheduled} methods, the {@linkplain #getVirtualThreadFactory()
+ * virtual thread factory} can be set on a {@code ThreadPoolTaskScheduler}.
+ *
+ * <p>Virtual threads are detected through reflection, so this class can be
+ * compiled against and loaded on older JDKs; use {@link #isSupported()} to
+ * check for support before creating an instance.
+ *
+ * @author agent
+ * @since 6.0
+ * @see SimpleAsyncTaskExecutor
+ * @see org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
+ */
+public class VirtualThreadTaskExecutor implements AsyncListenableTaskExecutor {
+
+	@Nullable
+	private static final Method ofVirtualMethod =
+			ReflectionUtils.findMethod(Thread.class, "ofVirtual");
+
+	@Nullable
+	private static final Method isVirtualMethod =
+			ReflectionUtils.findMethod(Thread.class, "isVirtual");
+
+
+	private final ThreadFactory virtualThreadFactory;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor for unnamed virtual threads.
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public VirtualThreadTaskExecutor() {
+		this.virtualThreadFactory = createVirtualThreadFactory(null);
+	}
+
+	/**
+	 * Create a new VirtualThreadTaskExecutor for virtual threads named with
+	 * the given prefix followed by a sequence number.
+	 * @param threadNamePrefix the prefix for virtual thread names
+	 * @throws IllegalStateException if virtual threads are not supported
+	 */
+	public VirtualThreadTaskExecutor(String threadNamePrefix) {
+		Assert.notNull(threadNamePrefix, "Thread name prefix must not be null");
+		this.virtualThreadFactory = createVirtualThreadFactory(threadNamePrefix);
+	}
+
+
+	/**
+	 * Return the factory for virtual threads used by this executor, e.g. to
+	 * pass to a {@code ThreadPoolTaskScheduler}.
+	 */
+	public final ThreadFactory getVirtualThreadFactory() {
+		return this.virtualThreadFactory;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * @see SimpleAsyncTaskExecutor#setTaskDecorator
+	 */
+	public final void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		Assert.notNull(task, "Runnable must not be null");
+		Runnable taskToUse = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
+		this.virtualThreadFactory.newThread(taskToUse).start();
+	}
+
+	/**
+	 * Executes the given task right away: virtual threads are not throttled,
+	 * so the start timeout does not apply.
+	 */
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+
+	/**
+	 * Whether virtual threads are supported by the current JVM.
+	 */
+	public static boolean isSupported() {
+		if (ofVirtualMethod == null) {
+			return false;
+		}
+		try {
+			ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+			return true;
+		}
+		catch (Throwable ex) {
+			// e.g. preview API not enabled
+			return false;
+		}
+	}
+
+	/**
+	 * Whether the given thread is a virtual thread.
+	 * @param thread the thread to check
+	 * @return {@code true} if virtual, {@code false} if a platform thread or
+	 * if virtual threads are not supported
+	 */
+	public static boolean isVirtual(Thread thread) {
+		return (isVirtualMethod != null &&
+				Boolean.TRUE.equals(ReflectionUtils.invokeMethod(isVirtualMethod, thread)));
+	}
+
+	private static ThreadFactory createVirtualThreadFactory(@Nullable String threadNamePrefix) {
+		Assert.state(isSupported(), "Virtual threads require JDK 21 or higher");
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = ReflectionUtils.invokeMethod(ofVirtualMethod, null);
+			if (threadNamePrefix != null) {
+				Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+				builder = ReflectionUtils.invokeMethod(nameMethod, builder, threadNamePrefix, 0L);
+			}
+			Method factoryMethod = builderClass.getMethod("factory");
+			ThreadFactory threadFactory = (ThreadFactory) ReflectionUtils.invokeMethod(factoryMethod, builder);
+			Assert.state(threadFactory != null, "No virtual thread factory");
+			return threadFactory;
+		}
+		catch (ClassNotFoundException | NoSuchMethodException ex) {
+			throw new IllegalStateException("Failed to create virtual thread factory", ex);
+		}
+	}
+
+}
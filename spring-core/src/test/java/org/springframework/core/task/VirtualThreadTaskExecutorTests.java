@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for {@link VirtualThreadTaskExecutor}.
+ *
+ * @author agent
+ */
+class VirtualThreadTaskExecutorTests {
+
+	@Test
+	void submitRunsOnVirtualThread() throws Exception {
+		assumeTrue(VirtualThreadTaskExecutor.isSupported());
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("vt-");
+		Future<Thread> future = executor.submit(Thread::currentThread);
+		Thread thread = future.get(1, TimeUnit.SECONDS);
+		assertThat(VirtualThreadTaskExecutor.isVirtual(thread)).isTrue();
+		assertThat(thread.getName()).startsWith("vt-");
+	}
+
+	@Test
+	void taskDecoratorIsApplied() throws Exception {
+		assumeTrue(VirtualThreadTaskExecutor.isSupported());
+		VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+		StringBuilder builder = new StringBuilder();
+		executor.setTaskDecorator(runnable -> () -> {
+			builder.append("decorated ");
+			runnable.run();
+		});
+		executor.submitListenable(() -> builder.append("task")).get(1, TimeUnit.SECONDS);
+		assertThat(builder.toString()).isEqualTo("decorated task");
+	}
+
+	@Test
+	void platformThreadIsNotVirtual() {
+		assertThat(VirtualThreadTaskExecutor.isVirtual(Thread.currentThread())).isFalse();
+	}
+
+	@Test
+	void notSupported() {
+		assumeFalse(VirtualThreadTaskExecutor.isSupported());
+		assertThatIllegalStateException().isThrownBy(VirtualThreadTaskExecutor::new);
+	}
+
+}
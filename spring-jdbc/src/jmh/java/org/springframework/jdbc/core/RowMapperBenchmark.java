@@ -0,0 +1,232 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for mapping query results against an embedded H2 database with
+ * {@link BeanPropertyRowMapper} and {@link DataClassRowMapper}, compared with
+ * row mappers from a {@link CompiledRowMapperFactory}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RowMapperBenchmark {
+
+	private static final String QUERY = "select id, first_name, last_name, age, balance, created from person";
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"1", "100", "1000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public RowMapper<PersonBean> beanPropertyRowMapper;
+
+		public RowMapper<PersonData> dataClassRowMapper;
+
+		public RowMapper<PersonBean> compiledBeanRowMapper;
+
+		public RowMapper<PersonData> compiledDataRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.H2)
+					.build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("create table person (id bigint primary key, first_name varchar(50), " +
+					"last_name varchar(50), age int, balance decimal(10,2), created timestamp)");
+			List<Object[]> rows = new ArrayList<>(this.rowCount);
+			for (int i = 0; i < this.rowCount; i++) {
+				rows.add(new Object[] {i, "first" + i, "last" + i, i % 100,
+						new BigDecimal(i + ".50"), new Timestamp(1_000_000L * i)});
+			}
+			this.jdbcTemplate.batchUpdate("insert into person values (?, ?, ?, ?, ?, ?)", rows);
+
+			CompiledRowMapperFactory factory = new CompiledRowMapperFactory();
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(PersonBean.class);
+			this.dataClassRowMapper = new DataClassRowMapper<>(PersonData.class);
+			this.compiledBeanRowMapper = factory.getRowMapper(PersonBean.class);
+			this.compiledDataRowMapper = factory.getRowMapper(PersonData.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public List<PersonBean> beanPropertyRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<PersonBean> compiledBeanRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.compiledBeanRowMapper);
+	}
+
+	@Benchmark
+	public List<PersonData> dataClassRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.dataClassRowMapper);
+	}
+
+	@Benchmark
+	public List<PersonData> compiledDataRowMapper(BenchmarkData data) {
+		return data.jdbcTemplate.query(QUERY, data.compiledDataRowMapper);
+	}
+
+
+	public static class PersonBean {
+
+		private long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		private BigDecimal balance;
+
+		private Timestamp created;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public Timestamp getCreated() {
+			return this.created;
+		}
+
+		public void setCreated(Timestamp created) {
+			this.created = created;
+		}
+	}
+
+
+	public static class PersonData {
+
+		private final long id;
+
+		private final String firstName;
+
+		private final String lastName;
+
+		private final int age;
+
+		private final BigDecimal balance;
+
+		private final Timestamp created;
+
+		public PersonData(long id, String firstName, String lastName, int age, BigDecimal balance, Timestamp created) {
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.age = age;
+			this.balance = balance;
+			this.created = created;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public Timestamp getCreated() {
+			return this.created;
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Throughput benchmarks for {@link SimpleJdbcInsert#executeBatch} against an
+ * embedded database, as a JDBC batch or as multi-row inserts.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SimpleJdbcInsertBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"H2", "HSQL"})
+		public EmbeddedDatabaseType databaseType;
+
+		@Param({"100", "5000"})
+		public int batchSize;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public SimpleJdbcInsert batchInsert;
+
+		public SimpleJdbcInsert multiRowInsert;
+
+		public SqlParameterSource[] batch;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true)
+					.setType(this.databaseType)
+					.build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("create table event (id integer, type varchar(20), payload varchar(100))");
+			this.batchInsert = new SimpleJdbcInsert(this.jdbcTemplate).withTableName("event");
+			this.multiRowInsert = new SimpleJdbcInsert(this.jdbcTemplate).withTableName("event");
+			this.multiRowInsert.withMultiRowInsert();
+			this.batch = new SqlParameterSource[this.batchSize];
+			for (int i = 0; i < this.batchSize; i++) {
+				this.batch[i] = new MapSqlParameterSource("id", i)
+						.addValue("type", "type" + (i % 10))
+						.addValue("payload", "payload" + i);
+			}
+		}
+
+		@TearDown(Level.Iteration)
+		public void truncate() {
+			this.jdbcTemplate.execute("truncate table event");
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public int[] jdbcBatch(BenchmarkData data) {
+		return data.batchInsert.executeBatch(data.batch);
+	}
+
+	@Benchmark
+	public int[] multiRowInsert(BenchmarkData data) {
+		return data.multiRowInsert.executeBatch(data.batch);
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Throughput benchmarks for concurrent single-row inserts against an embedded
+ * H2 database, issued directly through {@link JdbcTemplate#update} or through
+ * a {@link BatchingJdbcWriter}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(8)
+public class BatchingJdbcWriterBenchmark {
+
+	private static final String INSERT = "insert into event (id, payload) values (?, ?)";
+
+	private static final int UPDATES_PER_INVOCATION = 100;
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"10", "100"})
+		public int maxBatchSize;
+
+		@Param({"1"})
+		public int batchWindowMillis;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public BatchingJdbcWriter writer;
+
+		public final AtomicInteger ids = new AtomicInteger();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.H2)
+					.build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("create table event (id int primary key, payload varchar(100))");
+			this.writer = new BatchingJdbcWriter(this.jdbcTemplate);
+			this.writer.setMaxBatchSize(this.maxBatchSize);
+			this.writer.setBatchWindow(Duration.ofMillis(this.batchWindowMillis));
+		}
+
+		@TearDown(Level.Iteration)
+		public void truncate() {
+			this.writer.flush();
+			this.jdbcTemplate.execute("truncate table event");
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.writer.destroy();
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES_PER_INVOCATION)
+	public void jdbcTemplateUpdate(BenchmarkData data) {
+		for (int i = 0; i < UPDATES_PER_INVOCATION; i++) {
+			int id = data.ids.incrementAndGet();
+			data.jdbcTemplate.update(INSERT, id, "payload" + id);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(UPDATES_PER_INVOCATION)
+	public void batchingWriterUpdate(BenchmarkData data) {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[UPDATES_PER_INVOCATION];
+		for (int i = 0; i < UPDATES_PER_INVOCATION; i++) {
+			int id = data.ids.incrementAndGet();
+			futures[i] = data.writer.update(INSERT, id, "payload" + id);
+		}
+		CompletableFuture.allOf(futures).join();
+	}
+
+}
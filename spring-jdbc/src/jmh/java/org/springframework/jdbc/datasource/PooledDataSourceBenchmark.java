@@ -0,0 +1,92 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Throughput benchmarks for obtaining and closing a Connection from a
+ * {@link PooledDataSource}, compared to a non-pooled embedded database.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PooledDataSourceBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public EmbeddedDatabase database;
+
+		public PooledDataSource pooledDataSource;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.H2)
+					.setConnectionPooling(false)
+					.build();
+			this.pooledDataSource = new PooledDataSource(this.database);
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.pooledDataSource.close();
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public boolean unpooled(BenchmarkData data) throws SQLException {
+		try (Connection con = data.database.getConnection()) {
+			return con.getAutoCommit();
+		}
+	}
+
+	@Benchmark
+	public boolean pooled(BenchmarkData data) throws SQLException {
+		try (Connection con = data.pooledDataSource.getConnection()) {
+			return con.getAutoCommit();
+		}
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean pooledContended(BenchmarkData data) throws SQLException {
+		try (Connection con = data.pooledDataSource.getConnection()) {
+			return con.getAutoCommit();
+		}
+	}
+
+}
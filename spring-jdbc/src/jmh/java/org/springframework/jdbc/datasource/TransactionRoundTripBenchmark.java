@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Throughput benchmarks for empty transactions through a
+ * {@link DataSourceTransactionManager} on a pooled embedded H2 database,
+ * measuring the per-transaction overhead of transaction management and
+ * {@link TransactionSynchronizationManager} state handling.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class TransactionRoundTripBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public EmbeddedDatabase database;
+
+		public TransactionTemplate transactionTemplate;
+
+		public Service service;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.H2)
+					.build();
+			DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(this.database);
+			this.transactionTemplate = new TransactionTemplate(transactionManager);
+			ProxyFactory proxyFactory = new ProxyFactory(new DefaultService());
+			proxyFactory.addInterface(Service.class);
+			proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+			this.service = (Service) proxyFactory.getProxy();
+		}
+
+		@TearDown(Level.Trial)
+		public void shutdown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public boolean transactionTemplate(BenchmarkData data) {
+		return data.transactionTemplate.execute(status -> TransactionSynchronizationManager.isActualTransactionActive());
+	}
+
+	@Benchmark
+	public boolean transactionalProxy(BenchmarkData data) {
+		return data.service.execute();
+	}
+
+	@Benchmark
+	public boolean transactionalProxyReadOnly(BenchmarkData data) {
+		return data.service.executeReadOnly();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean transactionalProxyContended(BenchmarkData data) {
+		return data.service.execute();
+	}
+
+
+	public interface Service {
+
+		boolean execute();
+
+		boolean executeReadOnly();
+	}
+
+
+	public static class DefaultService implements Service {
+
+		@Override
+		@Transactional
+		public boolean execute() {
+			return TransactionSynchronizationManager.isActualTransactionActive();
+		}
+
+		@Override
+		@Transactional(readOnly = true)
+		public boolean executeReadOnly() {
+			return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		}
+	}
+
+}
@@ -69,13 +69,16 @@ import org.springframework.util.StringUtils;
  * will have been set to the primitive's default value instead of null.
  *
  * <p>Please note that this class is designed to provide convenience rather than high performance.
- * For best performance, consider using a custom {@link RowMapper} implementation.
+ * For best performance, consider using a custom {@link RowMapper} implementation,
+ * or a row mapper obtained from a {@link CompiledRowMapperFactory} which applies the
+ * same mapping rules without per-row introspection.
  *
  * @author Thomas Risberg
  * @author Juergen Hoeller
  * @since 2.5
  * @param <T> the result type
  * @see DataClassRowMapper
+ * @see CompiledRowMapperFactory
  */
 public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 
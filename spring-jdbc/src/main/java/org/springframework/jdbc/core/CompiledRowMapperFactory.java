@@ -0,0 +1,489 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.SimpleTypeConverter;
+import org.springframework.beans.TypeConverter;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Factory for {@link RowMapper} implementations that map rows to instances of
+ * a target class with the same column-to-property matching rules as
+ * {@link BeanPropertyRowMapper} and {@link DataClassRowMapper}, but without
+ * the per-row introspection and {@code BeanWrapper} overhead.
+ *
+ * <p>On the first row of each {@code ResultSet}, a row mapper obtained from
+ * this factory resolves a mapper that is specialized for the column layout
+ * of that {@code ResultSet}: column indexes are fixed, each column is read
+ * with a getter for the type of its target, and values are passed directly
+ * to the constructor and to setter method handles. Type conversion through
+ * the {@link ConversionService} only happens for values that do not already
+ * match their target type. Specialized mappers are cached per target class
+ * and column signature, and shared across row mappers and threads.
+ *
+ * <p>Constructor arguments are bound by parameter name if the target class
+ * does not have a default constructor, as with {@link DataClassRowMapper};
+ * remaining columns are bound to matching writable properties.
+ *
+ * @author agent
+ * @since 6.0
+ * @see BeanPropertyRowMapper
+ * @see DataClassRowMapper
+ */
+public class CompiledRowMapperFactory {
+
+	private final Map<MapperKey, CompiledRowMapper<?>> mapperCache = new ConcurrentReferenceHashMap<>(64);
+
+	@Nullable
+	private volatile ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+	private volatile boolean primitivesDefaultedForNullValue = false;
+
+
+	/**
+	 * Set a {@link ConversionService} for converting column values that do not
+	 * match the type of their target constructor parameter or property.
+	 * <p>Default is a {@link DefaultConversionService}. Changing it discards
+	 * all specialized mappers created so far.
+	 * @see BeanPropertyRowMapper#setConversionService
+	 */
+	public void setConversionService(@Nullable ConversionService conversionService) {
+		this.conversionService = conversionService;
+		this.mapperCache.clear();
+	}
+
+	/**
+	 * Return the {@link ConversionService} for converting column values, if any.
+	 */
+	@Nullable
+	public ConversionService getConversionService() {
+		return this.conversionService;
+	}
+
+	/**
+	 * Set whether a {@code null} column value for a property of primitive type
+	 * should be ignored rather than raising a {@link TypeMismatchException}.
+	 * <p>Default is {@code false}. Changing it discards all specialized mappers
+	 * created so far.
+	 * @see BeanPropertyRowMapper#setPrimitivesDefaultedForNullValue
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+		this.mapperCache.clear();
+	}
+
+	/**
+	 * Return whether a {@code null} column value for a property of primitive
+	 * type is ignored.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+
+	/**
+	 * Return a {@link RowMapper} for the given target class.
+	 * <p>The returned row mapper is thread-safe and may be reused across
+	 * queries with different column layouts.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @return the row mapper
+	 */
+	public <T> RowMapper<T> getRowMapper(Class<T> mappedClass) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		return new ResultSetShapeRowMapper<>(mappedClass);
+	}
+
+	/**
+	 * Return the mapper specialized for the target class and the column layout
+	 * of the given {@code ResultSet}, creating it if necessary.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CompiledRowMapper<T> getCompiledRowMapper(Class<T> mappedClass, ResultSet rs) throws SQLException {
+		ResultSetMetaData rsmd = rs.getMetaData();
+		String[] columns = new String[rsmd.getColumnCount()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = JdbcUtils.lookupColumnName(rsmd, i + 1);
+		}
+		MapperKey key = new MapperKey(mappedClass, columns);
+		CompiledRowMapper<T> rowMapper = (CompiledRowMapper<T>) this.mapperCache.get(key);
+		if (rowMapper == null) {
+			rowMapper = compile(mappedClass, columns, rs);
+			this.mapperCache.put(key, rowMapper);
+		}
+		return rowMapper;
+	}
+
+	private <T> CompiledRowMapper<T> compile(Class<T> mappedClass, String[] columns, ResultSet rs)
+			throws SQLException {
+
+		ConversionService conversionService = this.conversionService;
+		Constructor<T> constructor = BeanUtils.getResolvableConstructor(mappedClass);
+		int paramCount = constructor.getParameterCount();
+		ColumnReader[] constructorReaders = new ColumnReader[paramCount];
+		Set<String> constructorProperties = new HashSet<>();
+		if (paramCount > 0) {
+			String[] paramNames = BeanUtils.getParameterNames(constructor);
+			for (int i = 0; i < paramCount; i++) {
+				TypeDescriptor targetType = new TypeDescriptor(new MethodParameter(constructor, i));
+				int index = rs.findColumn(underscoreName(paramNames[i]));
+				constructorReaders[i] = new ColumnReader(index, targetType);
+				constructorProperties.add(lowerCaseName(paramNames[i]));
+				constructorProperties.add(underscoreName(paramNames[i]));
+			}
+		}
+
+		Map<String, PropertyDescriptor> mappedFields = new HashMap<>();
+		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+			if (pd.getWriteMethod() != null) {
+				mappedFields.put(lowerCaseName(pd.getName()), pd);
+				mappedFields.put(underscoreName(pd.getName()), pd);
+			}
+		}
+		mappedFields.keySet().removeAll(constructorProperties);
+
+		PropertyWriter[] propertyWriters = new PropertyWriter[columns.length];
+		int writerCount = 0;
+		for (int i = 0; i < columns.length; i++) {
+			String field = lowerCaseName(StringUtils.delete(columns[i], " "));
+			PropertyDescriptor pd = mappedFields.get(field);
+			if (pd != null) {
+				Method writeMethod = pd.getWriteMethod();
+				TypeDescriptor targetType = new TypeDescriptor(new MethodParameter(writeMethod, 0));
+				propertyWriters[writerCount++] = new PropertyWriter(columns[i], pd.getName(),
+						new ColumnReader(i + 1, targetType), writeMethod,
+						this.primitivesDefaultedForNullValue);
+			}
+		}
+
+		return new CompiledRowMapper<>(constructor, constructorReaders,
+				Arrays.copyOf(propertyWriters, writerCount), conversionService);
+	}
+
+	private static String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+	/**
+	 * Convert a name in camelCase to an underscored name in lower case,
+	 * as in {@link BeanPropertyRowMapper#underscoreName}.
+	 */
+	private static String underscoreName(String name) {
+		if (!StringUtils.hasLength(name)) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c)) {
+				result.append('_').append(Character.toLowerCase(c));
+			}
+			else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+
+	/**
+	 * RowMapper returned by the factory, resolving the specialized mapper once
+	 * per {@code ResultSet}.
+	 */
+	private final class ResultSetShapeRowMapper<T> implements RowMapper<T> {
+
+		private final Class<T> mappedClass;
+
+		@Nullable
+		private volatile ResultSetBinding<T> binding;
+
+		ResultSetShapeRowMapper(Class<T> mappedClass) {
+			this.mappedClass = mappedClass;
+		}
+
+		@Override
+		public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+			ResultSetBinding<T> binding = this.binding;
+			if (binding == null || binding.get() != rs) {
+				binding = new ResultSetBinding<>(rs, getCompiledRowMapper(this.mappedClass, rs));
+				this.binding = binding;
+			}
+			return binding.rowMapper.mapRow(rs, binding.typeConverter);
+		}
+	}
+
+
+	/**
+	 * Specialized mapper for the {@code ResultSet} it is bound to, without
+	 * holding on to the {@code ResultSet} after use, along with a type
+	 * converter for the values of that {@code ResultSet}: unlike the shared
+	 * mapper, a binding is only used by the thread reading the {@code ResultSet}.
+	 */
+	private static final class ResultSetBinding<T> extends WeakReference<ResultSet> {
+
+		private final CompiledRowMapper<T> rowMapper;
+
+		private final SimpleTypeConverter typeConverter;
+
+		ResultSetBinding(ResultSet rs, CompiledRowMapper<T> rowMapper) {
+			super(rs);
+			this.rowMapper = rowMapper;
+			this.typeConverter = rowMapper.createTypeConverter();
+		}
+	}
+
+
+	/**
+	 * Row mapper for a specific target class and column layout.
+	 */
+	private static final class CompiledRowMapper<T> {
+
+		private final Constructor<T> constructor;
+
+		private final ColumnReader[] constructorReaders;
+
+		private final PropertyWriter[] propertyWriters;
+
+		@Nullable
+		private final ConversionService conversionService;
+
+		CompiledRowMapper(Constructor<T> constructor, ColumnReader[] constructorReaders,
+				PropertyWriter[] propertyWriters, @Nullable ConversionService conversionService) {
+
+			this.constructor = constructor;
+			this.constructorReaders = constructorReaders;
+			this.propertyWriters = propertyWriters;
+			this.conversionService = conversionService;
+		}
+
+		SimpleTypeConverter createTypeConverter() {
+			SimpleTypeConverter typeConverter = new SimpleTypeConverter();
+			typeConverter.setConversionService(this.conversionService);
+			return typeConverter;
+		}
+
+		T mapRow(ResultSet rs, TypeConverter typeConverter) throws SQLException {
+			Object[] args = new Object[this.constructorReaders.length];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = this.constructorReaders[i].read(rs, typeConverter);
+			}
+			T mappedObject = BeanUtils.instantiateClass(this.constructor, args);
+			for (PropertyWriter writer : this.propertyWriters) {
+				writer.write(mappedObject, rs, typeConverter);
+			}
+			return mappedObject;
+		}
+	}
+
+
+	/**
+	 * Reads a column with a getter for the target type, converting the value
+	 * only if it does not match the target type.
+	 */
+	private static final class ColumnReader {
+
+		private final int index;
+
+		private final Class<?> type;
+
+		private final TypeDescriptor targetType;
+
+		private final ColumnGetter getter;
+
+		ColumnReader(int index, TypeDescriptor targetType) {
+			this.index = index;
+			this.type = targetType.getType();
+			this.targetType = targetType;
+			this.getter = ColumnGetter.forType(this.type);
+		}
+
+		@Nullable
+		Object read(ResultSet rs, TypeConverter typeConverter) throws SQLException {
+			Object value = this.getter.get(rs, this.index);
+			if (value == null || ClassUtils.isAssignableValue(this.type, value)) {
+				return value;
+			}
+			return typeConverter.convertIfNecessary(value, this.type, this.targetType);
+		}
+
+		boolean isPrimitive() {
+			return this.type.isPrimitive();
+		}
+	}
+
+
+	/**
+	 * Writes a column value to a property through its setter method.
+	 */
+	private static final class PropertyWriter {
+
+		private final String column;
+
+		private final String propertyName;
+
+		private final ColumnReader reader;
+
+		private final MethodHandle setter;
+
+		private final boolean primitivesDefaultedForNullValue;
+
+		PropertyWriter(String column, String propertyName, ColumnReader reader, Method writeMethod,
+				boolean primitivesDefaultedForNullValue) {
+
+			this.column = column;
+			this.propertyName = propertyName;
+			this.reader = reader;
+			this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+			try {
+				ReflectionUtils.makeAccessible(writeMethod);
+				this.setter = MethodHandles.lookup().unreflect(writeMethod)
+						.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			}
+			catch (IllegalAccessException ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column '" + column + "' to property '" + propertyName + "'", ex);
+			}
+		}
+
+		void write(Object mappedObject, ResultSet rs, TypeConverter typeConverter) throws SQLException {
+			Object value = this.reader.read(rs, typeConverter);
+			if (value == null && this.reader.isPrimitive()) {
+				if (this.primitivesDefaultedForNullValue) {
+					return;
+				}
+				throw new TypeMismatchException(value, this.reader.type);
+			}
+			try {
+				this.setter.invokeExact(mappedObject, value);
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column '" + this.column + "' to property '" + this.propertyName + "'", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Typed getter for a column value, resolved once for the target type.
+	 * @see JdbcUtils#getResultSetValue(ResultSet, int, Class)
+	 */
+	@FunctionalInterface
+	private interface ColumnGetter {
+
+		@Nullable
+		Object get(ResultSet rs, int index) throws SQLException;
+
+		static ColumnGetter forType(Class<?> type) {
+			if (String.class == type) {
+				return ResultSet::getString;
+			}
+			else if (boolean.class == type || Boolean.class == type) {
+				return (rs, index) -> {
+					boolean value = rs.getBoolean(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (int.class == type || Integer.class == type) {
+				return (rs, index) -> {
+					int value = rs.getInt(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (long.class == type || Long.class == type) {
+				return (rs, index) -> {
+					long value = rs.getLong(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (double.class == type || Double.class == type) {
+				return (rs, index) -> {
+					double value = rs.getDouble(index);
+					return (rs.wasNull() ? null : value);
+				};
+			}
+			else if (BigDecimal.class == type) {
+				return ResultSet::getBigDecimal;
+			}
+			return (rs, index) -> JdbcUtils.getResultSetValue(rs, index, type);
+		}
+	}
+
+
+	/**
+	 * Cache key for a target class and column signature.
+	 */
+	private static final class MapperKey {
+
+		private final Class<?> mappedClass;
+
+		private final String[] columns;
+
+		private final int hashCode;
+
+		MapperKey(Class<?> mappedClass, String[] columns) {
+			this.mappedClass = mappedClass;
+			this.columns = columns;
+			this.hashCode = 31 * mappedClass.hashCode() + Arrays.hashCode(columns);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof MapperKey otherKey &&
+					this.mappedClass == otherKey.mappedClass && Arrays.equals(this.columns, otherKey.columns)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
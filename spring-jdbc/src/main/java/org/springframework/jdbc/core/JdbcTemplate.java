@@ -120,6 +120,12 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private int fetchSize = -1;
 
+	/**
+	 * If this variable is set to a value other than -1, it will be used for setting the
+	 * fetchSize property on statements whose results are returned as a Stream.
+	 */
+	private int streamFetchSize = -1;
+
 	/**
 	 * If this variable is set to a non-negative value, it will be used for setting the
 	 * maxRows property on statements used for query processing.
@@ -132,6 +138,14 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	 */
 	private int queryTimeout = -1;
 
+	/** Listener to notify of each statement execution, if any. */
+	@Nullable
+	private StatementExecutionListener statementExecutionListener;
+
+	/** Cache of PreparedStatements for reuse within transactions, if enabled. */
+	@Nullable
+	private PreparedStatementCache statementCache;
+
 	/**
 	 * If this variable is set to true, then all results checking will be bypassed for any
 	 * callable statement processing. This can be used to avoid a bug in some older Oracle
@@ -227,6 +241,31 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return this.fetchSize;
 	}
 
+	/**
+	 * Set the fetch size for statements whose results are returned as a
+	 * {@link Stream}, e.g. through {@link #queryForStream} or {@link #callForStream},
+	 * overriding the general {@link #setFetchSize fetch size} for those statements.
+	 * <p>Streams are meant for results too large to be held in memory: a bounded
+	 * fetch size lets the driver fetch rows in chunks as the stream is consumed,
+	 * rather than reading the entire result upfront. Note that some drivers only
+	 * use a server-side cursor within a transaction, e.g. PostgreSQL.
+	 * <p>Default is -1, indicating to use the general fetch size.
+	 * @since 6.0
+	 * @see java.sql.Statement#setFetchSize
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	/**
+	 * Return the fetch size specified for statements whose results are
+	 * returned as a {@link Stream}.
+	 * @since 6.0
+	 */
+	public int getStreamFetchSize() {
+		return this.streamFetchSize;
+	}
+
 	/**
 	 * Set the maximum number of rows for this JdbcTemplate. This is important for
 	 * processing subsets of large result sets, avoiding to read and hold the entire
@@ -318,6 +357,54 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Set a listener to be notified of each statement executed through this
+	 * template, with its execution time, the number of rows fetched, and the
+	 * estimated number of fetch round trips.
+	 * <p>Default is none. Note that counting rows requires proxies for the
+	 * JDBC Statements and ResultSets handed to callbacks.
+	 * @since 6.0
+	 * @see org.springframework.jdbc.core.support.StatementMetricsCollector
+	 */
+	public void setStatementExecutionListener(@Nullable StatementExecutionListener statementExecutionListener) {
+		this.statementExecutionListener = statementExecutionListener;
+	}
+
+	/**
+	 * Return the listener to be notified of each statement execution, if any.
+	 * @since 6.0
+	 */
+	@Nullable
+	public StatementExecutionListener getStatementExecutionListener() {
+		return this.statementExecutionListener;
+	}
+
+	/**
+	 * Set the maximum number of PreparedStatements per Connection to keep open
+	 * for reuse, keyed by SQL, within the current transaction.
+	 * <p>Statements are only cached while transaction synchronization is
+	 * active, and closed on completion of the transaction. This is intended
+	 * for connection pools and drivers that do not cache statements themselves.
+	 * Statements are reused as-is apart from clearing their parameters, so
+	 * callbacks should not change settings of cached statements.
+	 * <p>Default is 0, i.e. no caching.
+	 * @since 6.0
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCache = (statementCacheSize > 0 ? new PreparedStatementCache(statementCacheSize) : null);
+	}
+
+	/**
+	 * Return the maximum number of PreparedStatements per Connection to keep
+	 * open for reuse within the current transaction.
+	 * @since 6.0
+	 */
+	public int getStatementCacheSize() {
+		PreparedStatementCache statementCache = this.statementCache;
+		return (statementCache != null ? statementCache.getCacheSize() : 0);
+	}
+
+
 	//-------------------------------------------------------------------------
 	// Methods dealing with a plain java.sql.Connection
 	//-------------------------------------------------------------------------
@@ -375,14 +462,22 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		Statement stmt = null;
+		StatementInstrumentation instrumentation = startInstrumentation("StatementCallback", action);
 		try {
 			stmt = con.createStatement();
 			applyStatementSettings(stmt);
-			T result = action.doInStatement(stmt);
+			T result = action.doInStatement(
+					instrumentation != null ? instrumentation.decorate(stmt, Statement.class) : stmt);
 			handleWarnings(stmt);
+			if (instrumentation != null) {
+				instrumentation.succeeded();
+			}
 			return result;
 		}
 		catch (SQLException ex) {
+			if (instrumentation != null) {
+				instrumentation.failed(ex);
+			}
 			// Release Connection early, to avoid potential connection pool deadlock
 			// in the case when the exception translator hasn't been initialized yet.
 			String sql = getSql(action);
@@ -393,6 +488,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("StatementCallback", sql, ex);
 		}
 		finally {
+			if (instrumentation != null) {
+				instrumentation.finish(!closeResources);
+			}
 			if (closeResources) {
 				JdbcUtils.closeStatement(stmt);
 				DataSourceUtils.releaseConnection(con, getDataSource());
@@ -480,6 +578,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		class StreamStatementCallback implements StatementCallback<Stream<T>>, SqlProvider {
 			@Override
 			public Stream<T> doInStatement(Statement stmt) throws SQLException {
+				applyStreamSettings(stmt);
 				ResultSet rs = stmt.executeQuery(sql);
 				Connection con = stmt.getConnection();
 				return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(() -> {
@@ -645,14 +744,23 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		PreparedStatement ps = null;
+		PreparedStatementCache statementCache = (closeResources ? this.statementCache : null);
+		StatementInstrumentation instrumentation = startInstrumentation("PreparedStatementCallback", psc);
 		try {
-			ps = psc.createPreparedStatement(con);
+			ps = psc.createPreparedStatement(statementCache != null ? statementCache.getConnectionToUse(con) : con);
 			applyStatementSettings(ps);
-			T result = action.doInPreparedStatement(ps);
+			T result = action.doInPreparedStatement(
+					instrumentation != null ? instrumentation.decorate(ps, PreparedStatement.class) : ps);
 			handleWarnings(ps);
+			if (instrumentation != null) {
+				instrumentation.succeeded();
+			}
 			return result;
 		}
 		catch (SQLException ex) {
+			if (instrumentation != null) {
+				instrumentation.failed(ex);
+			}
 			// Release Connection early, to avoid potential connection pool deadlock
 			// in the case when the exception translator hasn't been initialized yet.
 			if (psc instanceof ParameterDisposer) {
@@ -660,18 +768,21 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			}
 			String sql = getSql(psc);
 			psc = null;
-			JdbcUtils.closeStatement(ps);
+			closeStatement(statementCache, con, ps, false);
 			ps = null;
 			DataSourceUtils.releaseConnection(con, getDataSource());
 			con = null;
 			throw translateException("PreparedStatementCallback", sql, ex);
 		}
 		finally {
+			if (instrumentation != null) {
+				instrumentation.finish(!closeResources);
+			}
 			if (closeResources) {
 				if (psc instanceof ParameterDisposer) {
 					((ParameterDisposer) psc).cleanupParameters();
 				}
-				JdbcUtils.closeStatement(ps);
+				closeStatement(statementCache, con, ps, true);
 				DataSourceUtils.releaseConnection(con, getDataSource());
 			}
 		}
@@ -832,6 +943,7 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			RowMapper<T> rowMapper) throws DataAccessException {
 
 		return result(execute(psc, ps -> {
+			applyStreamSettings(ps);
 			if (pss != null) {
 				pss.setValues(ps);
 			}
@@ -1169,9 +1281,19 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	// Methods dealing with callable statements
 	//-------------------------------------------------------------------------
 
-	@Override
+	/**
+	 * Execute a JDBC data access operation, implemented as callback action
+	 * working on a JDBC CallableStatement.
+	 * @param csc a callback that creates a CallableStatement given a Connection
+	 * @param action a callback that specifies the action
+	 * @param closeResources whether to close the statement and release the
+	 * Connection once the action returns; they are always closed and released
+	 * if the action fails
+	 * @return a result object returned by the action, or {@code null} if none
+	 * @throws DataAccessException if there is any problem
+	 */
 	@Nullable
-	public <T> T execute(CallableStatementCreator csc, CallableStatementCallback<T> action)
+	private <T> T execute(CallableStatementCreator csc, CallableStatementCallback<T> action, boolean closeResources)
 			throws DataAccessException {
 
 		Assert.notNull(csc, "CallableStatementCreator must not be null");
@@ -1183,14 +1305,24 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
 		CallableStatement cs = null;
+		StatementInstrumentation instrumentation = startInstrumentation("CallableStatementCallback", csc);
+		boolean completed = false;
 		try {
 			cs = csc.createCallableStatement(con);
 			applyStatementSettings(cs);
-			T result = action.doInCallableStatement(cs);
+			T result = action.doInCallableStatement(
+					instrumentation != null ? instrumentation.decorate(cs, CallableStatement.class) : cs);
 			handleWarnings(cs);
+			if (instrumentation != null) {
+				instrumentation.succeeded();
+			}
+			completed = true;
 			return result;
 		}
 		catch (SQLException ex) {
+			if (instrumentation != null) {
+				instrumentation.failed(ex);
+			}
 			// Release Connection early, to avoid potential connection pool deadlock
 			// in the case when the exception translator hasn't been initialized yet.
 			if (csc instanceof ParameterDisposer) {
@@ -1205,14 +1337,27 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			throw translateException("CallableStatementCallback", sql, ex);
 		}
 		finally {
-			if (csc instanceof ParameterDisposer) {
-				((ParameterDisposer) csc).cleanupParameters();
+			if (instrumentation != null) {
+				instrumentation.finish(!closeResources);
+			}
+			if (closeResources || !completed) {
+				if (csc instanceof ParameterDisposer) {
+					((ParameterDisposer) csc).cleanupParameters();
+				}
+				JdbcUtils.closeStatement(cs);
+				DataSourceUtils.releaseConnection(con, getDataSource());
 			}
-			JdbcUtils.closeStatement(cs);
-			DataSourceUtils.releaseConnection(con, getDataSource());
 		}
 	}
 
+	@Override
+	@Nullable
+	public <T> T execute(CallableStatementCreator csc, CallableStatementCallback<T> action)
+			throws DataAccessException {
+
+		return execute(csc, action, true);
+	}
+
 	@Override
 	@Nullable
 	public <T> T execute(String callString, CallableStatementCallback<T> action) throws DataAccessException {
@@ -1260,6 +1405,48 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		return result;
 	}
 
+	/**
+	 * Execute an SQL call and map the first {@code ResultSet} it returns to a
+	 * result object via a RowMapper, returning a Stream that fetches rows
+	 * lazily as it is consumed.
+	 * <p>Any update counts returned ahead of the first {@code ResultSet} are
+	 * skipped. Output parameters and any further results are not available.
+	 * The returned Stream holds the statement and Connection open: it needs
+	 * to be closed once fully processed (e.g. through a try-with-resources clause).
+	 * @param csc a callback that creates a CallableStatement given a Connection
+	 * @param rowMapper a callback that will map one object per row
+	 * @return the result Stream, containing mapped objects, or an empty Stream
+	 * if the call did not return a {@code ResultSet}
+	 * @throws DataAccessException if the call fails
+	 * @since 6.0
+	 * @see #setStreamFetchSize
+	 */
+	public <T> Stream<T> callForStream(CallableStatementCreator csc, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return result(execute(csc, cs -> {
+			applyStreamSettings(cs);
+			boolean retVal = cs.execute();
+			while (!retVal && cs.getUpdateCount() != -1) {
+				retVal = cs.getMoreResults();
+			}
+			ResultSet rs = (retVal ? cs.getResultSet() : null);
+			Connection con = cs.getConnection();
+			Runnable closeHandler = () -> {
+				JdbcUtils.closeResultSet(rs);
+				if (csc instanceof ParameterDisposer) {
+					((ParameterDisposer) csc).cleanupParameters();
+				}
+				JdbcUtils.closeStatement(cs);
+				DataSourceUtils.releaseConnection(con, getDataSource());
+			};
+			if (rs == null) {
+				return Stream.<T>empty().onClose(closeHandler);
+			}
+			return new ResultSetSpliterator<>(rs, rowMapper).stream().onClose(closeHandler);
+		}, false));
+	}
+
 	/**
 	 * Extract returned ResultSets from the completed stored procedure.
 	 * @param cs a JDBC wrapper for the stored procedure
@@ -1446,6 +1633,23 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 	}
 
+	/**
+	 * Prepare the given JDBC Statement for a result that is returned as a
+	 * {@link Stream}, applying the {@link #setStreamFetchSize stream fetch size}
+	 * if specified. Statements are created with forward-only, read-only cursors
+	 * unless the statement creator specifies otherwise.
+	 * @param stmt the JDBC Statement to prepare
+	 * @throws SQLException if thrown by JDBC API
+	 * @since 6.0
+	 * @see #setStreamFetchSize
+	 */
+	protected void applyStreamSettings(Statement stmt) throws SQLException {
+		int streamFetchSize = getStreamFetchSize();
+		if (streamFetchSize != -1) {
+			stmt.setFetchSize(streamFetchSize);
+		}
+	}
+
 	/**
 	 * Prepare the given JDBC Statement (or PreparedStatement or CallableStatement),
 	 * applying statement settings such as fetch size, max rows, and query timeout.
@@ -1541,6 +1745,33 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 	}
 
 
+	/**
+	 * Start recording a statement execution, if a listener is configured.
+	 * @param task readable text describing the task being attempted
+	 * @param sqlProvider object which is potentially an SqlProvider
+	 * @return the recording, or {@code null} if no listener is configured
+	 */
+	@Nullable
+	private StatementInstrumentation startInstrumentation(String task, Object sqlProvider) {
+		StatementExecutionListener listener = this.statementExecutionListener;
+		return (listener != null ? new StatementInstrumentation(listener, task, getSql(sqlProvider)) : null);
+	}
+
+	/**
+	 * Close the given statement, or check it back into the given statement
+	 * cache for reuse.
+	 */
+	private static void closeStatement(@Nullable PreparedStatementCache statementCache, @Nullable Connection con,
+			@Nullable PreparedStatement ps, boolean reuse) {
+
+		if (statementCache != null && con != null) {
+			statementCache.release(con, ps, reuse);
+		}
+		else {
+			JdbcUtils.closeStatement(ps);
+		}
+	}
+
 	/**
 	 * Determine SQL from potential provider object.
 	 * @param sqlProvider object which is potentially an SqlProvider
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of PreparedStatements for {@link JdbcTemplate}, keeping up to a given
+ * number of statements per Connection, keyed by SQL, open for reuse within
+ * the current transaction.
+ *
+ * <p>Cached statements are bound to the current thread for the duration of
+ * the transaction, or more generally of the current transaction
+ * synchronization scope, and closed on its completion: JDBC statements
+ * generally hold on to their Connection, and a pooled Connection may be
+ * handed out to other threads once released. Outside of transaction
+ * synchronization, statements are not cached.
+ *
+ * <p>Statements are checked out of the cache for the duration of their use
+ * and checked back in once the statement callback has completed, so a
+ * statement is never used for overlapping executions.
+ *
+ * @author agent
+ * @since 6.0
+ * @see JdbcTemplate#setStatementCacheSize
+ */
+final class PreparedStatementCache {
+
+	private final int cacheSize;
+
+
+	PreparedStatementCache(int cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+
+	int getCacheSize() {
+		return this.cacheSize;
+	}
+
+	/**
+	 * Return the Connection to create a statement with: a proxy for the given
+	 * Connection that prepares statements through this cache if transaction
+	 * synchronization is active, or the given Connection itself otherwise.
+	 */
+	Connection getConnectionToUse(Connection con) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return con;
+		}
+		return (Connection) Proxy.newProxyInstance(
+				ConnectionProxy.class.getClassLoader(),
+				new Class<?>[] {ConnectionProxy.class},
+				new CachingInvocationHandler(con));
+	}
+
+	/**
+	 * Release the given statement, created through the Connection returned by
+	 * {@link #getConnectionToUse} for the given Connection: checking it back
+	 * into the cache if {@code reuse} is {@code true} and it has been obtained
+	 * from the cache, closing it otherwise.
+	 */
+	void release(Connection con, @Nullable PreparedStatement ps, boolean reuse) {
+		if (ps == null) {
+			return;
+		}
+		Object resource = TransactionSynchronizationManager.getResource(this);
+		if (!(resource instanceof CachedStatements statements) || !statements.checkIn(con, ps, reuse)) {
+			JdbcUtils.closeStatement(ps);
+		}
+	}
+
+	private CachedStatements obtainCachedStatements() {
+		Object resource = TransactionSynchronizationManager.getResource(this);
+		if (resource instanceof CachedStatements statements) {
+			return statements;
+		}
+		CachedStatements statements = new CachedStatements();
+		TransactionSynchronizationManager.bindResource(this, statements);
+		TransactionSynchronizationManager.registerSynchronization(statements);
+		return statements;
+	}
+
+
+	/**
+	 * Statements cached within the current transaction synchronization scope,
+	 * per Connection.
+	 */
+	private final class CachedStatements implements TransactionSynchronization {
+
+		private final Map<Connection, ConnectionStatements> statementsPerConnection = new HashMap<>(4);
+
+		PreparedStatement checkOut(Connection con, String sql) throws SQLException {
+			return this.statementsPerConnection.computeIfAbsent(con, key -> new ConnectionStatements())
+					.checkOut(con, sql);
+		}
+
+		boolean checkIn(Connection con, PreparedStatement ps, boolean reuse) {
+			ConnectionStatements statements = this.statementsPerConnection.get(con);
+			return (statements != null && statements.checkIn(ps, reuse));
+		}
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(PreparedStatementCache.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(PreparedStatementCache.this, this);
+		}
+
+		@Override
+		public int getOrder() {
+			// Close statements before their Connection gets released
+			return DataSourceUtils.CONNECTION_SYNCHRONIZATION_ORDER - 1;
+		}
+
+		@Override
+		public void beforeCompletion() {
+			close();
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(PreparedStatementCache.this);
+			close();
+		}
+
+		private void close() {
+			for (ConnectionStatements statements : this.statementsPerConnection.values()) {
+				statements.close();
+			}
+			this.statementsPerConnection.clear();
+		}
+	}
+
+
+	/**
+	 * Cached statements of a single Connection, in least-recently-used order.
+	 */
+	private final class ConnectionStatements {
+
+		private final LinkedHashMap<String, PreparedStatement> cachedStatements =
+				new LinkedHashMap<>(16, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+						if (size() > cacheSize) {
+							JdbcUtils.closeStatement(eldest.getValue());
+							return true;
+						}
+						return false;
+					}
+				};
+
+		private final Map<PreparedStatement, String> checkedOutStatements = new IdentityHashMap<>();
+
+		PreparedStatement checkOut(Connection con, String sql) throws SQLException {
+			PreparedStatement ps = this.cachedStatements.remove(sql);
+			if (ps == null || ps.isClosed()) {
+				ps = con.prepareStatement(sql);
+			}
+			this.checkedOutStatements.put(ps, sql);
+			return ps;
+		}
+
+		boolean checkIn(PreparedStatement ps, boolean reuse) {
+			String sql = this.checkedOutStatements.remove(ps);
+			if (sql == null) {
+				return false;
+			}
+			if (!reuse || this.cachedStatements.containsKey(sql)) {
+				JdbcUtils.closeStatement(ps);
+				return true;
+			}
+			try {
+				ps.clearParameters();
+				// Query timeouts may be derived from a transaction deadline
+				if (ps.getQueryTimeout() != 0) {
+					ps.setQueryTimeout(0);
+				}
+			}
+			catch (SQLException ex) {
+				JdbcUtils.closeStatement(ps);
+				return true;
+			}
+			this.cachedStatements.put(sql, ps);
+			return true;
+		}
+
+		void close() {
+			for (PreparedStatement ps : this.cachedStatements.values()) {
+				JdbcUtils.closeStatement(ps);
+			}
+			this.cachedStatements.clear();
+		}
+	}
+
+
+	/**
+	 * Invocation handler that prepares statements through the cache.
+	 */
+	private class CachingInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		CachingInvocationHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "getTargetConnection":
+					return this.target;
+				case "unwrap":
+					return (((Class<?>) args[0]).isInstance(proxy) ? proxy : this.target.unwrap((Class<?>) args[0]));
+				case "isWrapperFor":
+					return (((Class<?>) args[0]).isInstance(proxy) || this.target.isWrapperFor((Class<?>) args[0]));
+				case "prepareStatement":
+					if (args.length == 1) {
+						return obtainCachedStatements().checkOut(this.target, (String) args[0]);
+					}
+					break;
+			}
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Details of a single statement execution through a {@link JdbcTemplate},
+ * as passed to a {@link StatementExecutionListener}.
+ *
+ * <p>The execution time covers the creation of the statement, its execution,
+ * and the processing of its results by the statement callback. For results
+ * returned as a {@link java.util.stream.Stream}, the execution is complete
+ * once the Stream is closed, covering all rows fetched through it.
+ *
+ * @author agent
+ * @since 6.0
+ * @see StatementExecutionListener
+ */
+public final class StatementExecution {
+
+	private final String task;
+
+	@Nullable
+	private final String sql;
+
+	private final long executionTimeNanos;
+
+	private final long rowsFetched;
+
+	private final long fetchRoundTrips;
+
+	@Nullable
+	private final SQLException exception;
+
+	private final boolean successful;
+
+
+	StatementExecution(String task, @Nullable String sql, long executionTimeNanos, long rowsFetched,
+			long fetchRoundTrips, @Nullable SQLException exception, boolean successful) {
+
+		this.task = task;
+		this.sql = sql;
+		this.executionTimeNanos = executionTimeNanos;
+		this.rowsFetched = rowsFetched;
+		this.fetchRoundTrips = fetchRoundTrips;
+		this.exception = exception;
+		this.successful = successful;
+	}
+
+
+	/**
+	 * Return the kind of callback the statement was executed for,
+	 * e.g. "PreparedStatementCallback".
+	 */
+	public String getTask() {
+		return this.task;
+	}
+
+	/**
+	 * Return the SQL that was executed, or {@code null} if not known.
+	 * @see SqlProvider
+	 */
+	@Nullable
+	public String getSql() {
+		return this.sql;
+	}
+
+	/**
+	 * Return the execution time in nanoseconds.
+	 */
+	public long getExecutionTimeNanos() {
+		return this.executionTimeNanos;
+	}
+
+	/**
+	 * Return the execution time.
+	 */
+	public Duration getExecutionTime() {
+		return Duration.ofNanos(this.executionTimeNanos);
+	}
+
+	/**
+	 * Return the number of rows fetched from all ResultSets of the statement.
+	 */
+	public long getRowsFetched() {
+		return this.rowsFetched;
+	}
+
+	/**
+	 * Return the number of round trips to the database for fetching rows,
+	 * estimated from the number of rows fetched and the fetch size in effect
+	 * for each ResultSet: one for a ResultSet with a driver-specific default
+	 * fetch size, and one per full fetch plus a final one otherwise.
+	 * Returns 0 for statements without ResultSets.
+	 */
+	public long getFetchRoundTrips() {
+		return this.fetchRoundTrips;
+	}
+
+	/**
+	 * Return the SQLException that the statement failed with, if any.
+	 */
+	@Nullable
+	public SQLException getException() {
+		return this.exception;
+	}
+
+	/**
+	 * Return whether the statement completed successfully: {@code false}
+	 * if it failed with an {@link #getException() SQLException} or with a
+	 * runtime exception thrown by the statement callback.
+	 */
+	public boolean isSuccessful() {
+		return this.successful;
+	}
+
+
+	@Override
+	public String toString() {
+		return "StatementExecution: task '" + this.task + "', SQL [" + this.sql + "], " +
+				this.executionTimeNanos / 1_000_000 + " ms, " + this.rowsFetched + " rows fetched in " +
+				this.fetchRoundTrips + " round trips" + (this.successful ? "" : ", failed");
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+/**
+ * Callback interface for listeners to be notified of each statement executed
+ * through a {@link JdbcTemplate}, for example in order to record execution
+ * times and fetched rows per SQL statement.
+ *
+ * <p>Listeners are invoked synchronously on the thread that executed the
+ * statement, after the statement callback has returned or failed, and should
+ * therefore return quickly. For results returned as a
+ * {@link java.util.stream.Stream}, listeners are invoked on the thread that
+ * closes the Stream instead.
+ *
+ * @author agent
+ * @since 6.0
+ * @see JdbcTemplate#setStatementExecutionListener
+ * @see org.springframework.jdbc.core.support.StatementMetricsCollector
+ */
+@FunctionalInterface
+public interface StatementExecutionListener {
+
+	/**
+	 * Notification that a statement has been executed.
+	 * @param execution details of the execution
+	 */
+	void statementExecuted(StatementExecution execution);
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Records a single statement execution within {@link JdbcTemplate} and
+ * reports it to a {@link StatementExecutionListener}.
+ *
+ * <p>Rows are counted through proxies for the Statement handed to the
+ * statement callback and for the ResultSets obtained from it. Executions
+ * whose ResultSets stay open beyond the callback, as for streamed results,
+ * are reported once all of those ResultSets have been closed.
+ *
+ * @author agent
+ * @since 6.0
+ */
+final class StatementInstrumentation {
+
+	private static final Log logger = LogFactory.getLog(StatementInstrumentation.class);
+
+
+	private final StatementExecutionListener listener;
+
+	private final String task;
+
+	@Nullable
+	private final String sql;
+
+	private final long startTime = System.nanoTime();
+
+	private final List<ResultSetCounter> resultSets = new ArrayList<>(1);
+
+	@Nullable
+	private SQLException exception;
+
+	private boolean successful;
+
+	private boolean deferred;
+
+	private boolean reported;
+
+
+	StatementInstrumentation(StatementExecutionListener listener, String task, @Nullable String sql) {
+		this.listener = listener;
+		this.task = task;
+		this.sql = sql;
+	}
+
+
+	/**
+	 * Create a proxy for the given Statement that counts the rows fetched
+	 * from its ResultSets.
+	 */
+	@SuppressWarnings("unchecked")
+	<S extends Statement> S decorate(S statement, Class<S> statementType) {
+		return (S) Proxy.newProxyInstance(StatementInstrumentation.class.getClassLoader(),
+				new Class<?>[] {statementType}, new StatementInvocationHandler(statement));
+	}
+
+	void succeeded() {
+		this.successful = true;
+	}
+
+	void failed(SQLException ex) {
+		this.exception = ex;
+	}
+
+	/**
+	 * Report the execution to the listener.
+	 * @param deferUntilClosed whether to defer the report of a successful
+	 * execution until the ResultSets still open have been closed
+	 */
+	synchronized void finish(boolean deferUntilClosed) {
+		if (deferUntilClosed && this.successful) {
+			for (ResultSetCounter resultSet : this.resultSets) {
+				if (!resultSet.closed) {
+					this.deferred = true;
+					return;
+				}
+			}
+		}
+		report();
+	}
+
+	private synchronized void resultSetClosed() {
+		if (this.deferred) {
+			for (ResultSetCounter resultSet : this.resultSets) {
+				if (!resultSet.closed) {
+					return;
+				}
+			}
+			report();
+		}
+	}
+
+	private void report() {
+		if (this.reported) {
+			return;
+		}
+		this.reported = true;
+		long executionTime = System.nanoTime() - this.startTime;
+		long rowsFetched = 0;
+		long fetchRoundTrips = 0;
+		for (ResultSetCounter resultSet : this.resultSets) {
+			rowsFetched += resultSet.rows;
+			fetchRoundTrips += (resultSet.fetchSize > 0 ? resultSet.rows / resultSet.fetchSize + 1 : 1);
+		}
+		try {
+			this.listener.statementExecuted(new StatementExecution(this.task, this.sql, executionTime,
+					rowsFetched, fetchRoundTrips, this.exception, this.successful));
+		}
+		catch (Throwable ex) {
+			logger.warn("StatementExecutionListener threw exception", ex);
+		}
+	}
+
+	private ResultSet decorate(ResultSet resultSet) {
+		int fetchSize;
+		try {
+			fetchSize = resultSet.getFetchSize();
+		}
+		catch (SQLException ex) {
+			fetchSize = 0;
+		}
+		ResultSetCounter counter = new ResultSetCounter(resultSet, fetchSize);
+		synchronized (this) {
+			this.resultSets.add(counter);
+		}
+		return (ResultSet) Proxy.newProxyInstance(StatementInstrumentation.class.getClassLoader(),
+				new Class<?>[] {ResultSet.class}, counter);
+	}
+
+
+	@Nullable
+	private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+	@Nullable
+	private static Object invokeWrapperMethod(Object proxy, Object target, Method method, Object[] args)
+			throws Throwable {
+
+		if (method.getName().equals("unwrap")) {
+			return (((Class<?>) args[0]).isInstance(proxy) ? proxy : invokeTarget(target, method, args));
+		}
+		return (((Class<?>) args[0]).isInstance(proxy) || (Boolean) invokeTarget(target, method, args));
+	}
+
+
+	/**
+	 * Invocation handler for Statements, decorating returned ResultSets.
+	 */
+	private class StatementInvocationHandler implements InvocationHandler {
+
+		private final Statement target;
+
+		StatementInvocationHandler(Statement target) {
+			this.target = target;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "unwrap":
+				case "isWrapperFor":
+					return invokeWrapperMethod(proxy, this.target, method, args);
+			}
+			Object retVal = invokeTarget(this.target, method, args);
+			if (retVal instanceof ResultSet resultSet &&
+					(method.getName().equals("executeQuery") || method.getName().equals("getResultSet"))) {
+				return decorate(resultSet);
+			}
+			return retVal;
+		}
+	}
+
+
+	/**
+	 * Invocation handler for ResultSets, counting the rows fetched.
+	 */
+	private class ResultSetCounter implements InvocationHandler {
+
+		private final ResultSet target;
+
+		private final int fetchSize;
+
+		private long rows;
+
+		private boolean closed;
+
+		ResultSetCounter(ResultSet target, int fetchSize) {
+			this.target = target;
+			this.fetchSize = fetchSize;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "unwrap":
+				case "isWrapperFor":
+					return invokeWrapperMethod(proxy, this.target, method, args);
+			}
+			if (method.getName().equals("close")) {
+				try {
+					return invokeTarget(this.target, method, args);
+				}
+				finally {
+					synchronized (StatementInstrumentation.this) {
+						this.closed = true;
+					}
+					resultSetClosed();
+				}
+			}
+			Object retVal = invokeTarget(this.target, method, args);
+			if (Boolean.TRUE.equals(retVal) && method.getName().equals("next")) {
+				this.rows++;
+			}
+			return retVal;
+		}
+	}
+
+}
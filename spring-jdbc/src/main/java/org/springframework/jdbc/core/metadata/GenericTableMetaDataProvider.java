@@ -70,6 +70,20 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 	/** indicates whether the use of a String[] for generated keys is supported. */
 	private boolean generatedKeysColumnNameArraySupported = true;
 
+	/** the maximum number of bind parameters in a multi-row insert, or 0 if not supported. */
+	private int maxParametersPerInsert = 0;
+
+	/** the maximum number of rows in a multi-row insert. */
+	private int maxRowsPerInsert = 1000;
+
+	/**
+	 * database products we know supporting multi-row inserts, with their bind parameter limit
+	 * (below the hard limit of 2100 for SQL Server which also counts parameters added by the driver).
+	 */
+	private final Map<String, Integer> productsSupportingMultiRowInsert = Map.of(
+			"H2", 32767, "HSQL Database Engine", 32767, "Apache Derby", 32767, "PostgreSQL", 32767,
+			"MySQL", 65535, "MariaDB", 65535, "Microsoft SQL Server", 2000, "DB2", 32767);
+
 	/** database products we know not supporting the use of a String[] for generated keys. */
 	private final List<String> productsNotSupportingGeneratedKeysColumnNameArray =
 			Arrays.asList("Apache Derby", "HSQL Database Engine");
@@ -138,11 +152,37 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 		this.generatedKeysColumnNameArraySupported = generatedKeysColumnNameArraySupported;
 	}
 
+	/**
+	 * Set the maximum number of bind parameters in a multi-row insert,
+	 * or 0 if multi-row inserts are not supported.
+	 * @since 6.0
+	 */
+	public void setMaxParametersPerInsert(int maxParametersPerInsert) {
+		this.maxParametersPerInsert = maxParametersPerInsert;
+	}
+
+	/**
+	 * Set the maximum number of rows in a multi-row insert, regardless of
+	 * the number of bind parameters. Default is 1000.
+	 * @since 6.0
+	 */
+	public void setMaxRowsPerInsert(int maxRowsPerInsert) {
+		this.maxRowsPerInsert = maxRowsPerInsert;
+	}
+
 	@Override
 	public boolean isGeneratedKeysColumnNameArraySupported() {
 		return this.generatedKeysColumnNameArraySupported;
 	}
 
+	@Override
+	public int getMaxRowsPerInsert(int columnCount) {
+		if (this.maxParametersPerInsert <= 0 || columnCount <= 0) {
+			return 1;
+		}
+		return Math.max(1, Math.min(this.maxRowsPerInsert, this.maxParametersPerInsert / columnCount));
+	}
+
 
 	@Override
 	public void initializeWithMetaData(DatabaseMetaData databaseMetaData) throws SQLException {
@@ -163,6 +203,14 @@ public class GenericTableMetaDataProvider implements TableMetaDataProvider {
 		}
 		try {
 			String databaseProductName = databaseMetaData.getDatabaseProductName();
+			Integer maxParameters = this.productsSupportingMultiRowInsert.get(
+					JdbcUtils.commonDatabaseName(databaseProductName));
+			if (maxParameters != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Multi-row inserts are supported for " + databaseProductName);
+				}
+				setMaxParametersPerInsert(maxParameters);
+			}
 			if (this.productsNotSupportingGeneratedKeysColumnNameArray.contains(databaseProductName)) {
 				if (logger.isDebugEnabled()) {
 					logger.debug("GeneratedKeysColumnNameArray is not supported for " + databaseProductName);
@@ -317,6 +317,26 @@ public class TableMetaDataContext {
 		return insertStatement.toString();
 	}
 
+	/**
+	 * Build the insert string for a multi-row insert with the given number
+	 * of rows, based on configuration and meta-data information.
+	 * @param rowCount the number of rows in the VALUES clause
+	 * @param generatedKeyNames the names of generated keys to be excluded
+	 * @return the insert string to be used
+	 * @since 6.0
+	 * @see #getMaxRowsPerInsert(int)
+	 */
+	public String createMultiRowInsertString(int rowCount, String... generatedKeyNames) {
+		String insertString = createInsertString(generatedKeyNames);
+		String row = insertString.substring(insertString.lastIndexOf("VALUES") + 6);
+		StringBuilder insertStatement = new StringBuilder(insertString.length() + (row.length() + 2) * rowCount);
+		insertStatement.append(insertString);
+		for (int i = 1; i < rowCount; i++) {
+			insertStatement.append(", ").append(row);
+		}
+		return insertStatement.toString();
+	}
+
 	/**
 	 * Build the array of {@link java.sql.Types} based on configuration and meta-data information.
 	 * @return the array of types to be used
@@ -395,4 +415,14 @@ public class TableMetaDataContext {
 		return obtainMetaDataProvider().isGeneratedKeysColumnNameArraySupported();
 	}
 
+	/**
+	 * Return the maximum number of rows in a multi-row insert for the given
+	 * number of columns, or 1 if this database does not support multi-row inserts.
+	 * @since 6.0
+	 * @see TableMetaDataProvider#getMaxRowsPerInsert(int)
+	 */
+	public int getMaxRowsPerInsert(int columnCount) {
+		return obtainMetaDataProvider().getMaxRowsPerInsert(columnCount);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -117,6 +117,19 @@ public interface TableMetaDataProvider {
 	 */
 	boolean isGeneratedKeysColumnNameArraySupported();
 
+	/**
+	 * Return the maximum number of rows in a single multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statement for the given number
+	 * of columns, derived from the limit on bind parameters per statement.
+	 * <p>The default implementation returns 1, i.e. multi-row inserts are
+	 * not supported.
+	 * @param columnCount the number of columns per row
+	 * @since 6.0
+	 */
+	default int getMaxRowsPerInsert(int columnCount) {
+		return 1;
+	}
+
 	/**
 	 * Get the table parameter meta-data that is currently used.
 	 * @return a List of {@link TableParameterMetaData}
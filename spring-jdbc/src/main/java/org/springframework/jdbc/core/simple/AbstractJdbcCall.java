@@ -21,6 +21,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -395,10 +396,60 @@ public abstract class AbstractJdbcCall {
 		return executeCallInternal(params);
 	}
 
+	/**
+	 * Delegate method that executes the call using the passed-in {@link SqlParameterSource},
+	 * streaming the rows of the first result set.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param parameterSource parameter names and values to be used in call
+	 * @return the result Stream, needing to be closed once fully processed
+	 * @since 6.0
+	 */
+	protected <T> Stream<T> doExecuteForStream(RowMapper<T> rowMapper, SqlParameterSource parameterSource) {
+		checkCompiled();
+		Map<String, Object> params = matchInParameterValuesWithCallParameters(parameterSource);
+		return getJdbcTemplate().callForStream(newCallableStatementCreator(params), rowMapper);
+	}
+
+	/**
+	 * Delegate method that executes the call using the passed-in array of parameters,
+	 * streaming the rows of the first result set.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param args array of parameter values. The order of values must match the order
+	 * declared for the stored procedure.
+	 * @return the result Stream, needing to be closed once fully processed
+	 * @since 6.0
+	 */
+	protected <T> Stream<T> doExecuteForStream(RowMapper<T> rowMapper, Object... args) {
+		checkCompiled();
+		Map<String, ?> params = matchInParameterValuesWithCallParameters(args);
+		return getJdbcTemplate().callForStream(newCallableStatementCreator(params), rowMapper);
+	}
+
+	/**
+	 * Delegate method that executes the call using the passed-in Map of parameters,
+	 * streaming the rows of the first result set.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param args a Map of parameter name and values
+	 * @return the result Stream, needing to be closed once fully processed
+	 * @since 6.0
+	 */
+	protected <T> Stream<T> doExecuteForStream(RowMapper<T> rowMapper, Map<String, ?> args) {
+		checkCompiled();
+		Map<String, ?> params = matchInParameterValuesWithCallParameters(args);
+		return getJdbcTemplate().callForStream(newCallableStatementCreator(params), rowMapper);
+	}
+
 	/**
 	 * Delegate method to perform the actual call processing.
 	 */
 	private Map<String, Object> executeCallInternal(Map<String, ?> args) {
+		return getJdbcTemplate().call(newCallableStatementCreator(args), getCallParameters());
+	}
+
+	/**
+	 * Create a CallableStatementCreator for the given parameter values.
+	 */
+	private CallableStatementCreator newCallableStatementCreator(Map<String, ?> args) {
 		CallableStatementCreator csc = getCallableStatementFactory().newCallableStatementCreator(args);
 		if (logger.isDebugEnabled()) {
 			logger.debug("The following parameters are used for call " + getCallString() + " with " + args);
@@ -409,7 +460,7 @@ public abstract class AbstractJdbcCall {
 				i++;
 			}
 		}
-		return getJdbcTemplate().call(csc, getCallParameters());
+		return csc;
 	}
 
 
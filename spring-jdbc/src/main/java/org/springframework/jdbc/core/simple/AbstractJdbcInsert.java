@@ -88,6 +88,9 @@ public abstract class AbstractJdbcInsert {
 	/** The SQL type information for the insert columns. */
 	private int[] insertTypes = new int[0];
 
+	/** Whether to rewrite batches into multi-row inserts where supported. */
+	private boolean multiRowInsert = false;
+
 
 	/**
 	 * Constructor to be used when initializing using a {@link DataSource}.
@@ -221,6 +224,30 @@ public abstract class AbstractJdbcInsert {
 		this.tableMetaDataContext.setOverrideIncludeSynonymsDefault(override);
 	}
 
+	/**
+	 * Specify whether batch inserts should be rewritten into multi-row
+	 * {@code INSERT ... VALUES (...), (...)} statements where supported by
+	 * the database, chunked according to its limit on bind parameters per
+	 * statement. Otherwise, or for databases not known to support multi-row
+	 * inserts, a JDBC batch of single-row inserts is executed.
+	 * <p>The default is {@code false}.
+	 * @since 6.0
+	 * @see org.springframework.jdbc.core.metadata.TableMetaDataProvider#getMaxRowsPerInsert(int)
+	 */
+	public void setMultiRowInsert(boolean multiRowInsert) {
+		checkIfConfigurationModificationIsAllowed();
+		this.multiRowInsert = multiRowInsert;
+	}
+
+	/**
+	 * Return whether batch inserts are rewritten into multi-row inserts
+	 * where supported by the database.
+	 * @since 6.0
+	 */
+	public boolean isMultiRowInsert() {
+		return this.multiRowInsert;
+	}
+
 	/**
 	 * Get the insert string to be used.
 	 */
@@ -566,6 +593,12 @@ public abstract class AbstractJdbcInsert {
 	 * Delegate method to execute the batch insert.
 	 */
 	private int[] executeBatchInternal(final List<List<Object>> batchValues) {
+		if (isMultiRowInsert() && batchValues.size() > 1) {
+			int maxRowsPerInsert = this.tableMetaDataContext.getMaxRowsPerInsert(getInsertTypes().length);
+			if (maxRowsPerInsert > 1) {
+				return executeMultiRowInsert(batchValues, maxRowsPerInsert);
+			}
+		}
 		if (logger.isDebugEnabled()) {
 			logger.debug("Executing statement " + getInsertString() + " with batch of size: " + batchValues.size());
 		}
@@ -582,6 +615,40 @@ public abstract class AbstractJdbcInsert {
 				});
 	}
 
+	/**
+	 * Execute the batch insert as multi-row inserts of up to the given number
+	 * of rows each.
+	 */
+	private int[] executeMultiRowInsert(List<List<Object>> batchValues, int maxRowsPerInsert) {
+		int[] rowsAffected = new int[batchValues.size()];
+		String fullInsertString = null;
+		for (int start = 0; start < batchValues.size(); start += maxRowsPerInsert) {
+			List<List<Object>> rows = batchValues.subList(start, Math.min(start + maxRowsPerInsert, batchValues.size()));
+			String insertString;
+			if (rows.size() == maxRowsPerInsert && fullInsertString != null) {
+				insertString = fullInsertString;
+			}
+			else {
+				insertString = this.tableMetaDataContext.createMultiRowInsertString(rows.size(), getGeneratedKeyNames());
+				if (rows.size() == maxRowsPerInsert) {
+					fullInsertString = insertString;
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing multi-row insert into " + getTableName() + " with " + rows.size() + " rows");
+			}
+			int updateCount = getJdbcTemplate().update(insertString, ps -> {
+				int offset = 0;
+				for (List<Object> values : rows) {
+					offset = setParameterValues(ps, offset, values, getInsertTypes());
+				}
+			});
+			Arrays.fill(rowsAffected, start, start + rows.size(),
+					(updateCount == rows.size() ? 1 : Statement.SUCCESS_NO_INFO));
+		}
+		return rowsAffected;
+	}
+
 	/**
 	 * Internal implementation for setting parameter values.
 	 * @param preparedStatement the PreparedStatement
@@ -590,16 +657,31 @@ public abstract class AbstractJdbcInsert {
 	private void setParameterValues(PreparedStatement preparedStatement, List<?> values, @Nullable int... columnTypes)
 			throws SQLException {
 
+		setParameterValues(preparedStatement, 0, values, columnTypes);
+	}
+
+	/**
+	 * Internal implementation for setting parameter values after the given
+	 * number of parameters already set.
+	 * @param preparedStatement the PreparedStatement
+	 * @param offset the number of parameters already set
+	 * @param values the values to be set
+	 * @return the number of parameters set in total
+	 */
+	private int setParameterValues(PreparedStatement preparedStatement, int offset, List<?> values,
+			@Nullable int... columnTypes) throws SQLException {
+
 		int colIndex = 0;
 		for (Object value : values) {
 			colIndex++;
 			if (columnTypes == null || colIndex > columnTypes.length) {
-				StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, SqlTypeValue.TYPE_UNKNOWN, value);
+				StatementCreatorUtils.setParameterValue(preparedStatement, offset + colIndex, SqlTypeValue.TYPE_UNKNOWN, value);
 			}
 			else {
-				StatementCreatorUtils.setParameterValue(preparedStatement, colIndex, columnTypes[colIndex - 1], value);
+				StatementCreatorUtils.setParameterValue(preparedStatement, offset + colIndex, columnTypes[colIndex - 1], value);
 			}
 		}
+		return offset + colIndex;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.jdbc.core.simple;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -198,4 +199,19 @@ public class SimpleJdbcCall extends AbstractJdbcCall implements SimpleJdbcCallOp
 		return doExecute(parameterSource);
 	}
 
+	@Override
+	public <T> Stream<T> executeForStream(RowMapper<T> rowMapper, Object... args) {
+		return doExecuteForStream(rowMapper, args);
+	}
+
+	@Override
+	public <T> Stream<T> executeForStream(RowMapper<T> rowMapper, Map<String, ?> args) {
+		return doExecuteForStream(rowMapper, args);
+	}
+
+	@Override
+	public <T> Stream<T> executeForStream(RowMapper<T> rowMapper, SqlParameterSource parameterSource) {
+		return doExecuteForStream(rowMapper, parameterSource);
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.jdbc.core.simple;
 
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SqlParameter;
@@ -190,4 +191,41 @@ public interface SimpleJdbcCallOperations {
 	 */
 	Map<String, Object> execute(SqlParameterSource args);
 
+	/**
+	 * Execute the stored procedure and map the first result set it returns
+	 * with the given RowMapper, fetching rows lazily as the Stream is consumed.
+	 * <p>Output parameters and any further result sets are not available.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param args optional array containing the in parameter values to be used
+	 * in the call. Parameter values must be provided in the same order as the
+	 * parameters are defined for the stored procedure.
+	 * @return the result Stream, needing to be closed once fully processed
+	 * (e.g. through a try-with-resources clause)
+	 * @since 6.0
+	 * @see org.springframework.jdbc.core.JdbcTemplate#callForStream
+	 */
+	<T> Stream<T> executeForStream(RowMapper<T> rowMapper, Object... args);
+
+	/**
+	 * Execute the stored procedure and map the first result set it returns
+	 * with the given RowMapper, fetching rows lazily as the Stream is consumed.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param args a Map containing the parameter values to be used in the call
+	 * @return the result Stream, needing to be closed once fully processed
+	 * @since 6.0
+	 * @see #executeForStream(RowMapper, Object...)
+	 */
+	<T> Stream<T> executeForStream(RowMapper<T> rowMapper, Map<String, ?> args);
+
+	/**
+	 * Execute the stored procedure and map the first result set it returns
+	 * with the given RowMapper, fetching rows lazily as the Stream is consumed.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param args the SqlParameterSource containing the parameter values to be used in the call
+	 * @return the result Stream, needing to be closed once fully processed
+	 * @since 6.0
+	 * @see #executeForStream(RowMapper, Object...)
+	 */
+	<T> Stream<T> executeForStream(RowMapper<T> rowMapper, SqlParameterSource args);
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,6 +80,16 @@ public interface SimpleJdbcInsertOperations {
 	 */
 	SimpleJdbcInsertOperations includeSynonymsForTableColumnMetaData();
 
+	/**
+	 * Rewrite batch inserts into multi-row {@code INSERT ... VALUES (...), (...)}
+	 * statements where supported by the database, instead of executing a JDBC
+	 * batch of single-row inserts.
+	 * @return the instance of this SimpleJdbcInsert
+	 * @since 6.0
+	 * @see #executeBatch(SqlParameterSource...)
+	 */
+	SimpleJdbcInsertOperations withMultiRowInsert();
+
 
 	/**
 	 * Execute the insert using the values passed in.
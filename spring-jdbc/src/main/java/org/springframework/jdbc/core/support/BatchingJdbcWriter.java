@@ -0,0 +1,368 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+
+/**
+ * Writer that coalesces single-row updates with identical SQL into JDBC
+ * batches, executed through {@link JdbcOperations#batchUpdate(String, List)}.
+ *
+ * <p>Outside of a transaction, updates issued concurrently from any number of
+ * threads are grouped per SQL statement: a batch is executed once it reaches
+ * the {@linkplain #setMaxBatchSize maximum batch size}, by the thread that
+ * fills it, or once the {@linkplain #setBatchWindow batch window} since its
+ * first update has elapsed, on a scheduler thread. The order of updates with
+ * different SQL is not preserved.
+ *
+ * <p>Within a transaction with synchronization active, updates are executed
+ * on the transaction's thread and connection instead: consecutive updates
+ * with identical SQL are grouped, preserving the order of statements, and
+ * pending updates are executed before the transaction commits, when the
+ * transaction {@linkplain TransactionSynchronization#flush() is flushed}, when
+ * it is suspended, or on an explicit {@link #flush()}. Pending updates are
+ * discarded if the transaction rolls back.
+ *
+ * <p>Each update returns a {@link CompletableFuture} that completes with the
+ * update count reported by the driver for its row once its batch has been
+ * executed, which may be {@link java.sql.Statement#SUCCESS_NO_INFO}. If a
+ * batch fails, the futures of all of its updates complete exceptionally;
+ * within a transaction, the failure is also thrown to the caller that
+ * triggered the execution of the batch, e.g. to the commit.
+ *
+ * @author agent
+ * @since 6.0
+ * @see JdbcOperations#batchUpdate(String, List)
+ */
+public class BatchingJdbcWriter implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(BatchingJdbcWriter.class);
+
+
+	private final JdbcOperations jdbcOperations;
+
+	private final ConcurrentMap<String, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+
+	private int maxBatchSize = 100;
+
+	private long batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(5);
+
+	@Nullable
+	private ScheduledExecutorService scheduledExecutor;
+
+	private boolean internalScheduledExecutor;
+
+
+	/**
+	 * Create a new BatchingJdbcWriter for the given {@link JdbcOperations}.
+	 * @param jdbcOperations the JDBC operations to execute batches with
+	 */
+	public BatchingJdbcWriter(JdbcOperations jdbcOperations) {
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		this.jdbcOperations = jdbcOperations;
+	}
+
+
+	/**
+	 * Set the maximum number of updates per batch.
+	 * <p>Default is 100.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the maximum number of updates per batch.
+	 */
+	public int getMaxBatchSize() {
+		return this.maxBatchSize;
+	}
+
+	/**
+	 * Set the maximum time to wait for further updates with the same SQL
+	 * before a batch is executed outside of a transaction.
+	 * <p>Default is 5 milliseconds.
+	 */
+	public void setBatchWindow(Duration batchWindow) {
+		Assert.isTrue(!batchWindow.isNegative() && !batchWindow.isZero(), "Batch window must be positive");
+		this.batchWindowNanos = batchWindow.toNanos();
+	}
+
+	/**
+	 * Return the maximum time to wait for further updates with the same SQL.
+	 */
+	public Duration getBatchWindow() {
+		return Duration.ofNanos(this.batchWindowNanos);
+	}
+
+	/**
+	 * Set the {@link ScheduledExecutorService} to execute batches on once
+	 * their batch window has elapsed.
+	 * <p>By default, a single daemon thread is created on first use, and
+	 * shut down on {@link #destroy()}.
+	 */
+	public synchronized void setScheduledExecutor(ScheduledExecutorService scheduledExecutor) {
+		Assert.notNull(scheduledExecutor, "ScheduledExecutorService must not be null");
+		Assert.state(this.scheduledExecutor == null, "ScheduledExecutorService already initialized");
+		this.scheduledExecutor = scheduledExecutor;
+	}
+
+
+	/**
+	 * Issue a single SQL update operation (such as an insert, update or delete
+	 * statement) with the given arguments, to be executed as part of a batch.
+	 * @param sql the SQL containing bind parameters
+	 * @param args arguments to bind to the query, as for
+	 * {@link JdbcOperations#batchUpdate(String, List)}
+	 * @return a future for the number of rows affected
+	 */
+	public CompletableFuture<Integer> update(String sql, @Nullable Object... args) {
+		Assert.notNull(sql, "SQL must not be null");
+		PendingUpdate update = new PendingUpdate(args != null ? args : new Object[0]);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			obtainTransactionalBatches().add(sql, update);
+			return update.future;
+		}
+		PendingBatch[] fullBatch = new PendingBatch[1];
+		this.pendingBatches.compute(sql, (key, batch) -> {
+			if (batch == null) {
+				batch = new PendingBatch(key);
+				scheduleExecution(batch);
+			}
+			batch.updates.add(update);
+			if (batch.updates.size() >= this.maxBatchSize) {
+				fullBatch[0] = batch;
+				return null;
+			}
+			return batch;
+		});
+		if (fullBatch[0] != null) {
+			execute(fullBatch[0], false);
+		}
+		return update.future;
+	}
+
+	/**
+	 * Execute all pending updates, blocking until done: within a transaction,
+	 * the pending updates of that transaction, which is required before queries
+	 * that need to see the effects of updates issued through this writer;
+	 * otherwise all pending updates issued outside of a transaction.
+	 */
+	public void flush() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			Object batches = TransactionSynchronizationManager.getResource(this);
+			if (batches instanceof TransactionalBatches transactionalBatches) {
+				transactionalBatches.flush();
+			}
+			return;
+		}
+		for (String sql : this.pendingBatches.keySet()) {
+			PendingBatch batch = this.pendingBatches.remove(sql);
+			if (batch != null) {
+				execute(batch, false);
+			}
+		}
+	}
+
+	/**
+	 * Execute all pending updates outside of a transaction, and shut down the
+	 * default scheduler thread, if any.
+	 */
+	@Override
+	public void destroy() {
+		flush();
+		synchronized (this) {
+			if (this.internalScheduledExecutor && this.scheduledExecutor != null) {
+				this.scheduledExecutor.shutdown();
+				this.scheduledExecutor = null;
+			}
+		}
+	}
+
+
+	private void scheduleExecution(PendingBatch batch) {
+		obtainScheduledExecutor().schedule(() -> {
+			if (this.pendingBatches.remove(batch.sql, batch)) {
+				execute(batch, false);
+			}
+		}, this.batchWindowNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private synchronized ScheduledExecutorService obtainScheduledExecutor() {
+		ScheduledExecutorService scheduledExecutor = this.scheduledExecutor;
+		if (scheduledExecutor == null) {
+			CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("batching-jdbc-writer-");
+			threadCreator.setDaemon(true);
+			scheduledExecutor = Executors.newSingleThreadScheduledExecutor(threadCreator::createThread);
+			this.scheduledExecutor = scheduledExecutor;
+			this.internalScheduledExecutor = true;
+		}
+		return scheduledExecutor;
+	}
+
+	private void execute(PendingBatch batch, boolean propagateFailure) {
+		List<PendingUpdate> updates = batch.updates;
+		List<Object[]> batchArgs = new ArrayList<>(updates.size());
+		for (PendingUpdate update : updates) {
+			batchArgs.add(update.args);
+		}
+		int[] updateCounts;
+		try {
+			updateCounts = this.jdbcOperations.batchUpdate(batch.sql, batchArgs);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Batch of " + updates.size() + " updates failed for SQL [" + batch.sql + "]", ex);
+			}
+			for (PendingUpdate update : updates) {
+				update.future.completeExceptionally(ex);
+			}
+			if (propagateFailure) {
+				throw ex;
+			}
+			return;
+		}
+		for (int i = 0; i < updates.size(); i++) {
+			updates.get(i).future.complete(i < updateCounts.length ? updateCounts[i] : 0);
+		}
+	}
+
+	private TransactionalBatches obtainTransactionalBatches() {
+		Object batches = TransactionSynchronizationManager.getResource(this);
+		if (batches instanceof TransactionalBatches transactionalBatches) {
+			return transactionalBatches;
+		}
+		TransactionalBatches transactionalBatches = new TransactionalBatches();
+		TransactionSynchronizationManager.bindResource(this, transactionalBatches);
+		TransactionSynchronizationManager.registerSynchronization(transactionalBatches);
+		return transactionalBatches;
+	}
+
+
+	/**
+	 * A single update and its future.
+	 */
+	private static final class PendingUpdate {
+
+		final Object[] args;
+
+		final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+		PendingUpdate(Object[] args) {
+			this.args = args;
+		}
+	}
+
+
+	/**
+	 * Updates with the same SQL, to be executed as one batch.
+	 */
+	private static final class PendingBatch {
+
+		final String sql;
+
+		final List<PendingUpdate> updates = new ArrayList<>();
+
+		PendingBatch(String sql) {
+			this.sql = sql;
+		}
+	}
+
+
+	/**
+	 * Pending updates of a transaction, bound to the transaction's thread.
+	 */
+	private final class TransactionalBatches implements TransactionSynchronization {
+
+		@Nullable
+		private PendingBatch currentBatch;
+
+		void add(String sql, PendingUpdate update) {
+			PendingBatch batch = this.currentBatch;
+			if (batch != null && !batch.sql.equals(sql)) {
+				flush();
+				batch = null;
+			}
+			if (batch == null) {
+				batch = new PendingBatch(sql);
+				this.currentBatch = batch;
+			}
+			batch.updates.add(update);
+			if (batch.updates.size() >= maxBatchSize) {
+				flush();
+			}
+		}
+
+		@Override
+		public void flush() {
+			PendingBatch batch = this.currentBatch;
+			if (batch != null) {
+				this.currentBatch = null;
+				execute(batch, true);
+			}
+		}
+
+		@Override
+		public void suspend() {
+			flush();
+			TransactionSynchronizationManager.unbindResource(BatchingJdbcWriter.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(BatchingJdbcWriter.this, this);
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			flush();
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(BatchingJdbcWriter.this);
+			PendingBatch batch = this.currentBatch;
+			if (batch != null) {
+				this.currentBatch = null;
+				for (PendingUpdate update : batch.updates) {
+					update.future.cancel(false);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.util.Assert;
+
+/**
+ * Bridge from a JDBC result {@link Stream}, as returned by
+ * {@link org.springframework.jdbc.core.JdbcTemplate#queryForStream} and
+ * similar methods, to a {@link Flux} that fetches rows on demand.
+ *
+ * <p>Each subscription opens the Stream, iterates over it, and closes it on
+ * a single worker of the configured {@link Scheduler}, which should be a
+ * bounded scheduler such as {@link Schedulers#boundedElastic()}. Rows are
+ * only pulled from the Stream as requested by the subscriber, so results
+ * that do not fit into memory can be exported with a bounded number of rows
+ * in flight, in combination with a {@linkplain
+ * org.springframework.jdbc.core.JdbcTemplate#setStreamFetchSize stream fetch size}.
+ *
+ * <p>If a {@link PlatformTransactionManager} is configured, each subscription
+ * runs within a transaction, read-only by default: the Stream is opened within
+ * it, and it is committed when the Stream is exhausted or rolled back on error
+ * or cancellation. The transaction stays bound to a single worker thread from
+ * beginning to end: that thread waits for further demand instead of running
+ * other tasks in between, so that no other task participates in it. The
+ * scheduler must therefore not run tasks on the subscriber's thread, as
+ * {@link Schedulers#immediate()} does. Without a transaction manager, the
+ * Stream participates in a transaction only if one is bound to the worker
+ * thread already.
+ *
+ * @author agent
+ * @since 6.0
+ * @see org.springframework.jdbc.core.JdbcTemplate#queryForStream
+ */
+public class JdbcFluxBridge {
+
+	private final Scheduler scheduler;
+
+	@Nullable
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionDefinition transactionDefinition;
+
+
+	/**
+	 * Create a new JdbcFluxBridge that iterates over Streams on
+	 * {@link Schedulers#boundedElastic()}.
+	 */
+	public JdbcFluxBridge() {
+		this(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Create a new JdbcFluxBridge that iterates over Streams on the given
+	 * {@link Scheduler}.
+	 * @param scheduler the scheduler to open, iterate over, and close
+	 * Streams on; each of its workers must run tasks on a single thread
+	 * at a time
+	 */
+	public JdbcFluxBridge(Scheduler scheduler) {
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.scheduler = scheduler;
+		DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+		definition.setReadOnly(true);
+		this.transactionDefinition = definition;
+	}
+
+
+	/**
+	 * Set the transaction manager to run each subscription within a
+	 * transaction, holding a worker thread for the entire subscription.
+	 * <p>Default is none.
+	 */
+	public void setTransactionManager(@Nullable PlatformTransactionManager transactionManager) {
+		this.transactionManager = transactionManager;
+	}
+
+	/**
+	 * Return the transaction manager to run each subscription within a
+	 * transaction, if any.
+	 */
+	@Nullable
+	public PlatformTransactionManager getTransactionManager() {
+		return this.transactionManager;
+	}
+
+	/**
+	 * Set the definition of the transaction for each subscription, if a
+	 * {@link #setTransactionManager transaction manager} is configured.
+	 * <p>Default is a read-only transaction with default propagation.
+	 */
+	public void setTransactionDefinition(TransactionDefinition transactionDefinition) {
+		Assert.notNull(transactionDefinition, "TransactionDefinition must not be null");
+		this.transactionDefinition = transactionDefinition;
+	}
+
+	/**
+	 * Return the definition of the transaction for each subscription.
+	 */
+	public TransactionDefinition getTransactionDefinition() {
+		return this.transactionDefinition;
+	}
+
+
+	/**
+	 * Return a {@link Flux} that emits the elements of the Stream returned by
+	 * the given supplier, which is invoked once per subscription.
+	 * @param streamSupplier supplier for the Stream, typically a query
+	 * through {@code JdbcTemplate#queryForStream}
+	 * @return the Flux
+	 */
+	public <T> Flux<T> flux(Supplier<? extends Stream<? extends T>> streamSupplier) {
+		Assert.notNull(streamSupplier, "Stream supplier must not be null");
+		return Flux.create(sink -> {
+			StreamEmitter<T> emitter = new StreamEmitter<>(streamSupplier, sink, this.scheduler.createWorker(),
+					this.transactionManager, this.transactionDefinition);
+			sink.onRequest(n -> emitter.drain());
+			sink.onDispose(emitter::dispose);
+		});
+	}
+
+
+	/**
+	 * Emits the elements of a Stream to a sink, running all work serially
+	 * on a single scheduler worker.
+	 */
+	private static class StreamEmitter<T> {
+
+		private final Supplier<? extends Stream<? extends T>> streamSupplier;
+
+		private final FluxSink<T> sink;
+
+		private final Scheduler.Worker worker;
+
+		@Nullable
+		private final PlatformTransactionManager transactionManager;
+
+		private final TransactionDefinition transactionDefinition;
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		@Nullable
+		private TransactionStatus transactionStatus;
+
+		@Nullable
+		private volatile Thread drainThread;
+
+		private volatile boolean disposed;
+
+		@Nullable
+		private Stream<? extends T> stream;
+
+		@Nullable
+		private Iterator<? extends T> iterator;
+
+		private boolean done;
+
+		StreamEmitter(Supplier<? extends Stream<? extends T>> streamSupplier, FluxSink<T> sink,
+				Scheduler.Worker worker, @Nullable PlatformTransactionManager transactionManager,
+				TransactionDefinition transactionDefinition) {
+
+			this.streamSupplier = streamSupplier;
+			this.sink = sink;
+			this.worker = worker;
+			this.transactionManager = transactionManager;
+			this.transactionDefinition = transactionDefinition;
+		}
+
+		void drain() {
+			if (this.wip.getAndIncrement() == 0) {
+				this.worker.schedule(this::drainLoop);
+			}
+			else {
+				LockSupport.unpark(this.drainThread);
+			}
+		}
+
+		void dispose() {
+			this.disposed = true;
+			LockSupport.unpark(this.drainThread);
+			this.worker.schedule(() -> {
+				try {
+					if (!this.done) {
+						this.done = true;
+						release(false);
+					}
+				}
+				finally {
+					this.worker.dispose();
+				}
+			});
+		}
+
+		private void drainLoop() {
+			this.drainThread = Thread.currentThread();
+			try {
+				int missed = 1;
+				do {
+					emit();
+					if (this.transactionStatus != null) {
+						awaitDemand(missed);
+					}
+					missed = this.wip.addAndGet(-missed);
+				}
+				while (missed != 0);
+			}
+			finally {
+				this.drainThread = null;
+			}
+		}
+
+		/**
+		 * Keep the transaction on the current thread until there is further
+		 * demand, rather than returning the thread to the scheduler with the
+		 * transaction bound to it, and roll it back if disposed meanwhile.
+		 */
+		private void awaitDemand(int missed) {
+			while (this.wip.get() == missed && !this.disposed) {
+				LockSupport.park(this);
+			}
+			if (this.disposed && !this.done) {
+				this.done = true;
+				release(false);
+			}
+		}
+
+		private void emit() {
+			if (this.done) {
+				return;
+			}
+			try {
+				Iterator<? extends T> iterator = this.iterator;
+				if (iterator == null) {
+					iterator = open();
+				}
+				while (this.sink.requestedFromDownstream() > 0 && !this.sink.isCancelled()) {
+					if (!iterator.hasNext()) {
+						this.done = true;
+						release(true);
+						this.sink.complete();
+						return;
+					}
+					this.sink.next(iterator.next());
+				}
+			}
+			catch (Throwable ex) {
+				if (!this.done) {
+					this.done = true;
+					try {
+						release(false);
+					}
+					catch (Throwable releaseEx) {
+						ex.addSuppressed(releaseEx);
+					}
+				}
+				this.sink.error(ex);
+			}
+		}
+
+		private Iterator<? extends T> open() {
+			if (this.transactionManager != null) {
+				this.transactionStatus = this.transactionManager.getTransaction(this.transactionDefinition);
+			}
+			Stream<? extends T> stream = this.streamSupplier.get();
+			Assert.state(stream != null, "Stream supplier returned null");
+			this.stream = stream;
+			this.iterator = stream.iterator();
+			return this.iterator;
+		}
+
+		private void release(boolean commit) {
+			try {
+				if (this.stream != null) {
+					this.stream.close();
+				}
+			}
+			finally {
+				this.stream = null;
+				this.iterator = null;
+				TransactionStatus status = this.transactionStatus;
+				if (this.transactionManager != null && status != null) {
+					this.transactionStatus = null;
+					if (commit) {
+						this.transactionManager.commit(status);
+					}
+					else {
+						this.transactionManager.rollback(status);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,602 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+import org.springframework.core.serializer.Deserializer;
+import org.springframework.core.serializer.Serializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.event.TransactionalApplicationListener;
+import org.springframework.transaction.event.TransactionalEventOutbox;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link TransactionalEventOutbox} implementation that stores events in a
+ * database table, written through the transactional connection of the given
+ * {@link DataSource}, and delivers them from a background dispatcher.
+ *
+ * <p>The publishing transaction therefore needs to be managed for the same
+ * {@code DataSource}, e.g. by a
+ * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager} or
+ * through JTA, so that an event is stored if and only if the transaction commits.
+ * Once it has committed, stored events are delivered in batches by the
+ * dispatcher; events that are left over, e.g. from a previous run of the
+ * application, are picked up when the outbox starts and on every
+ * {@linkplain #setPollInterval poll}. A delivered event is deleted, whereas
+ * a failed delivery is retried with exponential backoff until the
+ * {@linkplain #setMaxAttempts maximum number of attempts} is reached, after
+ * which the event is left in the table for manual inspection.
+ *
+ * <p>Several outbox instances, e.g. on different nodes, may share the same
+ * table: each event is claimed for a {@linkplain #setLeaseTime lease time}
+ * by the dispatcher that delivers it. Delivery is at-least-once, and events
+ * are delivered in the order of their creation unless retried.
+ *
+ * <p>Only {@link PayloadApplicationEvent PayloadApplicationEvents} are stored,
+ * with their payload serialized through Java serialization by default, and
+ * are restored with this outbox as their source. Other events, whose source
+ * is transient and would get lost, as well as payloads that cannot be
+ * serialized are handled through a regular transaction synchronization
+ * instead. The table is expected to look as follows:
+ *
+ * <pre class="code">
+ * create table EVENT_OUTBOX (
+ *   ID varchar(36) not null primary key,
+ *   LISTENER_ID varchar(255) not null,
+ *   EVENT blob not null,
+ *   CREATED bigint not null,
+ *   ATTEMPTS int not null,
+ *   NEXT_ATTEMPT bigint not null
+ * )</pre>
+ *
+ * @author agent
+ * @since 6.0
+ * @see org.springframework.transaction.event.TransactionalEventListener#outbox()
+ */
+public class JdbcTransactionalEventOutbox implements TransactionalEventOutbox,
+		SmartLifecycle, BeanClassLoaderAware, DisposableBean {
+
+	/**
+	 * The default name of the outbox table.
+	 */
+	public static final String DEFAULT_TABLE_NAME = "EVENT_OUTBOX";
+
+	private static final Log logger = LogFactory.getLog(JdbcTransactionalEventOutbox.class);
+
+
+	private final DataSource dataSource;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final Map<String, TransactionalApplicationListener<?>> listeners = new ConcurrentHashMap<>();
+
+	private String tableName = DEFAULT_TABLE_NAME;
+
+	private Serializer<Object> serializer = new DefaultSerializer();
+
+	private Deserializer<Object> deserializer = new DefaultDeserializer();
+
+	private boolean customDeserializer;
+
+	private int batchSize = 100;
+
+	private int maxAttempts = 10;
+
+	private long retryIntervalMillis = 1000;
+
+	private long maxRetryIntervalMillis = TimeUnit.MINUTES.toMillis(5);
+
+	private long leaseTimeMillis = TimeUnit.MINUTES.toMillis(1);
+
+	private long pollIntervalMillis = TimeUnit.SECONDS.toMillis(5);
+
+	private boolean autoStartup = true;
+
+	private int phase = DEFAULT_PHASE;
+
+	@Nullable
+	private ScheduledExecutorService scheduledExecutor;
+
+	private boolean internalScheduledExecutor;
+
+	@Nullable
+	private ScheduledFuture<?> pollFuture;
+
+	private volatile boolean running;
+
+	private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+	private final AtomicLong lastCreated = new AtomicLong();
+
+
+	/**
+	 * Create a new JdbcTransactionalEventOutbox for the given {@link DataSource}.
+	 * @param dataSource the DataSource to store events in, participating in
+	 * the transactions that events are published within
+	 */
+	public JdbcTransactionalEventOutbox(DataSource dataSource) {
+		Assert.notNull(dataSource, "DataSource must not be null");
+		this.dataSource = dataSource;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+
+	/**
+	 * Return the DataSource that events are stored in.
+	 */
+	public DataSource getDataSource() {
+		return this.dataSource;
+	}
+
+	/**
+	 * Set the name of the outbox table.
+	 * <p>Default is {@value #DEFAULT_TABLE_NAME}.
+	 */
+	public void setTableName(String tableName) {
+		Assert.hasText(tableName, "Table name must not be empty");
+		this.tableName = tableName;
+	}
+
+	/**
+	 * Set the {@link Serializer} to store events with.
+	 * <p>Default is a {@link DefaultSerializer}, using Java serialization.
+	 */
+	public void setSerializer(Serializer<Object> serializer) {
+		Assert.notNull(serializer, "Serializer must not be null");
+		this.serializer = serializer;
+	}
+
+	/**
+	 * Set the {@link Deserializer} to restore stored events with.
+	 * <p>Default is a {@link DefaultDeserializer} for the bean class loader.
+	 */
+	public void setDeserializer(Deserializer<Object> deserializer) {
+		Assert.notNull(deserializer, "Deserializer must not be null");
+		this.deserializer = deserializer;
+		this.customDeserializer = true;
+	}
+
+	/**
+	 * Set the maximum number of events to claim and deliver at once.
+	 * <p>Default is 100.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum number of delivery attempts per event, after which
+	 * the event is left in the table without being delivered.
+	 * <p>Default is 10.
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		Assert.isTrue(maxAttempts > 0, "Max attempts must be greater than 0");
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * Set the interval before the first retry of a failed delivery, doubled
+	 * for every further attempt up to the {@linkplain #setMaxRetryInterval
+	 * maximum retry interval}.
+	 * <p>Default is 1 second.
+	 */
+	public void setRetryInterval(Duration retryInterval) {
+		Assert.isTrue(!retryInterval.isNegative(), "Retry interval must not be negative");
+		this.retryIntervalMillis = retryInterval.toMillis();
+	}
+
+	/**
+	 * Set the maximum interval between retries of a failed delivery.
+	 * <p>Default is 5 minutes.
+	 */
+	public void setMaxRetryInterval(Duration maxRetryInterval) {
+		Assert.isTrue(!maxRetryInterval.isNegative(), "Max retry interval must not be negative");
+		this.maxRetryIntervalMillis = maxRetryInterval.toMillis();
+	}
+
+	/**
+	 * Set the time for which a dispatcher claims an event for delivery, after
+	 * which the event may be delivered by another dispatcher in case the
+	 * delivery did not complete, e.g. due to a crash.
+	 * <p>Default is 1 minute. Needs to exceed the processing time of a batch.
+	 */
+	public void setLeaseTime(Duration leaseTime) {
+		Assert.isTrue(!leaseTime.isNegative() && !leaseTime.isZero(), "Lease time must be positive");
+		this.leaseTimeMillis = leaseTime.toMillis();
+	}
+
+	/**
+	 * Set the interval in which to poll for events that are due for delivery,
+	 * in addition to the dispatch triggered by a commit through this outbox.
+	 * <p>Default is 5 seconds.
+	 */
+	public void setPollInterval(Duration pollInterval) {
+		Assert.isTrue(!pollInterval.isNegative() && !pollInterval.isZero(), "Poll interval must be positive");
+		this.pollIntervalMillis = pollInterval.toMillis();
+	}
+
+	/**
+	 * Set whether to start dispatching automatically on context refresh.
+	 * <p>Default is {@code true}. Events are stored regardless.
+	 */
+	public void setAutoStartup(boolean autoStartup) {
+		this.autoStartup = autoStartup;
+	}
+
+	@Override
+	public boolean isAutoStartup() {
+		return this.autoStartup;
+	}
+
+	/**
+	 * Set the lifecycle phase to start and stop dispatching in.
+	 * <p>Default is {@link SmartLifecycle#DEFAULT_PHASE}.
+	 */
+	public void setPhase(int phase) {
+		this.phase = phase;
+	}
+
+	@Override
+	public int getPhase() {
+		return this.phase;
+	}
+
+	/**
+	 * Set the {@link ScheduledExecutorService} to dispatch events on.
+	 * <p>By default, a single daemon thread is created on start, and
+	 * shut down on {@link #destroy()}.
+	 */
+	public synchronized void setScheduledExecutor(ScheduledExecutorService scheduledExecutor) {
+		Assert.notNull(scheduledExecutor, "ScheduledExecutorService must not be null");
+		Assert.state(this.scheduledExecutor == null, "ScheduledExecutorService already initialized");
+		this.scheduledExecutor = scheduledExecutor;
+	}
+
+	@Override
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		if (!this.customDeserializer) {
+			this.deserializer = new DefaultDeserializer(classLoader);
+		}
+	}
+
+
+	@Override
+	public void registerListener(TransactionalApplicationListener<?> listener) {
+		String listenerId = listener.getListenerId();
+		Assert.hasLength(listenerId, "Outbox listener requires a listener id");
+		TransactionalApplicationListener<?> existing = this.listeners.putIfAbsent(listenerId, listener);
+		if (existing != null && existing != listener) {
+			throw new IllegalStateException("Duplicate outbox listener id '" + listenerId + "': " +
+					listener + " conflicts with " + existing);
+		}
+	}
+
+	@Override
+	public boolean store(ApplicationEvent event, TransactionalApplicationListener<?> listener) {
+		if (!(event instanceof PayloadApplicationEvent<?> payloadEvent)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot restore source of " + event + " - not storing it in outbox");
+			}
+			return false;
+		}
+		byte[] serializedEvent;
+		try {
+			serializedEvent = this.serializer.serializeToByteArray(payloadEvent.getPayload());
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot serialize " + event + " - not storing it in outbox", ex);
+			}
+			return false;
+		}
+		this.jdbcTemplate.update("insert into " + this.tableName +
+				" (ID, LISTENER_ID, EVENT, CREATED, ATTEMPTS, NEXT_ATTEMPT) values (?, ?, ?, ?, 0, ?)",
+				UUID.randomUUID().toString(), listener.getListenerId(), serializedEvent,
+				nextCreationTimestamp(), System.currentTimeMillis());
+		if (TransactionSynchronizationManager.isSynchronizationActive() &&
+				!TransactionSynchronizationManager.hasResource(this)) {
+			DispatchSynchronization synchronization = new DispatchSynchronization();
+			TransactionSynchronizationManager.bindResource(this, synchronization);
+			TransactionSynchronizationManager.registerSynchronization(synchronization);
+		}
+		return true;
+	}
+
+	/**
+	 * Deliver all events that are due for delivery to their registered
+	 * listeners, blocking until done.
+	 * @return the number of events that have been delivered successfully
+	 */
+	public int dispatchPendingEvents() {
+		int delivered = 0;
+		List<StoredEvent> candidates;
+		do {
+			List<String> listenerIds = new ArrayList<>(this.listeners.keySet());
+			if (listenerIds.isEmpty()) {
+				break;
+			}
+			candidates = findDueEvents(listenerIds, System.currentTimeMillis());
+			delivered += deliver(claim(candidates));
+		}
+		while (candidates.size() == this.batchSize);
+		return delivered;
+	}
+
+
+	@Override
+	public void start() {
+		synchronized (this) {
+			if (this.running) {
+				return;
+			}
+			this.running = true;
+			this.pollFuture = obtainScheduledExecutor().scheduleWithFixedDelay(
+					this::dispatchQuietly, 0, this.pollIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this) {
+			this.running = false;
+			if (this.pollFuture != null) {
+				this.pollFuture.cancel(false);
+				this.pollFuture = null;
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Stop dispatching, and shut down the default dispatcher thread, if any.
+	 */
+	@Override
+	public void destroy() {
+		stop();
+		synchronized (this) {
+			if (this.internalScheduledExecutor && this.scheduledExecutor != null) {
+				this.scheduledExecutor.shutdown();
+				this.scheduledExecutor = null;
+			}
+		}
+	}
+
+
+	private long nextCreationTimestamp() {
+		// microsecond resolution, unique and increasing within this outbox
+		long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+		return this.lastCreated.accumulateAndGet(now, (last, current) -> Math.max(last + 1, current));
+	}
+
+	private void triggerDispatch() {
+		ScheduledExecutorService scheduledExecutor = this.scheduledExecutor;
+		if (this.running && scheduledExecutor != null && this.dispatchScheduled.compareAndSet(false, true)) {
+			try {
+				scheduledExecutor.execute(() -> {
+					this.dispatchScheduled.set(false);
+					dispatchQuietly();
+				});
+			}
+			catch (RejectedExecutionException ex) {
+				// stored events are picked up on the next poll
+				this.dispatchScheduled.set(false);
+			}
+		}
+	}
+
+	private void dispatchQuietly() {
+		try {
+			dispatchPendingEvents();
+		}
+		catch (Throwable ex) {
+			logger.warn("Failed to dispatch events from outbox table [" + this.tableName + "]", ex);
+		}
+	}
+
+	private List<StoredEvent> findDueEvents(List<String> listenerIds, long now) {
+		String sql = "select ID, LISTENER_ID, EVENT, ATTEMPTS, NEXT_ATTEMPT from " + this.tableName +
+				" where NEXT_ATTEMPT <= ? and ATTEMPTS < ? and LISTENER_ID in (" +
+				StringUtils.collectionToCommaDelimitedString(Collections.nCopies(listenerIds.size(), "?")) +
+				") order by CREATED";
+		RowMapper<StoredEvent> rowMapper = (rs, rowNum) -> new StoredEvent(rs.getString(1),
+				rs.getString(2), rs.getBytes(3), rs.getInt(4), rs.getLong(5));
+		return this.jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(sql);
+			ps.setMaxRows(this.batchSize);
+			ps.setLong(1, now);
+			ps.setInt(2, this.maxAttempts);
+			for (int i = 0; i < listenerIds.size(); i++) {
+				ps.setString(i + 3, listenerIds.get(i));
+			}
+			return ps;
+		}, rowMapper);
+	}
+
+	private List<StoredEvent> claim(List<StoredEvent> candidates) {
+		if (candidates.isEmpty()) {
+			return candidates;
+		}
+		long leaseExpiry = System.currentTimeMillis() + this.leaseTimeMillis;
+		List<Object[]> batchArgs = new ArrayList<>(candidates.size());
+		for (StoredEvent candidate : candidates) {
+			batchArgs.add(new Object[] {leaseExpiry, candidate.id, candidate.nextAttempt});
+		}
+		int[] updateCounts = this.jdbcTemplate.batchUpdate("update " + this.tableName +
+				" set NEXT_ATTEMPT = ? where ID = ? and NEXT_ATTEMPT = ?", batchArgs);
+		List<StoredEvent> claimed = new ArrayList<>(candidates.size());
+		for (int i = 0; i < candidates.size(); i++) {
+			// a driver may report Statement.SUCCESS_NO_INFO for a successful claim
+			if (i < updateCounts.length && updateCounts[i] != 0) {
+				claimed.add(candidates.get(i));
+			}
+		}
+		return claimed;
+	}
+
+	private int deliver(List<StoredEvent> events) {
+		List<Object[]> delivered = new ArrayList<>(events.size());
+		List<Object[]> failed = new ArrayList<>();
+		for (StoredEvent stored : events) {
+			TransactionalApplicationListener<?> listener = this.listeners.get(stored.listenerId);
+			try {
+				Assert.state(listener != null, "No listener registered");
+				processEvent(listener, restoreEvent(stored.content));
+				delivered.add(new Object[] {stored.id});
+			}
+			catch (Throwable ex) {
+				int attempts = stored.attempts + 1;
+				if (attempts < this.maxAttempts) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Delivery attempt " + attempts + " of outbox event " + stored.id +
+								" to listener '" + stored.listenerId + "' failed - retrying", ex);
+					}
+				}
+				else {
+					logger.error("Giving up on delivery of outbox event " + stored.id + " to listener '" +
+							stored.listenerId + "' after " + attempts + " attempts", ex);
+				}
+				failed.add(new Object[] {attempts, System.currentTimeMillis() + retryInterval(attempts), stored.id});
+			}
+		}
+		if (!delivered.isEmpty()) {
+			this.jdbcTemplate.batchUpdate("delete from " + this.tableName + " where ID = ?", delivered);
+		}
+		if (!failed.isEmpty()) {
+			this.jdbcTemplate.batchUpdate("update " + this.tableName +
+					" set ATTEMPTS = ?, NEXT_ATTEMPT = ? where ID = ?", failed);
+		}
+		return delivered.size();
+	}
+
+	private ApplicationEvent restoreEvent(byte[] content) throws IOException {
+		return new PayloadApplicationEvent<>(this, this.deserializer.deserializeFromByteArray(content));
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private void processEvent(TransactionalApplicationListener listener, ApplicationEvent event) {
+		listener.processEvent(event);
+	}
+
+	private long retryInterval(int attempts) {
+		long interval = this.retryIntervalMillis << Math.min(attempts - 1, 30);
+		return (interval >= 0 ? Math.min(interval, this.maxRetryIntervalMillis) : this.maxRetryIntervalMillis);
+	}
+
+	private synchronized ScheduledExecutorService obtainScheduledExecutor() {
+		ScheduledExecutorService scheduledExecutor = this.scheduledExecutor;
+		if (scheduledExecutor == null) {
+			CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("jdbc-event-outbox-");
+			threadCreator.setDaemon(true);
+			scheduledExecutor = Executors.newSingleThreadScheduledExecutor(threadCreator::createThread);
+			this.scheduledExecutor = scheduledExecutor;
+			this.internalScheduledExecutor = true;
+		}
+		return scheduledExecutor;
+	}
+
+
+	/**
+	 * A stored event, as read from the outbox table.
+	 */
+	private static final class StoredEvent {
+
+		final String id;
+
+		final String listenerId;
+
+		final byte[] content;
+
+		final int attempts;
+
+		final long nextAttempt;
+
+		StoredEvent(String id, String listenerId, byte[] content, int attempts, long nextAttempt) {
+			this.id = id;
+			this.listenerId = listenerId;
+			this.content = content;
+			this.attempts = attempts;
+			this.nextAttempt = nextAttempt;
+		}
+	}
+
+
+	/**
+	 * Triggers the dispatch of stored events once the transaction has committed.
+	 */
+	private final class DispatchSynchronization implements TransactionSynchronization {
+
+		@Override
+		public void suspend() {
+			TransactionSynchronizationManager.unbindResource(JdbcTransactionalEventOutbox.this);
+		}
+
+		@Override
+		public void resume() {
+			TransactionSynchronizationManager.bindResource(JdbcTransactionalEventOutbox.this, this);
+		}
+
+		@Override
+		public void afterCommit() {
+			triggerDispatch();
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(JdbcTransactionalEventOutbox.this);
+		}
+	}
+
+}
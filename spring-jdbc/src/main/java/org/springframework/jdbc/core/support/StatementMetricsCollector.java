@@ -0,0 +1,298 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.jdbc.core.StatementExecution;
+import org.springframework.jdbc.core.StatementExecutionListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link StatementExecutionListener} that aggregates execution statistics per
+ * SQL statement, and logs a sample of slow statements at warn level.
+ *
+ * <p>Statistics are kept for up to a {@linkplain #setMaxStatements maximum
+ * number} of distinct SQL statements; executions of further statements are
+ * only counted as {@linkplain #getUntrackedExecutionCount() untracked}.
+ *
+ * <p>Typical setup:
+ *
+ * <pre class="code">
+ * StatementMetricsCollector collector = new StatementMetricsCollector();
+ * collector.setSlowStatementThreshold(Duration.ofMillis(500));
+ * jdbcTemplate.setStatementExecutionListener(collector);</pre>
+ *
+ * @author agent
+ * @since 6.0
+ * @see org.springframework.jdbc.core.JdbcTemplate#setStatementExecutionListener
+ */
+public class StatementMetricsCollector implements StatementExecutionListener {
+
+	private static final String UNKNOWN_SQL = "<unknown>";
+
+	/** Logger available to subclasses. */
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private final Map<String, StatementStatistics> statistics = new ConcurrentHashMap<>(64);
+
+	private final LongAdder untrackedExecutions = new LongAdder();
+
+	private int maxStatements = 1000;
+
+	private long slowStatementThresholdNanos = -1;
+
+	private double slowStatementSampleRate = 1.0;
+
+
+	/**
+	 * Set the maximum number of distinct SQL statements to keep statistics for.
+	 * <p>Default is 1000.
+	 */
+	public void setMaxStatements(int maxStatements) {
+		Assert.isTrue(maxStatements > 0, "Max statements must be greater than 0");
+		this.maxStatements = maxStatements;
+	}
+
+	/**
+	 * Return the maximum number of distinct SQL statements to keep statistics for.
+	 */
+	public int getMaxStatements() {
+		return this.maxStatements;
+	}
+
+	/**
+	 * Set the execution time from which on statements are considered slow,
+	 * and logged at warn level.
+	 * <p>Default is none, i.e. no statements are logged.
+	 * @see #setSlowStatementSampleRate
+	 */
+	public void setSlowStatementThreshold(@Nullable Duration slowStatementThreshold) {
+		this.slowStatementThresholdNanos = (slowStatementThreshold != null ? slowStatementThreshold.toNanos() : -1);
+	}
+
+	/**
+	 * Return the execution time from which on statements are considered slow.
+	 */
+	@Nullable
+	public Duration getSlowStatementThreshold() {
+		return (this.slowStatementThresholdNanos >= 0 ? Duration.ofNanos(this.slowStatementThresholdNanos) : null);
+	}
+
+	/**
+	 * Set the fraction of slow statements to log, between 0 and 1,
+	 * e.g. 0.1 to log about every tenth slow statement.
+	 * <p>Default is 1, i.e. all slow statements are logged.
+	 */
+	public void setSlowStatementSampleRate(double slowStatementSampleRate) {
+		Assert.isTrue(slowStatementSampleRate >= 0 && slowStatementSampleRate <= 1,
+				"Slow statement sample rate must be between 0 and 1");
+		this.slowStatementSampleRate = slowStatementSampleRate;
+	}
+
+	/**
+	 * Return the fraction of slow statements to log.
+	 */
+	public double getSlowStatementSampleRate() {
+		return this.slowStatementSampleRate;
+	}
+
+
+	@Override
+	public void statementExecuted(StatementExecution execution) {
+		String sql = (execution.getSql() != null ? execution.getSql() : UNKNOWN_SQL);
+		StatementStatistics statementStatistics = this.statistics.get(sql);
+		if (statementStatistics == null) {
+			if (this.statistics.size() >= this.maxStatements) {
+				this.untrackedExecutions.increment();
+			}
+			else {
+				statementStatistics = this.statistics.computeIfAbsent(sql, StatementStatistics::new);
+			}
+		}
+		if (statementStatistics != null) {
+			statementStatistics.record(execution);
+		}
+		long threshold = this.slowStatementThresholdNanos;
+		if (threshold >= 0 && execution.getExecutionTimeNanos() >= threshold && isSampled()) {
+			logSlowStatement(execution);
+		}
+	}
+
+	private boolean isSampled() {
+		double sampleRate = this.slowStatementSampleRate;
+		return (sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate));
+	}
+
+	/**
+	 * Log the given slow statement execution.
+	 * <p>The default implementation logs at warn level.
+	 * @param execution the slow statement execution
+	 */
+	protected void logSlowStatement(StatementExecution execution) {
+		if (logger.isWarnEnabled()) {
+			logger.warn("Slow SQL statement [" + execution.getSql() + "] took " +
+					TimeUnit.NANOSECONDS.toMillis(execution.getExecutionTimeNanos()) + " ms, fetching " +
+					execution.getRowsFetched() + " rows in " + execution.getFetchRoundTrips() + " round trips");
+		}
+	}
+
+	/**
+	 * Return the statistics for the given SQL statement, if any.
+	 */
+	@Nullable
+	public StatementStatistics getStatistics(String sql) {
+		return this.statistics.get(sql);
+	}
+
+	/**
+	 * Return the statistics for all tracked SQL statements, keyed by SQL.
+	 */
+	public Map<String, StatementStatistics> getStatistics() {
+		return Collections.unmodifiableMap(this.statistics);
+	}
+
+	/**
+	 * Return the number of executions of statements beyond the
+	 * {@linkplain #setMaxStatements maximum number} of tracked statements.
+	 */
+	public long getUntrackedExecutionCount() {
+		return this.untrackedExecutions.sum();
+	}
+
+	/**
+	 * Reset all statistics.
+	 */
+	public void reset() {
+		this.statistics.clear();
+		this.untrackedExecutions.reset();
+	}
+
+
+	/**
+	 * Execution statistics of a single SQL statement.
+	 */
+	public static final class StatementStatistics {
+
+		private final String sql;
+
+		private final LongAdder executionCount = new LongAdder();
+
+		private final LongAdder failureCount = new LongAdder();
+
+		private final LongAdder totalExecutionTimeNanos = new LongAdder();
+
+		private final AtomicLong maxExecutionTimeNanos = new AtomicLong();
+
+		private final LongAdder rowsFetched = new LongAdder();
+
+		private final LongAdder fetchRoundTrips = new LongAdder();
+
+		StatementStatistics(String sql) {
+			this.sql = sql;
+		}
+
+		void record(StatementExecution execution) {
+			long executionTime = execution.getExecutionTimeNanos();
+			this.executionCount.increment();
+			if (!execution.isSuccessful()) {
+				this.failureCount.increment();
+			}
+			this.totalExecutionTimeNanos.add(executionTime);
+			this.maxExecutionTimeNanos.accumulateAndGet(executionTime, Math::max);
+			this.rowsFetched.add(execution.getRowsFetched());
+			this.fetchRoundTrips.add(execution.getFetchRoundTrips());
+		}
+
+		/**
+		 * Return the SQL statement.
+		 */
+		public String getSql() {
+			return this.sql;
+		}
+
+		/**
+		 * Return the number of executions.
+		 */
+		public long getExecutionCount() {
+			return this.executionCount.sum();
+		}
+
+		/**
+		 * Return the number of failed executions.
+		 */
+		public long getFailureCount() {
+			return this.failureCount.sum();
+		}
+
+		/**
+		 * Return the total execution time.
+		 */
+		public Duration getTotalExecutionTime() {
+			return Duration.ofNanos(this.totalExecutionTimeNanos.sum());
+		}
+
+		/**
+		 * Return the maximum execution time.
+		 */
+		public Duration getMaxExecutionTime() {
+			return Duration.ofNanos(this.maxExecutionTimeNanos.get());
+		}
+
+		/**
+		 * Return the mean execution time.
+		 */
+		public Duration getMeanExecutionTime() {
+			long count = getExecutionCount();
+			return (count > 0 ? Duration.ofNanos(this.totalExecutionTimeNanos.sum() / count) : Duration.ZERO);
+		}
+
+		/**
+		 * Return the total number of rows fetched.
+		 */
+		public long getRowsFetched() {
+			return this.rowsFetched.sum();
+		}
+
+		/**
+		 * Return the total estimated number of fetch round trips.
+		 * @see StatementExecution#getFetchRoundTrips()
+		 */
+		public long getFetchRoundTrips() {
+			return this.fetchRoundTrips.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "StatementStatistics for [" + this.sql + "]: " + getExecutionCount() + " executions, " +
+					getFailureCount() + " failures, mean " + getMeanExecutionTime().toMillis() + " ms, max " +
+					getMaxExecutionTime().toMillis() + " ms, " + getRowsFetched() + " rows fetched";
+		}
+	}
+
+}
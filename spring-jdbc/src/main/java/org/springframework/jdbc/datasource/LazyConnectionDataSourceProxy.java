@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -69,6 +69,12 @@ import org.springframework.lang.Nullable;
  * You will get the same effect with non-transactional reads, but lazy fetching
  * of JDBC Connections allows you to still perform reads in transactions.
  *
+ * <p>Since the actual Connection is only fetched once the transaction has been
+ * fully set up, lazy fetching also allows to route read-only transactions to
+ * read replicas, through a
+ * {@link org.springframework.jdbc.datasource.lookup.ReadWriteRoutingDataSource}
+ * as target DataSource.
+ *
  * <p><b>NOTE:</b> This DataSource proxy needs to return wrapped Connections
  * (which implement the {@link ConnectionProxy} interface) in order to handle
  * lazy fetching of an actual JDBC Connection. Use {@link Connection#unwrap}
@@ -77,6 +83,7 @@ import org.springframework.lang.Nullable;
  * @author Juergen Hoeller
  * @since 1.1.4
  * @see DataSourceTransactionManager
+ * @see org.springframework.jdbc.datasource.lookup.ReadWriteRoutingDataSource
  */
 public class LazyConnectionDataSourceProxy extends DelegatingDataSource {
 
@@ -0,0 +1,683 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Lightweight connection pool on top of a non-pooling target DataSource such
+ * as a {@link SimpleDriverDataSource}, intended for tests, embedded databases
+ * and small services. For production use with significant load, a full-fledged
+ * connection pool such as HikariCP is still recommended.
+ *
+ * <p>Connections are borrowed without locking: a thread first tries the
+ * Connections it has recently returned itself, then any idle Connection, and
+ * only creates a new physical Connection if none is idle and the
+ * {@linkplain #setMaxPoolSize maximum pool size} has not been reached yet.
+ * Otherwise, it waits for a Connection to be handed off by a returning thread,
+ * up to the {@linkplain #setConnectionTimeout connection timeout}.
+ *
+ * <p>Returned Connections are handed out as proxies whose {@code close()}
+ * call returns the Connection to the pool, rolling back any pending changes
+ * and restoring auto-commit, read-only, isolation, catalog and schema settings.
+ * This makes the pool suitable for use with {@link DataSourceUtils} and
+ * {@link DataSourceTransactionManager}. Connections that have been idle for
+ * longer than the {@linkplain #setValidationInterval validation interval} are
+ * validated through {@link Connection#isValid} before being handed out.
+ *
+ * <p>If a {@linkplain #setLeakDetectionThreshold leak detection threshold} is
+ * set, Connections held for longer than that are logged at warn level, along
+ * with the stack trace of the code that borrowed them, whenever the pool is
+ * exhausted. Leaked Connections are not reclaimed.
+ *
+ * <p>Note that {@link #getConnection(String, String)} is not pooled but
+ * delegates to the target DataSource.
+ *
+ * @author agent
+ * @since 6.0
+ * @see SimpleDriverDataSource
+ * @see org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseFactory#setConnectionPooling
+ */
+public class PooledDataSource extends DelegatingDataSource implements DisposableBean {
+
+	private static final int NOT_IN_USE = 0;
+
+	private static final int IN_USE = 1;
+
+	private static final int REMOVED = -1;
+
+	private static final int MAX_RECENT_CONNECTIONS = 16;
+
+	private static final long MAX_WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final int MAX_HANDOFF_ATTEMPTS = 16;
+
+
+	private static final Log logger = LogFactory.getLog(PooledDataSource.class);
+
+	private int maxPoolSize = 10;
+
+	private long connectionTimeoutNanos = TimeUnit.SECONDS.toNanos(30);
+
+	private long validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(500);
+
+	private int validationTimeoutSeconds = 5;
+
+	private long maxLifetimeNanos = 0;
+
+	private long leakDetectionThresholdNanos = 0;
+
+	private final CopyOnWriteArrayList<PooledConnection> connections = new CopyOnWriteArrayList<>();
+
+	private final AtomicInteger totalConnections = new AtomicInteger();
+
+	private final AtomicInteger waiters = new AtomicInteger();
+
+	private final SynchronousQueue<PooledConnection> handoffQueue = new SynchronousQueue<>(true);
+
+	private final ThreadLocal<List<WeakReference<PooledConnection>>> recentConnections =
+			ThreadLocal.withInitial(() -> new ArrayList<>(MAX_RECENT_CONNECTIONS));
+
+	private final LongAdder borrowCount = new LongAdder();
+
+	private final LongAdder timeoutCount = new LongAdder();
+
+	private final LongAdder leakCount = new LongAdder();
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Create a new PooledDataSource.
+	 * @see #setTargetDataSource
+	 */
+	public PooledDataSource() {
+	}
+
+	/**
+	 * Create a new PooledDataSource for the given target DataSource.
+	 * @param targetDataSource the non-pooling DataSource to obtain physical
+	 * Connections from
+	 */
+	public PooledDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+
+	/**
+	 * Set the maximum number of physical Connections, in use or idle.
+	 * <p>Default is 10.
+	 */
+	public void setMaxPoolSize(int maxPoolSize) {
+		Assert.isTrue(maxPoolSize > 0, "Max pool size must be greater than 0");
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	/**
+	 * Return the maximum number of physical Connections.
+	 */
+	public int getMaxPoolSize() {
+		return this.maxPoolSize;
+	}
+
+	/**
+	 * Set the maximum time to wait for a Connection if the pool is exhausted.
+	 * <p>Default is 30 seconds.
+	 */
+	public void setConnectionTimeout(Duration connectionTimeout) {
+		Assert.isTrue(!connectionTimeout.isNegative(), "Connection timeout must not be negative");
+		this.connectionTimeoutNanos = connectionTimeout.toNanos();
+	}
+
+	/**
+	 * Set the time after which an idle Connection is validated through
+	 * {@link Connection#isValid} before being handed out.
+	 * <p>Default is 500 milliseconds.
+	 */
+	public void setValidationInterval(Duration validationInterval) {
+		Assert.isTrue(!validationInterval.isNegative(), "Validation interval must not be negative");
+		this.validationIntervalNanos = validationInterval.toNanos();
+	}
+
+	/**
+	 * Set the timeout for validating a Connection, in seconds.
+	 * <p>Default is 5 seconds.
+	 * @see Connection#isValid(int)
+	 */
+	public void setValidationTimeout(int validationTimeoutSeconds) {
+		Assert.isTrue(validationTimeoutSeconds >= 0, "Validation timeout must not be negative");
+		this.validationTimeoutSeconds = validationTimeoutSeconds;
+	}
+
+	/**
+	 * Set the maximum lifetime of a physical Connection, after which it is
+	 * closed once idle.
+	 * <p>Default is none.
+	 */
+	public void setMaxLifetime(@Nullable Duration maxLifetime) {
+		this.maxLifetimeNanos = (maxLifetime != null ? maxLifetime.toNanos() : 0);
+	}
+
+	/**
+	 * Set the time after which a borrowed Connection is considered leaked.
+	 * <p>Default is none. Note that setting a threshold records the stack
+	 * trace of each borrowing call.
+	 */
+	public void setLeakDetectionThreshold(@Nullable Duration leakDetectionThreshold) {
+		this.leakDetectionThresholdNanos = (leakDetectionThreshold != null ? leakDetectionThreshold.toNanos() : 0);
+	}
+
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return borrow().createProxy();
+	}
+
+	/**
+	 * Close all idle Connections, and all Connections in use once they are
+	 * returned. Further requests for Connections will fail.
+	 */
+	public void close() {
+		this.closed = true;
+		detectLeaks();
+		for (PooledConnection pooled : this.connections) {
+			if (pooled.state.compareAndSet(NOT_IN_USE, REMOVED)) {
+				remove(pooled);
+			}
+		}
+	}
+
+	/**
+	 * Close this pool on destruction of the containing BeanFactory.
+	 * @see #close()
+	 */
+	@Override
+	public void destroy() {
+		close();
+	}
+
+	/**
+	 * Return whether this pool has been closed.
+	 */
+	public boolean isClosed() {
+		return this.closed;
+	}
+
+
+	/**
+	 * Return the number of physical Connections, in use or idle.
+	 */
+	public int getTotalConnectionCount() {
+		return this.totalConnections.get();
+	}
+
+	/**
+	 * Return the number of Connections currently in use.
+	 */
+	public int getActiveConnectionCount() {
+		return countConnections(IN_USE);
+	}
+
+	/**
+	 * Return the number of idle Connections.
+	 */
+	public int getIdleConnectionCount() {
+		return countConnections(NOT_IN_USE);
+	}
+
+	/**
+	 * Return the number of threads currently waiting for a Connection.
+	 */
+	public int getAwaitingThreadCount() {
+		return this.waiters.get();
+	}
+
+	/**
+	 * Return the total number of Connections handed out.
+	 */
+	public long getBorrowCount() {
+		return this.borrowCount.sum();
+	}
+
+	/**
+	 * Return the number of requests for Connections that timed out.
+	 */
+	public long getConnectionTimeoutCount() {
+		return this.timeoutCount.sum();
+	}
+
+	/**
+	 * Return the number of Connections detected as leaked.
+	 * @see #setLeakDetectionThreshold
+	 */
+	public long getLeakCount() {
+		return this.leakCount.sum();
+	}
+
+	private int countConnections(int state) {
+		int count = 0;
+		for (PooledConnection pooled : this.connections) {
+			if (pooled.state.get() == state) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+
+	private PooledConnection borrow() throws SQLException {
+		if (this.closed) {
+			throw new SQLException("PooledDataSource has been closed");
+		}
+		List<WeakReference<PooledConnection>> recent = this.recentConnections.get();
+		for (int i = recent.size() - 1; i >= 0; i--) {
+			PooledConnection pooled = recent.remove(i).get();
+			if (pooled != null && pooled.state.compareAndSet(NOT_IN_USE, IN_USE) && acquired(pooled)) {
+				return pooled;
+			}
+		}
+
+		long deadline = System.nanoTime() + this.connectionTimeoutNanos;
+		try {
+			while (true) {
+				for (PooledConnection pooled : this.connections) {
+					if (pooled.state.compareAndSet(NOT_IN_USE, IN_USE) && acquired(pooled)) {
+						return pooled;
+					}
+				}
+				PooledConnection created = createIfPossible();
+				if (created != null) {
+					return created;
+				}
+				detectLeaks();
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0 || this.closed) {
+					break;
+				}
+				PooledConnection pooled;
+				this.waiters.incrementAndGet();
+				try {
+					pooled = this.handoffQueue.poll(Math.min(remaining, MAX_WAIT_SLICE_NANOS), TimeUnit.NANOSECONDS);
+				}
+				finally {
+					this.waiters.decrementAndGet();
+				}
+				if (pooled != null && pooled.state.compareAndSet(NOT_IN_USE, IN_USE) && acquired(pooled)) {
+					return pooled;
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a pooled Connection", ex);
+		}
+		this.timeoutCount.increment();
+		throw new SQLTransientConnectionException("Connection not available within " +
+				TimeUnit.NANOSECONDS.toMillis(this.connectionTimeoutNanos) + " ms (total=" +
+				getTotalConnectionCount() + ", active=" + getActiveConnectionCount() +
+				", waiting=" + getAwaitingThreadCount() + ")");
+	}
+
+	/**
+	 * Check a Connection that has just been marked as in use.
+	 * @return {@code true} if the Connection can be handed out, {@code false}
+	 * if it has been removed from the pool instead
+	 */
+	private boolean acquired(PooledConnection pooled) {
+		long now = System.nanoTime();
+		if (this.maxLifetimeNanos > 0 && now - pooled.creationTime > this.maxLifetimeNanos) {
+			remove(pooled);
+			return false;
+		}
+		if (now - pooled.lastReturnTime > this.validationIntervalNanos) {
+			boolean valid;
+			try {
+				valid = pooled.connection.isValid(this.validationTimeoutSeconds);
+			}
+			catch (SQLException ex) {
+				valid = false;
+			}
+			if (!valid) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Removing invalid pooled Connection " + pooled.connection);
+				}
+				remove(pooled);
+				return false;
+			}
+		}
+		borrowed(pooled, now);
+		return true;
+	}
+
+	@Nullable
+	private PooledConnection createIfPossible() throws SQLException {
+		int total;
+		do {
+			total = this.totalConnections.get();
+			if (total >= this.maxPoolSize) {
+				return null;
+			}
+		}
+		while (!this.totalConnections.compareAndSet(total, total + 1));
+
+		PooledConnection pooled;
+		try {
+			pooled = new PooledConnection(obtainTargetDataSource().getConnection());
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.totalConnections.decrementAndGet();
+			throw ex;
+		}
+		this.connections.add(pooled);
+		borrowed(pooled, pooled.creationTime);
+		return pooled;
+	}
+
+	private void borrowed(PooledConnection pooled, long now) {
+		pooled.borrowTime = now;
+		pooled.borrowStackTrace = (this.leakDetectionThresholdNanos > 0 ?
+				new Exception("Connection borrowed here") : null);
+		pooled.leakReported = false;
+		this.borrowCount.increment();
+	}
+
+	private void release(PooledConnection pooled) {
+		if (pooled.leakReported && logger.isInfoEnabled()) {
+			logger.info("Previously reported leaked Connection " + pooled.connection + " returned after " +
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.borrowTime) + " ms");
+		}
+		long now = System.nanoTime();
+		if (this.closed || !pooled.reset() ||
+				(this.maxLifetimeNanos > 0 && now - pooled.creationTime > this.maxLifetimeNanos)) {
+			remove(pooled);
+			return;
+		}
+		pooled.lastReturnTime = now;
+		pooled.borrowStackTrace = null;
+		pooled.state.set(NOT_IN_USE);
+		if (this.closed && pooled.state.compareAndSet(NOT_IN_USE, REMOVED)) {
+			// Closed concurrently, possibly skipping this Connection while still in use
+			remove(pooled);
+			return;
+		}
+
+		// Hand over to a waiting thread if possible, otherwise leave in the idle set
+		for (int i = 0; i < MAX_HANDOFF_ATTEMPTS && this.waiters.get() > 0; i++) {
+			if (pooled.state.get() != NOT_IN_USE || this.handoffQueue.offer(pooled)) {
+				return;
+			}
+			Thread.yield();
+		}
+		List<WeakReference<PooledConnection>> recent = this.recentConnections.get();
+		if (recent.size() < MAX_RECENT_CONNECTIONS) {
+			recent.add(new WeakReference<>(pooled));
+		}
+	}
+
+	private void remove(PooledConnection pooled) {
+		pooled.state.set(REMOVED);
+		if (this.connections.remove(pooled)) {
+			this.totalConnections.decrementAndGet();
+		}
+		try {
+			pooled.connection.close();
+		}
+		catch (SQLException ex) {
+			logger.debug("Could not close pooled JDBC Connection", ex);
+		}
+		catch (Throwable ex) {
+			logger.debug("Unexpected exception on closing pooled JDBC Connection", ex);
+		}
+	}
+
+	private void detectLeaks() {
+		long threshold = this.leakDetectionThresholdNanos;
+		if (threshold <= 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		for (PooledConnection pooled : this.connections) {
+			if (pooled.state.get() == IN_USE && !pooled.leakReported && now - pooled.borrowTime > threshold) {
+				pooled.leakReported = true;
+				this.leakCount.increment();
+				logger.warn("Connection leak detected: " + pooled.connection + " has been in use for " +
+						TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowTime) + " ms", pooled.borrowStackTrace);
+			}
+		}
+	}
+
+
+	/**
+	 * A physical Connection in the pool, along with its default settings and
+	 * the settings changed by its current borrower.
+	 */
+	private final class PooledConnection {
+
+		final Connection connection;
+
+		final AtomicInteger state = new AtomicInteger(IN_USE);
+
+		final long creationTime = System.nanoTime();
+
+		volatile long lastReturnTime = this.creationTime;
+
+		volatile long borrowTime;
+
+		@Nullable
+		volatile Throwable borrowStackTrace;
+
+		volatile boolean leakReported;
+
+		private final boolean defaultAutoCommit;
+
+		private final boolean defaultReadOnly;
+
+		private final int defaultTransactionIsolation;
+
+		@Nullable
+		private final String defaultCatalog;
+
+		@Nullable
+		private final String defaultSchema;
+
+		boolean autoCommit;
+
+		boolean readOnlyChanged;
+
+		boolean transactionIsolationChanged;
+
+		boolean catalogChanged;
+
+		boolean schemaChanged;
+
+		PooledConnection(Connection connection) throws SQLException {
+			this.connection = connection;
+			try {
+				this.defaultAutoCommit = connection.getAutoCommit();
+				this.defaultReadOnly = connection.isReadOnly();
+				this.defaultTransactionIsolation = connection.getTransactionIsolation();
+				this.defaultCatalog = connection.getCatalog();
+				this.defaultSchema = connection.getSchema();
+			}
+			catch (SQLException | RuntimeException ex) {
+				connection.close();
+				throw ex;
+			}
+			this.autoCommit = this.defaultAutoCommit;
+		}
+
+		Connection createProxy() {
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class},
+					new PooledConnectionInvocationHandler(this));
+		}
+
+		/**
+		 * Roll back pending changes and restore the default settings.
+		 * @return whether the Connection can be reused
+		 */
+		boolean reset() {
+			try {
+				if (!this.autoCommit) {
+					this.connection.rollback();
+				}
+				if (this.autoCommit != this.defaultAutoCommit) {
+					this.connection.setAutoCommit(this.defaultAutoCommit);
+					this.autoCommit = this.defaultAutoCommit;
+				}
+				if (this.readOnlyChanged) {
+					this.connection.setReadOnly(this.defaultReadOnly);
+					this.readOnlyChanged = false;
+				}
+				if (this.transactionIsolationChanged) {
+					this.connection.setTransactionIsolation(this.defaultTransactionIsolation);
+					this.transactionIsolationChanged = false;
+				}
+				if (this.catalogChanged) {
+					this.connection.setCatalog(this.defaultCatalog);
+					this.catalogChanged = false;
+				}
+				if (this.schemaChanged) {
+					this.connection.setSchema(this.defaultSchema);
+					this.schemaChanged = false;
+				}
+				this.connection.clearWarnings();
+				return true;
+			}
+			catch (SQLException | RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not reset pooled JDBC Connection - removing it from the pool", ex);
+				}
+				return false;
+			}
+		}
+
+		void release() {
+			PooledDataSource.this.release(this);
+		}
+
+		void abort() {
+			remove(this);
+		}
+	}
+
+
+	/**
+	 * Invocation handler for a borrowed Connection, returning it to the pool
+	 * on {@code close()}.
+	 */
+	private static class PooledConnectionInvocationHandler implements InvocationHandler {
+
+		private final PooledConnection pooled;
+
+		private boolean closed;
+
+		PooledConnectionInvocationHandler(PooledConnection pooled) {
+			this.pooled = pooled;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Pooled Connection [" + this.pooled.connection + "]";
+				case "isClosed":
+					return (this.closed || this.pooled.connection.isClosed());
+				case "close":
+					if (!this.closed) {
+						this.closed = true;
+						this.pooled.release();
+					}
+					return null;
+				case "unwrap":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return proxy;
+					}
+					break;
+				case "isWrapperFor":
+					if (((Class<?>) args[0]).isInstance(proxy)) {
+						return true;
+					}
+					break;
+			}
+
+			if (this.closed) {
+				throw new SQLException("Connection has been returned to the pool");
+			}
+			switch (method.getName()) {
+				case "getTargetConnection":
+					return this.pooled.connection;
+				case "abort":
+					this.closed = true;
+					this.pooled.abort();
+					return null;
+				case "setAutoCommit":
+					this.pooled.autoCommit = (Boolean) args[0];
+					break;
+				case "setReadOnly":
+					this.pooled.readOnlyChanged = true;
+					break;
+				case "setTransactionIsolation":
+					this.pooled.transactionIsolationChanged = true;
+					break;
+				case "setCatalog":
+					this.pooled.catalogChanged = true;
+					break;
+				case "setSchema":
+					this.pooled.schemaChanged = true;
+					break;
+			}
+			try {
+				return method.invoke(this.pooled.connection, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -136,6 +136,21 @@ public class EmbeddedDatabaseBuilder {
 		return this;
 	}
 
+	/**
+	 * Specify whether connections to the embedded database should be pooled.
+	 * <p>Defaults to {@code true}, applying to the default
+	 * {@link SimpleDriverDataSourceFactory}.
+	 * @param connectionPooling {@code false} to obtain a new physical connection
+	 * for each request
+	 * @return {@code this}, to facilitate method chaining
+	 * @since 6.0
+	 * @see EmbeddedDatabaseFactory#setConnectionPooling
+	 */
+	public EmbeddedDatabaseBuilder setConnectionPooling(boolean connectionPooling) {
+		this.databaseFactory.setConnectionPooling(connectionPooling);
+		return this;
+	}
+
 	/**
 	 * Add default SQL scripts to execute to populate the database.
 	 * <p>The default scripts are {@code "schema.sql"} to create the database
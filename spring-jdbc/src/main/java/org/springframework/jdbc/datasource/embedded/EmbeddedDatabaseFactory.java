@@ -27,6 +27,7 @@ import javax.sql.DataSource;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.jdbc.datasource.PooledDataSource;
 import org.springframework.jdbc.datasource.SimpleDriverDataSource;
 import org.springframework.jdbc.datasource.init.DatabasePopulator;
 import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
@@ -52,6 +53,8 @@ import org.springframework.util.Assert;
  * populate the database.
  * <li>Call {@link #setDataSourceFactory} to change the type of
  * {@link DataSource} used to connect to the database.
+ * <li>Call {@link #setConnectionPooling} to disable pooling of connections
+ * obtained from a {@link SimpleDriverDataSource}.
  * </ul>
  *
  * <p>After configuring the factory, call {@link #getDatabase()} to obtain
@@ -77,6 +80,8 @@ public class EmbeddedDatabaseFactory {
 
 	private DataSourceFactory dataSourceFactory = new SimpleDriverDataSourceFactory();
 
+	private boolean connectionPooling = true;
+
 	@Nullable
 	private EmbeddedDatabaseConfigurer databaseConfigurer;
 
@@ -122,6 +127,19 @@ public class EmbeddedDatabaseFactory {
 		this.dataSourceFactory = dataSourceFactory;
 	}
 
+	/**
+	 * Set whether to pool the connections to the database in a
+	 * {@link PooledDataSource} if the {@link DataSourceFactory} creates a
+	 * {@link SimpleDriverDataSource}, which is the case by default.
+	 * <p>Defaults to {@code true}. Switch this flag to {@code false} in order
+	 * to obtain a new physical connection for each request.
+	 * @since 6.0
+	 * @see #setDataSourceFactory
+	 */
+	public void setConnectionPooling(boolean connectionPooling) {
+		this.connectionPooling = connectionPooling;
+	}
+
 	/**
 	 * Set the type of embedded database to use.
 	 * <p>Call this when you wish to configure one of the pre-supported types.
@@ -182,10 +200,14 @@ public class EmbeddedDatabaseFactory {
 		}
 		this.databaseConfigurer.configureConnectionProperties(
 				this.dataSourceFactory.getConnectionProperties(), this.databaseName);
-		this.dataSource = this.dataSourceFactory.getDataSource();
+		DataSource dataSource = this.dataSourceFactory.getDataSource();
+		if (this.connectionPooling && dataSource instanceof SimpleDriverDataSource) {
+			dataSource = new PooledDataSource(dataSource);
+		}
+		this.dataSource = dataSource;
 
 		if (logger.isInfoEnabled()) {
-			if (this.dataSource instanceof SimpleDriverDataSource simpleDriverDataSource) {
+			if (getTargetDataSource(this.dataSource) instanceof SimpleDriverDataSource simpleDriverDataSource) {
 				logger.info(String.format("Starting embedded database: url='%s', username='%s'",
 						simpleDriverDataSource.getUrl(), simpleDriverDataSource.getUsername()));
 			}
@@ -216,21 +238,37 @@ public class EmbeddedDatabaseFactory {
 	protected void shutdownDatabase() {
 		if (this.dataSource != null) {
 			if (logger.isInfoEnabled()) {
-				if (this.dataSource instanceof SimpleDriverDataSource) {
+				if (getTargetDataSource(this.dataSource) instanceof SimpleDriverDataSource simpleDriverDataSource) {
 					logger.info(String.format("Shutting down embedded database: url='%s'",
-						((SimpleDriverDataSource) this.dataSource).getUrl()));
+						simpleDriverDataSource.getUrl()));
 				}
 				else {
 					logger.info(String.format("Shutting down embedded database '%s'", this.databaseName));
 				}
 			}
+			DataSource targetDataSource = getTargetDataSource(this.dataSource);
+			if (this.dataSource instanceof PooledDataSource pooledDataSource) {
+				// Release pooled connections before shutting down the database
+				// through a non-pooled connection
+				pooledDataSource.close();
+			}
 			if (this.databaseConfigurer != null) {
-				this.databaseConfigurer.shutdown(this.dataSource, this.databaseName);
+				this.databaseConfigurer.shutdown(targetDataSource, this.databaseName);
 			}
 			this.dataSource = null;
 		}
 	}
 
+	private static DataSource getTargetDataSource(DataSource dataSource) {
+		if (dataSource instanceof PooledDataSource pooledDataSource) {
+			DataSource targetDataSource = pooledDataSource.getTargetDataSource();
+			if (targetDataSource != null) {
+				return targetDataSource;
+			}
+		}
+		return dataSource;
+	}
+
 	/**
 	 * Hook that gets the {@link DataSource} that provides the connectivity to the
 	 * embedded database.
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * DataSource that routes connections for read-only transactions to one of
+ * several read replicas, and all other connections to a primary DataSource.
+ *
+ * <p>Read-only transactions are detected through
+ * {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}.
+ * Since transaction managers such as
+ * {@link org.springframework.jdbc.datasource.DataSourceTransactionManager}
+ * obtain their Connection before exposing the read-only flag, this router
+ * needs to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * which only fetches the target Connection on the first statement:
+ *
+ * <pre class="code">
+ * ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+ * router.setPrimaryDataSource(primary);
+ * router.setReplicaDataSources(List.of(replica1, replica2));
+ * router.afterPropertiesSet();
+ * DataSource dataSource = new LazyConnectionDataSourceProxy(router);</pre>
+ *
+ * <p>Replicas are balanced by picking the better of two randomly chosen
+ * replicas, comparing the product of their observed latency and number of
+ * Connections in flight. The latency of a replica is tracked as an
+ * exponentially weighted moving average of the time its Connections are in
+ * use, from retrieval to close, which within a read-only transaction
+ * approximates the time spent on its queries.
+ *
+ * <p>A replica that fails to provide a Connection a given number of times in
+ * a row is ejected for a given duration, and the Connection is retrieved from
+ * another replica instead. If no replica is available, read-only Connections
+ * fall back to the primary DataSource, unless configured otherwise.
+ *
+ * <p>The primary and replica DataSources can also be specified as data source
+ * names, to be resolved through a {@link #setDataSourceLookup DataSourceLookup}.
+ *
+ * @author agent
+ * @since 6.0
+ * @see org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
+ * @see org.springframework.transaction.annotation.Transactional#readOnly()
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	private static final String PRIMARY_KEY = "primary";
+
+	private static final String REPLICA_KEY_PREFIX = "replica-";
+
+	private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+
+	@Nullable
+	private Object primaryDataSource;
+
+	private List<Object> replicaDataSources = Collections.emptyList();
+
+	private int failureThreshold = 1;
+
+	private long ejectionDurationNanos = TimeUnit.SECONDS.toNanos(30);
+
+	private boolean fallbackToPrimary = true;
+
+	private List<Replica> replicas = Collections.emptyList();
+
+
+	/**
+	 * Set the primary DataSource, for all Connections except read-only ones.
+	 * <p>The value may be a DataSource instance or a data source name.
+	 */
+	public void setPrimaryDataSource(Object primaryDataSource) {
+		Assert.notNull(primaryDataSource, "Primary DataSource must not be null");
+		this.primaryDataSource = primaryDataSource;
+	}
+
+	/**
+	 * Set the read replica DataSources, for Connections within read-only
+	 * transactions.
+	 * <p>The values may be DataSource instances or data source names.
+	 */
+	public void setReplicaDataSources(List<?> replicaDataSources) {
+		Assert.notNull(replicaDataSources, "Replica DataSources must not be null");
+		this.replicaDataSources = new ArrayList<>(replicaDataSources);
+	}
+
+	/**
+	 * Set the number of consecutive failures to retrieve a Connection after
+	 * which a replica is ejected.
+	 * <p>Default is 1.
+	 */
+	public void setFailureThreshold(int failureThreshold) {
+		Assert.isTrue(failureThreshold > 0, "Failure threshold must be greater than 0");
+		this.failureThreshold = failureThreshold;
+	}
+
+	/**
+	 * Set the duration for which a failing replica is ejected.
+	 * <p>Default is 30 seconds.
+	 */
+	public void setEjectionDuration(Duration ejectionDuration) {
+		Assert.isTrue(!ejectionDuration.isNegative(), "Ejection duration must not be negative");
+		this.ejectionDurationNanos = ejectionDuration.toNanos();
+	}
+
+	/**
+	 * Set whether read-only Connections should be retrieved from the primary
+	 * DataSource if no replica is available.
+	 * <p>Default is {@code true}. Switch this to {@code false} for read-only
+	 * Connections to fail instead.
+	 */
+	public void setFallbackToPrimary(boolean fallbackToPrimary) {
+		this.fallbackToPrimary = fallbackToPrimary;
+	}
+
+
+	@Override
+	public void afterPropertiesSet() {
+		Assert.state(this.primaryDataSource != null, "Property 'primaryDataSource' is required");
+		Map<Object, Object> targetDataSources = new HashMap<>(this.replicaDataSources.size() + 1);
+		targetDataSources.put(PRIMARY_KEY, this.primaryDataSource);
+		for (int i = 0; i < this.replicaDataSources.size(); i++) {
+			targetDataSources.put(REPLICA_KEY_PREFIX + i, this.replicaDataSources.get(i));
+		}
+		setTargetDataSources(targetDataSources);
+		setDefaultTargetDataSource(this.primaryDataSource);
+		setLenientFallback(false);
+		super.afterPropertiesSet();
+
+		Map<Object, DataSource> resolvedDataSources = getResolvedDataSources();
+		List<Replica> replicas = new ArrayList<>(this.replicaDataSources.size());
+		for (int i = 0; i < this.replicaDataSources.size(); i++) {
+			String key = REPLICA_KEY_PREFIX + i;
+			replicas.add(new Replica(key, resolvedDataSources.get(key)));
+		}
+		this.replicas = replicas;
+	}
+
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return getConnection(null, null, false);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return getConnection(username, password, true);
+	}
+
+	private Connection getConnection(@Nullable String username, @Nullable String password, boolean withCredentials)
+			throws SQLException {
+
+		if (!isReadOnly() || this.replicas.isEmpty()) {
+			DataSource primary = determineTargetDataSource();
+			return (withCredentials ? primary.getConnection(username, password) : primary.getConnection());
+		}
+		List<Replica> failedReplicas = null;
+		SQLException failure = null;
+		Replica replica;
+		while ((replica = selectReplica(failedReplicas)) != null) {
+			try {
+				return replica.getConnection(username, password, withCredentials);
+			}
+			catch (SQLException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to obtain Connection from read replica '" + replica.key + "'", ex);
+				}
+				replica.failed(this.failureThreshold, this.ejectionDurationNanos);
+				if (failedReplicas == null) {
+					failedReplicas = new ArrayList<>(this.replicas.size());
+				}
+				failedReplicas.add(replica);
+				if (failure == null) {
+					failure = ex;
+				}
+				else {
+					failure.addSuppressed(ex);
+				}
+			}
+		}
+		if (this.fallbackToPrimary) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("No read replica available - falling back to primary DataSource");
+			}
+			DataSource primary = determineTargetDataSource();
+			return (withCredentials ? primary.getConnection(username, password) : primary.getConnection());
+		}
+		throw (failure != null ? failure : new SQLException("No read replica available"));
+	}
+
+	/**
+	 * Determine whether the current Connection is requested for a read-only
+	 * transaction, and should therefore be retrieved from a read replica.
+	 * <p>The default implementation checks
+	 * {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()}.
+	 */
+	protected boolean isReadOnly() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * Always returns the key of the primary DataSource: read replicas are
+	 * selected in {@link #getConnection()} instead.
+	 */
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return PRIMARY_KEY;
+	}
+
+	@Nullable
+	private Replica selectReplica(@Nullable List<Replica> excludedReplicas) {
+		long now = System.nanoTime();
+		List<Replica> candidates = new ArrayList<>(this.replicas.size());
+		for (Replica replica : this.replicas) {
+			if (replica.isAvailable(now) && (excludedReplicas == null || !excludedReplicas.contains(replica))) {
+				candidates.add(replica);
+			}
+		}
+		int size = candidates.size();
+		if (size == 0) {
+			return null;
+		}
+		else if (size == 1) {
+			return candidates.get(0);
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(size);
+		int second = random.nextInt(size - 1);
+		if (second >= first) {
+			second++;
+		}
+		Replica replica1 = candidates.get(first);
+		Replica replica2 = candidates.get(second);
+		return (replica1.getLoad() <= replica2.getLoad() ? replica1 : replica2);
+	}
+
+
+	/**
+	 * Holder for a replica DataSource and its observed state.
+	 */
+	private static final class Replica {
+
+		final String key;
+
+		final DataSource dataSource;
+
+		final AtomicInteger inFlight = new AtomicInteger();
+
+		final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+		volatile double latencyNanos;
+
+		volatile long ejectedUntil;
+
+		volatile boolean ejected;
+
+		Replica(String key, DataSource dataSource) {
+			this.key = key;
+			this.dataSource = dataSource;
+		}
+
+		boolean isAvailable(long now) {
+			return (!this.ejected || now - this.ejectedUntil >= 0);
+		}
+
+		double getLoad() {
+			return (this.latencyNanos + 1) * (this.inFlight.get() + 1);
+		}
+
+		Connection getConnection(@Nullable String username, @Nullable String password, boolean withCredentials)
+				throws SQLException {
+
+			long startTime = System.nanoTime();
+			this.inFlight.incrementAndGet();
+			Connection con;
+			try {
+				con = (withCredentials ? this.dataSource.getConnection(username, password) :
+						this.dataSource.getConnection());
+			}
+			catch (SQLException | RuntimeException ex) {
+				this.inFlight.decrementAndGet();
+				throw ex;
+			}
+			this.consecutiveFailures.set(0);
+			this.ejected = false;
+			return (Connection) Proxy.newProxyInstance(
+					ConnectionProxy.class.getClassLoader(),
+					new Class<?>[] {ConnectionProxy.class},
+					new ReplicaConnectionInvocationHandler(this, con, startTime));
+		}
+
+		void failed(int failureThreshold, long ejectionDurationNanos) {
+			if (this.consecutiveFailures.incrementAndGet() >= failureThreshold) {
+				this.ejectedUntil = System.nanoTime() + ejectionDurationNanos;
+				this.ejected = true;
+			}
+		}
+
+		void released(long startTime) {
+			this.inFlight.decrementAndGet();
+			long latency = System.nanoTime() - startTime;
+			double previous = this.latencyNanos;
+			this.latencyNanos = (previous == 0 ? latency :
+					previous + LATENCY_SMOOTHING_FACTOR * (latency - previous));
+		}
+	}
+
+
+	/**
+	 * Invocation handler that tracks the release of a replica Connection.
+	 */
+	private static class ReplicaConnectionInvocationHandler implements InvocationHandler {
+
+		private final Replica replica;
+
+		private final Connection target;
+
+		private final long startTime;
+
+		private boolean closed;
+
+		ReplicaConnectionInvocationHandler(Replica replica, Connection target, long startTime) {
+			this.replica = replica;
+			this.target = target;
+			this.startTime = startTime;
+		}
+
+		@Override
+		@Nullable
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "equals":
+					return (proxy == args[0]);
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "getTargetConnection":
+					return this.target;
+				case "unwrap":
+					return (((Class<?>) args[0]).isInstance(proxy) ? proxy : this.target.unwrap((Class<?>) args[0]));
+				case "isWrapperFor":
+					return (((Class<?>) args[0]).isInstance(proxy) || this.target.isWrapperFor((Class<?>) args[0]));
+				case "close":
+					if (!this.closed) {
+						this.closed = true;
+						this.replica.released(this.startTime);
+					}
+					break;
+			}
+			try {
+				return method.invoke(this.target, args);
+			}
+			catch (InvocationTargetException ex) {
+				throw ex.getTargetException();
+			}
+		}
+	}
+
+}
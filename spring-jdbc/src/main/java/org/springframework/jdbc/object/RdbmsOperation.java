@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -126,6 +126,17 @@ public abstract class RdbmsOperation implements InitializingBean {
 		this.jdbcTemplate.setFetchSize(fetchSize);
 	}
 
+	/**
+	 * Set the fetch size for executions of this RDBMS operation that return
+	 * a Stream, overriding the general {@link #setFetchSize fetch size}.
+	 * <p>Default is -1, indicating to use the general fetch size.
+	 * @since 6.0
+	 * @see org.springframework.jdbc.core.JdbcTemplate#setStreamFetchSize
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		this.jdbcTemplate.setStreamFetchSize(streamFetchSize);
+	}
+
 	/**
 	 * Set the maximum number of rows for this RDBMS operation. This is important
 	 * for processing subsets of large result sets, avoiding to read and hold
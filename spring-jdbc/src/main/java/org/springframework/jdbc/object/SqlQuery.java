@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.object;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -139,6 +140,40 @@ public abstract class SqlQuery<T> extends SqlOperation {
 		return execute((Object[]) null, null);
 	}
 
+	/**
+	 * Central Stream execution method for un-named parameters, mapping each
+	 * row lazily as the returned Stream is consumed.
+	 * @param params parameters, similar to JDO query parameters.
+	 * Primitive parameters must be represented by their Object wrapper type.
+	 * The ordering of parameters is significant.
+	 * @param context the contextual information passed to the {@code mapRow}
+	 * callback method
+	 * @return a Stream of objects, one per row of the ResultSet, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @since 6.0
+	 * @see #setStreamFetchSize
+	 * @see org.springframework.jdbc.core.JdbcTemplate#queryForStream(org.springframework.jdbc.core.PreparedStatementCreator, RowMapper)
+	 */
+	public Stream<T> executeForStream(@Nullable Object[] params, @Nullable Map<?, ?> context)
+			throws DataAccessException {
+
+		validateParameters(params);
+		RowMapper<T> rowMapper = newRowMapper(params, context);
+		return getJdbcTemplate().queryForStream(newPreparedStatementCreator(params), rowMapper);
+	}
+
+	/**
+	 * Convenient method to execute as a Stream without context.
+	 * @param params parameters for the query. Primitive parameters must
+	 * be represented by their Object wrapper type. The ordering of parameters is
+	 * significant.
+	 * @since 6.0
+	 * @see #executeForStream(Object[], Map)
+	 */
+	public Stream<T> executeForStream(Object... params) throws DataAccessException {
+		return executeForStream(params, null);
+	}
+
 	/**
 	 * Convenient method to execute with a single int parameter and context.
 	 * @param p1 single int parameter
@@ -241,6 +276,43 @@ public abstract class SqlQuery<T> extends SqlOperation {
 		return executeByNamedParam(paramMap, null);
 	}
 
+	/**
+	 * Central Stream execution method for named parameters, mapping each
+	 * row lazily as the returned Stream is consumed.
+	 * @param paramMap parameters associated with the name specified while declaring
+	 * the SqlParameters. Primitive parameters must be represented by their Object wrapper
+	 * type. The ordering of parameters is not significant.
+	 * @param context the contextual information passed to the {@code mapRow}
+	 * callback method
+	 * @return a Stream of objects, one per row of the ResultSet, needing to be
+	 * closed once fully processed (e.g. through a try-with-resources clause)
+	 * @since 6.0
+	 * @see #setStreamFetchSize
+	 */
+	public Stream<T> executeByNamedParamForStream(Map<String, ?> paramMap, @Nullable Map<?, ?> context)
+			throws DataAccessException {
+
+		validateNamedParameters(paramMap);
+		ParsedSql parsedSql = getParsedSql();
+		MapSqlParameterSource paramSource = new MapSqlParameterSource(paramMap);
+		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		Object[] params = NamedParameterUtils.buildValueArray(parsedSql, paramSource, getDeclaredParameters());
+		RowMapper<T> rowMapper = newRowMapper(params, context);
+		return getJdbcTemplate().queryForStream(newPreparedStatementCreator(sqlToUse, params), rowMapper);
+	}
+
+	/**
+	 * Convenient method to execute as a Stream without context.
+	 * @param paramMap parameters associated with the name specified while declaring
+	 * the SqlParameters. Primitive parameters must be represented by their Object wrapper
+	 * type. The ordering of parameters is not significant.
+	 * @since 6.0
+	 * @see #executeByNamedParamForStream(Map, Map)
+	 */
+	public Stream<T> executeByNamedParamForStream(Map<String, ?> paramMap) throws DataAccessException {
+		return executeByNamedParamForStream(paramMap, null);
+	}
+
 
 	/**
 	 * Generic object finder method, used by all other {@code findObject} methods.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.object;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -25,6 +26,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ParameterMapper;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SqlParameter;
 
 /**
@@ -159,4 +161,24 @@ public abstract class StoredProcedure extends SqlCall {
 		return getJdbcTemplate().call(newCallableStatementCreator(inParamMapper), getDeclaredParameters());
 	}
 
+	/**
+	 * Execute the stored procedure and map the first result set it returns
+	 * with the given RowMapper, fetching rows lazily as the Stream is consumed.
+	 * Output parameters and any further result sets are not available.
+	 * @param rowMapper the RowMapper for the rows of the first result set
+	 * @param inParams map of input parameters, keyed by name as in parameter
+	 * declarations
+	 * @return the result Stream, needing to be closed once fully processed
+	 * (e.g. through a try-with-resources clause)
+	 * @since 6.0
+	 * @see #setStreamFetchSize
+	 * @see JdbcTemplate#callForStream
+	 */
+	public <T> Stream<T> executeForStream(RowMapper<T> rowMapper, Map<String, ?> inParams)
+			throws DataAccessException {
+
+		validateParameters(inParams.values().toArray());
+		return getJdbcTemplate().callForStream(newCallableStatementCreator(inParams), rowMapper);
+	}
+
 }
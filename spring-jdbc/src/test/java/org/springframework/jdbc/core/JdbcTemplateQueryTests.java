@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jdbc.core;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -33,6 +34,7 @@ import javax.sql.DataSource;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 
@@ -40,7 +42,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -384,6 +388,71 @@ public class JdbcTemplateQueryTests {
 		verify(this.preparedStatement).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithStreamFetchSize() throws Exception {
+		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
+		given(this.resultSet.next()).willReturn(true, false);
+		given(this.resultSet.getInt(1)).willReturn(22);
+		this.template.setFetchSize(10);
+		this.template.setStreamFetchSize(500);
+		try (Stream<Integer> s = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 3)) {
+			assertThat(s.findFirst()).contains(22);
+		}
+		InOrder ordered = inOrder(this.preparedStatement);
+		ordered.verify(this.preparedStatement).setFetchSize(10);
+		ordered.verify(this.preparedStatement).setFetchSize(500);
+		ordered.verify(this.preparedStatement).executeQuery();
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+	}
+
+	@Test
+	public void testCallForStream() throws Exception {
+		CallableStatement callableStatement = mock(CallableStatement.class);
+		given(this.connection.prepareCall("{call list_ages()}")).willReturn(callableStatement);
+		given(callableStatement.execute()).willReturn(false);
+		given(callableStatement.getUpdateCount()).willReturn(1);
+		given(callableStatement.getMoreResults()).willReturn(true);
+		given(callableStatement.getResultSet()).willReturn(this.resultSet);
+		given(this.resultSet.next()).willReturn(true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(11, 12);
+		this.template.setStreamFetchSize(100);
+		try (Stream<Integer> s = this.template.callForStream(
+				con -> con.prepareCall("{call list_ages()}"), (rs, rowNum) -> rs.getInt(1))) {
+			assertThat(s).containsExactly(11, 12);
+			verify(callableStatement, never()).close();
+		}
+		verify(callableStatement).setFetchSize(100);
+		verify(this.resultSet).close();
+		verify(callableStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testCallForStreamWithoutResultSet() throws Exception {
+		CallableStatement callableStatement = mock(CallableStatement.class);
+		given(this.connection.prepareCall("{call list_ages()}")).willReturn(callableStatement);
+		given(callableStatement.execute()).willReturn(false);
+		given(callableStatement.getUpdateCount()).willReturn(-1);
+		try (Stream<Integer> s = this.template.callForStream(
+				con -> con.prepareCall("{call list_ages()}"), (rs, rowNum) -> rs.getInt(1))) {
+			assertThat(s).isEmpty();
+		}
+		verify(callableStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testCallForStreamWithRuntimeException() throws Exception {
+		CallableStatement callableStatement = mock(CallableStatement.class);
+		given(this.connection.prepareCall("{call list_ages()}")).willReturn(callableStatement);
+		given(callableStatement.execute()).willThrow(new IllegalStateException("boom"));
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() ->
+				this.template.callForStream(con -> con.prepareCall("{call list_ages()}"), (rs, rowNum) -> rs.getInt(1)));
+		verify(callableStatement).close();
+		verify(this.connection).close();
+	}
+
 	@Test
 	public void testQueryForObjectWithArgsAndInteger() throws Exception {
 		String sql = "SELECT AGE FROM CUSTMR WHERE ID = ?";
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -46,9 +47,11 @@ import org.springframework.jdbc.SQLWarningException;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.support.AbstractInterruptibleBatchPreparedStatementSetter;
 import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
 
@@ -1091,6 +1094,114 @@ public class JdbcTemplateTests {
 		assertThat(map.get("x")).isEqualTo("first value");
 	}
 
+	@Test
+	public void testStatementExecutionListener() throws Exception {
+		String sql = "SELECT ID FROM CUSTMR WHERE ID > ?";
+		List<StatementExecution> executions = new ArrayList<>();
+		this.template.setStatementExecutionListener(executions::add);
+		given(this.resultSet.next()).willReturn(true, true, true, false);
+		given(this.resultSet.getFetchSize()).willReturn(2);
+		given(this.resultSet.getInt(1)).willReturn(1, 2, 3);
+
+		List<Integer> ids = this.template.query(sql, (rs, rowNum) -> rs.getInt(1), 0);
+
+		assertThat(ids).containsExactly(1, 2, 3);
+		assertThat(executions).hasSize(1);
+		StatementExecution execution = executions.get(0);
+		assertThat(execution.getTask()).isEqualTo("PreparedStatementCallback");
+		assertThat(execution.getSql()).isEqualTo(sql);
+		assertThat(execution.getRowsFetched()).isEqualTo(3);
+		assertThat(execution.getFetchRoundTrips()).isEqualTo(2);
+		assertThat(execution.getExecutionTimeNanos()).isGreaterThanOrEqualTo(0);
+		assertThat(execution.isSuccessful()).isTrue();
+		assertThat(execution.getException()).isNull();
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testStatementExecutionListenerWithStream() throws Exception {
+		String sql = "SELECT ID FROM CUSTMR WHERE ID > ?";
+		List<StatementExecution> executions = new ArrayList<>();
+		this.template.setStatementExecutionListener(executions::add);
+		given(this.resultSet.next()).willReturn(true, true, true, false);
+		given(this.resultSet.getInt(1)).willReturn(1, 2, 3);
+
+		try (Stream<Integer> ids = this.template.queryForStream(sql, (rs, rowNum) -> rs.getInt(1), 0)) {
+			assertThat(ids).containsExactly(1, 2, 3);
+			assertThat(executions).isEmpty();
+		}
+
+		assertThat(executions).hasSize(1);
+		StatementExecution execution = executions.get(0);
+		assertThat(execution.getTask()).isEqualTo("PreparedStatementCallback");
+		assertThat(execution.getRowsFetched()).isEqualTo(3);
+		assertThat(execution.isSuccessful()).isTrue();
+		verify(this.resultSet).close();
+		verify(this.preparedStatement).close();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testStatementExecutionListenerWithFailure() throws Exception {
+		String sql = "UPDATE NOSUCHTABLE SET DATE_DISPATCHED = SYSDATE";
+		SQLException sqlException = new SQLException("bad update");
+		List<StatementExecution> executions = new ArrayList<>();
+		this.template.setStatementExecutionListener(executions::add);
+		given(this.connection.createStatement()).willReturn(this.statement);
+		given(this.statement.executeUpdate(sql)).willThrow(sqlException);
+
+		assertThatExceptionOfType(DataAccessException.class).isThrownBy(() -> this.template.update(sql));
+
+		assertThat(executions).hasSize(1);
+		StatementExecution execution = executions.get(0);
+		assertThat(execution.getTask()).isEqualTo("StatementCallback");
+		assertThat(execution.getSql()).isEqualTo(sql);
+		assertThat(execution.getRowsFetched()).isEqualTo(0);
+		assertThat(execution.getFetchRoundTrips()).isEqualTo(0);
+		assertThat(execution.isSuccessful()).isFalse();
+		assertThat(execution.getException()).isSameAs(sqlException);
+		verify(this.statement).close();
+		verify(this.connection, atLeastOnce()).close();
+	}
+
+	@Test
+	public void testStatementCacheReusesPreparedStatementsWithinTransaction() throws Exception {
+		String sql = "UPDATE CUSTMR SET NAME = ? WHERE ID = ?";
+		this.template.setStatementCacheSize(10);
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+		TransactionTemplate transactionTemplate =
+				new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			this.template.update(sql, "a", 1);
+			this.template.update(sql, "b", 2);
+			verify(this.preparedStatement, never()).close();
+		});
+
+		verify(this.connection, times(1)).prepareStatement(sql);
+		verify(this.preparedStatement, times(2)).executeUpdate();
+		verify(this.preparedStatement, times(2)).clearParameters();
+		verify(this.preparedStatement).close();
+		verify(this.connection).commit();
+		verify(this.connection).close();
+	}
+
+	@Test
+	public void testStatementCacheNotUsedOutsideTransaction() throws Exception {
+		String sql = "UPDATE CUSTMR SET NAME = ? WHERE ID = ?";
+		this.template.setStatementCacheSize(10);
+		given(this.preparedStatement.executeUpdate()).willReturn(1);
+
+		this.template.update(sql, "a", 1);
+		this.template.update(sql, "b", 2);
+
+		verify(this.connection, times(2)).prepareStatement(sql);
+		verify(this.preparedStatement, times(2)).close();
+		verify(this.connection, times(2)).close();
+	}
+
 
 	private void mockDatabaseMetaData(boolean supportsBatchUpdates) throws SQLException {
 		DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
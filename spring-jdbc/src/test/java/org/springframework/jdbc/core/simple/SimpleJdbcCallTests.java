@@ -22,6 +22,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -264,6 +265,32 @@ class SimpleJdbcCallTests {
 	}
 
 
+	@Test
+	void executeForStreamWithoutMetaData() throws Exception {
+		ResultSet resultSet = mock(ResultSet.class);
+		given(databaseMetaData.getDatabaseProductName()).willReturn("MyDB");
+		given(databaseMetaData.getUserName()).willReturn("me");
+		given(databaseMetaData.storesLowerCaseIdentifiers()).willReturn(true);
+		given(connection.prepareCall("{call list_invoices(?)}")).willReturn(callableStatement);
+		given(callableStatement.execute()).willReturn(true);
+		given(callableStatement.getResultSet()).willReturn(resultSet);
+		given(resultSet.next()).willReturn(true, true, false);
+		given(resultSet.getInt(1)).willReturn(1103, 1104);
+
+		SimpleJdbcCall call = new SimpleJdbcCall(dataSource).withProcedureName("list_invoices")
+				.withoutProcedureColumnMetaDataAccess();
+		call.declareParameters(new SqlParameter("custid", Types.INTEGER));
+		try (Stream<Integer> amounts = call.executeForStream((rs, rowNum) -> rs.getInt(1),
+				new MapSqlParameterSource("custid", 3))) {
+			assertThat(amounts).containsExactly(1103, 1104);
+		}
+		verify(callableStatement).setObject(1, 3, Types.INTEGER);
+		verify(resultSet).close();
+		verify(callableStatement).close();
+		verify(connection, atLeastOnce()).close();
+	}
+
+
 	private void verifyStatement(SimpleJdbcCall adder, String expected) {
 		assertThat(adder.getCallString()).as("Incorrect call statement").isEqualTo(expected);
 	}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for multi-row batch inserts through {@link SimpleJdbcInsert}
+ * against embedded databases.
+ *
+ * @author agent
+ */
+class SimpleJdbcInsertMultiRowTests {
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void insertsAllRows(EmbeddedDatabaseType type) {
+		EmbeddedDatabase database = createDatabase(type);
+		try {
+			CountingJdbcTemplate jdbcTemplate = new CountingJdbcTemplate(database);
+			SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate).withTableName("item");
+			insert.withMultiRowInsert();
+
+			int[] rowsAffected = insert.executeBatch(items(0, 10));
+
+			assertThat(rowsAffected).hasSize(10).containsOnly(1);
+			assertThat(jdbcTemplate.statements).containsExactly(10);
+			assertThat(jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(10);
+			assertThat(jdbcTemplate.queryForObject("select name from item where id = 7", String.class))
+					.isEqualTo("item7");
+			assertThat(jdbcTemplate.queryForObject("select name from item where id = 9", String.class))
+					.isNull();
+		}
+		finally {
+			database.shutdown();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void splitsBatchIntoChunks(EmbeddedDatabaseType type) {
+		EmbeddedDatabase database = createDatabase(type);
+		try {
+			CountingJdbcTemplate jdbcTemplate = new CountingJdbcTemplate(database);
+			SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate).withTableName("item");
+			insert.withMultiRowInsert();
+
+			int[] rowsAffected = insert.executeBatch(items(0, 2500));
+
+			assertThat(rowsAffected).hasSize(2500).containsOnly(1);
+			assertThat(jdbcTemplate.statements).containsExactly(1000, 1000, 500);
+			assertThat(jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(2500);
+			assertThat(jdbcTemplate.queryForObject("select max(id) from item", Integer.class)).isEqualTo(2499);
+		}
+		finally {
+			database.shutdown();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = {"H2", "HSQL"})
+	void usesJdbcBatchByDefault(EmbeddedDatabaseType type) {
+		EmbeddedDatabase database = createDatabase(type);
+		try {
+			CountingJdbcTemplate jdbcTemplate = new CountingJdbcTemplate(database);
+			SimpleJdbcInsert insert = new SimpleJdbcInsert(jdbcTemplate).withTableName("item");
+
+			int[] rowsAffected = insert.executeBatch(items(0, 10));
+
+			assertThat(rowsAffected).hasSize(10);
+			assertThat(jdbcTemplate.statements).isEmpty();
+			assertThat(jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(10);
+		}
+		finally {
+			database.shutdown();
+		}
+	}
+
+
+	private static EmbeddedDatabase createDatabase(EmbeddedDatabaseType type) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(type)
+				.build();
+		new JdbcTemplate(database).execute("create table item (id integer primary key, name varchar(50))");
+		return database;
+	}
+
+	private static SqlParameterSource[] items(int start, int count) {
+		SqlParameterSource[] items = new SqlParameterSource[count];
+		for (int i = 0; i < count; i++) {
+			int id = start + i;
+			// leave some names null in order to verify typed null binding
+			items[i] = new MapSqlParameterSource("id", id).addValue("name", (id % 3 != 0 ? "item" + id : null));
+		}
+		return items;
+	}
+
+
+	private static class CountingJdbcTemplate extends JdbcTemplate {
+
+		final List<Integer> statements = new ArrayList<>();
+
+		CountingJdbcTemplate(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		public int update(String sql, PreparedStatementSetter pss) throws DataAccessException {
+			int updateCount = super.update(sql, pss);
+			this.statements.add(updateCount);
+			return updateCount;
+		}
+	}
+
+}
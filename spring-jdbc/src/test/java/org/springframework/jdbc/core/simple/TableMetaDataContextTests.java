@@ -160,4 +160,49 @@ public class TableMetaDataContextTests  {
 		verify(columnsResultSet).close();
 	}
 
+	@Test
+	public void testMultiRowInsertString() throws Exception {
+		final String TABLE = "customers";
+		final String USER = "me";
+
+		ResultSet metaDataResultSet = mock(ResultSet.class);
+		given(metaDataResultSet.next()).willReturn(true, false);
+		given(metaDataResultSet.getString("TABLE_SCHEM")).willReturn(USER);
+		given(metaDataResultSet.getString("TABLE_NAME")).willReturn(TABLE);
+		given(metaDataResultSet.getString("TABLE_TYPE")).willReturn("TABLE");
+
+		ResultSet columnsResultSet = mock(ResultSet.class);
+		given(columnsResultSet.next()).willReturn(true, true, false);
+		given(columnsResultSet.getString("COLUMN_NAME")).willReturn("id", "name");
+		given(columnsResultSet.getInt("DATA_TYPE")).willReturn(Types.INTEGER, Types.VARCHAR);
+		given(columnsResultSet.getBoolean("NULLABLE")).willReturn(false, true);
+
+		given(databaseMetaData.getDatabaseProductName()).willReturn("H2");
+		given(databaseMetaData.getUserName()).willReturn(USER);
+		given(databaseMetaData.storesLowerCaseIdentifiers()).willReturn(true);
+		given(databaseMetaData.getTables(null, null, TABLE, null)).willReturn(metaDataResultSet);
+		given(databaseMetaData.getColumns(null, USER, TABLE, null)).willReturn(columnsResultSet);
+
+		context.setTableName(TABLE);
+		context.processMetaData(dataSource, new ArrayList<>(), new String[0]);
+
+		assertThat(context.createMultiRowInsertString(3))
+				.isEqualTo("INSERT INTO customers (id, name) VALUES(?, ?), (?, ?), (?, ?)");
+		assertThat(context.getMaxRowsPerInsert(2)).isEqualTo(1000);
+		assertThat(context.getMaxRowsPerInsert(100)).isEqualTo(327);
+	}
+
+	@Test
+	public void testMultiRowInsertNotSupported() throws Exception {
+		ResultSet metaDataResultSet = mock(ResultSet.class);
+		given(databaseMetaData.getDatabaseProductName()).willReturn("MyDB");
+		given(databaseMetaData.getTables(null, null, "customers", null)).willReturn(metaDataResultSet);
+
+		context.setTableName("customers");
+		context.setAccessTableColumnMetaData(false);
+		context.processMetaData(dataSource, new ArrayList<>(), new String[0]);
+
+		assertThat(context.getMaxRowsPerInsert(2)).isEqualTo(1);
+	}
+
 }
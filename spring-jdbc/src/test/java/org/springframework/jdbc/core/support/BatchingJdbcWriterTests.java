@@ -0,0 +1,249 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link BatchingJdbcWriter}.
+ *
+ * @author agent
+ */
+class BatchingJdbcWriterTests {
+
+	private static final String INSERT = "insert into item (id, name) values (?, ?)";
+
+	private static final String UPDATE = "update item set name = ? where id = ?";
+
+	private EmbeddedDatabase database;
+
+	private CountingJdbcTemplate jdbcTemplate;
+
+	private BatchingJdbcWriter writer;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.build();
+		this.jdbcTemplate = new CountingJdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table item (id int primary key, name varchar(50))");
+		this.writer = new BatchingJdbcWriter(this.jdbcTemplate);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.writer.destroy();
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void executesFullBatch() {
+		this.writer.setMaxBatchSize(10);
+		this.writer.setBatchWindow(Duration.ofHours(1));
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			futures.add(this.writer.update(INSERT, i, "item" + i));
+		}
+
+		assertThat(futures).allSatisfy(future -> assertThat(future).isCompletedWithValue(1));
+		assertThat(this.jdbcTemplate.batches).containsExactly(10);
+		assertThat(countRows()).isEqualTo(10);
+	}
+
+	@Test
+	void executesBatchAfterWindow() throws Exception {
+		this.writer.setBatchWindow(Duration.ofMillis(10));
+		CompletableFuture<Integer> first = this.writer.update(INSERT, 1, "first");
+		CompletableFuture<Integer> second = this.writer.update(INSERT, 2, "second");
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		assertThat(this.jdbcTemplate.batches).containsExactly(2);
+	}
+
+	@Test
+	void coalescesConcurrentUpdates() throws Exception {
+		this.writer.setMaxBatchSize(50);
+		this.writer.setBatchWindow(Duration.ofMillis(50));
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < 200; i++) {
+				int id = i;
+				futures.add(CompletableFuture.supplyAsync(() -> {
+					awaitQuietly(start);
+					return this.writer.update(INSERT, id, "item" + id);
+				}, executor).thenCompose(future -> future));
+			}
+			start.countDown();
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertThat(countRows()).isEqualTo(200);
+		assertThat(this.jdbcTemplate.batches.stream().mapToInt(Integer::intValue).sum()).isEqualTo(200);
+		assertThat(this.jdbcTemplate.batches.size()).isLessThan(200);
+	}
+
+	@Test
+	void doesNotCoalesceDifferentStatements() {
+		this.writer.setBatchWindow(Duration.ofHours(1));
+		CompletableFuture<Integer> insert = this.writer.update(INSERT, 1, "first");
+		CompletableFuture<Integer> update = this.writer.update(UPDATE, "updated", 1);
+		this.writer.flush();
+
+		assertThat(insert).isCompletedWithValue(1);
+		assertThat(update).isDone();
+		assertThat(this.jdbcTemplate.batches).containsExactlyInAnyOrder(1, 1);
+	}
+
+	@Test
+	void failedBatchCompletesFuturesExceptionally() {
+		this.jdbcTemplate.update(INSERT, 1, "existing");
+		this.writer.setMaxBatchSize(2);
+		CompletableFuture<Integer> first = this.writer.update(INSERT, 2, "second");
+		CompletableFuture<Integer> duplicate = this.writer.update(INSERT, 1, "duplicate");
+
+		assertThat(first).isCompletedExceptionally();
+		assertThat(duplicate).isCompletedExceptionally();
+		assertThatExceptionOfType(Exception.class).isThrownBy(duplicate::join)
+				.withCauseInstanceOf(DuplicateKeyException.class);
+	}
+
+	@Test
+	void executesPendingUpdatesBeforeCommit() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		List<CompletableFuture<Integer>> futures = transactionTemplate.execute(status -> {
+			List<CompletableFuture<Integer>> result = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				result.add(this.writer.update(INSERT, i, "item" + i));
+			}
+			assertThat(result).noneMatch(CompletableFuture::isDone);
+			return result;
+		});
+
+		assertThat(futures).allSatisfy(future -> assertThat(future).isCompletedWithValue(1));
+		assertThat(this.jdbcTemplate.batches).containsExactly(5);
+		assertThat(countRows()).isEqualTo(5);
+	}
+
+	@Test
+	void preservesStatementOrderWithinTransaction() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		transactionTemplate.executeWithoutResult(status -> {
+			this.writer.update(INSERT, 1, "first");
+			this.writer.update(INSERT, 2, "second");
+			this.writer.update(UPDATE, "updated", 1);
+			this.writer.update(INSERT, 3, "third");
+		});
+
+		assertThat(this.jdbcTemplate.batches).containsExactly(2, 1, 1);
+		assertThat(this.jdbcTemplate.queryForObject("select name from item where id = 1", String.class))
+				.isEqualTo("updated");
+	}
+
+	@Test
+	void flushWithinTransaction() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		transactionTemplate.executeWithoutResult(status -> {
+			this.writer.update(INSERT, 1, "first");
+			assertThat(countRows()).isEqualTo(0);
+			this.writer.flush();
+			assertThat(countRows()).isEqualTo(1);
+		});
+	}
+
+	@Test
+	void discardsPendingUpdatesOnRollback() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		transactionTemplate.executeWithoutResult(status -> {
+			futures.add(this.writer.update(INSERT, 1, "first"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(futures.get(0)).isCancelled();
+		assertThat(this.jdbcTemplate.batches).isEmpty();
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+
+	private int countRows() {
+		Integer count = this.jdbcTemplate.queryForObject("select count(*) from item", Integer.class);
+		return (count != null ? count : 0);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static class CountingJdbcTemplate extends JdbcTemplate {
+
+		final List<Integer> batches = new ArrayList<>();
+
+		CountingJdbcTemplate(DataSource dataSource) {
+			super(dataSource);
+		}
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) throws DataAccessException {
+			synchronized (this.batches) {
+				this.batches.add(batchArgs.size());
+			}
+			return super.batchUpdate(sql, batchArgs);
+		}
+	}
+
+}
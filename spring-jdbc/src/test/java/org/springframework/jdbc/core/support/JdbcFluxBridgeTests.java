@@ -0,0 +1,224 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link JdbcFluxBridge}.
+ *
+ * @author agent
+ */
+class JdbcFluxBridgeTests {
+
+	private static final String QUERY = "select id from item order by id";
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table item (id int primary key)");
+		for (int i = 0; i < 100; i++) {
+			this.jdbcTemplate.update("insert into item values (?)", i);
+		}
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void emitsAllRows() {
+		JdbcFluxBridge bridge = new JdbcFluxBridge();
+		StepVerifier.create(bridge.flux(() -> this.jdbcTemplate.queryForStream(QUERY, idMapper())))
+				.expectNextCount(100)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void fetchesRowsOnDemand() {
+		AtomicInteger mappedRows = new AtomicInteger();
+		AtomicBoolean closed = new AtomicBoolean();
+		RowMapper<Integer> rowMapper = (rs, rowNum) -> {
+			mappedRows.incrementAndGet();
+			return rs.getInt(1);
+		};
+		JdbcFluxBridge bridge = new JdbcFluxBridge(Schedulers.immediate());
+
+		StepVerifier.create(bridge.flux(() -> this.jdbcTemplate.queryForStream(QUERY, rowMapper)
+						.onClose(() -> closed.set(true))), 0)
+				.then(() -> assertThat(mappedRows.get()).isEqualTo(0))
+				.thenRequest(5)
+				.expectNext(0, 1, 2, 3, 4)
+				.then(() -> assertThat(mappedRows.get()).isEqualTo(5))
+				.thenRequest(2)
+				.expectNext(5, 6)
+				.thenCancel()
+				.verify();
+
+		assertThat(mappedRows.get()).isEqualTo(7);
+		assertThat(closed.get()).isTrue();
+	}
+
+	@Test
+	void runsWithinReadOnlyTransaction() {
+		AtomicBoolean readOnly = new AtomicBoolean();
+		JdbcFluxBridge bridge = new JdbcFluxBridge(Schedulers.immediate());
+		bridge.setTransactionManager(new DataSourceTransactionManager(this.database));
+
+		StepVerifier.create(bridge.flux(() -> {
+					readOnly.set(TransactionSynchronizationManager.isActualTransactionActive() &&
+							TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+					return this.jdbcTemplate.queryForStream(QUERY, idMapper());
+				}))
+				.expectNextCount(100)
+				.verifyComplete();
+
+		assertThat(readOnly.get()).isTrue();
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+	}
+
+	@Test
+	void keepsTransactionOnWorkerThreadBetweenRequests() throws Exception {
+		Scheduler scheduler = Schedulers.newSingle("jdbc-flux-bridge");
+		try {
+			JdbcFluxBridge bridge = new JdbcFluxBridge(scheduler);
+			bridge.setTransactionManager(new DataSourceTransactionManager(this.database));
+			CountDownLatch latch = new CountDownLatch(1);
+			AtomicBoolean otherTaskInTransaction = new AtomicBoolean(true);
+
+			StepVerifier.create(bridge.flux(() -> this.jdbcTemplate.queryForStream(QUERY, idMapper())), 0)
+					.thenRequest(5)
+					.expectNext(0, 1, 2, 3, 4)
+					.then(() -> scheduler.schedule(() -> {
+						otherTaskInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive() ||
+								!TransactionSynchronizationManager.getResourceMap().isEmpty());
+						latch.countDown();
+					}))
+					.thenRequest(Long.MAX_VALUE)
+					.expectNextCount(95)
+					.expectComplete()
+					.verify(Duration.ofSeconds(5));
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(otherTaskInTransaction.get()).isFalse();
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	void rollsBackOnCancel() throws Exception {
+		Scheduler scheduler = Schedulers.newSingle("jdbc-flux-bridge");
+		try {
+			JdbcFluxBridge bridge = new JdbcFluxBridge(scheduler);
+			bridge.setTransactionManager(new DataSourceTransactionManager(this.database));
+			CountDownLatch closed = new CountDownLatch(1);
+
+			StepVerifier.create(bridge.flux(() -> this.jdbcTemplate.queryForStream(QUERY, idMapper())
+							.onClose(closed::countDown)), 0)
+					.thenRequest(5)
+					.expectNext(0, 1, 2, 3, 4)
+					.thenCancel()
+					.verify(Duration.ofSeconds(5));
+
+			assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	void rollsBackOnError() {
+		JdbcFluxBridge bridge = new JdbcFluxBridge(Schedulers.immediate());
+		bridge.setTransactionManager(new DataSourceTransactionManager(this.database));
+		RowMapper<Integer> rowMapper = (rs, rowNum) -> {
+			if (rowNum == 3) {
+				throw new IllegalStateException("Bad row");
+			}
+			return rs.getInt(1);
+		};
+
+		StepVerifier.create(bridge.flux(() -> this.jdbcTemplate.queryForStream(QUERY, rowMapper)))
+				.expectNext(0, 1, 2)
+				.expectErrorMessage("Bad row")
+				.verify();
+
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+	}
+
+	@Test
+	void resubscribeQueriesAgain() {
+		AtomicInteger queries = new AtomicInteger();
+		JdbcFluxBridge bridge = new JdbcFluxBridge();
+		Flux<Integer> flux = bridge.flux(() -> {
+			queries.incrementAndGet();
+			return Stream.concat(this.jdbcTemplate.queryForStream(QUERY, idMapper()), Stream.of(-1));
+		});
+
+		StepVerifier.create(flux.take(10).concatWith(flux.takeLast(1)))
+				.expectNextCount(10)
+				.expectNext(-1)
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+		assertThat(queries.get()).isEqualTo(2);
+	}
+
+
+	private static RowMapper<Integer> idMapper() {
+		return (rs, rowNum) -> rs.getInt(1);
+	}
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.event.TransactionalApplicationListener;
+import org.springframework.transaction.event.TransactionalApplicationListenerAdapter;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link JdbcTransactionalEventOutbox}.
+ *
+ * @author agent
+ */
+class JdbcTransactionalEventOutboxTests {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate transactionTemplate;
+
+	private JdbcTransactionalEventOutbox outbox;
+
+	private final List<Object> payloads = new CopyOnWriteArrayList<>();
+
+	private TransactionalApplicationListenerAdapter<PayloadApplicationEvent<Object>> listener;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table EVENT_OUTBOX (ID varchar(36) not null primary key, " +
+				"LISTENER_ID varchar(255) not null, EVENT blob not null, CREATED bigint not null, " +
+				"ATTEMPTS int not null, NEXT_ATTEMPT bigint not null)");
+		this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.database));
+		this.outbox = new JdbcTransactionalEventOutbox(this.database);
+		this.outbox.setRetryInterval(Duration.ZERO);
+		this.listener = createListener("listener", this.payloads::add);
+		this.outbox.registerListener(this.listener);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.outbox.destroy();
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void storesEventWithinTransaction() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			assertThat(this.outbox.store(event("first"), this.listener)).isTrue();
+			assertThat(countRows()).isEqualTo(1);
+		});
+
+		assertThat(this.payloads).isEmpty();
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(1);
+		assertThat(this.payloads).containsExactly("first");
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+	@Test
+	void discardsEventOnRollback() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.outbox.store(event("first"), this.listener);
+			status.setRollbackOnly();
+		});
+
+		assertThat(countRows()).isEqualTo(0);
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(0);
+		assertThat(this.payloads).isEmpty();
+	}
+
+	@Test
+	void doesNotStoreNonSerializableEvent() {
+		this.transactionTemplate.executeWithoutResult(status ->
+				assertThat(this.outbox.store(event(new Object()), this.listener)).isFalse());
+
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+	@Test
+	void doesNotStoreNonPayloadEvent() {
+		this.transactionTemplate.executeWithoutResult(status ->
+				assertThat(this.outbox.store(new CustomEvent("source"), this.listener)).isFalse());
+
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+	@Test
+	void deliversEventsInBatchesAndInOrder() {
+		this.outbox.setBatchSize(10);
+		this.transactionTemplate.executeWithoutResult(status -> {
+			for (int i = 0; i < 25; i++) {
+				this.outbox.store(event(i), this.listener);
+			}
+		});
+
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(25);
+		assertThat(this.payloads).hasSize(25);
+		for (int i = 0; i < 25; i++) {
+			assertThat(this.payloads.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void retriesFailedDelivery() {
+		AtomicInteger attempts = new AtomicInteger();
+		TransactionalApplicationListener<?> failingOnce = createListener("failingOnce", payload -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw new IllegalStateException("failure");
+			}
+			this.payloads.add(payload);
+		});
+		this.outbox.registerListener(failingOnce);
+		this.transactionTemplate.executeWithoutResult(status -> this.outbox.store(event("first"), failingOnce));
+
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(0);
+		assertThat(this.jdbcTemplate.queryForObject("select ATTEMPTS from EVENT_OUTBOX", Integer.class)).isEqualTo(1);
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(1);
+		assertThat(this.payloads).containsExactly("first");
+		assertThat(countRows()).isEqualTo(0);
+	}
+
+	@Test
+	void keepsEventAfterMaxAttempts() {
+		this.outbox.setMaxAttempts(2);
+		AtomicInteger attempts = new AtomicInteger();
+		TransactionalApplicationListener<?> failing = createListener("failing", payload -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("failure");
+		});
+		this.outbox.registerListener(failing);
+		this.transactionTemplate.executeWithoutResult(status -> this.outbox.store(event("first"), failing));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(0);
+		}
+		assertThat(attempts).hasValue(2);
+		assertThat(this.jdbcTemplate.queryForObject("select ATTEMPTS from EVENT_OUTBOX", Integer.class)).isEqualTo(2);
+	}
+
+	@Test
+	void deliversPendingEventsStoredByOtherOutbox() {
+		this.transactionTemplate.executeWithoutResult(status -> this.outbox.store(event("first"), this.listener));
+		List<Object> received = new CopyOnWriteArrayList<>();
+		JdbcTransactionalEventOutbox other = new JdbcTransactionalEventOutbox(this.database);
+		other.registerListener(createListener("listener", received::add));
+
+		assertThat(other.dispatchPendingEvents()).isEqualTo(1);
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(0);
+		assertThat(received).containsExactly("first");
+		assertThat(this.payloads).isEmpty();
+	}
+
+	@Test
+	void doesNotDeliverClaimedEvent() {
+		this.outbox.setLeaseTime(Duration.ofHours(1));
+		this.transactionTemplate.executeWithoutResult(status -> this.outbox.store(event("first"), this.listener));
+		this.jdbcTemplate.update("update EVENT_OUTBOX set NEXT_ATTEMPT = ?", System.currentTimeMillis() + 60_000);
+
+		assertThat(this.outbox.dispatchPendingEvents()).isEqualTo(0);
+		assertThat(this.payloads).isEmpty();
+	}
+
+	@Test
+	void dispatchesAfterCommitForOutboxListenerMethod() throws Exception {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(TransactionalEventListenerFactory.class);
+			context.registerBean(JdbcTransactionalEventOutbox.class, () -> this.outbox);
+			context.registerBean(OutboxListener.class);
+			context.refresh();
+			OutboxListener outboxListener = context.getBean(OutboxListener.class);
+
+			this.transactionTemplate.executeWithoutResult(status -> {
+				context.publishEvent("first");
+				assertThat(countRows()).isEqualTo(1);
+			});
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (outboxListener.payloads.isEmpty() && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(outboxListener.payloads).containsExactly("first");
+		}
+	}
+
+	@Test
+	void outboxListenerMethodRequiresOutbox() {
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.registerBean(TransactionalEventListenerFactory.class);
+			context.registerBean(OutboxListener.class);
+			assertThatExceptionOfType(BeanInitializationException.class).isThrownBy(context::refresh)
+					.withRootCauseInstanceOf(IllegalStateException.class);
+		}
+	}
+
+
+	private int countRows() {
+		Integer count = this.jdbcTemplate.queryForObject("select count(*) from EVENT_OUTBOX", Integer.class);
+		return (count != null ? count : 0);
+	}
+
+	private PayloadApplicationEvent<Object> event(Object payload) {
+		return new PayloadApplicationEvent<>(this, payload);
+	}
+
+	private static TransactionalApplicationListenerAdapter<PayloadApplicationEvent<Object>> createListener(
+			String listenerId, Consumer<Object> consumer) {
+
+		TransactionalApplicationListenerAdapter<PayloadApplicationEvent<Object>> listener =
+				new TransactionalApplicationListenerAdapter<>(event -> consumer.accept(event.getPayload()));
+		listener.setListenerId(listenerId);
+		return listener;
+	}
+
+
+	@SuppressWarnings("serial")
+	static class CustomEvent extends ApplicationEvent {
+
+		CustomEvent(Object source) {
+			super(source);
+		}
+	}
+
+
+	static class OutboxListener {
+
+		final List<String> payloads = new CopyOnWriteArrayList<>();
+
+		@TransactionalEventListener(outbox = true)
+		public void onEvent(String payload) {
+			this.payloads.add(payload);
+		}
+	}
+
+}
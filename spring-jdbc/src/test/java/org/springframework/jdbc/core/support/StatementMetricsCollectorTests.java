@@ -0,0 +1,140 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementExecution;
+import org.springframework.jdbc.core.support.StatementMetricsCollector.StatementStatistics;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link StatementMetricsCollector}.
+ *
+ * @author agent
+ */
+class StatementMetricsCollectorTests {
+
+	private static final String QUERY = "select id from item where id < ?";
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<StatementExecution> slowStatements = new ArrayList<>();
+
+	private final StatementMetricsCollector collector = new StatementMetricsCollector() {
+		@Override
+		protected void logSlowStatement(StatementExecution execution) {
+			slowStatements.add(execution);
+		}
+	};
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.database);
+		this.jdbcTemplate.execute("create table item (id int primary key)");
+		for (int i = 0; i < 10; i++) {
+			this.jdbcTemplate.update("insert into item values (?)", i);
+		}
+		this.jdbcTemplate.setStatementExecutionListener(this.collector);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void aggregatesExecutionsPerStatement() {
+		this.jdbcTemplate.queryForList(QUERY, Integer.class, 5);
+		this.jdbcTemplate.queryForList(QUERY, Integer.class, 10);
+
+		StatementStatistics statistics = this.collector.getStatistics(QUERY);
+		assertThat(statistics).isNotNull();
+		assertThat(statistics.getExecutionCount()).isEqualTo(2);
+		assertThat(statistics.getFailureCount()).isEqualTo(0);
+		assertThat(statistics.getRowsFetched()).isEqualTo(15);
+		assertThat(statistics.getFetchRoundTrips()).isGreaterThanOrEqualTo(2);
+		assertThat(statistics.getMaxExecutionTime()).isLessThanOrEqualTo(statistics.getTotalExecutionTime());
+		assertThat(this.collector.getStatistics()).containsOnlyKeys(QUERY);
+	}
+
+	@Test
+	void countsFailures() {
+		String sql = "select nosuchcolumn from item";
+		assertThatExceptionOfType(BadSqlGrammarException.class).isThrownBy(() ->
+				this.jdbcTemplate.queryForList(sql));
+
+		StatementStatistics statistics = this.collector.getStatistics(sql);
+		assertThat(statistics).isNotNull();
+		assertThat(statistics.getExecutionCount()).isEqualTo(1);
+		assertThat(statistics.getFailureCount()).isEqualTo(1);
+	}
+
+	@Test
+	void limitsTrackedStatements() {
+		this.collector.setMaxStatements(1);
+		this.jdbcTemplate.queryForList(QUERY, Integer.class, 5);
+		this.jdbcTemplate.queryForList("select count(*) from item", Integer.class);
+
+		assertThat(this.collector.getStatistics()).containsOnlyKeys(QUERY);
+		assertThat(this.collector.getUntrackedExecutionCount()).isEqualTo(1);
+
+		this.collector.reset();
+		assertThat(this.collector.getStatistics()).isEmpty();
+		assertThat(this.collector.getUntrackedExecutionCount()).isEqualTo(0);
+	}
+
+	@Test
+	void logsSlowStatements() {
+		this.collector.setSlowStatementThreshold(Duration.ZERO);
+		this.jdbcTemplate.queryForList(QUERY, Integer.class, 5);
+		assertThat(this.slowStatements).hasSize(1);
+		assertThat(this.slowStatements.get(0).getSql()).isEqualTo(QUERY);
+		assertThat(this.slowStatements.get(0).getRowsFetched()).isEqualTo(5);
+
+		this.collector.setSlowStatementSampleRate(0);
+		this.jdbcTemplate.queryForList(QUERY, Integer.class, 5);
+		assertThat(this.slowStatements).hasSize(1);
+
+		this.collector.setSlowStatementThreshold(Duration.ofHours(1));
+		this.collector.setSlowStatementSampleRate(1);
+		this.jdbcTemplate.queryForList(QUERY, Integer.class, 5);
+		assertThat(this.slowStatements).hasSize(1);
+	}
+
+}
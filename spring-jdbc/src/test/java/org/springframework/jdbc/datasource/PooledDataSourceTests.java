@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link PooledDataSource}.
+ *
+ * @author agent
+ */
+class PooledDataSourceTests {
+
+	private EmbeddedDatabase database;
+
+	private PooledDataSource dataSource;
+
+
+	@BeforeEach
+	void setUp() {
+		this.database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.setConnectionPooling(false)
+				.build();
+		this.dataSource = new PooledDataSource(this.database);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.dataSource.close();
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void reusesConnection() throws SQLException {
+		Connection first = this.dataSource.getConnection();
+		Connection target = ((ConnectionProxy) first).getTargetConnection();
+		first.close();
+		Connection second = this.dataSource.getConnection();
+
+		assertThat(first.isClosed()).isTrue();
+		assertThat(second.isClosed()).isFalse();
+		assertThat(((ConnectionProxy) second).getTargetConnection()).isSameAs(target);
+		assertThat(second).isNotSameAs(first);
+		assertThat(this.dataSource.getTotalConnectionCount()).isEqualTo(1);
+		assertThat(this.dataSource.getActiveConnectionCount()).isEqualTo(1);
+		assertThat(this.dataSource.getBorrowCount()).isEqualTo(2);
+		second.close();
+		assertThat(this.dataSource.getIdleConnectionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsUseAfterClose() throws SQLException {
+		Connection con = this.dataSource.getConnection();
+		con.close();
+		con.close();
+
+		assertThatExceptionOfType(SQLException.class).isThrownBy(con::createStatement);
+		assertThat(this.dataSource.getIdleConnectionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void timesOutWhenExhausted() throws SQLException {
+		this.dataSource.setMaxPoolSize(2);
+		this.dataSource.setConnectionTimeout(Duration.ofMillis(50));
+		Connection first = this.dataSource.getConnection();
+		Connection second = this.dataSource.getConnection();
+
+		assertThatExceptionOfType(SQLTransientConnectionException.class).isThrownBy(this.dataSource::getConnection);
+		assertThat(this.dataSource.getConnectionTimeoutCount()).isEqualTo(1);
+		assertThat(this.dataSource.getTotalConnectionCount()).isEqualTo(2);
+		first.close();
+		second.close();
+	}
+
+	@Test
+	void handsOffConnectionToWaitingThread() throws Exception {
+		this.dataSource.setMaxPoolSize(1);
+		Connection con = this.dataSource.getConnection();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Connection> waiting = executor.submit(() -> this.dataSource.getConnection());
+			while (this.dataSource.getAwaitingThreadCount() == 0) {
+				Thread.sleep(1);
+			}
+			con.close();
+			Connection handedOff = waiting.get(5, TimeUnit.SECONDS);
+			assertThat(((ConnectionProxy) handedOff).getTargetConnection())
+					.isSameAs(((ConnectionProxy) con).getTargetConnection());
+			handedOff.close();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void removesInvalidConnection() throws SQLException {
+		Connection target = mock(Connection.class);
+		DataSource targetDataSource = mock(DataSource.class);
+		given(targetDataSource.getConnection()).willReturn(target);
+		given(target.getAutoCommit()).willReturn(true);
+		given(target.isValid(5)).willReturn(false);
+		PooledDataSource dataSource = new PooledDataSource(targetDataSource);
+		dataSource.setValidationInterval(Duration.ZERO);
+
+		dataSource.getConnection().close();
+		dataSource.getConnection().close();
+
+		verify(target).close();
+		assertThat(dataSource.getTotalConnectionCount()).isEqualTo(1);
+		assertThat(dataSource.getBorrowCount()).isEqualTo(2);
+	}
+
+	@Test
+	void resetsConnectionState() throws SQLException {
+		Connection con = this.dataSource.getConnection();
+		new JdbcTemplate(new SingleConnectionDataSource(con, true))
+				.execute("create table item (id int primary key)");
+		con.setAutoCommit(false);
+		con.setReadOnly(true);
+		con.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+		con.createStatement().executeUpdate("insert into item values (1)");
+		con.close();
+
+		con = this.dataSource.getConnection();
+		assertThat(con.getAutoCommit()).isTrue();
+		assertThat(con.isReadOnly()).isFalse();
+		assertThat(con.getTransactionIsolation()).isNotEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+		con.close();
+		assertThat(new JdbcTemplate(this.dataSource).queryForObject("select count(*) from item", Integer.class))
+				.isEqualTo(0);
+	}
+
+	@Test
+	void detectsLeakedConnection() throws Exception {
+		this.dataSource.setMaxPoolSize(1);
+		this.dataSource.setConnectionTimeout(Duration.ofMillis(20));
+		this.dataSource.setLeakDetectionThreshold(Duration.ofMillis(1));
+		Connection leaked = this.dataSource.getConnection();
+		Thread.sleep(5);
+
+		assertThatExceptionOfType(SQLTransientConnectionException.class).isThrownBy(this.dataSource::getConnection);
+		assertThat(this.dataSource.getLeakCount()).isEqualTo(1);
+		leaked.close();
+		this.dataSource.getConnection().close();
+		assertThat(this.dataSource.getLeakCount()).isEqualTo(1);
+	}
+
+	@Test
+	void closesConnectionsOnClose() throws SQLException {
+		Connection active = this.dataSource.getConnection();
+		Connection idle = this.dataSource.getConnection();
+		Connection idleTarget = ((ConnectionProxy) idle).getTargetConnection();
+		Connection activeTarget = ((ConnectionProxy) active).getTargetConnection();
+		idle.close();
+		this.dataSource.close();
+
+		assertThat(idleTarget.isClosed()).isTrue();
+		assertThat(activeTarget.isClosed()).isFalse();
+		active.close();
+		assertThat(activeTarget.isClosed()).isTrue();
+		assertThat(this.dataSource.getTotalConnectionCount()).isEqualTo(0);
+		assertThatExceptionOfType(SQLException.class).isThrownBy(this.dataSource::getConnection);
+	}
+
+	@Test
+	void concurrentAccess() throws Exception {
+		this.dataSource.setMaxPoolSize(4);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Callable<Integer>> tasks = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				tasks.add(() -> jdbcTemplate.queryForObject("select 1", Integer.class));
+			}
+			for (Future<Integer> future : executor.invokeAll(tasks)) {
+				assertThat(future.get()).isEqualTo(1);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(this.dataSource.getTotalConnectionCount()).isLessThanOrEqualTo(4);
+		assertThat(this.dataSource.getActiveConnectionCount()).isEqualTo(0);
+		assertThat(this.dataSource.getBorrowCount()).isEqualTo(1000);
+	}
+
+	@Test
+	void participatesInTransaction() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		jdbcTemplate.execute("create table item (id int primary key)");
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.update("insert into item values (1)");
+			jdbcTemplate.update("insert into item values (2)");
+			assertThat(this.dataSource.getActiveConnectionCount()).isEqualTo(1);
+		});
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.update("insert into item values (3)");
+			status.setRollbackOnly();
+		});
+
+		assertThat(jdbcTemplate.queryForObject("select count(*) from item", Integer.class)).isEqualTo(2);
+		assertThat(this.dataSource.getTotalConnectionCount()).isEqualTo(1);
+		assertThat(this.dataSource.getActiveConnectionCount()).isEqualTo(0);
+	}
+
+}
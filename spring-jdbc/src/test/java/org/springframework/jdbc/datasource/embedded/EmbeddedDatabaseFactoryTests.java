@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import java.sql.Connection;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.PooledDataSource;
 import org.springframework.jdbc.datasource.init.DatabasePopulator;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -41,6 +43,38 @@ public class EmbeddedDatabaseFactoryTests {
 		db.shutdown();
 	}
 
+	@Test
+	public void testConnectionPooling() throws Exception {
+		factory.setGenerateUniqueDatabaseName(true);
+		EmbeddedDatabase db = factory.getDatabase();
+		try {
+			assertThat(db.isWrapperFor(PooledDataSource.class)).isTrue();
+			Connection target;
+			try (Connection con = db.getConnection()) {
+				target = ((ConnectionProxy) con).getTargetConnection();
+			}
+			try (Connection con = db.getConnection()) {
+				assertThat(((ConnectionProxy) con).getTargetConnection()).isSameAs(target);
+			}
+		}
+		finally {
+			db.shutdown();
+		}
+	}
+
+	@Test
+	public void testConnectionPoolingDisabled() throws Exception {
+		factory.setGenerateUniqueDatabaseName(true);
+		factory.setConnectionPooling(false);
+		EmbeddedDatabase db = factory.getDatabase();
+		try {
+			assertThat(db.isWrapperFor(PooledDataSource.class)).isFalse();
+		}
+		finally {
+			db.shutdown();
+		}
+	}
+
 
 	private static class StubDatabasePopulator implements DatabasePopulator {
 
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.lookup;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ReadWriteRoutingDataSource}, routing between embedded
+ * H2 databases.
+ *
+ * @author agent
+ */
+class ReadWriteRoutingDataSourceTests {
+
+	private static final String QUERY = "select name from node";
+
+	private final List<EmbeddedDatabase> databases = new ArrayList<>();
+
+	private EmbeddedDatabase primary;
+
+	private EmbeddedDatabase replica1;
+
+	private EmbeddedDatabase replica2;
+
+
+	@BeforeEach
+	void setUp() {
+		this.primary = createDatabase("primary");
+		this.replica1 = createDatabase("replica1");
+		this.replica2 = createDatabase("replica2");
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.databases.forEach(EmbeddedDatabase::shutdown);
+	}
+
+
+	@Test
+	void routesReadOnlyTransactionsToReplicas() {
+		ReadWriteRoutingDataSource router = createRouter(this.replica1, this.replica2);
+		DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		readOnlyTransactionTemplate.setReadOnly(true);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(readOnlyTransactionTemplate.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)))
+					.isIn("replica1", "replica2");
+		}
+		assertThat(transactionTemplate.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)))
+				.isEqualTo("primary");
+		assertThat(jdbcTemplate.queryForObject(QUERY, String.class)).isEqualTo("primary");
+	}
+
+	@Test
+	void balancesByConnectionsInFlight() throws SQLException {
+		ReadWriteRoutingDataSource router = createRouter(this.replica1, this.replica2);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try (Connection first = router.getConnection(); Connection second = router.getConnection()) {
+			assertThat(queryName(first)).isNotEqualTo(queryName(second));
+		}
+		finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+	}
+
+	@Test
+	void ejectsFailingReplica() throws SQLException {
+		DataSource failingReplica = mock(DataSource.class);
+		given(failingReplica.getConnection()).willThrow(new SQLException("Replica down"));
+		ReadWriteRoutingDataSource router = createRouter(failingReplica, this.replica1);
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try {
+			for (int i = 0; i < 10; i++) {
+				try (Connection con = router.getConnection()) {
+					assertThat(queryName(con)).isEqualTo("replica1");
+				}
+			}
+		}
+		finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		}
+		verify(failingReplica, times(1)).getConnection();
+	}
+
+	@Test
+	void fallsBackToPrimaryWithoutAvailableReplica() throws SQLException {
+		DataSource failingReplica = mock(DataSource.class);
+		given(failingReplica.getConnection()).willThrow(new SQLException("Replica down"));
+		ReadWriteRoutingDataSource router = createRouter(failingReplica);
+		DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		readOnlyTransactionTemplate.setReadOnly(true);
+
+		assertThat(readOnlyTransactionTemplate.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)))
+				.isEqualTo("primary");
+	}
+
+	@Test
+	void failsWithoutAvailableReplicaIfFallbackDisabled() throws SQLException {
+		DataSource failingReplica = mock(DataSource.class);
+		given(failingReplica.getConnection()).willThrow(new SQLException("Replica down"));
+		ReadWriteRoutingDataSource router = createRouter(failingReplica);
+		router.setFallbackToPrimary(false);
+		DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		readOnlyTransactionTemplate.setReadOnly(true);
+
+		assertThatExceptionOfType(DataAccessException.class).isThrownBy(() ->
+				readOnlyTransactionTemplate.execute(status -> jdbcTemplate.queryForObject(QUERY, String.class)));
+	}
+
+
+	private EmbeddedDatabase createDatabase(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.generateUniqueName(true)
+				.setType(EmbeddedDatabaseType.H2)
+				.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("create table node (name varchar(50))");
+		jdbcTemplate.update("insert into node values (?)", name);
+		this.databases.add(database);
+		return database;
+	}
+
+	private ReadWriteRoutingDataSource createRouter(DataSource... replicas) {
+		ReadWriteRoutingDataSource router = new ReadWriteRoutingDataSource();
+		router.setPrimaryDataSource(this.primary);
+		router.setReplicaDataSources(List.of(replicas));
+		router.afterPropertiesSet();
+		return router;
+	}
+
+	private static String queryName(Connection con) throws SQLException {
+		try (Statement stmt = con.createStatement(); ResultSet rs = stmt.executeQuery(QUERY)) {
+			assertThat(rs.next()).isTrue();
+			return rs.getString(1);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -45,6 +46,7 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -231,6 +233,73 @@ public class SqlQueryTests  {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithParams() throws SQLException {
+		given(resultSet.next()).willReturn(true, true, false);
+		given(resultSet.getInt("id")).willReturn(1, 2);
+		given(resultSet.getString("forename")).willReturn("rod", "juergen");
+
+		MappingSqlQuery<Customer> query = new MappingSqlQuery<Customer>() {
+			@Override
+			protected Customer mapRow(ResultSet rs, int rownum) throws SQLException {
+				Customer cust = new Customer();
+				cust.setId(rs.getInt(COLUMN_NAMES[0]));
+				cust.setForename(rs.getString(COLUMN_NAMES[1]));
+				return cust;
+			}
+		};
+		query.setDataSource(dataSource);
+		query.setSql(SELECT_ID_FORENAME_WHERE_ID);
+		query.declareParameter(new SqlParameter(Types.NUMERIC));
+		query.setStreamFetchSize(50);
+		query.compile();
+
+		try (Stream<Customer> customers = query.executeForStream(2)) {
+			assertThat(customers.map(Customer::getForename)).containsExactly("rod", "juergen");
+			verify(preparedStatement, never()).close();
+		}
+		verify(preparedStatement).setFetchSize(50);
+		verify(preparedStatement).setObject(1, 2, Types.NUMERIC);
+		verify(resultSet).close();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
+	@Test
+	public void testQueryForStreamWithNamedParams() throws SQLException {
+		given(resultSet.next()).willReturn(true, false);
+		given(resultSet.getInt("id")).willReturn(1);
+		given(resultSet.getString("forename")).willReturn("rod");
+
+		MappingSqlQuery<Customer> query = new MappingSqlQuery<Customer>() {
+			@Override
+			protected Customer mapRow(ResultSet rs, int rownum) throws SQLException {
+				Customer cust = new Customer();
+				cust.setId(rs.getInt(COLUMN_NAMES[0]));
+				cust.setForename(rs.getString(COLUMN_NAMES[1]));
+				return cust;
+			}
+		};
+		query.setDataSource(dataSource);
+		query.setSql(SELECT_ID_FORENAME_NAMED_PARAMETERS);
+		query.declareParameter(new SqlParameter("country", Types.VARCHAR));
+		query.declareParameter(new SqlParameter("id", Types.NUMERIC));
+		query.compile();
+
+		Map<String, Object> params = new HashMap<>();
+		params.put("id", 1);
+		params.put("country", "UK");
+		try (Stream<Customer> customers = query.executeByNamedParamForStream(params)) {
+			assertThat(customers.map(Customer::getId)).containsExactly(1);
+		}
+		verify(connection).prepareStatement(SELECT_ID_FORENAME_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement).setObject(1, 1, Types.NUMERIC);
+		verify(preparedStatement).setString(2, "UK");
+		verify(resultSet).close();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
 	@Test
 	public void testFindCustomerString() throws SQLException {
 		given(resultSet.next()).willReturn(true, false);
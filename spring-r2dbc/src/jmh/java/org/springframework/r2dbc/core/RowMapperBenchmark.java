@@ -0,0 +1,266 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.r2dbc.core;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+/**
+ * Benchmarks for mapping query results from an in-memory H2 database with a
+ * reflective mapping function, as typically hand-written on top of
+ * {@link BeanWrapper}, compared with mapping functions from a
+ * {@link CompiledRowMapperFactory} and with a hand-coded mapping function.
+ * <p>Run with {@code -prof gc} in order to compare allocation rates per row.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RowMapperBenchmark {
+
+	private static final String QUERY = "SELECT id, first_name, last_name, age, balance, created FROM person";
+
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"1", "100", "1000"})
+		public int rowCount;
+
+		public DatabaseClient databaseClient;
+
+		public BiFunction<Row, RowMetadata, PersonBean> reflectiveRowMapper;
+
+		public BiFunction<Row, RowMetadata, PersonBean> compiledBeanRowMapper;
+
+		public BiFunction<Row, RowMetadata, PersonData> compiledDataRowMapper;
+
+		public BiFunction<Row, RowMetadata, PersonData> handCodedRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.databaseClient = DatabaseClient.create(H2ConnectionFactory.inMemory("row-mapper-benchmark"));
+			this.databaseClient.sql("DROP TABLE IF EXISTS person").then().block();
+			this.databaseClient.sql("CREATE TABLE person (id bigint PRIMARY KEY, first_name varchar(50), " +
+					"last_name varchar(50), age integer, balance decimal(10,2), created timestamp)").then().block();
+			DatabaseClient.BatchExecuteSpec batch = this.databaseClient.batch(
+					"INSERT INTO person VALUES(:id, :firstName, :lastName, :age, :balance, :created)");
+			for (int i = 0; i < this.rowCount; i++) {
+				batch = batch.add((long) i, "first" + i, "last" + i, i % 100,
+						new BigDecimal(i + ".50"), LocalDateTime.of(2021, 1, 1, 0, 0).plusMinutes(i));
+			}
+			batch.then().block();
+
+			CompiledRowMapperFactory factory = new CompiledRowMapperFactory();
+			this.reflectiveRowMapper = new ReflectiveRowMapper();
+			this.compiledBeanRowMapper = factory.getRowMapper(PersonBean.class);
+			this.compiledDataRowMapper = factory.getRowMapper(PersonData.class);
+			this.handCodedRowMapper = (row, rowMetadata) -> new PersonData(
+					row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class),
+					row.get(3, Integer.class), row.get(4, BigDecimal.class), row.get(5, LocalDateTime.class));
+		}
+	}
+
+
+	@Benchmark
+	public List<PersonBean> reflectiveRowMapper(BenchmarkData data) {
+		return data.databaseClient.sql(QUERY).map(data.reflectiveRowMapper).all().collectList().block();
+	}
+
+	@Benchmark
+	public List<PersonBean> compiledBeanRowMapper(BenchmarkData data) {
+		return data.databaseClient.sql(QUERY).map(data.compiledBeanRowMapper).all().collectList().block();
+	}
+
+	@Benchmark
+	public List<PersonData> compiledDataRowMapper(BenchmarkData data) {
+		return data.databaseClient.sql(QUERY).map(data.compiledDataRowMapper).all().collectList().block();
+	}
+
+	@Benchmark
+	public List<PersonData> handCodedRowMapper(BenchmarkData data) {
+		return data.databaseClient.sql(QUERY).map(data.handCodedRowMapper).all().collectList().block();
+	}
+
+
+	/**
+	 * Mapping function resolving properties by column name for each row.
+	 */
+	private static class ReflectiveRowMapper implements BiFunction<Row, RowMetadata, PersonBean> {
+
+		@Override
+		public PersonBean apply(Row row, RowMetadata rowMetadata) {
+			PersonBean person = new PersonBean();
+			BeanWrapper beanWrapper = new BeanWrapperImpl(person);
+			for (String column : rowMetadata.getColumnNames()) {
+				String property = toCamelCase(column);
+				if (beanWrapper.isWritableProperty(property)) {
+					beanWrapper.setPropertyValue(property, row.get(column));
+				}
+			}
+			return person;
+		}
+
+		private static String toCamelCase(String column) {
+			StringBuilder result = new StringBuilder(column.length());
+			boolean upperCase = false;
+			for (char c : column.toLowerCase(Locale.ROOT).toCharArray()) {
+				if (c == '_') {
+					upperCase = true;
+				}
+				else {
+					result.append(upperCase ? Character.toUpperCase(c) : c);
+					upperCase = false;
+				}
+			}
+			return result.toString();
+		}
+	}
+
+
+	public static class PersonBean {
+
+		private long id;
+
+		private String firstName;
+
+		private String lastName;
+
+		private int age;
+
+		private BigDecimal balance;
+
+		private LocalDateTime created;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public LocalDateTime getCreated() {
+			return this.created;
+		}
+
+		public void setCreated(LocalDateTime created) {
+			this.created = created;
+		}
+	}
+
+
+	public static class PersonData {
+
+		private final long id;
+
+		private final String firstName;
+
+		private final String lastName;
+
+		private final int age;
+
+		private final BigDecimal balance;
+
+		private final LocalDateTime created;
+
+		public PersonData(long id, String firstName, String lastName, int age,
+				BigDecimal balance, LocalDateTime created) {
+
+			this.id = id;
+			this.firstName = firstName;
+			this.lastName = lastName;
+			this.age = age;
+			this.balance = balance;
+			this.created = created;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public String getLastName() {
+			return this.lastName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public LocalDateTime getCreated() {
+			return this.created;
+		}
+	}
+
+}
@@ -0,0 +1,462 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.r2dbc.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Factory for {@link BiFunction mapping functions} that map R2DBC rows to
+ * instances of a target class, for use with
+ * {@link DatabaseClient.GenericExecuteSpec#map(BiFunction)}:
+ *
+ * <pre class="code">
+ * CompiledRowMapperFactory rowMappers = new CompiledRowMapperFactory();
+ * Flux&lt;Actor&gt; actors = client.sql("select first_name, last_name from t_actor")
+ *     .map(rowMappers.getRowMapper(Actor.class))
+ *     .all();
+ * </pre>
+ *
+ * <p>Columns are matched to constructor parameters and writable properties
+ * by name, case-insensitively and with underscores in column names matching
+ * camel case property names, as with
+ * {@code BeanPropertyRowMapper} for JDBC.
+ * Constructor arguments are bound by parameter name if the target class does
+ * not have a default constructor; remaining columns are bound to matching
+ * writable properties.
+ *
+ * <p>For each {@link RowMetadata}, a mapping function obtained from this factory
+ * resolves a mapper that is specialized for the column layout: column indexes
+ * are fixed, each column is read through {@link Row#get(int, Class)} with the
+ * type of its target if compatible with the {@linkplain ColumnMetadata#getJavaType()
+ * Java type of the column}, and values are
+ * passed directly to the constructor and to setter method handles. Type
+ * conversion through the {@link ConversionService} only happens for values that
+ * do not already match their target type. Specialized mappers are cached per
+ * target class and column signature (names and Java types), and shared across
+ * mapping functions and subscriptions.
+ *
+ * @author agent
+ * @since 6.0
+ * @see DatabaseClient.GenericExecuteSpec#map(BiFunction)
+ */
+public class CompiledRowMapperFactory {
+
+	private final Map<MapperKey, CompiledRowMapper<?>> mapperCache = new ConcurrentReferenceHashMap<>(64);
+
+	@Nullable
+	private volatile ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+	private volatile boolean primitivesDefaultedForNullValue = false;
+
+
+	/**
+	 * Set a {@link ConversionService} for converting column values that do not
+	 * match the type of their target constructor parameter or property.
+	 * <p>Default is a {@link DefaultConversionService}. Changing it discards
+	 * all specialized mappers created so far.
+	 */
+	public void setConversionService(@Nullable ConversionService conversionService) {
+		this.conversionService = conversionService;
+		this.mapperCache.clear();
+	}
+
+	/**
+	 * Return the {@link ConversionService} for converting column values, if any.
+	 */
+	@Nullable
+	public ConversionService getConversionService() {
+		return this.conversionService;
+	}
+
+	/**
+	 * Set whether a {@code null} column value for a property of primitive type
+	 * should be ignored rather than raising a {@link TypeMismatchException}.
+	 * <p>Default is {@code false}. Changing it discards all specialized mappers
+	 * created so far.
+	 */
+	public void setPrimitivesDefaultedForNullValue(boolean primitivesDefaultedForNullValue) {
+		this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+		this.mapperCache.clear();
+	}
+
+	/**
+	 * Return whether a {@code null} column value for a property of primitive
+	 * type is ignored.
+	 */
+	public boolean isPrimitivesDefaultedForNullValue() {
+		return this.primitivesDefaultedForNullValue;
+	}
+
+
+	/**
+	 * Return a mapping function for the given target class.
+	 * <p>The returned function is thread-safe and may be reused across
+	 * queries with different column layouts.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @return the mapping function
+	 */
+	public <T> BiFunction<Row, RowMetadata, T> getRowMapper(Class<T> mappedClass) {
+		Assert.notNull(mappedClass, "Mapped class must not be null");
+		return new RowMetadataShapeRowMapper<>(mappedClass);
+	}
+
+	/**
+	 * Return the mapper specialized for the target class and the column layout
+	 * of the given {@code RowMetadata}, creating it if necessary.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> CompiledRowMapper<T> getCompiledRowMapper(Class<T> mappedClass, RowMetadata rowMetadata) {
+		String[] columns = rowMetadata.getColumnNames().toArray(new String[0]);
+		Class<?>[] columnTypes = new Class<?>[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			columnTypes[i] = rowMetadata.getColumnMetadata(i).getJavaType();
+		}
+		MapperKey key = new MapperKey(mappedClass, columns, columnTypes);
+		CompiledRowMapper<T> rowMapper = (CompiledRowMapper<T>) this.mapperCache.get(key);
+		if (rowMapper == null) {
+			rowMapper = compile(mappedClass, columns, columnTypes);
+			this.mapperCache.put(key, rowMapper);
+		}
+		return rowMapper;
+	}
+
+	private <T> CompiledRowMapper<T> compile(Class<T> mappedClass, String[] columns, Class<?>[] columnTypes) {
+		ConversionService conversionService = this.conversionService;
+		Map<String, Integer> columnIndexes = new HashMap<>();
+		for (int i = columns.length - 1; i >= 0; i--) {
+			columnIndexes.put(lowerCaseName(StringUtils.delete(columns[i], " ")), i);
+		}
+
+		Constructor<T> constructor = BeanUtils.getResolvableConstructor(mappedClass);
+		int paramCount = constructor.getParameterCount();
+		ColumnReader[] constructorReaders = new ColumnReader[paramCount];
+		Set<String> constructorProperties = new HashSet<>();
+		if (paramCount > 0) {
+			String[] paramNames = BeanUtils.getParameterNames(constructor);
+			for (int i = 0; i < paramCount; i++) {
+				Integer index = columnIndexes.get(underscoreName(paramNames[i]));
+				if (index == null) {
+					index = columnIndexes.get(lowerCaseName(paramNames[i]));
+				}
+				if (index == null) {
+					throw new InvalidDataAccessApiUsageException("No column found for constructor parameter '" +
+							paramNames[i] + "' of " + mappedClass.getName() + " in " + Arrays.toString(columns));
+				}
+				TypeDescriptor targetType = new TypeDescriptor(new MethodParameter(constructor, i));
+				constructorReaders[i] = new ColumnReader(index, columnTypes[index], targetType, conversionService);
+				constructorProperties.add(lowerCaseName(paramNames[i]));
+				constructorProperties.add(underscoreName(paramNames[i]));
+			}
+		}
+
+		Map<String, PropertyDescriptor> mappedFields = new HashMap<>();
+		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(mappedClass)) {
+			if (pd.getWriteMethod() != null) {
+				mappedFields.put(lowerCaseName(pd.getName()), pd);
+				mappedFields.put(underscoreName(pd.getName()), pd);
+			}
+		}
+		mappedFields.keySet().removeAll(constructorProperties);
+
+		PropertyWriter[] propertyWriters = new PropertyWriter[columns.length];
+		int writerCount = 0;
+		for (int i = 0; i < columns.length; i++) {
+			String field = lowerCaseName(StringUtils.delete(columns[i], " "));
+			PropertyDescriptor pd = mappedFields.get(field);
+			if (pd != null) {
+				Method writeMethod = pd.getWriteMethod();
+				TypeDescriptor targetType = new TypeDescriptor(new MethodParameter(writeMethod, 0));
+				propertyWriters[writerCount++] = new PropertyWriter(columns[i], pd.getName(),
+						new ColumnReader(i, columnTypes[i], targetType, conversionService), writeMethod,
+						this.primitivesDefaultedForNullValue);
+			}
+		}
+
+		return new CompiledRowMapper<>(constructor, constructorReaders,
+				Arrays.copyOf(propertyWriters, writerCount));
+	}
+
+	private static String lowerCaseName(String name) {
+		return name.toLowerCase(Locale.US);
+	}
+
+	/**
+	 * Convert a name in camelCase to an underscored name in lower case,
+	 * as with {@code BeanPropertyRowMapper} for JDBC.
+	 */
+	private static String underscoreName(String name) {
+		if (!StringUtils.hasLength(name)) {
+			return "";
+		}
+		StringBuilder result = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c)) {
+				result.append('_').append(Character.toLowerCase(c));
+			}
+			else {
+				result.append(c);
+			}
+		}
+		return result.toString();
+	}
+
+
+	/**
+	 * Mapping function returned by the factory, resolving the specialized
+	 * mapper once per {@code RowMetadata}.
+	 */
+	private final class RowMetadataShapeRowMapper<T> implements BiFunction<Row, RowMetadata, T> {
+
+		private final Class<T> mappedClass;
+
+		@Nullable
+		private volatile RowMetadataBinding<T> binding;
+
+		RowMetadataShapeRowMapper(Class<T> mappedClass) {
+			this.mappedClass = mappedClass;
+		}
+
+		@Override
+		public T apply(Row row, RowMetadata rowMetadata) {
+			RowMetadataBinding<T> binding = this.binding;
+			if (binding == null || binding.get() != rowMetadata) {
+				binding = new RowMetadataBinding<>(rowMetadata, getCompiledRowMapper(this.mappedClass, rowMetadata));
+				this.binding = binding;
+			}
+			return binding.rowMapper.apply(row);
+		}
+	}
+
+
+	/**
+	 * Specialized mapper for the {@code RowMetadata} it is bound to, without
+	 * holding on to the {@code RowMetadata} after use.
+	 */
+	private static final class RowMetadataBinding<T> extends WeakReference<RowMetadata> {
+
+		private final CompiledRowMapper<T> rowMapper;
+
+		RowMetadataBinding(RowMetadata rowMetadata, CompiledRowMapper<T> rowMapper) {
+			super(rowMetadata);
+			this.rowMapper = rowMapper;
+		}
+	}
+
+
+	/**
+	 * Row mapper for a specific target class and column layout.
+	 */
+	private static final class CompiledRowMapper<T> {
+
+		private final Constructor<T> constructor;
+
+		private final ColumnReader[] constructorReaders;
+
+		private final PropertyWriter[] propertyWriters;
+
+		CompiledRowMapper(Constructor<T> constructor, ColumnReader[] constructorReaders,
+				PropertyWriter[] propertyWriters) {
+
+			this.constructor = constructor;
+			this.constructorReaders = constructorReaders;
+			this.propertyWriters = propertyWriters;
+		}
+
+		T apply(Row row) {
+			Object[] args = new Object[this.constructorReaders.length];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = this.constructorReaders[i].read(row);
+			}
+			T mappedObject = BeanUtils.instantiateClass(this.constructor, args);
+			for (PropertyWriter writer : this.propertyWriters) {
+				writer.write(mappedObject, row);
+			}
+			return mappedObject;
+		}
+	}
+
+
+	/**
+	 * Reads a column as the type of its target if compatible with the Java
+	 * type of the column, converting the value only if it does not match the
+	 * target type.
+	 */
+	private static final class ColumnReader {
+
+		private final int index;
+
+		private final Class<?> type;
+
+		private final Class<?> readType;
+
+		private final TypeDescriptor targetType;
+
+		@Nullable
+		private final ConversionService conversionService;
+
+		ColumnReader(int index, @Nullable Class<?> columnType, TypeDescriptor targetType,
+				@Nullable ConversionService conversionService) {
+
+			this.index = index;
+			this.type = targetType.getType();
+			Class<?> boxedType = ClassUtils.resolvePrimitiveIfNecessary(this.type);
+			this.readType = (columnType != null && boxedType.isAssignableFrom(columnType) ? boxedType : Object.class);
+			this.targetType = targetType;
+			this.conversionService = conversionService;
+		}
+
+		@Nullable
+		Object read(Row row) {
+			Object value = (this.readType != Object.class ? row.get(this.index, this.readType) : row.get(this.index));
+			if (value == null || ClassUtils.isAssignableValue(this.type, value)) {
+				return value;
+			}
+			if (this.conversionService != null &&
+					this.conversionService.canConvert(TypeDescriptor.forObject(value), this.targetType)) {
+				return this.conversionService.convert(value, TypeDescriptor.forObject(value), this.targetType);
+			}
+			throw new TypeMismatchException(value, this.type);
+		}
+
+		boolean isPrimitive() {
+			return this.type.isPrimitive();
+		}
+	}
+
+
+	/**
+	 * Writes a column value to a property through its setter method.
+	 */
+	private static final class PropertyWriter {
+
+		private final String column;
+
+		private final String propertyName;
+
+		private final ColumnReader reader;
+
+		private final MethodHandle setter;
+
+		private final boolean primitivesDefaultedForNullValue;
+
+		PropertyWriter(String column, String propertyName, ColumnReader reader, Method writeMethod,
+				boolean primitivesDefaultedForNullValue) {
+
+			this.column = column;
+			this.propertyName = propertyName;
+			this.reader = reader;
+			this.primitivesDefaultedForNullValue = primitivesDefaultedForNullValue;
+			try {
+				ReflectionUtils.makeAccessible(writeMethod);
+				this.setter = MethodHandles.lookup().unreflect(writeMethod)
+						.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			}
+			catch (IllegalAccessException ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column '" + column + "' to property '" + propertyName + "'", ex);
+			}
+		}
+
+		void write(Object mappedObject, Row row) {
+			Object value = this.reader.read(row);
+			if (value == null && this.reader.isPrimitive()) {
+				if (this.primitivesDefaultedForNullValue) {
+					return;
+				}
+				throw new TypeMismatchException(value, this.reader.type);
+			}
+			try {
+				this.setter.invokeExact(mappedObject, value);
+			}
+			catch (RuntimeException | Error ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new DataRetrievalFailureException(
+						"Unable to map column '" + this.column + "' to property '" + this.propertyName + "'", ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Cache key for a target class and column signature.
+	 */
+	private static final class MapperKey {
+
+		private final Class<?> mappedClass;
+
+		private final String[] columns;
+
+		private final Class<?>[] columnTypes;
+
+		private final int hashCode;
+
+		MapperKey(Class<?> mappedClass, String[] columns, Class<?>[] columnTypes) {
+			this.mappedClass = mappedClass;
+			this.columns = columns;
+			this.columnTypes = columnTypes;
+			this.hashCode = 31 * mappedClass.hashCode() + Arrays.hashCode(columns);
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other || (other instanceof MapperKey otherKey &&
+					this.mappedClass == otherKey.mappedClass && Arrays.equals(this.columns, otherKey.columns) &&
+					Arrays.equals(this.columnTypes, otherKey.columnTypes)));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+}
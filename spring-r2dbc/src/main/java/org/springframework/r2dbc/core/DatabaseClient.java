@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -88,6 +88,21 @@ public interface DatabaseClient extends ConnectionAccessor {
 	 */
 	GenericExecuteSpec sql(Supplier<String> sqlSupplier);
 
+	/**
+	 * Specify a static {@code sql} statement to run once for each of several
+	 * sets of parameter bindings. Contract for specifying a batched SQL call
+	 * along with options leading to the execution. The parameter bindings are
+	 * added to R2DBC {@link Statement Statements} through {@link Statement#add()},
+	 * sending many parameter sets in a single round trip where supported by the
+	 * driver. The SQL string can contain either native parameter bind markers
+	 * or named parameters when {@link NamedParameterExpander} is enabled.
+	 * @param sql the SQL statement
+	 * @return a new {@link BatchExecuteSpec}
+	 * @since 6.0
+	 * @see Statement#add()
+	 */
+	BatchExecuteSpec batch(String sql);
+
 
 	// Static factory methods
 
@@ -244,4 +259,106 @@ public interface DatabaseClient extends ConnectionAccessor {
 		Mono<Void> then();
 	}
 
+
+	/**
+	 * Contract for specifying a batched SQL call along with options leading to
+	 * the execution.
+	 * @since 6.0
+	 */
+	interface BatchExecuteSpec {
+
+		/**
+		 * Add a set of parameter bindings, identified by their {@code name}.
+		 * Each value can be either a scalar value or {@link Parameter}; use
+		 * {@link Parameter#empty(Class)} to bind {@code null} values.
+		 * <p>All parameter sets must expand to the same SQL statement: for
+		 * example, collection values must have the same size in all sets.
+		 * @param parameters the parameter values to bind, keyed by name
+		 */
+		BatchExecuteSpec add(Map<String, ?> parameters);
+
+		/**
+		 * Add a set of parameter bindings, identified by their zero based
+		 * index. Each value can be either a scalar value or {@link Parameter};
+		 * use {@link Parameter#empty(Class)} to bind {@code null} values.
+		 * @param parameters the parameter values to bind, by index
+		 */
+		BatchExecuteSpec add(Object... parameters);
+
+		/**
+		 * Set the maximum number of parameter sets per {@link Statement}.
+		 * Larger batches are split into several statements.
+		 * <p>By default, all parameter sets are added to a single statement.
+		 * @param batchSize the maximum number of parameter sets per statement
+		 */
+		BatchExecuteSpec batchSize(int batchSize);
+
+		/**
+		 * Set the maximum number of statements to keep in flight on the
+		 * connection at the same time when a batch is split into several
+		 * statements: subsequent statements are executed before the results
+		 * of previous statements have been consumed, for drivers that support
+		 * pipelining. Results are still emitted in statement order.
+		 * <p>Default is 1, executing one statement after the other.
+		 * @param pipelining the maximum number of statements in flight
+		 * @see #batchSize(int)
+		 */
+		BatchExecuteSpec pipelining(int pipelining);
+
+		/**
+		 * Add the given filter to the end of the filter chain, invoked for
+		 * each {@link Statement} of the batch.
+		 * @param filterFunction the filter to be added to the chain
+		 * @see GenericExecuteSpec#filter(Function)
+		 */
+		default BatchExecuteSpec filter(Function<? super Statement, ? extends Statement> filterFunction) {
+			Assert.notNull(filterFunction, "Filter function must not be null");
+			return filter((statement, next) -> next.execute(filterFunction.apply(statement)));
+		}
+
+		/**
+		 * Add the given filter to the end of the filter chain, invoked for
+		 * each {@link Statement} of the batch.
+		 * @param filter the filter to be added to the chain
+		 * @see GenericExecuteSpec#filter(StatementFilterFunction)
+		 */
+		BatchExecuteSpec filter(StatementFilterFunction filter);
+
+		/**
+		 * Configure a result mapping {@link Function function} and enter the
+		 * execution stage, e.g. for statements returning generated values.
+		 * @param mappingFunction a function that maps from {@link Row} to the result type
+		 * @param <R> the result type
+		 * @return a {@link FetchSpec} for configuration what to fetch
+		 */
+		default <R> RowsFetchSpec<R> map(Function<Row, R> mappingFunction) {
+			Assert.notNull(mappingFunction, "Mapping function must not be null");
+			return map((row, rowMetadata) -> mappingFunction.apply(row));
+		}
+
+		/**
+		 * Configure a result mapping {@link BiFunction function} and enter the
+		 * execution stage, e.g. for statements returning generated values.
+		 * @param mappingFunction a function that maps from {@link Row} and {@link RowMetadata}
+		 * to the result type
+		 * @param <R> the result type
+		 * @return a {@link FetchSpec} for configuration what to fetch
+		 */
+		<R> RowsFetchSpec<R> map(BiFunction<Row, RowMetadata, R> mappingFunction);
+
+		/**
+		 * Perform the batched SQL call and retrieve the result by entering the
+		 * execution stage. {@link FetchSpec#rowsUpdated()} emits the total
+		 * number of rows updated across all parameter sets.
+		 */
+		FetchSpec<Map<String, Object>> fetch();
+
+		/**
+		 * Perform the batched SQL call and return a {@link Mono} that completes
+		 * without result on completion of all statements.
+		 * @return a {@link Mono} ignoring its payload (actively dropping)
+		 */
+		Mono<Void> then();
+	}
+
 }
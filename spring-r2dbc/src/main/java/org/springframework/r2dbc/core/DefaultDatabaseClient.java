@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -103,6 +104,12 @@ class DefaultDatabaseClient implements DatabaseClient {
 		return new DefaultGenericExecuteSpec(sqlSupplier);
 	}
 
+	@Override
+	public BatchExecuteSpec batch(String sql) {
+		Assert.hasText(sql, "SQL must not be null or empty");
+		return new DefaultBatchExecuteSpec(sql);
+	}
+
 	@Override
 	public <T> Mono<T> inConnection(Function<Connection, Mono<T>> action) throws DataAccessException {
 		Assert.notNull(action, "Callback object must not be null");
@@ -212,6 +219,72 @@ class DefaultDatabaseClient implements DatabaseClient {
 		}
 	}
 
+	private static MapBindParameterSource retrieveParameters(String sql, List<String> parameterNames,
+			Map<String, Parameter> byName, Map<Integer, Parameter> byIndex,
+			Map<String, Parameter> remainderByName, Map<Integer, Parameter> remainderByIndex) {
+
+		Map<String, Parameter> namedBindings = CollectionUtils.newLinkedHashMap(parameterNames.size());
+		for (String parameterName : parameterNames) {
+			Parameter parameter = getParameter(byName, byIndex, remainderByName, remainderByIndex,
+					parameterNames, parameterName);
+			if (parameter == null) {
+				throw new InvalidDataAccessApiUsageException(
+						String.format("No parameter specified for [%s] in query [%s]", parameterName, sql));
+			}
+			namedBindings.put(parameterName, parameter);
+		}
+		return new MapBindParameterSource(namedBindings);
+	}
+
+	@Nullable
+	private static Parameter getParameter(Map<String, Parameter> byName, Map<Integer, Parameter> byIndex,
+			Map<String, Parameter> remainderByName, Map<Integer, Parameter> remainderByIndex,
+			List<String> parameterNames, String parameterName) {
+
+		if (byName.containsKey(parameterName)) {
+			remainderByName.remove(parameterName);
+			return byName.get(parameterName);
+		}
+
+		int index = parameterNames.indexOf(parameterName);
+		if (byIndex.containsKey(index)) {
+			remainderByIndex.remove(index);
+			return byIndex.get(index);
+		}
+
+		return null;
+	}
+
+	private static void bindByName(Statement statement, Map<String, Parameter> byName) {
+		byName.forEach((name, parameter) -> {
+			Object value = parameter.getValue();
+			if (value != null) {
+				statement.bind(name, value);
+			}
+			else {
+				statement.bindNull(name, parameter.getType());
+			}
+		});
+	}
+
+	private static void bindByIndex(Statement statement, Map<Integer, Parameter> byIndex) {
+		byIndex.forEach((i, parameter) -> {
+			Object value = parameter.getValue();
+			if (value != null) {
+				statement.bind(i, value);
+			}
+			else {
+				statement.bindNull(i, parameter.getType());
+			}
+		});
+	}
+
+	private static String getRequiredSql(Supplier<String> sqlSupplier) {
+		String sql = sqlSupplier.get();
+		Assert.state(StringUtils.hasText(sql), "SQL returned by SQL supplier must not be empty!");
+		return sql;
+	}
+
 
 	/**
 	 * Base class for {@link DatabaseClient.GenericExecuteSpec} implementations.
@@ -341,7 +414,7 @@ class DefaultDatabaseClient implements DatabaseClient {
 
 					List<String> parameterNames = DefaultDatabaseClient.this.namedParameterExpander.getParameterNames(sql);
 					MapBindParameterSource namedBindings = retrieveParameters(
-							sql, parameterNames, remainderByName, remainderByIndex);
+							sql, parameterNames, this.byName, this.byIndex, remainderByName, remainderByIndex);
 
 					PreparedOperation<String> operation = DefaultDatabaseClient.this.namedParameterExpander.expand(
 							sql, DefaultDatabaseClient.this.bindMarkersFactory, namedBindings);
@@ -383,74 +456,218 @@ class DefaultDatabaseClient implements DatabaseClient {
 					mappingFunction);
 		}
 
-		private MapBindParameterSource retrieveParameters(String sql, List<String> parameterNames,
-				Map<String, Parameter> remainderByName, Map<Integer, Parameter> remainderByIndex) {
-
-			Map<String, Parameter> namedBindings = CollectionUtils.newLinkedHashMap(parameterNames.size());
-			for (String parameterName : parameterNames) {
-				Parameter parameter = getParameter(remainderByName, remainderByIndex, parameterNames, parameterName);
-				if (parameter == null) {
-					throw new InvalidDataAccessApiUsageException(
-							String.format("No parameter specified for [%s] in query [%s]", parameterName, sql));
-				}
-				namedBindings.put(parameterName, parameter);
+		private void assertNotPreparedOperation() {
+			if (this.sqlSupplier instanceof PreparedOperation<?>) {
+				throw new InvalidDataAccessApiUsageException(
+						"Cannot add bindings to a PreparedOperation");
 			}
-			return new MapBindParameterSource(namedBindings);
 		}
+	}
+
+
+	/**
+	 * Default {@link DatabaseClient.BatchExecuteSpec} implementation.
+	 */
+	class DefaultBatchExecuteSpec implements BatchExecuteSpec {
+
+		final String sql;
 
 		@Nullable
-		private Parameter getParameter(Map<String, Parameter> remainderByName,
-				Map<Integer, Parameter> remainderByIndex, List<String> parameterNames, String parameterName) {
+		final BatchBinding lastBinding;
 
-			if (this.byName.containsKey(parameterName)) {
-				remainderByName.remove(parameterName);
-				return this.byName.get(parameterName);
-			}
+		final int batchSize;
+
+		final int pipelining;
+
+		final StatementFilterFunction filterFunction;
+
+		DefaultBatchExecuteSpec(String sql) {
+			this(sql, null, Integer.MAX_VALUE, 1, StatementFilterFunction.EMPTY_FILTER);
+		}
+
+		DefaultBatchExecuteSpec(String sql, @Nullable BatchBinding lastBinding, int batchSize, int pipelining,
+				StatementFilterFunction filterFunction) {
 
-			int index = parameterNames.indexOf(parameterName);
-			if (this.byIndex.containsKey(index)) {
-				remainderByIndex.remove(index);
-				return this.byIndex.get(index);
+			this.sql = sql;
+			this.lastBinding = lastBinding;
+			this.batchSize = batchSize;
+			this.pipelining = pipelining;
+			this.filterFunction = filterFunction;
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec add(Map<String, ?> parameters) {
+			Assert.notNull(parameters, "Parameters must not be null");
+			Map<String, Parameter> byName = CollectionUtils.newLinkedHashMap(parameters.size());
+			parameters.forEach((name, value) -> {
+				Assert.hasText(name, "Parameter name must not be null or empty!");
+				byName.put(name, toParameter(value, name));
+			});
+			return new DefaultBatchExecuteSpec(this.sql,
+					new BatchBinding(this.lastBinding, Collections.emptyMap(), byName),
+					this.batchSize, this.pipelining, this.filterFunction);
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec add(Object... parameters) {
+			Assert.notNull(parameters, "Parameters must not be null");
+			Map<Integer, Parameter> byIndex = CollectionUtils.newLinkedHashMap(parameters.length);
+			for (int i = 0; i < parameters.length; i++) {
+				byIndex.put(i, toParameter(parameters[i], i));
 			}
+			return new DefaultBatchExecuteSpec(this.sql,
+					new BatchBinding(this.lastBinding, byIndex, Collections.emptyMap()),
+					this.batchSize, this.pipelining, this.filterFunction);
+		}
 
-			return null;
+		@Override
+		public DefaultBatchExecuteSpec batchSize(int batchSize) {
+			Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+			return new DefaultBatchExecuteSpec(
+					this.sql, this.lastBinding, batchSize, this.pipelining, this.filterFunction);
 		}
 
-		private void assertNotPreparedOperation() {
-			if (this.sqlSupplier instanceof PreparedOperation<?>) {
-				throw new InvalidDataAccessApiUsageException(
-						"Cannot add bindings to a PreparedOperation");
+		@Override
+		public DefaultBatchExecuteSpec pipelining(int pipelining) {
+			Assert.isTrue(pipelining > 0, "Pipelining must be greater than 0");
+			return new DefaultBatchExecuteSpec(
+					this.sql, this.lastBinding, this.batchSize, pipelining, this.filterFunction);
+		}
+
+		@Override
+		public DefaultBatchExecuteSpec filter(StatementFilterFunction filter) {
+			Assert.notNull(filter, "Statement FilterFunction must not be null");
+			return new DefaultBatchExecuteSpec(this.sql, this.lastBinding, this.batchSize, this.pipelining,
+					this.filterFunction.andThen(filter));
+		}
+
+		@Override
+		public <R> FetchSpec<R> map(BiFunction<Row, RowMetadata, R> mappingFunction) {
+			Assert.notNull(mappingFunction, "Mapping function must not be null");
+			return execute(mappingFunction);
+		}
+
+		@Override
+		public FetchSpec<Map<String, Object>> fetch() {
+			return execute(ColumnMapRowMapper.INSTANCE);
+		}
+
+		@Override
+		public Mono<Void> then() {
+			return fetch().rowsUpdated().then();
+		}
+
+		private <T> FetchSpec<T> execute(BiFunction<Row, RowMetadata, T> mappingFunction) {
+			List<List<BatchBinding>> chunks = getChunks();
+			Function<Connection, Flux<Result>> resultFunction = connection ->
+					Flux.fromIterable(chunks)
+							.flatMapSequential(chunk -> {
+								Statement statement = createStatement(connection, chunk);
+								return Flux.from(this.filterFunction.filter(statement, DefaultDatabaseClient.this.executeFunction));
+							}, this.pipelining)
+							.cast(Result.class).checkpoint("SQL \"" + this.sql + "\" [DatabaseClient]");
+
+			return new DefaultFetchSpec<>(
+					DefaultDatabaseClient.this, this.sql,
+					new ConnectionFunction<>(this.sql, resultFunction),
+					new ConnectionFunction<>(this.sql, connection -> sumRowsUpdated(resultFunction, connection)),
+					mappingFunction);
+		}
+
+		private List<List<BatchBinding>> getChunks() {
+			Assert.state(this.lastBinding != null, "No parameter bindings added to batch");
+			List<BatchBinding> bindings = new ArrayList<>(this.lastBinding.position + 1);
+			for (BatchBinding binding = this.lastBinding; binding != null; binding = binding.previous) {
+				bindings.add(binding);
 			}
+			Collections.reverse(bindings);
+			List<List<BatchBinding>> chunks = new ArrayList<>(bindings.size() / Math.min(this.batchSize, bindings.size()) + 1);
+			for (int i = 0; i < bindings.size(); i += this.batchSize) {
+				chunks.add(bindings.subList(i, Math.min(bindings.size(), i + this.batchSize)));
+			}
+			return chunks;
 		}
 
-		private void bindByName(Statement statement, Map<String, Parameter> byName) {
-			byName.forEach((name, parameter) -> {
-				Object value = parameter.getValue();
-				if (value != null) {
-					statement.bind(name, value);
-				}
-				else {
-					statement.bindNull(name, parameter.getType());
+		private Statement createStatement(Connection connection, List<BatchBinding> chunk) {
+			NamedParameterExpander namedParameterExpander = DefaultDatabaseClient.this.namedParameterExpander;
+			Statement statement = null;
+			String statementSql = null;
+			for (BatchBinding binding : chunk) {
+				String bindingSql = this.sql;
+				PreparedOperation<String> operation = null;
+				Map<String, Parameter> remainderByName = binding.byName;
+				Map<Integer, Parameter> remainderByIndex = binding.byIndex;
+				if (namedParameterExpander != null) {
+					remainderByName = new LinkedHashMap<>(binding.byName);
+					remainderByIndex = new LinkedHashMap<>(binding.byIndex);
+					List<String> parameterNames = namedParameterExpander.getParameterNames(this.sql);
+					MapBindParameterSource namedBindings = retrieveParameters(this.sql, parameterNames,
+							binding.byName, binding.byIndex, remainderByName, remainderByIndex);
+					operation = namedParameterExpander.expand(
+							this.sql, DefaultDatabaseClient.this.bindMarkersFactory, namedBindings);
+					bindingSql = getRequiredSql(operation);
 				}
-			});
-		}
 
-		private void bindByIndex(Statement statement, Map<Integer, Parameter> byIndex) {
-			byIndex.forEach((i, parameter) -> {
-				Object value = parameter.getValue();
-				if (value != null) {
-					statement.bind(i, value);
+				if (statement == null) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Executing SQL statement [" + bindingSql + "] with " +
+								chunk.size() + " parameter bindings");
+					}
+					statement = connection.createStatement(bindingSql);
+					statementSql = bindingSql;
 				}
 				else {
-					statement.bindNull(i, parameter.getType());
+					if (!bindingSql.equals(statementSql)) {
+						throw new InvalidDataAccessApiUsageException(String.format(
+								"Parameter bindings of batch [%s] expand to different SQL: [%s] and [%s]",
+								this.sql, statementSql, bindingSql));
+					}
+					statement.add();
 				}
-			});
+
+				if (operation != null) {
+					operation.bindTo(new StatementWrapper(statement));
+				}
+				bindByName(statement, remainderByName);
+				bindByIndex(statement, remainderByIndex);
+			}
+			Assert.state(statement != null, "No Statement created");
+			return statement;
+		}
+
+		private Parameter toParameter(@Nullable Object value, Object identifier) {
+			Assert.notNull(value, () -> String.format(
+					"Value for parameter %s must not be null. Use Parameter.empty(…) instead.", identifier));
+			if (value instanceof Parameter parameter) {
+				return parameter;
+			}
+			return Parameter.fromOrEmpty(value, value.getClass());
 		}
+	}
+
+
+	/**
+	 * One set of parameter bindings of a batch, linked to the previously
+	 * added set in order to keep batch specs immutable without copying.
+	 */
+	private static final class BatchBinding {
+
+		@Nullable
+		final BatchBinding previous;
+
+		final int position;
 
-		private String getRequiredSql(Supplier<String> sqlSupplier) {
-			String sql = sqlSupplier.get();
-			Assert.state(StringUtils.hasText(sql), "SQL returned by SQL supplier must not be empty!");
-			return sql;
+		final Map<Integer, Parameter> byIndex;
+
+		final Map<String, Parameter> byName;
+
+		BatchBinding(@Nullable BatchBinding previous, Map<Integer, Parameter> byIndex,
+				Map<String, Parameter> byName) {
+
+			this.previous = previous;
+			this.position = (previous != null ? previous.position + 1 : 0);
+			this.byIndex = byIndex;
+			this.byName = byName;
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.r2dbc.core;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.Result;
 import org.junit.jupiter.api.BeforeEach;
@@ -149,4 +152,68 @@ public abstract class AbstractDatabaseClientIntegrationTests {
 				.verifyComplete();
 	}
 
+	@Test
+	public void executeBatchInsert() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		DatabaseClient.BatchExecuteSpec batch = databaseClient.batch(
+				"INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)");
+		for (int i = 0; i < 10; i++) {
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("id", 42000 + i);
+			parameters.put("name", "SET" + i);
+			parameters.put("manual", (i % 2 == 0 ? i : Parameter.empty(Integer.class)));
+			batch = batch.add(parameters);
+		}
+
+		batch.fetch().rowsUpdated()
+				.as(StepVerifier::create)
+				.expectNext(10)
+				.verifyComplete();
+
+		databaseClient.sql("SELECT name FROM legoset WHERE manual IS NULL ORDER BY id")
+				.map(row -> row.get("name", String.class))
+				.all()
+				.as(StepVerifier::create)
+				.expectNext("SET1", "SET3", "SET5", "SET7", "SET9")
+				.verifyComplete();
+	}
+
+	@Test
+	public void executePipelinedBatchInsert() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		DatabaseClient.BatchExecuteSpec batch = databaseClient
+				.batch("INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)")
+				.batchSize(3)
+				.pipelining(2);
+		for (int i = 0; i < 10; i++) {
+			batch = batch.add(42000 + i, "SET" + i, i);
+		}
+
+		batch.then()
+				.as(StepVerifier::create)
+				.verifyComplete();
+
+		databaseClient.sql("SELECT COUNT(*) FROM legoset")
+				.map(row -> row.get(0, Number.class))
+				.one()
+				.as(StepVerifier::create)
+				.assertNext(count -> assertThat(count.intValue()).isEqualTo(10))
+				.verifyComplete();
+	}
+
+	@Test
+	public void shouldTranslateDuplicateKeyExceptionInBatch() {
+		DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+		databaseClient.batch("INSERT INTO legoset (id, name, manual) VALUES(:id, :name, :manual)")
+				.add(42055, "SCHAUFELRADBAGGER", 12)
+				.add(42055, "SCHAUFELRADBAGGER", 12)
+				.fetch().rowsUpdated()
+				.as(StepVerifier::create)
+				.expectError(DataIntegrityViolationException.class)
+				.verify();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -182,6 +182,31 @@ public abstract class AbstractTransactionalDatabaseClientIntegrationTests  {
 				.verifyComplete();
 	}
 
+	@Test
+	public void shouldRollbackBatchInTransaction() {
+
+		Mono<Object> batch = databaseClient.batch(getInsertIntoLegosetStatement())
+				.add(42055, "SCHAUFELRADBAGGER", 12)
+				.add(42056, "FORSCHUNGSSCHIFF", 13)
+				.add(42057, "UNIMOG", 14)
+				.batchSize(2)
+				.pipelining(2)
+				.fetch().rowsUpdated()
+				.then(Mono.error(new IllegalStateException("failed")))
+				.as(rxtx::transactional);
+
+		batch.as(StepVerifier::create)
+				.expectError(IllegalStateException.class)
+				.verify();
+
+		databaseClient
+				.sql("SELECT id FROM legoset")
+				.fetch()
+				.first()
+				.as(StepVerifier::create)
+				.verifyComplete();
+	}
+
 	private Condition<? super Object> numberOf(int expected) {
 		return new Condition<>(object -> object instanceof Number &&
 				((Number) object).intValue() == expected, "Number  %d", expected);
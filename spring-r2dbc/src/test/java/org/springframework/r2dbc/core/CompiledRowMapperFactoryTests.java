@@ -0,0 +1,290 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.r2dbc.core;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.BiFunction;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CompiledRowMapperFactory} against H2.
+ *
+ * @author agent
+ */
+class CompiledRowMapperFactoryTests {
+
+	private final CompiledRowMapperFactory factory = new CompiledRowMapperFactory();
+
+	private DatabaseClient databaseClient;
+
+
+	@BeforeEach
+	void setUp() {
+		this.databaseClient = DatabaseClient.create(H2ConnectionFactory.inMemory("compiled-row-mapper"));
+		this.databaseClient.sql("DROP TABLE IF EXISTS person").then()
+				.then(this.databaseClient.sql("CREATE TABLE person (id bigint PRIMARY KEY, " +
+						"first_name varchar(50), age integer, balance decimal(10,2), birth_date date)").then())
+				.then(this.databaseClient.batch("INSERT INTO person VALUES(:id, :firstName, :age, :balance, :birthDate)")
+						.add(1L, "Walter", 42, new BigDecimal("10.50"), LocalDate.of(1980, 1, 1))
+						.add(2L, "Jesse", Parameter.empty(Integer.class), new BigDecimal("0.00"), LocalDate.of(1990, 2, 2))
+						.then())
+				.as(StepVerifier::create)
+				.verifyComplete();
+	}
+
+
+	@Test
+	void mapsBean() {
+		this.databaseClient.sql("SELECT id, first_name, age, balance, birth_date FROM person ORDER BY id")
+				.map(this.factory.getRowMapper(PersonBean.class))
+				.first()
+				.as(StepVerifier::create)
+				.assertNext(person -> {
+					assertThat(person.getId()).isEqualTo(1L);
+					assertThat(person.getFirstName()).isEqualTo("Walter");
+					assertThat(person.getAge()).isEqualTo(42);
+					assertThat(person.getBalance()).isEqualByComparingTo("10.50");
+					assertThat(person.getBirthDate()).isEqualTo(LocalDate.of(1980, 1, 1));
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void mapsDataClass() {
+		this.databaseClient.sql("SELECT id, first_name, age FROM person ORDER BY id")
+				.map(this.factory.getRowMapper(PersonData.class))
+				.all()
+				.as(StepVerifier::create)
+				.assertNext(person -> {
+					assertThat(person.getId()).isEqualTo(1L);
+					assertThat(person.getFirstName()).isEqualTo("Walter");
+					assertThat(person.getAge()).isEqualTo(42);
+				})
+				.assertNext(person -> {
+					assertThat(person.getId()).isEqualTo(2L);
+					assertThat(person.getAge()).isNull();
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void convertsColumnValues() {
+		this.databaseClient.sql("SELECT id, age AS nickname, balance AS first_name FROM person WHERE id = 1")
+				.map(this.factory.getRowMapper(ConvertedPerson.class))
+				.one()
+				.as(StepVerifier::create)
+				.assertNext(person -> {
+					assertThat(person.getId()).isEqualTo("1");
+					assertThat(person.getFirstName()).isEqualTo("10.50");
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void reusesMapperAcrossColumnLayouts() {
+		BiFunction<Row, RowMetadata, PersonBean> rowMapper = this.factory.getRowMapper(PersonBean.class);
+
+		this.databaseClient.sql("SELECT first_name FROM person WHERE id = 1")
+				.map(rowMapper)
+				.one()
+				.as(StepVerifier::create)
+				.assertNext(person -> {
+					assertThat(person.getFirstName()).isEqualTo("Walter");
+					assertThat(person.getAge()).isEqualTo(0);
+				})
+				.verifyComplete();
+		this.databaseClient.sql("SELECT age, id FROM person WHERE id = 1")
+				.map(rowMapper)
+				.one()
+				.as(StepVerifier::create)
+				.assertNext(person -> {
+					assertThat(person.getId()).isEqualTo(1L);
+					assertThat(person.getAge()).isEqualTo(42);
+					assertThat(person.getFirstName()).isNull();
+				})
+				.verifyComplete();
+	}
+
+	@Test
+	void mapsLeadingUpperCasePropertyName() {
+		this.databaseClient.sql("SELECT id, age AS _x_coordinate FROM person WHERE id = 1")
+				.map(this.factory.getRowMapper(Point.class))
+				.one()
+				.as(StepVerifier::create)
+				.assertNext(point -> assertThat(point.getXCoordinate()).isEqualTo(42))
+				.verifyComplete();
+	}
+
+	@Test
+	void rejectsNullForPrimitiveProperty() {
+		this.databaseClient.sql("SELECT id, age FROM person WHERE id = 2")
+				.map(this.factory.getRowMapper(PersonBean.class))
+				.one()
+				.as(StepVerifier::create)
+				.verifyError(TypeMismatchException.class);
+
+		this.factory.setPrimitivesDefaultedForNullValue(true);
+		this.databaseClient.sql("SELECT id, age FROM person WHERE id = 2")
+				.map(this.factory.getRowMapper(PersonBean.class))
+				.one()
+				.as(StepVerifier::create)
+				.assertNext(person -> assertThat(person.getAge()).isEqualTo(0))
+				.verifyComplete();
+	}
+
+	@Test
+	void rejectsMissingConstructorColumn() {
+		this.databaseClient.sql("SELECT id FROM person WHERE id = 1")
+				.map(this.factory.getRowMapper(PersonData.class))
+				.one()
+				.as(StepVerifier::create)
+				.verifyError(InvalidDataAccessApiUsageException.class);
+	}
+
+
+	public static class PersonBean {
+
+		private long id;
+
+		private String firstName;
+
+		private int age;
+
+		private BigDecimal balance;
+
+		private LocalDate birthDate;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+
+		public BigDecimal getBalance() {
+			return this.balance;
+		}
+
+		public void setBalance(BigDecimal balance) {
+			this.balance = balance;
+		}
+
+		public LocalDate getBirthDate() {
+			return this.birthDate;
+		}
+
+		public void setBirthDate(LocalDate birthDate) {
+			this.birthDate = birthDate;
+		}
+	}
+
+
+	public static class PersonData {
+
+		private final long id;
+
+		private final String firstName;
+
+		private final Integer age;
+
+		public PersonData(long id, String firstName, Integer age) {
+			this.id = id;
+			this.firstName = firstName;
+			this.age = age;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public Integer getAge() {
+			return this.age;
+		}
+	}
+
+
+	public static class ConvertedPerson {
+
+		private String id;
+
+		private String firstName;
+
+		public String getId() {
+			return this.id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		public String getFirstName() {
+			return this.firstName;
+		}
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+	}
+
+
+	public static class Point {
+
+		private int xCoordinate;
+
+		public int getXCoordinate() {
+			return this.xCoordinate;
+		}
+
+		public void setXCoordinate(int xCoordinate) {
+			this.xCoordinate = xCoordinate;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.r2dbc.core;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactory;
@@ -42,11 +43,14 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.lang.Nullable;
 import org.springframework.r2dbc.core.binding.BindMarkersFactory;
 import org.springframework.r2dbc.core.binding.BindTarget;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.doReturn;
@@ -397,6 +401,91 @@ class DefaultDatabaseClientUnitTests {
 		inOrder.verifyNoMoreInteractions();
 	}
 
+	@Test
+	void batchShouldAddParameterBindings() {
+		Statement statement = mockStatementFor("INSERT INTO person VALUES($1, $2)");
+
+		DatabaseClient databaseClient = databaseClientBuilder.namedParameters(false).build();
+
+		databaseClient.batch("INSERT INTO person VALUES($1, $2)")
+				.add(1, "Walter")
+				.add(2, Parameter.empty(String.class))
+				.then().as(StepVerifier::create).verifyComplete();
+
+		InOrder inOrder = inOrder(statement);
+		inOrder.verify(statement).bind(0, 1);
+		inOrder.verify(statement).bind(1, "Walter");
+		inOrder.verify(statement).add();
+		inOrder.verify(statement).bind(0, 2);
+		inOrder.verify(statement).bindNull(1, String.class);
+		inOrder.verify(statement).execute();
+		inOrder.verifyNoMoreInteractions();
+	}
+
+	@Test
+	void batchShouldRejectMissingNamedParameters() {
+		Statement statement = mockStatementFor("INSERT INTO person VALUES($1, $2)");
+
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		databaseClient.batch("INSERT INTO person VALUES(:id, :name)")
+				.add(Collections.singletonMap("id", 1))
+				.add(Collections.singletonMap("id", 2))
+				.then().as(StepVerifier::create)
+				.verifyErrorSatisfies(ex -> assertThat(ex)
+						.isInstanceOf(InvalidDataAccessApiUsageException.class)
+						.hasMessageContaining("No parameter specified for [name]"));
+
+		verifyNoInteractions(statement);
+	}
+
+	@Test
+	void batchShouldSplitIntoStatements() {
+		Result result = mock(Result.class);
+		doReturn(Mono.just(1)).when(result).getRowsUpdated();
+		Statement statement = mockStatementFor("INSERT INTO person VALUES($1)", result);
+
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		DatabaseClient.BatchExecuteSpec batch = databaseClient.batch("INSERT INTO person VALUES(:id)")
+				.batchSize(2)
+				.pipelining(2);
+		for (int i = 0; i < 5; i++) {
+			batch = batch.add(Collections.singletonMap("id", i));
+		}
+		batch.fetch().rowsUpdated().as(StepVerifier::create).expectNext(3).verifyComplete();
+
+		verify(connection, times(3)).createStatement("INSERT INTO person VALUES($1)");
+		verify(statement, times(2)).add();
+		verify(statement, times(3)).execute();
+		for (int i = 0; i < 5; i++) {
+			verify(statement).bind(0, i);
+		}
+	}
+
+	@Test
+	void batchShouldRejectDifferentExpandedSql() {
+		mockStatement();
+
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		databaseClient.batch("SELECT * FROM person WHERE id IN (:ids)")
+				.add(Collections.singletonMap("ids", Arrays.asList(1, 2)))
+				.add(Collections.singletonMap("ids", Arrays.asList(1, 2, 3)))
+				.then().as(StepVerifier::create)
+				.verifyError(InvalidDataAccessApiUsageException.class);
+	}
+
+	@Test
+	void batchShouldRequireParameterBindings() {
+		DatabaseClient databaseClient = databaseClientBuilder.build();
+
+		assertThatIllegalStateException().isThrownBy(() ->
+				databaseClient.batch("INSERT INTO person VALUES(:id)").then());
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() ->
+				databaseClient.batch("INSERT INTO person VALUES(:id)").add((Object) null));
+	}
+
 	private Statement mockStatement() {
 		return mockStatementFor(null, null);
 	}
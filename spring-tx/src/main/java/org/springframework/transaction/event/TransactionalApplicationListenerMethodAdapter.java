@@ -25,6 +25,7 @@ import org.springframework.context.event.ApplicationListenerMethodAdapter;
 import org.springframework.context.event.EventListener;
 import org.springframework.context.event.GenericApplicationListener;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.Nullable;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
@@ -54,6 +55,9 @@ public class TransactionalApplicationListenerMethodAdapter extends ApplicationLi
 
 	private final List<SynchronizationCallback> callbacks = new CopyOnWriteArrayList<>();
 
+	@Nullable
+	private TransactionalEventOutbox outbox;
+
 
 	/**
 	 * Construct a new TransactionalApplicationListenerMethodAdapter.
@@ -68,11 +72,38 @@ public class TransactionalApplicationListenerMethodAdapter extends ApplicationLi
 		if (ann == null) {
 			throw new IllegalStateException("No TransactionalEventListener annotation found on method: " + method);
 		}
+		if (ann.outbox() && ann.phase() != TransactionPhase.AFTER_COMMIT) {
+			throw new IllegalStateException(
+					"TransactionalEventListener outbox only supported for AFTER_COMMIT phase: " + method);
+		}
 		this.annotation = ann;
 		this.transactionPhase = ann.phase();
 	}
 
 
+	/**
+	 * Return whether this listener is declared to receive its events through
+	 * a {@link TransactionalEventOutbox}.
+	 * @since 6.0
+	 * @see TransactionalEventListener#outbox()
+	 */
+	public boolean isOutbox() {
+		return this.annotation.outbox();
+	}
+
+	/**
+	 * Set the {@link TransactionalEventOutbox} to store events in within
+	 * a transaction, instead of registering a transaction synchronization.
+	 * <p>The listener is expected to be {@linkplain
+	 * TransactionalEventOutbox#registerListener registered} with the outbox.
+	 * @since 6.0
+	 * @see TransactionalEventListenerFactory
+	 */
+	public void setOutbox(@Nullable TransactionalEventOutbox outbox) {
+		this.outbox = outbox;
+	}
+
+
 	@Override
 	public TransactionPhase getTransactionPhase() {
 		return this.transactionPhase;
@@ -89,6 +120,9 @@ public class TransactionalApplicationListenerMethodAdapter extends ApplicationLi
 	public void onApplicationEvent(ApplicationEvent event) {
 		if (TransactionSynchronizationManager.isSynchronizationActive() &&
 				TransactionSynchronizationManager.isActualTransactionActive()) {
+			if (this.outbox != null && this.outbox.store(event, this)) {
+				return;
+			}
 			TransactionSynchronizationManager.registerSynchronization(
 					new TransactionalApplicationListenerSynchronization<>(event, this, this.callbacks));
 		}
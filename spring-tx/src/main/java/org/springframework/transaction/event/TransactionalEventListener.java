@@ -116,4 +116,17 @@ public @interface TransactionalEventListener {
 	@AliasFor(annotation = EventListener.class, attribute = "id")
 	String id() default "";
 
+	/**
+	 * Whether the event should be stored through the {@link TransactionalEventOutbox}
+	 * as part of the publishing transaction, and delivered from there once that
+	 * transaction has committed, rather than being held in memory until commit.
+	 * <p>Only supported for the {@link TransactionPhase#AFTER_COMMIT} phase.
+	 * Requires a single {@link TransactionalEventOutbox} bean in the context.
+	 * Delivery happens asynchronously and at least once, after a restart
+	 * of the application if necessary.
+	 * @since 6.0
+	 * @see TransactionalEventOutbox
+	 */
+	boolean outbox() default false;
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,23 +18,38 @@ package org.springframework.transaction.event;
 
 import java.lang.reflect.Method;
 
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.EventListenerFactory;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.Nullable;
 
 /**
  * {@link EventListenerFactory} implementation that handles {@link TransactionalEventListener}
  * annotated methods.
  *
+ * <p>Listeners declared with {@link TransactionalEventListener#outbox() outbox}
+ * enabled are registered with the {@link TransactionalEventOutbox}, which is
+ * either {@linkplain #setOutbox set explicitly} or obtained from the containing
+ * bean factory.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see TransactionalApplicationListenerMethodAdapter
  */
-public class TransactionalEventListenerFactory implements EventListenerFactory, Ordered {
+public class TransactionalEventListenerFactory implements EventListenerFactory, Ordered, BeanFactoryAware {
 
 	private int order = 50;
 
+	@Nullable
+	private TransactionalEventOutbox outbox;
+
+	@Nullable
+	private ObjectProvider<TransactionalEventOutbox> outboxProvider;
+
 
 	public void setOrder(int order) {
 		this.order = order;
@@ -45,6 +60,22 @@ public class TransactionalEventListenerFactory implements EventListenerFactory,
 		return this.order;
 	}
 
+	/**
+	 * Set the {@link TransactionalEventOutbox} for listeners with
+	 * {@link TransactionalEventListener#outbox() outbox} enabled.
+	 * <p>By default, the unique {@code TransactionalEventOutbox} bean
+	 * in the containing bean factory is used.
+	 * @since 6.0
+	 */
+	public void setOutbox(TransactionalEventOutbox outbox) {
+		this.outbox = outbox;
+	}
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		this.outboxProvider = beanFactory.getBeanProvider(TransactionalEventOutbox.class);
+	}
+
 
 	@Override
 	public boolean supportsMethod(Method method) {
@@ -53,7 +84,26 @@ public class TransactionalEventListenerFactory implements EventListenerFactory,
 
 	@Override
 	public ApplicationListener<?> createApplicationListener(String beanName, Class<?> type, Method method) {
-		return new TransactionalApplicationListenerMethodAdapter(beanName, type, method);
+		TransactionalApplicationListenerMethodAdapter listener =
+				new TransactionalApplicationListenerMethodAdapter(beanName, type, method);
+		if (listener.isOutbox()) {
+			TransactionalEventOutbox outbox = obtainOutbox(method);
+			outbox.registerListener(listener);
+			listener.setOutbox(outbox);
+		}
+		return listener;
+	}
+
+	private TransactionalEventOutbox obtainOutbox(Method method) {
+		TransactionalEventOutbox outbox = this.outbox;
+		if (outbox == null && this.outboxProvider != null) {
+			outbox = this.outboxProvider.getIfUnique();
+		}
+		if (outbox == null) {
+			throw new IllegalStateException(
+					"No unique TransactionalEventOutbox available for outbox listener method: " + method);
+		}
+		return outbox;
 	}
 
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Strategy for durably storing events for {@link TransactionalApplicationListener
+ * transactional listeners} as part of the publishing transaction, to be delivered
+ * once that transaction has committed, even across a restart of the application.
+ *
+ * <p>Used for {@link TransactionalEventListener#outbox() outbox} listeners:
+ * instead of keeping an event in a transaction synchronization, the listener
+ * {@linkplain #store stores} it through the outbox, which is expected to
+ * write it within the current transaction and to deliver it to
+ * {@link TransactionalApplicationListener#processEvent} after commit.
+ * Delivery is at-least-once, so listeners should be idempotent.
+ *
+ * @author agent
+ * @since 6.0
+ * @see TransactionalEventListener#outbox()
+ * @see TransactionalApplicationListenerMethodAdapter#setOutbox
+ */
+public interface TransactionalEventOutbox {
+
+	/**
+	 * Register the given listener for the delivery of stored events.
+	 * <p>Events are stored by {@link TransactionalApplicationListener#getListenerId()
+	 * listener id}, which therefore needs to be unique among the listeners
+	 * of an outbox and stable across restarts of the application.
+	 * @param listener the listener to deliver events to
+	 */
+	void registerListener(TransactionalApplicationListener<?> listener);
+
+	/**
+	 * Store the given event for the given listener within the current transaction.
+	 * @param event the event to store
+	 * @param listener the listener to deliver the event to after commit
+	 * @return {@code true} if the event has been stored, or {@code false} if it
+	 * cannot be stored by this outbox (e.g. since it is not serializable), in which
+	 * case it is processed through a regular transaction synchronization instead
+	 */
+	boolean store(ApplicationEvent event, TransactionalApplicationListener<?> listener);
+
+}
@@ -61,6 +61,13 @@ import org.springframework.util.Assert;
  * within a JTA transaction, e.g. a JDBC Connection or a Hibernate Session for
  * any given DataSource or SessionFactory, respectively.
  *
+ * <p>All state for the current thread is kept in a single thread-bound context
+ * which is created on first use and then reused for subsequent transactions on
+ * the same thread, avoiding per-transaction allocation and thread-local lookups.
+ * Outside of a transaction, that context does not hold on to any resources,
+ * synchronizations or transaction characteristics, and its internal collections
+ * are kept at a bounded size.
+ *
  * @author Juergen Hoeller
  * @since 02.06.2003
  * @see #isSynchronizationActive
@@ -73,23 +80,33 @@ import org.springframework.util.Assert;
  */
 public abstract class TransactionSynchronizationManager {
 
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
-
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
+	// Collections that have held more entries are replaced rather than cleared,
+	// so that a context does not keep enlarged tables on pooled threads
+	private static final int MAX_RETAINED_ENTRIES = 12;
 
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
+	private static final ThreadLocal<TransactionContext> transactionContext =
+			new NamedThreadLocal<>("Transaction context");
 
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
 
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
+	/**
+	 * Return the context bound to the current thread, or {@code null} if none.
+	 */
+	@Nullable
+	private static TransactionContext currentContext() {
+		return transactionContext.get();
+	}
 
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	/**
+	 * Return the context bound to the current thread, creating it if necessary.
+	 */
+	private static TransactionContext obtainContext() {
+		TransactionContext context = transactionContext.get();
+		if (context == null) {
+			context = new TransactionContext();
+			transactionContext.set(context);
+		}
+		return context;
+	}
 
 
 	//-------------------------------------------------------------------------
@@ -106,8 +123,9 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
-		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
+		TransactionContext context = currentContext();
+		return (context != null && !context.resources.isEmpty() ?
+				Collections.unmodifiableMap(context.resources) : Collections.emptyMap());
 	}
 
 	/**
@@ -140,18 +158,14 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext context = currentContext();
+		if (context == null || context.resources.isEmpty()) {
 			return null;
 		}
-		Object value = map.get(actualKey);
+		Object value = context.resources.get(actualKey);
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
-			map.remove(actualKey);
-			// Remove entire ThreadLocal if empty...
-			if (map.isEmpty()) {
-				resources.remove();
-			}
+			context.removeResource(actualKey);
 			value = null;
 		}
 		return value;
@@ -167,13 +181,7 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
-		if (map == null) {
-			map = new HashMap<>();
-			resources.set(map);
-		}
-		Object oldValue = map.put(actualKey, value);
+		Object oldValue = obtainContext().putResource(actualKey, value);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (oldValue instanceof ResourceHolder && ((ResourceHolder) oldValue).isVoid()) {
 			oldValue = null;
@@ -216,15 +224,11 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		TransactionContext context = currentContext();
+		if (context == null || context.resources.isEmpty()) {
 			return null;
 		}
-		Object value = map.remove(actualKey);
-		// Remove entire ThreadLocal if empty...
-		if (map.isEmpty()) {
-			resources.remove();
-		}
+		Object value = context.removeResource(actualKey);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			value = null;
@@ -243,7 +247,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		TransactionContext context = currentContext();
+		return (context != null && context.synchronizationActive);
 	}
 
 	/**
@@ -252,10 +257,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is already active
 	 */
 	public static void initSynchronization() throws IllegalStateException {
-		if (isSynchronizationActive()) {
+		TransactionContext context = obtainContext();
+		if (context.synchronizationActive) {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
-		synchronizations.set(new LinkedHashSet<>());
+		context.synchronizationActive = true;
 	}
 
 	/**
@@ -272,11 +278,11 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionContext context = currentContext();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
-		synchs.add(synchronization);
+		context.synchronizations.add(synchronization);
 	}
 
 	/**
@@ -287,10 +293,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
-		if (synchs == null) {
+		TransactionContext context = currentContext();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
+		Set<TransactionSynchronization> synchs = context.synchronizations;
 		// Return unmodifiable snapshot, to avoid ConcurrentModificationExceptions
 		// while iterating and invoking synchronization callbacks that in turn
 		// might register further synchronizations.
@@ -311,10 +318,11 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is not active
 	 */
 	public static void clearSynchronization() throws IllegalStateException {
-		if (!isSynchronizationActive()) {
+		TransactionContext context = currentContext();
+		if (context == null || !context.synchronizationActive) {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
-		synchronizations.remove();
+		context.clearSynchronization();
 	}
 
 
@@ -329,7 +337,10 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(@Nullable String name) {
-		currentTransactionName.set(name);
+		TransactionContext context = (name != null ? obtainContext() : currentContext());
+		if (context != null) {
+			context.name = name;
+		}
 	}
 
 	/**
@@ -340,7 +351,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		TransactionContext context = currentContext();
+		return (context != null ? context.name : null);
 	}
 
 	/**
@@ -351,7 +363,10 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		TransactionContext context = (readOnly ? obtainContext() : currentContext());
+		if (context != null) {
+			context.readOnly = readOnly;
+		}
 	}
 
 	/**
@@ -367,7 +382,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		TransactionContext context = currentContext();
+		return (context != null && context.readOnly);
 	}
 
 	/**
@@ -387,7 +403,10 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		TransactionContext context = (isolationLevel != null ? obtainContext() : currentContext());
+		if (context != null) {
+			context.isolationLevel = isolationLevel;
+		}
 	}
 
 	/**
@@ -409,7 +428,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		TransactionContext context = currentContext();
+		return (context != null ? context.isolationLevel : null);
 	}
 
 	/**
@@ -419,7 +439,10 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		TransactionContext context = (active ? obtainContext() : currentContext());
+		if (context != null) {
+			context.actualTransactionActive = active;
+		}
 	}
 
 	/**
@@ -434,7 +457,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		TransactionContext context = currentContext();
+		return (context != null && context.actualTransactionActive);
 	}
 
 
@@ -448,11 +472,69 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		synchronizations.remove();
-		currentTransactionName.remove();
-		currentTransactionReadOnly.remove();
-		currentTransactionIsolationLevel.remove();
-		actualTransactionActive.remove();
+		TransactionContext context = currentContext();
+		if (context != null) {
+			context.clearSynchronization();
+			context.name = null;
+			context.readOnly = false;
+			context.isolationLevel = null;
+			context.actualTransactionActive = false;
+		}
+	}
+
+
+	/**
+	 * Resources, synchronizations and transaction characteristics of a thread,
+	 * held in a single context that is reset rather than removed once cleared.
+	 */
+	private static final class TransactionContext {
+
+		Map<Object, Object> resources = new HashMap<>();
+
+		boolean resourcesExpanded;
+
+		Set<TransactionSynchronization> synchronizations = new LinkedHashSet<>();
+
+		boolean synchronizationActive;
+
+		@Nullable
+		String name;
+
+		boolean readOnly;
+
+		@Nullable
+		Integer isolationLevel;
+
+		boolean actualTransactionActive;
+
+		@Nullable
+		Object putResource(Object key, Object value) {
+			Object oldValue = this.resources.put(key, value);
+			if (this.resources.size() > MAX_RETAINED_ENTRIES) {
+				this.resourcesExpanded = true;
+			}
+			return oldValue;
+		}
+
+		@Nullable
+		Object removeResource(Object key) {
+			Object value = this.resources.remove(key);
+			if (this.resources.isEmpty() && this.resourcesExpanded) {
+				this.resources = new HashMap<>();
+				this.resourcesExpanded = false;
+			}
+			return value;
+		}
+
+		void clearSynchronization() {
+			if (this.synchronizations.size() > MAX_RETAINED_ENTRIES) {
+				this.synchronizations = new LinkedHashSet<>();
+			}
+			else {
+				this.synchronizations.clear();
+			}
+			this.synchronizationActive = false;
+		}
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,12 @@
 package org.springframework.transaction.event;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.event.ApplicationListenerMethodAdapter;
 import org.springframework.core.ResolvableType;
@@ -123,6 +126,47 @@ public class TransactionalApplicationListenerMethodAdapterTests {
 		assertThat(adapter.getListenerId()).endsWith("identifier");
 	}
 
+	@Test
+	public void storesEventInOutbox() {
+		Method m = ReflectionUtils.findMethod(SampleEvents.class, "outbox", String.class);
+		CapturingSynchronizationCallback callback = new CapturingSynchronizationCallback();
+		PayloadApplicationEvent<String> event = new PayloadApplicationEvent<>(this, "event");
+		CapturingOutbox outbox = new CapturingOutbox(true);
+
+		TransactionalApplicationListenerMethodAdapter adapter = createTestInstance(m);
+		adapter.addCallback(callback);
+		adapter.setOutbox(outbox);
+		runInTransaction(() -> adapter.onApplicationEvent(event));
+
+		assertThat(adapter.isOutbox()).isTrue();
+		assertThat(outbox.events).containsExactly(event);
+		assertThat(callback.preEvent).isNull();
+	}
+
+	@Test
+	public void processesEventOnCommitIfNotStoredInOutbox() {
+		Method m = ReflectionUtils.findMethod(SampleEvents.class, "outbox", String.class);
+		CapturingSynchronizationCallback callback = new CapturingSynchronizationCallback();
+		PayloadApplicationEvent<String> event = new PayloadApplicationEvent<>(this, "event");
+		CapturingOutbox outbox = new CapturingOutbox(false);
+
+		TransactionalApplicationListenerMethodAdapter adapter = createTestInstance(m);
+		adapter.addCallback(callback);
+		adapter.setOutbox(outbox);
+		runInTransaction(() -> adapter.onApplicationEvent(event));
+
+		assertThat(outbox.events).containsExactly(event);
+		assertThat(callback.preEvent).isEqualTo(event);
+		assertThat(callback.postEvent).isEqualTo(event);
+	}
+
+	@Test
+	public void outboxRequiresAfterCommitPhase() {
+		Method m = ReflectionUtils.findMethod(SampleEvents.class, "outboxAfterRollback", String.class);
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> createTestInstance(m))
+				.withMessageContaining("AFTER_COMMIT");
+	}
+
 
 	private static void assertPhase(Method method, TransactionPhase expected) {
 		assertThat(method).as("Method must not be null").isNotNull();
@@ -194,6 +238,36 @@ public class TransactionalApplicationListenerMethodAdapterTests {
 		@TransactionalEventListener(id = "identifier")
 		public void identified(String data) {
 		}
+
+		@TransactionalEventListener(outbox = true)
+		public void outbox(String data) {
+		}
+
+		@TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK, outbox = true)
+		public void outboxAfterRollback(String data) {
+		}
+	}
+
+
+	static class CapturingOutbox implements TransactionalEventOutbox {
+
+		final List<ApplicationEvent> events = new ArrayList<>();
+
+		private final boolean stored;
+
+		CapturingOutbox(boolean stored) {
+			this.stored = stored;
+		}
+
+		@Override
+		public void registerListener(TransactionalApplicationListener<?> listener) {
+		}
+
+		@Override
+		public boolean store(ApplicationEvent event, TransactionalApplicationListener<?> listener) {
+			this.events.add(event);
+			return this.stored;
+		}
 	}
 
 }
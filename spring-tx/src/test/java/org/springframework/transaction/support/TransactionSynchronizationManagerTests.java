@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.Ordered;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link TransactionSynchronizationManager}.
+ *
+ * @author agent
+ */
+class TransactionSynchronizationManagerTests {
+
+	@AfterEach
+	void cleanUp() {
+		TransactionSynchronizationManager.clear();
+		new ArrayList<>(TransactionSynchronizationManager.getResourceMap().keySet())
+				.forEach(TransactionSynchronizationManager::unbindResource);
+	}
+
+
+	@Test
+	void bindAndUnbindResource() {
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		TransactionSynchronizationManager.bindResource("key", "value");
+
+		assertThat(TransactionSynchronizationManager.hasResource("key")).isTrue();
+		assertThat(TransactionSynchronizationManager.getResource("key")).isEqualTo("value");
+		assertThat(TransactionSynchronizationManager.getResourceMap()).containsEntry("key", "value");
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.bindResource("key", "other"));
+
+		assertThat(TransactionSynchronizationManager.unbindResource("key")).isEqualTo("value");
+		assertThat(TransactionSynchronizationManager.hasResource("key")).isFalse();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		assertThat(TransactionSynchronizationManager.unbindResourceIfPossible("key")).isNull();
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.unbindResource("key"));
+	}
+
+	@Test
+	void voidResourceHolderIsTreatedAsUnbound() {
+		ResourceHolderSupport holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource("key", holder);
+		holder.unbound();
+
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+
+		holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource("key", holder);
+		holder.unbound();
+		TransactionSynchronizationManager.bindResource("key", "value");
+		assertThat(TransactionSynchronizationManager.getResource("key")).isEqualTo("value");
+	}
+
+	@Test
+	void synchronizationLifecycle() {
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::getSynchronizations);
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.registerSynchronization(new TestSynchronization(0)));
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::clearSynchronization);
+
+		TransactionSynchronizationManager.initSynchronization();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isTrue();
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::initSynchronization);
+
+		TestSynchronization second = new TestSynchronization(2);
+		TestSynchronization first = new TestSynchronization(1);
+		TransactionSynchronizationManager.registerSynchronization(second);
+		TransactionSynchronizationManager.registerSynchronization(first);
+		TransactionSynchronizationManager.registerSynchronization(second);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		assertThat(synchronizations).containsExactly(first, second);
+
+		TransactionSynchronizationManager.clearSynchronization();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThat(synchronizations).containsExactly(first, second);
+	}
+
+	@Test
+	void subsequentTransactionDoesNotSeePreviousState() {
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.registerSynchronization(new TestSynchronization(0));
+		TransactionSynchronizationManager.setCurrentTransactionName("first");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(8);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.clear();
+
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isNull();
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isNull();
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+		TransactionSynchronizationManager.initSynchronization();
+		assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+	}
+
+	@Test
+	void clearRetainsResources() {
+		TransactionSynchronizationManager.bindResource("key", "value");
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.clear();
+
+		assertThat(TransactionSynchronizationManager.getResource("key")).isEqualTo("value");
+	}
+
+	@Test
+	void stateIsResetOnceCleared() {
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < 20; i++) {
+				TransactionSynchronizationManager.bindResource("key" + i, "value" + i);
+			}
+			TransactionSynchronizationManager.initSynchronization();
+			for (int i = 0; i < 20; i++) {
+				TransactionSynchronizationManager.registerSynchronization(new TestSynchronization(i));
+			}
+			TransactionSynchronizationManager.setCurrentTransactionName("tx" + round);
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+			TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(1);
+			TransactionSynchronizationManager.setActualTransactionActive(true);
+			assertThat(TransactionSynchronizationManager.getResourceMap()).hasSize(20);
+			assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(20);
+
+			TransactionSynchronizationManager.clear();
+			for (int i = 0; i < 20; i++) {
+				assertThat(TransactionSynchronizationManager.unbindResource("key" + i)).isEqualTo("value" + i);
+			}
+
+			assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+			assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+			assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isNull();
+			assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isFalse();
+			assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isNull();
+			assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+		}
+	}
+
+	@Test
+	void stateIsBoundToThread() throws Exception {
+		TransactionSynchronizationManager.bindResource("key", "value");
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+
+		AtomicReference<Object> resource = new AtomicReference<>("unset");
+		AtomicReference<Boolean> active = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			resource.set(TransactionSynchronizationManager.getResource("key"));
+			active.set(TransactionSynchronizationManager.isSynchronizationActive() ||
+					TransactionSynchronizationManager.isActualTransactionActive());
+		});
+		thread.start();
+		thread.join();
+
+		assertThat(resource.get()).isNull();
+		assertThat(active.get()).isFalse();
+	}
+
+
+	private static class TestSynchronization implements TransactionSynchronization, Ordered {
+
+		private final int order;
+
+		TestSynchronization(int order) {
+			this.order = order;
+		}
+
+		@Override
+		public int getOrder() {
+			return this.order;
+		}
+	}
+
+}
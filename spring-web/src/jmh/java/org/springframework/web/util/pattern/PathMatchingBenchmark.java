@@ -92,6 +92,40 @@ public class PathMatchingBenchmark {
 		}
 	}
 
+	@Benchmark
+	public void matchAndExtractStaticRoutesWithPathPatternParser(StaticRoutesPatternParser data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			for (PathPattern pattern : data.patterns) {
+				bh.consume(pattern.matchAndExtract(path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchTwiceAndExtractAllRoutesWithPathPatternParser(AllRoutesPatternParser data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			for (PathPattern pattern : data.patterns) {
+				if (pattern.matches(path)) {
+					bh.consume(pattern.matches(path));
+					bh.consume(pattern.matchAndExtract(path));
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchTwiceAndExtractAllRoutesWithMatchCache(AllRoutesPatternParser data, Blackhole bh) {
+		for (PathContainer path : data.requestPaths) {
+			PathPatternMatchCache cache = new PathPatternMatchCache(path);
+			for (PathPattern pattern : data.patterns) {
+				if (cache.matches(pattern, path)) {
+					bh.consume(cache.matches(pattern, path));
+					bh.consume(cache.matchAndExtract(pattern, path));
+				}
+			}
+		}
+	}
+
 	@State(Scope.Benchmark)
 	public static class AllRoutesAntPathMatcher extends AntPathMatcherData {
 
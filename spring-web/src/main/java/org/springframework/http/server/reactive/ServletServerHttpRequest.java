@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.security.cert.X509Certificate;
 import java.util.Enumeration;
@@ -38,6 +39,7 @@ import reactor.core.publisher.Flux;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpCookie;
 import org.springframework.http.HttpHeaders;
@@ -70,7 +72,12 @@ class ServletServerHttpRequest extends AbstractServerHttpRequest {
 
 	private final DataBufferFactory bufferFactory;
 
-	private final byte[] buffer;
+	private final int bufferSize;
+
+	private final boolean readIntoFactoryBuffers;
+
+	@Nullable
+	private byte[] buffer;
 
 	private final AsyncListener asyncListener;
 
@@ -93,7 +100,9 @@ class ServletServerHttpRequest extends AbstractServerHttpRequest {
 
 		this.request = request;
 		this.bufferFactory = bufferFactory;
-		this.buffer = new byte[bufferSize];
+		this.bufferSize = bufferSize;
+		// A full-size buffer per read only pays off if the factory pools its buffers
+		this.readIntoFactoryBuffers = !(bufferFactory instanceof DefaultDataBufferFactory);
 
 		this.asyncListener = new RequestAsyncListener();
 
@@ -235,17 +244,26 @@ class ServletServerHttpRequest extends AbstractServerHttpRequest {
 	/**
 	 * Read from the request body InputStream and return a DataBuffer.
 	 * Invoked only when {@link ServletInputStream#isReady()} returns "true".
+	 * <p>As of 6.0, data is read straight into a buffer obtained from the
+	 * {@link DataBufferFactory} if the factory pools its buffers and the buffer
+	 * is backed by an accessible array, avoiding an intermediate copy. Otherwise
+	 * data is copied into a buffer of the exact size read.
 	 * @return a DataBuffer with data read, or {@link #EOF_BUFFER} if the input
 	 * stream returned -1, or null if 0 bytes were read.
 	 */
 	@Nullable
 	DataBuffer readFromInputStream() throws IOException {
-		int read = this.request.getInputStream().read(this.buffer);
+		if (this.readIntoFactoryBuffers) {
+			return readIntoFactoryBuffer();
+		}
+
+		byte[] buffer = obtainBuffer();
+		int read = this.request.getInputStream().read(buffer);
 		logBytesRead(read);
 
 		if (read > 0) {
 			DataBuffer dataBuffer = this.bufferFactory.allocateBuffer(read);
-			dataBuffer.write(this.buffer, 0, read);
+			dataBuffer.write(buffer, 0, read);
 			return dataBuffer;
 		}
 
@@ -256,6 +274,58 @@ class ServletServerHttpRequest extends AbstractServerHttpRequest {
 		return null;
 	}
 
+	@Nullable
+	private DataBuffer readIntoFactoryBuffer() throws IOException {
+		DataBuffer dataBuffer = this.bufferFactory.allocateBuffer(this.bufferSize);
+		boolean release = true;
+		try {
+			int capacity = Math.min(dataBuffer.writableByteCount(), this.bufferSize);
+			ByteBuffer byteBuffer = dataBuffer.asByteBuffer(dataBuffer.writePosition(), capacity);
+			int read;
+			if (byteBuffer.hasArray()) {
+				read = this.request.getInputStream().read(
+						byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), capacity);
+				logBytesRead(read);
+				if (read > 0) {
+					dataBuffer.writePosition(dataBuffer.writePosition() + read);
+				}
+			}
+			else {
+				byte[] buffer = obtainBuffer();
+				read = this.request.getInputStream().read(buffer, 0, capacity);
+				logBytesRead(read);
+				if (read > 0) {
+					dataBuffer.write(buffer, 0, read);
+				}
+			}
+
+			if (read > 0) {
+				release = false;
+				return dataBuffer;
+			}
+			else if (read == -1) {
+				return EOF_BUFFER;
+			}
+			else {
+				return null;
+			}
+		}
+		finally {
+			if (release) {
+				DataBufferUtils.release(dataBuffer);
+			}
+		}
+	}
+
+	private byte[] obtainBuffer() {
+		byte[] buffer = this.buffer;
+		if (buffer == null) {
+			buffer = new byte[this.bufferSize];
+			this.buffer = buffer;
+		}
+		return buffer;
+	}
+
 	protected final void logBytesRead(int read) {
 		Log rsReadLogger = AbstractListenerReadPublisher.rsReadLogger;
 		if (rsReadLogger.isTraceEnabled()) {
@@ -18,6 +18,7 @@ package org.springframework.http.server.reactive;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -188,15 +189,31 @@ class ServletServerHttpResponse extends AbstractListenerServerHttpResponse {
 	 * Write the DataBuffer to the response body OutputStream.
 	 * Invoked only when {@link ServletOutputStream#isReady()} returns "true"
 	 * and the readable bytes in the DataBuffer is greater than 0.
+	 * <p>If the DataBuffer is backed by an accessible array, its content is
+	 * written directly, in chunks of at most the configured buffer size,
+	 * without copying into an intermediate byte array.
 	 * @return the number of bytes written
 	 */
 	protected int writeToOutputStream(DataBuffer dataBuffer) throws IOException {
 		ServletOutputStream outputStream = this.outputStream;
-		InputStream input = dataBuffer.asInputStream();
+		ByteBuffer input = dataBuffer.asByteBuffer();
+		if (input.hasArray()) {
+			int remaining = input.remaining();
+			int offset = input.arrayOffset() + input.position();
+			int bytesWritten = 0;
+			while (bytesWritten < remaining && outputStream.isReady()) {
+				int length = Math.min(remaining - bytesWritten, this.bufferSize);
+				outputStream.write(input.array(), offset + bytesWritten, length);
+				bytesWritten += length;
+			}
+			dataBuffer.readPosition(dataBuffer.readPosition() + bytesWritten);
+			return bytesWritten;
+		}
+		InputStream inputStream = dataBuffer.asInputStream();
 		int bytesWritten = 0;
 		byte[] buffer = new byte[this.bufferSize];
 		int bytesRead;
-		while (outputStream.isReady() && (bytesRead = input.read(buffer)) != -1) {
+		while (outputStream.isReady() && (bytesRead = inputStream.read(buffer)) != -1) {
 			outputStream.write(buffer, 0, bytesRead);
 			bytesWritten += bytesRead;
 		}
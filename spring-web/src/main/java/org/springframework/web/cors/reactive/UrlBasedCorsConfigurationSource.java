@@ -24,6 +24,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternMatchCache;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
@@ -81,8 +82,9 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 	@Nullable
 	public CorsConfiguration getCorsConfiguration(ServerWebExchange exchange) {
 		PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+		PathPatternMatchCache matchCache = PathPatternMatchCache.obtain(exchange.getAttributes(), path);
 		for (Map.Entry<PathPattern, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
-			if (entry.getKey().matches(path)) {
+			if (matchCache.matches(entry.getKey(), path)) {
 				return entry.getValue();
 			}
 		}
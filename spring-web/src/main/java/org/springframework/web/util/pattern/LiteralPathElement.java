@@ -65,27 +65,10 @@ class LiteralPathElement extends PathElement {
 			return false;
 		}
 		String value = ((PathSegment)element).valueToMatch();
-		if (value.length() != this.len) {
-			// Not enough data to match this path element
+		if (!matchesValue(value)) {
 			return false;
 		}
 
-		if (this.caseSensitive) {
-			for (int i = 0; i < this.len; i++) {
-				if (value.charAt(i) != this.text[i]) {
-					return false;
-				}
-			}
-		}
-		else {
-			for (int i = 0; i < this.len; i++) {
-				// TODO revisit performance if doing a lot of case insensitive matching
-				if (Character.toLowerCase(value.charAt(i)) != this.text[i]) {
-					return false;
-				}
-			}
-		}
-
 		pathIndex++;
 		if (isNoMorePattern()) {
 			if (matchingContext.determineRemainingPath) {
@@ -108,6 +91,36 @@ class LiteralPathElement extends PathElement {
 		}
 	}
 
+	/**
+	 * Whether the given decoded path segment value matches the text of this
+	 * element, taking case sensitivity into account.
+	 * @param value the path segment value to match
+	 * @return {@code true} if the value matches
+	 */
+	boolean matchesValue(String value) {
+		if (value.length() != this.len) {
+			// Not enough data to match this path element
+			return false;
+		}
+
+		if (this.caseSensitive) {
+			for (int i = 0; i < this.len; i++) {
+				if (value.charAt(i) != this.text[i]) {
+					return false;
+				}
+			}
+		}
+		else {
+			for (int i = 0; i < this.len; i++) {
+				// TODO revisit performance if doing a lot of case insensitive matching
+				if (Character.toLowerCase(value.charAt(i)) != this.text[i]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public int getNormalizedLength() {
 		return this.len;
@@ -149,6 +149,9 @@ public class PathPattern implements Comparable<PathPattern> {
 	/** Does the pattern end with {*...}. */
 	private boolean catchAll = false;
 
+	/** Does the pattern consist of separators and literals only, allowing a direct match. */
+	private boolean literal = true;
+
 
 	PathPattern(String patternText, PathPatternParser parser, @Nullable PathElement head) {
 		this.patternString = patternText;
@@ -170,6 +173,9 @@ public class PathPattern implements Comparable<PathPattern> {
 			if (elem instanceof SeparatorPathElement && elem.next instanceof WildcardPathElement && elem.next.next == null) {
 				this.endsWithSeparatorWildcard = true;
 			}
+			if (!(elem instanceof SeparatorPathElement || elem instanceof LiteralPathElement)) {
+				this.literal = false;
+			}
 			elem = elem.next;
 		}
 	}
@@ -210,6 +216,9 @@ public class PathPattern implements Comparable<PathPattern> {
 				return false;
 			}
 		}
+		if (this.literal) {
+			return matchesLiteral(this.head, pathContainer);
+		}
 		MatchingContext matchingContext = new MatchingContext(pathContainer, false);
 		return this.head.matches(0, matchingContext);
 	}
@@ -235,6 +244,9 @@ public class PathPattern implements Comparable<PathPattern> {
 				return null;
 			}
 		}
+		if (this.literal) {
+			return (matchesLiteral(this.head, pathContainer) ? PathMatchInfo.EMPTY : null);
+		}
 		MatchingContext matchingContext = new MatchingContext(pathContainer, true);
 		return this.head.matches(0, matchingContext) ? matchingContext.getPathMatchResult() : null;
 	}
@@ -526,6 +538,45 @@ public class PathPattern implements Comparable<PathPattern> {
 		}
 	}
 
+	/**
+	 * Match a pattern that consists of separators and literals only, without
+	 * allocating a {@link MatchingContext}. Equivalent to matching through the
+	 * {@link SeparatorPathElement} and {@link LiteralPathElement} chain.
+	 * @param head the first element of the pattern
+	 * @param pathContainer the candidate path to attempt to match against
+	 * @return {@code true} if the path matches this pattern
+	 */
+	private boolean matchesLiteral(PathElement head, PathContainer pathContainer) {
+		List<Element> pathElements = pathContainer.elements();
+		int pathLength = pathElements.size();
+		int pathIndex = 0;
+		PathElement elem = head;
+		PathElement last = head;
+		while (elem != null) {
+			if (pathIndex >= pathLength) {
+				return false;
+			}
+			Element element = pathElements.get(pathIndex);
+			if (elem instanceof LiteralPathElement literalElement) {
+				if (!(element instanceof PathContainer.PathSegment pathSegment) ||
+						!literalElement.matchesValue(pathSegment.valueToMatch())) {
+					return false;
+				}
+			}
+			else if (!(element instanceof Separator)) {
+				return false;
+			}
+			pathIndex++;
+			last = elem;
+			elem = elem.next;
+		}
+		if (pathIndex == pathLength) {
+			return true;
+		}
+		return (last instanceof LiteralPathElement && this.matchOptionalTrailingSeparator &&
+				pathIndex + 1 == pathLength && pathElements.get(pathIndex) instanceof Separator);
+	}
+
 	/**
 	 * Return if the container is not null and has more than zero elements.
 	 * @param container a path container
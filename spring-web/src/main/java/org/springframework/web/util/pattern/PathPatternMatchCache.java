@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache for the successful {@link PathPattern} match results against a single
+ * {@link PathContainer}, typically the lookup path of the current request.
+ * This allows several components that match the same patterns against the
+ * same path while processing a request, e.g. CORS configuration sources and
+ * handler mappings, to share the match result and extracted variables.
+ *
+ * <p>Only successful matches are cached, so the cache stays small even when
+ * many patterns are tested. Patterns are keyed by identity, and matching
+ * against any path other than the one the cache was created for simply
+ * delegates to the pattern.
+ *
+ * <p>Instances are not thread-safe and are meant to be bound to a single
+ * request, for example via {@link #obtain(Map, PathContainer)} with the
+ * attributes of the current exchange.
+ *
+ * @author agent
+ * @since 6.0
+ */
+public final class PathPatternMatchCache {
+
+	/**
+	 * Name of the request attribute that holds the cache bound to a request.
+	 */
+	public static final String CACHE_ATTRIBUTE = PathPatternMatchCache.class.getName() + ".CACHE";
+
+	private static final Object MATCHED = new Object();
+
+
+	private final PathContainer path;
+
+	private final Map<PathPattern, Object> matches = new IdentityHashMap<>(8);
+
+
+	/**
+	 * Create a new cache for match results against the given path.
+	 * @param path the path to cache match results for
+	 */
+	public PathPatternMatchCache(PathContainer path) {
+		Assert.notNull(path, "PathContainer must not be null");
+		this.path = path;
+	}
+
+
+	/**
+	 * Return the path this cache holds match results for.
+	 */
+	public PathContainer getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Whether the given pattern matches the given path.
+	 * @param pattern the pattern to match
+	 * @param pathContainer the candidate path
+	 * @return {@code true} if the path matches the pattern
+	 * @see PathPattern#matches(PathContainer)
+	 */
+	public boolean matches(PathPattern pattern, PathContainer pathContainer) {
+		if (pathContainer != this.path) {
+			return pattern.matches(pathContainer);
+		}
+		if (this.matches.containsKey(pattern)) {
+			return true;
+		}
+		if (pattern.matches(pathContainer)) {
+			this.matches.put(pattern, MATCHED);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Match the given pattern against the given path and return the extracted
+	 * URI template and matrix variables.
+	 * @param pattern the pattern to match
+	 * @param pathContainer the candidate path
+	 * @return info object with the extracted variables, or {@code null} for no match
+	 * @see PathPattern#matchAndExtract(PathContainer)
+	 */
+	@Nullable
+	public PathPattern.PathMatchInfo matchAndExtract(PathPattern pattern, PathContainer pathContainer) {
+		if (pathContainer != this.path) {
+			return pattern.matchAndExtract(pathContainer);
+		}
+		Object match = this.matches.get(pattern);
+		if (match instanceof PathPattern.PathMatchInfo info) {
+			return info;
+		}
+		PathPattern.PathMatchInfo info = pattern.matchAndExtract(pathContainer);
+		if (info != null) {
+			this.matches.put(pattern, info);
+		}
+		return info;
+	}
+
+
+	/**
+	 * Obtain the cache bound to the given request attributes, creating and
+	 * binding a new cache for the given path if necessary.
+	 * @param attributes the request attributes, e.g.
+	 * {@code ServerWebExchange#getAttributes()}
+	 * @param path the path to cache match results for, if a new cache is created
+	 * @return the cache bound to the request
+	 */
+	public static PathPatternMatchCache obtain(Map<String, Object> attributes, PathContainer path) {
+		Object cache = attributes.get(CACHE_ATTRIBUTE);
+		if (cache instanceof PathPatternMatchCache matchCache) {
+			return matchCache;
+		}
+		PathPatternMatchCache matchCache = new PathPatternMatchCache(path);
+		attributes.put(CACHE_ATTRIBUTE, matchCache);
+		return matchCache;
+	}
+
+}
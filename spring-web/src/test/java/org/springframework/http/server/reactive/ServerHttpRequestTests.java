@@ -18,16 +18,21 @@ package org.springframework.http.server.reactive;
 
 import java.io.ByteArrayInputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 
+import io.netty.buffer.PooledByteBufAllocator;
 import jakarta.servlet.AsyncContext;
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.util.MultiValueMap;
@@ -212,6 +217,45 @@ public class ServerHttpRequestTests {
 		assertThat(nativeRequest).isInstanceOf(HttpServletRequest.class);
 	}
 
+	@Test
+	void readFromInputStreamInChunks() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/path");
+		request.setContent("Hello World".getBytes(StandardCharsets.UTF_8));
+		AsyncContext asyncContext = new MockAsyncContext(request, new MockHttpServletResponse());
+		ServletServerHttpRequest serverRequest = new ServletServerHttpRequest(
+				request, asyncContext, "", DefaultDataBufferFactory.sharedInstance, 4);
+
+		StringBuilder content = new StringBuilder();
+		DataBuffer dataBuffer;
+		while ((dataBuffer = serverRequest.readFromInputStream()) != ServletServerHttpRequest.EOF_BUFFER) {
+			assertThat(dataBuffer).isNotNull();
+			assertThat(dataBuffer.readableByteCount()).isLessThanOrEqualTo(4);
+			assertThat(dataBuffer.capacity()).isEqualTo(dataBuffer.readableByteCount());
+			content.append(dataBuffer.toString(StandardCharsets.UTF_8));
+			DataBufferUtils.release(dataBuffer);
+		}
+		assertThat(content.toString()).isEqualTo("Hello World");
+	}
+
+	@Test
+	void readFromInputStreamInChunksWithPooledBuffers() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/path");
+		request.setContent("Hello World".getBytes(StandardCharsets.UTF_8));
+		AsyncContext asyncContext = new MockAsyncContext(request, new MockHttpServletResponse());
+		ServletServerHttpRequest serverRequest = new ServletServerHttpRequest(
+				request, asyncContext, "", new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT), 4);
+
+		StringBuilder content = new StringBuilder();
+		DataBuffer dataBuffer;
+		while ((dataBuffer = serverRequest.readFromInputStream()) != ServletServerHttpRequest.EOF_BUFFER) {
+			assertThat(dataBuffer).isNotNull();
+			assertThat(dataBuffer.readableByteCount()).isLessThanOrEqualTo(4);
+			content.append(dataBuffer.toString(StandardCharsets.UTF_8));
+			DataBufferUtils.release(dataBuffer);
+		}
+		assertThat(content.toString()).isEqualTo("Hello World");
+	}
+
 	private ServerHttpRequest createRequest(String uriString) throws Exception {
 		return createRequest(uriString, "");
 	}
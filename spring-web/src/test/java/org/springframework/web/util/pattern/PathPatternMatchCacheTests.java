@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPatternMatchCache}.
+ *
+ * @author agent
+ */
+class PathPatternMatchCacheTests {
+
+	private final PathPatternParser parser = new PathPatternParser();
+
+
+	@Test
+	void matchAndExtractReusesResult() {
+		PathContainer path = PathContainer.parsePath("/users/42");
+		PathPattern pattern = this.parser.parse("/users/{id}");
+		PathPatternMatchCache cache = new PathPatternMatchCache(path);
+
+		assertThat(cache.matches(pattern, path)).isTrue();
+		PathPattern.PathMatchInfo info = cache.matchAndExtract(pattern, path);
+		assertThat(info).isNotNull();
+		assertThat(info.getUriVariables()).containsEntry("id", "42");
+		assertThat(cache.matchAndExtract(pattern, path)).isSameAs(info);
+		assertThat(cache.matches(pattern, path)).isTrue();
+	}
+
+	@Test
+	void noMatch() {
+		PathContainer path = PathContainer.parsePath("/orders/42");
+		PathPattern pattern = this.parser.parse("/users/{id}");
+		PathPatternMatchCache cache = new PathPatternMatchCache(path);
+
+		assertThat(cache.matches(pattern, path)).isFalse();
+		assertThat(cache.matchAndExtract(pattern, path)).isNull();
+	}
+
+	@Test
+	void otherPathIsNotCached() {
+		PathContainer path = PathContainer.parsePath("/users/42");
+		PathContainer otherPath = PathContainer.parsePath("/users/43");
+		PathPattern pattern = this.parser.parse("/users/{id}");
+		PathPatternMatchCache cache = new PathPatternMatchCache(path);
+
+		assertThat(cache.matchAndExtract(pattern, path).getUriVariables()).containsEntry("id", "42");
+		assertThat(cache.matchAndExtract(pattern, otherPath).getUriVariables()).containsEntry("id", "43");
+	}
+
+	@Test
+	void obtain() {
+		Map<String, Object> attributes = new HashMap<>();
+		PathContainer path = PathContainer.parsePath("/users/42");
+		PathPatternMatchCache cache = PathPatternMatchCache.obtain(attributes, path);
+
+		assertThat(attributes).containsEntry(PathPatternMatchCache.CACHE_ATTRIBUTE, cache);
+		assertThat(cache.getPath()).isSameAs(path);
+		assertThat(PathPatternMatchCache.obtain(attributes, path)).isSameAs(cache);
+	}
+
+}
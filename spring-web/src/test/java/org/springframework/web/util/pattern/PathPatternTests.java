@@ -1104,6 +1104,26 @@ public class PathPatternTests {
 		assertMatches(p,"/group/Sales/members");
 	}
 
+	@Test
+	public void literalPatternMatchAndExtract() {
+		PathPattern.PathMatchInfo result = matchAndExtract("/abc/def", "/abc/def");
+		assertThat(result).isNotNull();
+		assertThat(result.getUriVariables()).isEmpty();
+		assertThat(result.getMatrixVariables()).isEmpty();
+		assertThat(matchAndExtract("/abc/def", "/abc/def/")).isNotNull();
+		assertThat(matchAndExtract("/abc/def", "/abc/def;a=b")).isNotNull();
+		assertThat(matchAndExtract("/abc/def", "/abc/def//")).isNull();
+		assertThat(matchAndExtract("/abc/def", "/abc")).isNull();
+		assertThat(matchAndExtract("/abc/def/", "/abc/def")).isNull();
+		assertThat(matchAndExtract("/abc/def", "/abc/def/ghi")).isNull();
+
+		PathPatternParser parser = new PathPatternParser();
+		parser.setMatchOptionalTrailingSeparator(false);
+		assertThat(parser.parse("/abc/def").matches(toPathContainer("/abc/def/"))).isFalse();
+		parser.setCaseSensitive(false);
+		assertThat(parser.parse("/abc/def").matches(toPathContainer("/ABC/Def"))).isTrue();
+	}
+
 	@Test
 	public void parameters() {
 		// CaptureVariablePathElement
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.server;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+
+/**
+ * Implementation of {@link RouterFunctions.Visitor} that computes the
+ * {@link DispatchKey} of a router function: the HTTP methods and leading path
+ * segments that a request must have for the router function to possibly match.
+ *
+ * <p>The computed key is conservative: any predicate that is not understood
+ * (custom predicates, negations, headers, etc.) does not constrain the key,
+ * so that a router function is only ever excluded from dispatching for
+ * requests it could never have matched.
+ *
+ * @author agent
+ * @since 6.0
+ * @see RouterFunctions#optimize(RouterFunction)
+ */
+class DispatchKeyVisitor implements RouterFunctions.Visitor, RequestPredicates.Visitor {
+
+	private final Deque<Frame> frames = new ArrayDeque<>();
+
+
+	DispatchKeyVisitor() {
+		this.frames.push(new Frame(FrameType.ROOT, null));
+	}
+
+
+	/**
+	 * Return the dispatch key for the given router function.
+	 */
+	static DispatchKey dispatchKey(RouterFunction<?> routerFunction) {
+		DispatchKeyVisitor visitor = new DispatchKeyVisitor();
+		routerFunction.accept(visitor);
+		return visitor.result();
+	}
+
+	/**
+	 * Return the dispatch key for the given request predicate.
+	 */
+	static DispatchKey dispatchKey(RequestPredicate predicate) {
+		DispatchKeyVisitor visitor = new DispatchKeyVisitor();
+		predicate.accept(visitor);
+		return visitor.result();
+	}
+
+	/**
+	 * Return the lower-cased first path segment of the given path, or
+	 * {@code null} if it cannot be determined reliably.
+	 */
+	@Nullable
+	static String firstSegment(PathContainer path) {
+		List<PathContainer.Element> elements = path.elements();
+		if (elements.size() < 2 || !(elements.get(1) instanceof PathContainer.PathSegment segment)) {
+			return null;
+		}
+		return toLowerCaseAscii(segment.valueToMatch());
+	}
+
+	/**
+	 * Return the lower-cased first path segment of the given pattern, or
+	 * {@code null} if that segment is not a plain literal.
+	 */
+	@Nullable
+	static String firstSegment(String pattern) {
+		int start = (pattern.startsWith("/") ? 1 : 0);
+		int end = pattern.indexOf('/', start);
+		if (end == -1) {
+			end = pattern.length();
+		}
+		for (int i = start; i < end; i++) {
+			if ("{}*?%;\\".indexOf(pattern.charAt(i)) != -1) {
+				return null;
+			}
+		}
+		return toLowerCaseAscii(pattern.substring(start, end));
+	}
+
+	@Nullable
+	private static String toLowerCaseAscii(String value) {
+		if (value.isEmpty()) {
+			return null;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) >= 128) {
+				return null;
+			}
+		}
+		return value.toLowerCase(Locale.ROOT);
+	}
+
+	private DispatchKey result() {
+		return this.frames.getFirst().result();
+	}
+
+	private void add(DispatchKey key) {
+		this.frames.getFirst().add(key);
+	}
+
+
+	// RouterFunctions.Visitor
+
+	@Override
+	public void startNested(RequestPredicate predicate) {
+		this.frames.push(new Frame(FrameType.NESTED, dispatchKey(predicate)));
+	}
+
+	@Override
+	public void endNested(RequestPredicate predicate) {
+		add(this.frames.pop().result());
+	}
+
+	@Override
+	public void route(RequestPredicate predicate, HandlerFunction<?> handlerFunction) {
+		add(dispatchKey(predicate));
+	}
+
+	@Override
+	public void resources(Function<ServerRequest, Mono<Resource>> lookupFunction) {
+		add(DispatchKey.ANY);
+	}
+
+	@Override
+	public void attributes(Map<String, Object> attributes) {
+	}
+
+	@Override
+	public void unknown(RouterFunction<?> routerFunction) {
+		add(DispatchKey.ANY);
+	}
+
+
+	// RequestPredicates.Visitor
+
+	@Override
+	public void method(Set<HttpMethod> methods) {
+		add(new DispatchKey(EnumSet.copyOf(methods), null, false));
+	}
+
+	@Override
+	public void path(String pattern) {
+		String segment = firstSegment(pattern);
+		add(new DispatchKey(null, (segment != null ? Collections.singleton(segment) : null), true));
+	}
+
+	@Override
+	public void pathExtension(String extension) {
+		add(DispatchKey.ANY);
+	}
+
+	@Override
+	public void header(String name, String value) {
+		add(DispatchKey.ANY);
+	}
+
+	@Override
+	public void queryParam(String name, String value) {
+		add(DispatchKey.ANY);
+	}
+
+	@Override
+	public void startAnd() {
+		this.frames.push(new Frame(FrameType.AND, null));
+	}
+
+	@Override
+	public void and() {
+	}
+
+	@Override
+	public void endAnd() {
+		add(this.frames.pop().result());
+	}
+
+	@Override
+	public void startOr() {
+		this.frames.push(new Frame(FrameType.OR, null));
+	}
+
+	@Override
+	public void or() {
+	}
+
+	@Override
+	public void endOr() {
+		add(this.frames.pop().result());
+	}
+
+	@Override
+	public void startNegate() {
+		this.frames.push(new Frame(FrameType.NEGATE, null));
+	}
+
+	@Override
+	public void endNegate() {
+		add(this.frames.pop().result());
+	}
+
+	@Override
+	public void unknown(RequestPredicate predicate) {
+		add(DispatchKey.ANY);
+	}
+
+
+	private enum FrameType {
+
+		ROOT, NESTED, AND, OR, NEGATE
+	}
+
+
+	private static final class Frame {
+
+		private final FrameType type;
+
+		@Nullable
+		private final DispatchKey nestPredicateKey;
+
+		@Nullable
+		private DispatchKey key;
+
+		Frame(FrameType type, @Nullable DispatchKey nestPredicateKey) {
+			this.type = type;
+			this.nestPredicateKey = nestPredicateKey;
+		}
+
+		void add(DispatchKey other) {
+			if (this.key == null) {
+				this.key = other;
+			}
+			else if (this.type == FrameType.AND) {
+				this.key = this.key.intersect(other);
+			}
+			else {
+				this.key = this.key.union(other);
+			}
+		}
+
+		DispatchKey result() {
+			if (this.type == FrameType.NEGATE) {
+				// a negated predicate can match any method or path
+				return new DispatchKey(null, null, (this.key != null && this.key.hasPath()));
+			}
+			else if (this.type == FrameType.NESTED && this.nestPredicateKey != null) {
+				DispatchKey nestedKey = (this.key != null ? this.key : DispatchKey.NONE);
+				if (this.nestPredicateKey.hasPath()) {
+					// nested patterns are relative to the path matched by the nest predicate
+					nestedKey = new DispatchKey(nestedKey.methods(), null, true);
+				}
+				return this.nestPredicateKey.intersect(nestedKey);
+			}
+			return (this.key != null ? this.key : DispatchKey.ANY);
+		}
+	}
+
+
+	/**
+	 * The HTTP methods and lower-cased first path segments a request must have
+	 * in order to possibly match; {@code null} sets indicate no constraint.
+	 */
+	static final class DispatchKey {
+
+		static final DispatchKey ANY = new DispatchKey(null, null, false);
+
+		static final DispatchKey NONE = new DispatchKey(Collections.emptySet(), Collections.emptySet(), false);
+
+		@Nullable
+		private final Set<HttpMethod> methods;
+
+		@Nullable
+		private final Set<String> segments;
+
+		private final boolean hasPath;
+
+		DispatchKey(@Nullable Set<HttpMethod> methods, @Nullable Set<String> segments, boolean hasPath) {
+			this.methods = methods;
+			this.segments = segments;
+			this.hasPath = hasPath;
+		}
+
+		@Nullable
+		Set<HttpMethod> methods() {
+			return this.methods;
+		}
+
+		@Nullable
+		Set<String> segments() {
+			return this.segments;
+		}
+
+		boolean hasPath() {
+			return this.hasPath;
+		}
+
+		boolean matchesMethod(@Nullable HttpMethod method) {
+			return (this.methods == null || (method != null && this.methods.contains(method)));
+		}
+
+		boolean matchesSegment(String segment) {
+			return (this.segments == null || this.segments.contains(segment));
+		}
+
+		DispatchKey intersect(DispatchKey other) {
+			return new DispatchKey(intersect(this.methods, other.methods),
+					intersect(this.segments, other.segments), this.hasPath || other.hasPath);
+		}
+
+		DispatchKey union(DispatchKey other) {
+			return new DispatchKey(union(this.methods, other.methods),
+					union(this.segments, other.segments), this.hasPath || other.hasPath);
+		}
+
+		@Nullable
+		private static <E> Set<E> intersect(@Nullable Set<E> first, @Nullable Set<E> second) {
+			if (first == null) {
+				return second;
+			}
+			else if (second == null) {
+				return first;
+			}
+			Set<E> result = new HashSet<>(first);
+			result.retainAll(second);
+			return result;
+		}
+
+		@Nullable
+		private static <E> Set<E> union(@Nullable Set<E> first, @Nullable Set<E> second) {
+			if (first == null || second == null) {
+				return null;
+			}
+			Set<E> result = new HashSet<>(first);
+			result.addAll(second);
+			return result;
+		}
+	}
+
+}
@@ -59,6 +59,7 @@ import org.springframework.web.server.WebSession;
 import org.springframework.web.util.UriBuilder;
 import org.springframework.web.util.UriUtils;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternMatchCache;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
@@ -493,7 +494,8 @@ public abstract class RequestPredicates {
 		@Override
 		public boolean test(ServerRequest request) {
 			PathContainer pathContainer = request.requestPath().pathWithinApplication();
-			PathPattern.PathMatchInfo info = this.pattern.matchAndExtract(pathContainer);
+			PathPattern.PathMatchInfo info = PathPatternMatchCache.obtain(request.attributes(), pathContainer)
+					.matchAndExtract(this.pattern, pathContainer);
 			traceMatch("Pattern", this.pattern.getPatternString(), request.path(), info != null);
 			if (info != null) {
 				mergeAttributes(request, info.getUriVariables(), this.pattern);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2020 the original author or authors.
+ * Copyright 2002-2021 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,15 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -32,9 +37,14 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.codec.HttpMessageWriter;
 import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.reactive.function.server.DispatchKeyVisitor.DispatchKey;
 import org.springframework.web.reactive.result.view.ViewResolver;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebHandler;
@@ -279,6 +289,60 @@ public abstract class RouterFunctions {
 	}
 
 
+	/**
+	 * Optimize the given {@linkplain RouterFunction router function} for dispatching.
+	 * Composed router functions, such as those created via
+	 * {@link RouterFunction#and(RouterFunction)} or the {@linkplain #route() builder},
+	 * are flattened and indexed by the HTTP methods and first path segments that
+	 * their {@linkplain RequestPredicates#method(HttpMethod) method} and
+	 * {@linkplain RequestPredicates#path(String) path} predicates can match.
+	 * For each request, only the router functions that can possibly match are
+	 * evaluated, in their original order, so that the first matching route still
+	 * wins. Nested router functions are optimized in the same way.
+	 * <p>Router functions with predicates that cannot be indexed, such as custom
+	 * predicates or negations, are evaluated for every request, as before.
+	 * @param routerFunction the router function to optimize
+	 * @param <T> the type of response returned by the handler function
+	 * @return the optimized router function
+	 * @since 6.0
+	 */
+	public static <T extends ServerResponse> RouterFunction<T> optimize(RouterFunction<T> routerFunction) {
+		Assert.notNull(routerFunction, "RouterFunction must not be null");
+
+		List<RouterFunction<?>> routerFunctions = new ArrayList<>();
+		flatten(routerFunction, routerFunctions);
+		return new DispatchTreeRouterFunction<>(routerFunctions);
+	}
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static void flatten(RouterFunction<?> routerFunction, List<RouterFunction<?>> result) {
+		if (routerFunction instanceof SameComposedRouterFunction<?> composed) {
+			flatten(composed.first, result);
+			flatten(composed.second, result);
+		}
+		else if (routerFunction instanceof DifferentComposedRouterFunction composed) {
+			flatten(composed.first, result);
+			flatten(composed.second, result);
+		}
+		else if (routerFunction instanceof DispatchTreeRouterFunction<?> dispatchTree) {
+			Collections.addAll(result, dispatchTree.routerFunctions);
+		}
+		else if (routerFunction instanceof FilteredRouterFunction<?, ?> filtered) {
+			List<RouterFunction<?>> filteredFunctions = new ArrayList<>();
+			flatten(filtered.routerFunction, filteredFunctions);
+			for (RouterFunction<?> filteredFunction : filteredFunctions) {
+				result.add(new FilteredRouterFunction(filteredFunction, filtered.filterFunction));
+			}
+		}
+		else if (routerFunction instanceof DefaultNestedRouterFunction<?> nested) {
+			result.add(new DefaultNestedRouterFunction(nested.predicate, optimize(nested.routerFunction)));
+		}
+		else {
+			result.add(routerFunction);
+		}
+	}
+
+
 	/**
 	 * Represents a discoverable builder for router functions.
 	 * Obtained via {@link RouterFunctions#route()}.
@@ -1229,6 +1293,128 @@ public abstract class RouterFunctions {
 	}
 
 
+	/**
+	 * A router function that delegates to a list of router functions, invoking
+	 * only those that can match the HTTP method and first path segment of the
+	 * request, in their original order.
+	 * @param <T> the server response type
+	 * @see RouterFunctions#optimize(RouterFunction)
+	 */
+	static final class DispatchTreeRouterFunction<T extends ServerResponse> extends AbstractRouterFunction<T> {
+
+		private final RouterFunction<?>[] routerFunctions;
+
+		private final Map<HttpMethod, DispatchNode> methodNodes = new EnumMap<>(HttpMethod.class);
+
+		private final DispatchNode unresolvedMethodNode;
+
+		public DispatchTreeRouterFunction(List<RouterFunction<?>> routerFunctions) {
+			this.routerFunctions = routerFunctions.toArray(new RouterFunction<?>[0]);
+			DispatchKey[] keys = new DispatchKey[this.routerFunctions.length];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = DispatchKeyVisitor.dispatchKey(this.routerFunctions[i]);
+			}
+			for (HttpMethod method : HttpMethod.values()) {
+				this.methodNodes.put(method, new DispatchNode(this.routerFunctions, keys, method));
+			}
+			this.unresolvedMethodNode = new DispatchNode(this.routerFunctions, keys, null);
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			HttpMethod method = method(request);
+			DispatchNode node = (method != null ? this.methodNodes.get(method) : this.unresolvedMethodNode);
+			RouterFunction<?>[] candidates =
+					node.candidates(DispatchKeyVisitor.firstSegment(request.requestPath().pathWithinApplication()));
+			if (candidates.length == 0) {
+				return Mono.empty();
+			}
+			else if (candidates.length == 1) {
+				return cast(candidates[0]).route(request);
+			}
+			else {
+				return Flux.fromArray(candidates)
+						.concatMap(routerFunction -> cast(routerFunction).route(request))
+						.next();
+			}
+		}
+
+		@Nullable
+		private static HttpMethod method(ServerRequest request) {
+			if (CorsUtils.isPreFlightRequest(request.exchange().getRequest())) {
+				String accessControlRequestMethod =
+						request.headers().firstHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+				return HttpMethod.resolve(accessControlRequestMethod);
+			}
+			else {
+				return request.method();
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private RouterFunction<T> cast(RouterFunction<?> routerFunction) {
+			return (RouterFunction<T>) routerFunction;
+		}
+
+		@Override
+		public void accept(Visitor visitor) {
+			for (RouterFunction<?> routerFunction : this.routerFunctions) {
+				routerFunction.accept(visitor);
+			}
+		}
+	}
+
+
+	/**
+	 * The router functions of a {@link DispatchTreeRouterFunction} that can
+	 * match a given HTTP method, indexed by first path segment.
+	 */
+	private static final class DispatchNode {
+
+		private final RouterFunction<?>[] all;
+
+		private final RouterFunction<?>[] anySegment;
+
+		private final Map<String, RouterFunction<?>[]> segments = new HashMap<>();
+
+		DispatchNode(RouterFunction<?>[] routerFunctions, DispatchKey[] keys, @Nullable HttpMethod method) {
+			List<RouterFunction<?>> all = new ArrayList<>();
+			List<RouterFunction<?>> anySegment = new ArrayList<>();
+			Set<String> literalSegments = new LinkedHashSet<>();
+			for (int i = 0; i < routerFunctions.length; i++) {
+				if (keys[i].matchesMethod(method)) {
+					all.add(routerFunctions[i]);
+					Set<String> segments = keys[i].segments();
+					if (segments != null) {
+						literalSegments.addAll(segments);
+					}
+					else {
+						anySegment.add(routerFunctions[i]);
+					}
+				}
+			}
+			for (String segment : literalSegments) {
+				List<RouterFunction<?>> candidates = new ArrayList<>();
+				for (int i = 0; i < routerFunctions.length; i++) {
+					if (keys[i].matchesMethod(method) && keys[i].matchesSegment(segment)) {
+						candidates.add(routerFunctions[i]);
+					}
+				}
+				this.segments.put(segment, candidates.toArray(new RouterFunction<?>[0]));
+			}
+			this.all = all.toArray(new RouterFunction<?>[0]);
+			this.anySegment = anySegment.toArray(new RouterFunction<?>[0]);
+		}
+
+		RouterFunction<?>[] candidates(@Nullable String segment) {
+			if (segment == null) {
+				return this.all;
+			}
+			return this.segments.getOrDefault(segment, this.anySegment);
+		}
+	}
+
+
 	private static class RouterFunctionWebHandler implements WebHandler {
 
 		private static final HandlerFunction<ServerResponse> NOT_FOUND_HANDLER =
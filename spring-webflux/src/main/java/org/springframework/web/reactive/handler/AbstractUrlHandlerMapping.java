@@ -32,6 +32,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternMatchCache;
 
 /**
  * Abstract base class for URL-mapped
@@ -128,9 +129,10 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 	 */
 	@Nullable
 	protected Object lookupHandler(PathContainer lookupPath, ServerWebExchange exchange) throws Exception {
+		PathPatternMatchCache matchCache = PathPatternMatchCache.obtain(exchange.getAttributes(), lookupPath);
 		List<PathPattern> matches = null;
 		for (PathPattern pattern : this.handlerMap.keySet()) {
-			if (pattern.matches(lookupPath)) {
+			if (matchCache.matches(pattern, lookupPath)) {
 				matches = (matches != null ? matches : new ArrayList<>());
 				matches.add(pattern);
 			}
@@ -147,7 +149,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping {
 
 		PathPattern pattern = matches.get(0);
 		PathContainer pathWithinMapping = pattern.extractPathWithinPattern(lookupPath);
-		PathPattern.PathMatchInfo matchInfo = pattern.matchAndExtract(lookupPath);
+		PathPattern.PathMatchInfo matchInfo = matchCache.matchAndExtract(pattern, lookupPath);
 		Assert.notNull(matchInfo, "Expected a match");
 
 		Object handler = this.handlerMap.get(pattern);
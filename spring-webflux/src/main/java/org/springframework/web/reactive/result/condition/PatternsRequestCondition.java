@@ -31,6 +31,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternMatchCache;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
@@ -158,9 +159,10 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
 	@Nullable
 	private SortedSet<PathPattern> getMatchingPatterns(ServerWebExchange exchange) {
 		PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+		PathPatternMatchCache matchCache = PathPatternMatchCache.obtain(exchange.getAttributes(), lookupPath);
 		TreeSet<PathPattern> result = null;
 		for (PathPattern pattern : this.patterns) {
-			if (pattern.matches(lookupPath)) {
+			if (matchCache.matches(pattern, lookupPath)) {
 				result = (result != null ? result : new TreeSet<>());
 				result.add(pattern);
 			}
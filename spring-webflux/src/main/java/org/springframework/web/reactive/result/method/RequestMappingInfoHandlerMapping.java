@@ -48,6 +48,7 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.ServerWebInputException;
 import org.springframework.web.server.UnsupportedMediaTypeStatusException;
 import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternMatchCache;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -129,7 +130,8 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 		}
 		else {
 			bestPattern = patterns.iterator().next();
-			PathPattern.PathMatchInfo result = bestPattern.matchAndExtract(lookupPath);
+			PathPattern.PathMatchInfo result = PathPatternMatchCache.obtain(exchange.getAttributes(), lookupPath)
+					.matchAndExtract(bestPattern, lookupPath);
 			Assert.notNull(result, () ->
 					"Expected bestPattern: " + bestPattern + " to match lookupPath " + lookupPath);
 			uriVariables = result.getUriVariables();
@@ -25,6 +25,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.server.reactive.HttpHandler;
@@ -297,4 +298,62 @@ public class RouterFunctionsTests {
 		assertThat(filterInvoked.get()).isTrue();
 	}
 
+	@Test
+	public void optimize() {
+		HandlerFunction<ServerResponse> user = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> users = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> createUser = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> item = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> fallback = request -> ServerResponse.ok().build();
+
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route()
+				.GET("/users/{id}", user)
+				.GET("/users/**", users)
+				.POST("/users", createUser)
+				.nest(RequestPredicates.path("/api"), builder -> builder.GET("/items/{id}", item))
+				.route(request -> request.path().startsWith("/other"), fallback)
+				.build();
+		RouterFunction<ServerResponse> optimized = RouterFunctions.optimize(routerFunction);
+
+		assertThat(optimized.toString()).isEqualTo(routerFunction.toString());
+		assertRoute(optimized, HttpMethod.GET, "/users/42", user);
+		assertRoute(optimized, HttpMethod.GET, "/users/42/friends", users);
+		assertRoute(optimized, HttpMethod.POST, "/users", createUser);
+		assertRoute(optimized, HttpMethod.GET, "/api/items/1", item);
+		assertRoute(optimized, HttpMethod.DELETE, "/other", fallback);
+		assertRoute(optimized, HttpMethod.DELETE, "/users", null);
+		assertRoute(optimized, HttpMethod.GET, "/", null);
+	}
+
+	@Test
+	public void optimizeKeepsPathVariables() {
+		HandlerFunction<ServerResponse> handlerFunction = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.optimize(
+				RouterFunctions.nest(RequestPredicates.path("/{foo}"),
+						RouterFunctions.route(RequestPredicates.GET("/baz/{qux}"), handlerFunction)));
+
+		MockServerHttpRequest mockRequest = MockServerHttpRequest.get("https://example.com/bar/baz/quux").build();
+		ServerRequest request = new DefaultServerRequest(MockServerWebExchange.from(mockRequest), Collections.emptyList());
+
+		StepVerifier.create(routerFunction.route(request))
+				.expectNext(handlerFunction)
+				.expectComplete()
+				.verify();
+		assertThat(request.pathVariables()).containsEntry("foo", "bar").containsEntry("qux", "quux");
+	}
+
+	private static void assertRoute(RouterFunction<ServerResponse> routerFunction, HttpMethod method,
+			String path, HandlerFunction<ServerResponse> expected) {
+
+		MockServerHttpRequest mockRequest = MockServerHttpRequest.method(method, "https://example.com" + path).build();
+		ServerRequest request = new DefaultServerRequest(MockServerWebExchange.from(mockRequest), Collections.emptyList());
+		StepVerifier.FirstStep<HandlerFunction<ServerResponse>> verifier = StepVerifier.create(routerFunction.route(request));
+		if (expected != null) {
+			verifier.expectNext(expected).expectComplete().verify();
+		}
+		else {
+			verifier.expectComplete().verify();
+		}
+	}
+
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.function;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+/**
+ * Benchmarks for resolving a handler function from a composed
+ * {@link RouterFunction}, compared with its {@linkplain RouterFunctions#optimize
+ * optimized} form.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RouterFunctionBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"10", "100", "500"})
+		public int resourceCount;
+
+		public RouterFunction<ServerResponse> routerFunction;
+
+		public RouterFunction<ServerResponse> optimizedRouterFunction;
+
+		public List<MockHttpServletRequest> requests;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			HandlerFunction<ServerResponse> handlerFunction = request -> ServerResponse.ok().build();
+			RouterFunctions.Builder builder = RouterFunctions.route();
+			for (int i = 0; i < this.resourceCount; i++) {
+				String resource = "/resource" + i;
+				builder.GET(resource, handlerFunction)
+						.GET(resource + "/{id}", handlerFunction)
+						.POST(resource, handlerFunction)
+						.PUT(resource + "/{id}", handlerFunction)
+						.DELETE(resource + "/{id}", handlerFunction);
+			}
+			this.routerFunction = builder.build();
+			this.optimizedRouterFunction = RouterFunctions.optimize(this.routerFunction);
+
+			this.requests = new ArrayList<>();
+			for (int i = 0; i < this.resourceCount; i += Math.max(1, this.resourceCount / 10)) {
+				this.requests.add(new MockHttpServletRequest("GET", "/resource" + i + "/42"));
+				this.requests.add(new MockHttpServletRequest("POST", "/resource" + i));
+				this.requests.add(new MockHttpServletRequest("DELETE", "/resource" + i + "/42"));
+			}
+			this.requests.add(new MockHttpServletRequest("GET", "/unknown"));
+		}
+	}
+
+	@Benchmark
+	public void routeComposed(BenchmarkData data, Blackhole bh) {
+		for (MockHttpServletRequest request : data.requests) {
+			bh.consume(data.routerFunction.route(new DefaultServerRequest(request, Collections.emptyList())));
+		}
+	}
+
+	@Benchmark
+	public void routeOptimized(BenchmarkData data, Blackhole bh) {
+		for (MockHttpServletRequest request : data.requests) {
+			bh.consume(data.optimizedRouterFunction.route(new DefaultServerRequest(request, Collections.emptyList())));
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+/**
+ * Benchmarks for the {@code ThreadLocal}-based context holders used while
+ * handling a request, {@link RequestContextHolder}, {@link LocaleContextHolder}
+ * and {@link TransactionSynchronizationManager}, from tasks that block while
+ * the context is bound.
+ * <p>On virtual threads, throughput should scale with the number of tasks
+ * rather than with the number of carrier threads, confirming that the holders
+ * do not pin their carrier thread while blocked.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ThreadContextHolderBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"platform", "virtual"})
+		public String threads;
+
+		@Param({"1000"})
+		public int taskCount;
+
+		public AsyncTaskExecutor executor;
+
+		public ServletRequestAttributes requestAttributes;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			if ("virtual".equals(this.threads)) {
+				this.executor = new VirtualThreadTaskExecutor("benchmark-");
+			}
+			else {
+				ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+				executor.setCorePoolSize(200);
+				executor.setMaxPoolSize(200);
+				executor.setThreadNamePrefix("benchmark-");
+				executor.initialize();
+				this.executor = executor;
+			}
+			this.requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest("GET", "/"));
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			if (this.executor instanceof ThreadPoolTaskExecutor executor) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Benchmark
+	public void bindBlockAndReset(BenchmarkData data, Blackhole bh) throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(data.taskCount);
+		for (int i = 0; i < data.taskCount; i++) {
+			data.executor.execute(() -> {
+				try {
+					RequestContextHolder.setRequestAttributes(data.requestAttributes);
+					LocaleContextHolder.setLocale(Locale.ENGLISH);
+					TransactionSynchronizationManager.bindResource(data, "resource");
+					TransactionSynchronizationManager.initSynchronization();
+					Thread.sleep(1);
+					bh.consume(RequestContextHolder.getRequestAttributes());
+					bh.consume(LocaleContextHolder.getLocale());
+					bh.consume(TransactionSynchronizationManager.getResource(data));
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				finally {
+					TransactionSynchronizationManager.clear();
+					TransactionSynchronizationManager.unbindResourceIfPossible(data);
+					LocaleContextHolder.resetLocaleContext();
+					RequestContextHolder.resetRequestAttributes();
+					latch.countDown();
+				}
+			});
+		}
+		latch.await();
+	}
+
+}
@@ -23,11 +23,13 @@ import java.util.concurrent.Callable;
 
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.context.request.async.CallableProcessingInterceptor;
 import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ReactiveReturnValueMetrics;
 
 /**
  * Helps with configuring options for asynchronous request processing.
@@ -40,6 +42,15 @@ public class AsyncSupportConfigurer {
 	@Nullable
 	private AsyncTaskExecutor taskExecutor;
 
+	@Nullable
+	private AsyncTaskExecutor handlerInvocationExecutor;
+
+	@Nullable
+	private TaskExecutor reactiveSubscribeExecutor;
+
+	@Nullable
+	private ReactiveReturnValueMetrics reactiveMetrics;
+
 	@Nullable
 	private Long timeout;
 
@@ -65,6 +76,45 @@ public class AsyncSupportConfigurer {
 		return this;
 	}
 
+	/**
+	 * Set a task executor to invoke all controller methods with through
+	 * asynchronous request processing, e.g. a
+	 * {@link org.springframework.core.task.VirtualThreadTaskExecutor} to run
+	 * blocking controller logic on virtual threads.
+	 * <p>By default, controller methods are invoked on the container thread.
+	 * @param handlerInvocationExecutor the executor to invoke controller methods with
+	 * @since 6.0
+	 * @see org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter#setHandlerInvocationExecutor
+	 */
+	public AsyncSupportConfigurer setHandlerInvocationExecutor(AsyncTaskExecutor handlerInvocationExecutor) {
+		this.handlerInvocationExecutor = handlerInvocationExecutor;
+		return this;
+	}
+
+	/**
+	 * Set a task executor to subscribe to reactive controller method return
+	 * values on, e.g. a bounded thread pool for reactive types that perform
+	 * blocking work when subscribed to.
+	 * <p>By default, reactive return values are subscribed to on the container thread.
+	 * @param reactiveSubscribeExecutor the executor to subscribe with
+	 * @since 6.0
+	 */
+	public AsyncSupportConfigurer setReactiveSubscribeExecutor(TaskExecutor reactiveSubscribeExecutor) {
+		this.reactiveSubscribeExecutor = reactiveSubscribeExecutor;
+		return this;
+	}
+
+	/**
+	 * Set the metrics to report latency, executor queueing and element counts
+	 * of reactive controller method return values to.
+	 * @param reactiveMetrics the metrics callback
+	 * @since 6.0
+	 */
+	public AsyncSupportConfigurer setReactiveMetrics(ReactiveReturnValueMetrics reactiveMetrics) {
+		this.reactiveMetrics = reactiveMetrics;
+		return this;
+	}
+
 	/**
 	 * Specify the amount of time, in milliseconds, before asynchronous request
 	 * handling times out. In Servlet 3, the timeout begins after the main request
@@ -108,6 +158,21 @@ public class AsyncSupportConfigurer {
 		return this.taskExecutor;
 	}
 
+	@Nullable
+	protected AsyncTaskExecutor getHandlerInvocationExecutor() {
+		return this.handlerInvocationExecutor;
+	}
+
+	@Nullable
+	protected TaskExecutor getReactiveSubscribeExecutor() {
+		return this.reactiveSubscribeExecutor;
+	}
+
+	@Nullable
+	protected ReactiveReturnValueMetrics getReactiveMetrics() {
+		return this.reactiveMetrics;
+	}
+
 	@Nullable
 	protected Long getTimeout() {
 		return this.timeout;
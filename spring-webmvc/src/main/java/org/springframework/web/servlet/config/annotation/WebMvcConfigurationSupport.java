@@ -684,6 +684,15 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		if (configurer.getTaskExecutor() != null) {
 			adapter.setTaskExecutor(configurer.getTaskExecutor());
 		}
+		if (configurer.getHandlerInvocationExecutor() != null) {
+			adapter.setHandlerInvocationExecutor(configurer.getHandlerInvocationExecutor());
+		}
+		if (configurer.getReactiveSubscribeExecutor() != null) {
+			adapter.setReactiveSubscribeExecutor(configurer.getReactiveSubscribeExecutor());
+		}
+		if (configurer.getReactiveMetrics() != null) {
+			adapter.setReactiveMetrics(configurer.getReactiveMetrics());
+		}
 		if (configurer.getTimeout() != null) {
 			adapter.setAsyncRequestTimeout(configurer.getTimeout());
 		}
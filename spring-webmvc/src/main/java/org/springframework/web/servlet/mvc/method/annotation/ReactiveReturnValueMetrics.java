@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for metrics on the handling of reactive controller
+ * method return values (e.g. {@code Mono}, {@code Flux}), which are either
+ * collected for a {@link org.springframework.web.context.request.async.DeferredResult}
+ * or written to a {@link ResponseBodyEmitter} through a task executor.
+ *
+ * <p>All callbacks are identified by the return type of the handler method,
+ * which provides access to the controller method through
+ * {@link MethodParameter#getMethod()}. Implementations must be thread-safe
+ * and should return quickly, as they are invoked inline while handling
+ * the reactive return value.
+ *
+ * @author agent
+ * @since 6.0
+ * @see RequestMappingHandlerAdapter#setReactiveMetrics
+ */
+public interface ReactiveReturnValueMetrics {
+
+	/**
+	 * Instance that does not record any metrics.
+	 */
+	ReactiveReturnValueMetrics NONE = new ReactiveReturnValueMetrics() {};
+
+
+	/**
+	 * A task to subscribe to, or to write elements of, a reactive return value
+	 * has been submitted to a task executor.
+	 * @param returnType the return type of the handler method
+	 * @param queueDepth the number of submitted tasks across all handler
+	 * methods that have not started yet, including this one
+	 */
+	default void taskQueued(MethodParameter returnType, int queueDepth) {
+	}
+
+	/**
+	 * A previously {@linkplain #taskQueued queued} task has started.
+	 * @param returnType the return type of the handler method
+	 * @param queueTimeNanos the time the task waited for execution
+	 */
+	default void taskStarted(MethodParameter returnType, long queueTimeNanos) {
+	}
+
+	/**
+	 * The reactive return value has terminated, successfully or not, or has
+	 * been cancelled.
+	 * @param returnType the return type of the handler method
+	 * @param elementCount the number of elements emitted by the return value
+	 * @param durationNanos the time since the return value was handled
+	 * @param error the failure, if any
+	 */
+	default void completed(MethodParameter returnType, long elementCount,
+			long durationNanos, @Nullable Throwable error) {
+	}
+
+}
@@ -23,6 +23,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -67,6 +69,11 @@ import org.springframework.web.servlet.HandlerMapping;
  * <p>For all other cases {@code Publisher} output is collected and bridged to
  * {@link DeferredResult} for standard async request processing.
  *
+ * <p>If configured, a separate executor is used to subscribe to the
+ * {@code Publisher}, keeping blocking work performed on subscription off the
+ * Servlet container thread, and {@link ReactiveReturnValueMetrics} are
+ * reported for each return value.
+ *
  * @author Rossen Stoyanchev
  * @since 5.0
  */
@@ -87,6 +94,13 @@ class ReactiveTypeHandler {
 
 	private final ContentNegotiationManager contentNegotiationManager;
 
+	@Nullable
+	private final TaskExecutor subscribeExecutor;
+
+	private final ReactiveReturnValueMetrics metrics;
+
+	private final AtomicInteger queuedTasks = new AtomicInteger();
+
 	private boolean taskExecutorWarning;
 
 
@@ -95,12 +109,21 @@ class ReactiveTypeHandler {
 	}
 
 	ReactiveTypeHandler(ReactiveAdapterRegistry registry, TaskExecutor executor, ContentNegotiationManager manager) {
+		this(registry, executor, manager, null, ReactiveReturnValueMetrics.NONE);
+	}
+
+	ReactiveTypeHandler(ReactiveAdapterRegistry registry, TaskExecutor executor, ContentNegotiationManager manager,
+			@Nullable TaskExecutor subscribeExecutor, ReactiveReturnValueMetrics metrics) {
+
 		Assert.notNull(registry, "ReactiveAdapterRegistry is required");
 		Assert.notNull(executor, "TaskExecutor is required");
 		Assert.notNull(manager, "ContentNegotiationManager is required");
+		Assert.notNull(metrics, "ReactiveReturnValueMetrics is required");
 		this.adapterRegistry = registry;
 		this.taskExecutor = executor;
 		this.contentNegotiationManager = manager;
+		this.subscribeExecutor = subscribeExecutor;
+		this.metrics = metrics;
 
 		this.taskExecutorWarning =
 				(executor instanceof SimpleAsyncTaskExecutor || executor instanceof SyncTaskExecutor);
@@ -135,18 +158,24 @@ class ReactiveTypeHandler {
 		Collection<MediaType> mediaTypes = getMediaTypes(request);
 		Optional<MediaType> mediaType = mediaTypes.stream().filter(MimeType::isConcrete).findFirst();
 
+		MetricsContext metricsContext = new MetricsContext(returnType);
+		TaskExecutor subscribeExecutor =
+				(this.subscribeExecutor != null ? metricsContext.decorate(this.subscribeExecutor) : null);
+
 		if (adapter.isMultiValue()) {
 			if (mediaTypes.stream().anyMatch(MediaType.TEXT_EVENT_STREAM::includes) ||
 					ServerSentEvent.class.isAssignableFrom(elementClass)) {
 				logExecutorWarning(returnType);
 				SseEmitter emitter = new SseEmitter(STREAMING_TIMEOUT_VALUE);
-				new SseEmitterSubscriber(emitter, this.taskExecutor).connect(adapter, returnValue);
+				new SseEmitterSubscriber(emitter, metricsContext.decorate(this.taskExecutor), metricsContext)
+						.connect(adapter, returnValue, subscribeExecutor);
 				return emitter;
 			}
 			if (CharSequence.class.isAssignableFrom(elementClass)) {
 				logExecutorWarning(returnType);
 				ResponseBodyEmitter emitter = getEmitter(mediaType.orElse(MediaType.TEXT_PLAIN));
-				new TextEmitterSubscriber(emitter, this.taskExecutor).connect(adapter, returnValue);
+				new TextEmitterSubscriber(emitter, metricsContext.decorate(this.taskExecutor), metricsContext)
+						.connect(adapter, returnValue, subscribeExecutor);
 				return emitter;
 			}
 			for (MediaType type : mediaTypes) {
@@ -154,7 +183,8 @@ class ReactiveTypeHandler {
 					if (streamingType.includes(type)) {
 						logExecutorWarning(returnType);
 						ResponseBodyEmitter emitter = getEmitter(streamingType);
-						new JsonEmitterSubscriber(emitter, this.taskExecutor).connect(adapter, returnValue);
+						new JsonEmitterSubscriber(emitter, metricsContext.decorate(this.taskExecutor), metricsContext)
+								.connect(adapter, returnValue, subscribeExecutor);
 						return emitter;
 					}
 				}
@@ -163,7 +193,8 @@ class ReactiveTypeHandler {
 
 		// Not streaming...
 		DeferredResult<Object> result = new DeferredResult<>();
-		new DeferredResultSubscriber(result, adapter, elementType).connect(adapter, returnValue);
+		new DeferredResultSubscriber(result, adapter, elementType, metricsContext)
+				.connect(adapter, returnValue, subscribeExecutor);
 		WebAsyncUtils.getAsyncManager(request).startDeferredResultProcessing(result, mav);
 
 		return null;
@@ -211,12 +242,77 @@ class ReactiveTypeHandler {
 	}
 
 
+	private static void subscribe(Publisher<Object> publisher, Subscriber<Object> subscriber,
+			@Nullable TaskExecutor subscribeExecutor) {
+
+		if (subscribeExecutor != null) {
+			subscribeExecutor.execute(() -> publisher.subscribe(subscriber));
+		}
+		else {
+			publisher.subscribe(subscriber);
+		}
+	}
+
+
+	/**
+	 * Metrics for a single reactive return value, also decorating the task
+	 * executors used for it in order to report queueing.
+	 */
+	private final class MetricsContext {
+
+		private final MethodParameter returnType;
+
+		private final long startTime = System.nanoTime();
+
+		private final AtomicLong elementCount = new AtomicLong();
+
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		MetricsContext(MethodParameter returnType) {
+			this.returnType = returnType;
+		}
+
+		TaskExecutor decorate(TaskExecutor executor) {
+			if (metrics == ReactiveReturnValueMetrics.NONE) {
+				return executor;
+			}
+			return task -> {
+				long queuedAt = System.nanoTime();
+				metrics.taskQueued(this.returnType, queuedTasks.incrementAndGet());
+				try {
+					executor.execute(() -> {
+						queuedTasks.decrementAndGet();
+						metrics.taskStarted(this.returnType, System.nanoTime() - queuedAt);
+						task.run();
+					});
+				}
+				catch (RuntimeException ex) {
+					queuedTasks.decrementAndGet();
+					throw ex;
+				}
+			};
+		}
+
+		void element() {
+			this.elementCount.incrementAndGet();
+		}
+
+		void completed(@Nullable Throwable ex) {
+			if (this.completed.compareAndSet(false, true)) {
+				metrics.completed(this.returnType, this.elementCount.get(), System.nanoTime() - this.startTime, ex);
+			}
+		}
+	}
+
+
 	private abstract static class AbstractEmitterSubscriber implements Subscriber<Object>, Runnable {
 
 		private final ResponseBodyEmitter emitter;
 
 		private final TaskExecutor taskExecutor;
 
+		private final MetricsContext metricsContext;
+
 		@Nullable
 		private Subscription subscription;
 
@@ -231,14 +327,16 @@ class ReactiveTypeHandler {
 
 		private volatile boolean done;
 
-		protected AbstractEmitterSubscriber(ResponseBodyEmitter emitter, TaskExecutor executor) {
+		protected AbstractEmitterSubscriber(ResponseBodyEmitter emitter, TaskExecutor executor,
+				MetricsContext metricsContext) {
+
 			this.emitter = emitter;
 			this.taskExecutor = executor;
+			this.metricsContext = metricsContext;
 		}
 
-		public void connect(ReactiveAdapter adapter, Object returnValue) {
-			Publisher<Object> publisher = adapter.toPublisher(returnValue);
-			publisher.subscribe(this);
+		public void connect(ReactiveAdapter adapter, Object returnValue, @Nullable TaskExecutor subscribeExecutor) {
+			subscribe(adapter.toPublisher(returnValue), this, subscribeExecutor);
 		}
 
 		protected ResponseBodyEmitter getEmitter() {
@@ -253,14 +351,21 @@ class ReactiveTypeHandler {
 					logger.trace("Connection timeout for " + this.emitter);
 				}
 				terminate();
+				this.metricsContext.completed(null);
 				this.emitter.complete();
 			});
-			this.emitter.onError(this.emitter::completeWithError);
-			subscription.request(1);
+			this.emitter.onError(ex -> {
+				terminate();
+				this.metricsContext.completed(ex);
+				this.emitter.completeWithError(ex);
+			});
+			// Request data once it can be written rather than buffered by the emitter
+			this.emitter.onInitialization(() -> subscription.request(1));
 		}
 
 		@Override
 		public final void onNext(Object element) {
+			this.metricsContext.element();
 			this.elementRef.lazySet(element);
 			trySchedule();
 		}
@@ -322,6 +427,7 @@ class ReactiveTypeHandler {
 						logger.trace("Send for " + this.emitter + " failed: " + ex);
 					}
 					terminate();
+					this.metricsContext.completed(ex);
 					return;
 				}
 			}
@@ -330,6 +436,7 @@ class ReactiveTypeHandler {
 				this.done = true;
 				Throwable ex = this.error;
 				this.error = null;
+				this.metricsContext.completed(ex);
 				if (ex != null) {
 					if (logger.isTraceEnabled()) {
 						logger.trace("Publisher for " + this.emitter + " failed: " + ex);
@@ -363,8 +470,8 @@ class ReactiveTypeHandler {
 
 	private static class SseEmitterSubscriber extends AbstractEmitterSubscriber {
 
-		SseEmitterSubscriber(SseEmitter sseEmitter, TaskExecutor executor) {
-			super(sseEmitter, executor);
+		SseEmitterSubscriber(SseEmitter sseEmitter, TaskExecutor executor, MetricsContext metricsContext) {
+			super(sseEmitter, executor, metricsContext);
 		}
 
 		@Override
@@ -407,8 +514,8 @@ class ReactiveTypeHandler {
 
 	private static class JsonEmitterSubscriber extends AbstractEmitterSubscriber {
 
-		JsonEmitterSubscriber(ResponseBodyEmitter emitter, TaskExecutor executor) {
-			super(emitter, executor);
+		JsonEmitterSubscriber(ResponseBodyEmitter emitter, TaskExecutor executor, MetricsContext metricsContext) {
+			super(emitter, executor, metricsContext);
 		}
 
 		@Override
@@ -421,8 +528,8 @@ class ReactiveTypeHandler {
 
 	private static class TextEmitterSubscriber extends AbstractEmitterSubscriber {
 
-		TextEmitterSubscriber(ResponseBodyEmitter emitter, TaskExecutor executor) {
-			super(emitter, executor);
+		TextEmitterSubscriber(ResponseBodyEmitter emitter, TaskExecutor executor, MetricsContext metricsContext) {
+			super(emitter, executor, metricsContext);
 		}
 
 		@Override
@@ -440,35 +547,45 @@ class ReactiveTypeHandler {
 
 		private final CollectedValuesList values;
 
-		DeferredResultSubscriber(DeferredResult<Object> result, ReactiveAdapter adapter, ResolvableType elementType) {
+		private final MetricsContext metricsContext;
+
+		DeferredResultSubscriber(DeferredResult<Object> result, ReactiveAdapter adapter,
+				ResolvableType elementType, MetricsContext metricsContext) {
+
 			this.result = result;
 			this.multiValueSource = adapter.isMultiValue();
 			this.values = new CollectedValuesList(elementType);
+			this.metricsContext = metricsContext;
 		}
 
-		public void connect(ReactiveAdapter adapter, Object returnValue) {
-			Publisher<Object> publisher = adapter.toPublisher(returnValue);
-			publisher.subscribe(this);
+		public void connect(ReactiveAdapter adapter, Object returnValue, @Nullable TaskExecutor subscribeExecutor) {
+			subscribe(adapter.toPublisher(returnValue), this, subscribeExecutor);
 		}
 
 		@Override
 		public void onSubscribe(Subscription subscription) {
-			this.result.onTimeout(subscription::cancel);
+			this.result.onTimeout(() -> {
+				subscription.cancel();
+				this.metricsContext.completed(null);
+			});
 			subscription.request(Long.MAX_VALUE);
 		}
 
 		@Override
 		public void onNext(Object element) {
+			this.metricsContext.element();
 			this.values.add(element);
 		}
 
 		@Override
 		public void onError(Throwable ex) {
+			this.metricsContext.completed(ex);
 			this.result.setErrorResult(ex);
 		}
 
 		@Override
 		public void onComplete() {
+			this.metricsContext.completed(null);
 			if (this.values.size() > 1 || this.multiValueSource) {
 				this.result.setResult(this.values);
 			}
@@ -43,6 +43,7 @@ import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
@@ -50,6 +51,7 @@ import org.springframework.http.converter.support.AllEncompassingFormHttpMessage
 import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.ui.ModelMap;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.web.accept.ContentNegotiationManager;
@@ -167,6 +169,14 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private AsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("MvcAsync");
 
+	@Nullable
+	private AsyncTaskExecutor handlerInvocationExecutor;
+
+	@Nullable
+	private TaskExecutor reactiveSubscribeExecutor;
+
+	private ReactiveReturnValueMetrics reactiveMetrics = ReactiveReturnValueMetrics.NONE;
+
 	@Nullable
 	private Long asyncRequestTimeout;
 
@@ -418,6 +428,53 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		this.taskExecutor = taskExecutor;
 	}
 
+	/**
+	 * Set an {@link AsyncTaskExecutor} to invoke controller methods with, e.g.
+	 * a {@link org.springframework.core.task.VirtualThreadTaskExecutor} to run
+	 * blocking controller logic on virtual threads.
+	 * <p>Each request is then handed to the executor through async request
+	 * processing: method arguments are resolved on the container thread, the
+	 * method is invoked on the executor, and its return value is handled after
+	 * an async dispatch, as for a {@link Callable} return value. The
+	 * {@link #setAsyncRequestTimeout async request timeout} and the
+	 * {@link #setCallableInterceptors Callable interceptors} apply accordingly.
+	 * <p>The request and the current locale are exposed through
+	 * {@link org.springframework.web.context.request.RequestContextHolder} and
+	 * {@link org.springframework.context.i18n.LocaleContextHolder} on the executor
+	 * thread, so that request-scoped beans are available to the controller
+	 * method. Other thread-bound state of the container thread is not, e.g.
+	 * a transaction or security context bound by a filter.
+	 * <p>By default, this is not set and controller methods are invoked on
+	 * the container thread.
+	 * @since 6.0
+	 */
+	public void setHandlerInvocationExecutor(@Nullable AsyncTaskExecutor handlerInvocationExecutor) {
+		this.handlerInvocationExecutor = handlerInvocationExecutor;
+	}
+
+	/**
+	 * Set a {@link TaskExecutor} to subscribe to reactive return values
+	 * (e.g. {@code Mono}, {@code Flux}) on, e.g. a bounded thread pool for
+	 * reactive types that perform blocking work when subscribed to.
+	 * <p>By default, this is not set and reactive return values are subscribed
+	 * to on the container thread.
+	 * @since 6.0
+	 */
+	public void setReactiveSubscribeExecutor(@Nullable TaskExecutor reactiveSubscribeExecutor) {
+		this.reactiveSubscribeExecutor = reactiveSubscribeExecutor;
+	}
+
+	/**
+	 * Set the {@link ReactiveReturnValueMetrics} to report latency, executor
+	 * queueing and element counts of reactive return values to.
+	 * <p>By default, no metrics are reported.
+	 * @since 6.0
+	 */
+	public void setReactiveMetrics(ReactiveReturnValueMetrics reactiveMetrics) {
+		Assert.notNull(reactiveMetrics, "ReactiveReturnValueMetrics must not be null");
+		this.reactiveMetrics = reactiveMetrics;
+	}
+
 	/**
 	 * Specify the amount of time, in milliseconds, before concurrent handling
 	 * should time out. In Servlet 3, the timeout begins after the main request
@@ -734,7 +791,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		handlers.add(new ModelMethodProcessor());
 		handlers.add(new ViewMethodReturnValueHandler());
 		handlers.add(new ResponseBodyEmitterReturnValueHandler(getMessageConverters(),
-				this.reactiveAdapterRegistry, this.taskExecutor, this.contentNegotiationManager));
+				this.reactiveAdapterRegistry, this.taskExecutor, this.contentNegotiationManager,
+				this.reactiveSubscribeExecutor, this.reactiveMetrics));
 		handlers.add(new StreamingResponseBodyReturnValueHandler());
 		handlers.add(new HttpEntityMethodProcessor(getMessageConverters(),
 				this.contentNegotiationManager, this.requestResponseBodyAdvice));
@@ -891,6 +949,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 				});
 				invocableMethod = invocableMethod.wrapConcurrentResult(result);
 			}
+			else if (this.handlerInvocationExecutor != null) {
+				invocableMethod.setInvocationExecutor(this.handlerInvocationExecutor);
+			}
 
 			invocableMethod.invokeAndHandle(webRequest, mavContainer);
 			if (asyncManager.isConcurrentHandlingStarted()) {
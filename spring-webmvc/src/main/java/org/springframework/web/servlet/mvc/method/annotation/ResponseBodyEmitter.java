@@ -95,6 +95,9 @@ public class ResponseBodyEmitter {
 
 	private final DefaultCallback completionCallback = new DefaultCallback();
 
+	@Nullable
+	private Runnable initializationCallback;
+
 
 	/**
 	 * Create a new ResponseBodyEmitter instance.
@@ -148,6 +151,11 @@ public class ResponseBodyEmitter {
 			this.handler.onTimeout(this.timeoutCallback);
 			this.handler.onError(this.errorCallback);
 			this.handler.onCompletion(this.completionCallback);
+			if (this.initializationCallback != null) {
+				Runnable callback = this.initializationCallback;
+				this.initializationCallback = null;
+				callback.run();
+			}
 		}
 	}
 
@@ -155,9 +163,28 @@ public class ResponseBodyEmitter {
 		this.complete = true;
 		this.failure = ex;
 		this.earlySendAttempts.clear();
+		this.initializationCallback = null;
 		this.errorCallback.accept(ex);
 	}
 
+	/**
+	 * Register a callback to invoke once this emitter is initialized, i.e.
+	 * from when sent data is written to the response rather than buffered,
+	 * or right away if already initialized. Used to apply back pressure to
+	 * the source of the data.
+	 * @since 6.0
+	 */
+	synchronized void onInitialization(Runnable callback) {
+		if (this.handler != null) {
+			if (!this.complete) {
+				callback.run();
+			}
+		}
+		else {
+			this.initializationCallback = callback;
+		}
+	}
+
 	/**
 	 * Invoked after the response is updated with the status code and headers,
 	 * if the ResponseBodyEmitter is wrapped in a ResponseEntity, but before the
@@ -93,6 +93,28 @@ public class ResponseBodyEmitterReturnValueHandler implements HandlerMethodRetur
 		this.reactiveHandler = new ReactiveTypeHandler(registry, executor, manager);
 	}
 
+	/**
+	 * Variant of {@link #ResponseBodyEmitterReturnValueHandler(List, ReactiveAdapterRegistry,
+	 * TaskExecutor, ContentNegotiationManager)} with an executor to subscribe to
+	 * reactive return values on, and metrics to report for them.
+	 * @param messageConverters converters to write emitted objects with
+	 * @param registry for reactive return value type support
+	 * @param executor for blocking I/O writes of items emitted from reactive types
+	 * @param manager for detecting streaming media types
+	 * @param subscribeExecutor for subscribing to reactive types, or {@code null}
+	 * to subscribe on the calling thread
+	 * @param metrics the metrics to report for reactive return values
+	 * @since 6.0
+	 */
+	public ResponseBodyEmitterReturnValueHandler(List<HttpMessageConverter<?>> messageConverters,
+			ReactiveAdapterRegistry registry, TaskExecutor executor, ContentNegotiationManager manager,
+			@Nullable TaskExecutor subscribeExecutor, ReactiveReturnValueMetrics metrics) {
+
+		Assert.notEmpty(messageConverters, "HttpMessageConverter List must not be empty");
+		this.sseMessageConverters = initSseConverters(messageConverters);
+		this.reactiveHandler = new ReactiveTypeHandler(registry, executor, manager, subscribeExecutor, metrics);
+	}
+
 	private static List<HttpMessageConverter<?>> initSseConverters(List<HttpMessageConverter<?>> converters) {
 		for (HttpMessageConverter<?> converter : converters) {
 			if (converter.canWrite(String.class, MediaType.TEXT_PLAIN)) {
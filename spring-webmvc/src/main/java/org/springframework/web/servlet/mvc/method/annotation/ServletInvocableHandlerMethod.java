@@ -21,23 +21,35 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
@@ -69,6 +81,9 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	@Nullable
 	private HandlerMethodReturnValueHandlerComposite returnValueHandlers;
 
+	@Nullable
+	private AsyncTaskExecutor invocationExecutor;
+
 
 	/**
 	 * Creates an instance from the given handler and method.
@@ -103,6 +118,19 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		this.returnValueHandlers = returnValueHandlers;
 	}
 
+	/**
+	 * Set the executor to invoke the handler method with, through async request
+	 * processing, e.g. a {@link org.springframework.core.task.VirtualThreadTaskExecutor}.
+	 * Method arguments are still resolved on the calling thread, and the return
+	 * value is handled after an async dispatch back to the container.
+	 * <p>By default, this is not set and the handler method is invoked directly.
+	 * The executor is not used for methods declaring an async return type.
+	 * @since 6.0
+	 */
+	public void setInvocationExecutor(@Nullable AsyncTaskExecutor invocationExecutor) {
+		this.invocationExecutor = invocationExecutor;
+	}
+
 
 	/**
 	 * Invoke the method and handle the return value through one of the
@@ -114,6 +142,11 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer,
 			Object... providedArgs) throws Exception {
 
+		if (this.invocationExecutor != null && isAsyncInvocationSupported(webRequest)) {
+			invokeOnExecutor(this.invocationExecutor, webRequest, mavContainer, providedArgs);
+			return;
+		}
+
 		Object returnValue = invokeForRequest(webRequest, mavContainer, providedArgs);
 		setResponseStatus(webRequest);
 
@@ -187,6 +220,73 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		}
 	}
 
+	private boolean isAsyncInvocationSupported(ServletWebRequest webRequest) {
+		if (KotlinDetector.isSuspendingFunction(getMethod())) {
+			return false;
+		}
+		Class<?> returnType = getReturnType().getParameterType();
+		if (ResponseEntity.class.isAssignableFrom(returnType)) {
+			returnType = ResolvableType.forMethodParameter(getReturnType()).getGeneric().resolve(Object.class);
+		}
+		return (!isAsyncReturnType(returnType) && webRequest.getRequest().isAsyncSupported());
+	}
+
+	/**
+	 * Whether the given return type is processed asynchronously or streamed
+	 * by a return value handler already, in which case the handler method is
+	 * not invoked through the invocation executor.
+	 */
+	private static boolean isAsyncReturnType(Class<?> returnType) {
+		return (Callable.class.isAssignableFrom(returnType) || WebAsyncTask.class.isAssignableFrom(returnType) ||
+				DeferredResult.class.isAssignableFrom(returnType) ||
+				ListenableFuture.class.isAssignableFrom(returnType) ||
+				CompletionStage.class.isAssignableFrom(returnType) ||
+				ResponseBodyEmitter.class.isAssignableFrom(returnType) ||
+				StreamingResponseBody.class.isAssignableFrom(returnType) ||
+				ReactiveAdapterRegistry.getSharedInstance().getAdapter(returnType) != null);
+	}
+
+	/**
+	 * Resolve the method arguments on the current thread and invoke the method
+	 * on the given executor through async request processing, resuming with an
+	 * {@link InvocationResult} after the async dispatch.
+	 * <p>The request and the current locale are exposed through
+	 * {@link RequestContextHolder} and {@link LocaleContextHolder} on the
+	 * executor thread, unless bound there already, e.g. by the
+	 * {@link org.springframework.web.servlet.FrameworkServlet}.
+	 */
+	private void invokeOnExecutor(AsyncTaskExecutor executor, ServletWebRequest webRequest,
+			ModelAndViewContainer mavContainer, Object... providedArgs) throws Exception {
+
+		Object[] args = getMethodArgumentValues(webRequest, mavContainer, providedArgs);
+		LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+		Callable<InvocationResult> callable = () -> {
+			boolean bindRequest = (RequestContextHolder.getRequestAttributes() == null);
+			boolean bindLocale = (localeContext != null && LocaleContextHolder.getLocaleContext() == null);
+			if (bindRequest) {
+				RequestContextHolder.setRequestAttributes(
+						new ServletRequestAttributes(webRequest.getRequest(), webRequest.getResponse()));
+			}
+			if (bindLocale) {
+				LocaleContextHolder.setLocaleContext(localeContext);
+			}
+			try {
+				Object returnValue = doInvoke(args);
+				return new InvocationResult(returnValue, isRequestNotModified(webRequest));
+			}
+			finally {
+				if (bindRequest) {
+					RequestContextHolder.resetRequestAttributes();
+				}
+				if (bindLocale) {
+					LocaleContextHolder.resetLocaleContext();
+				}
+			}
+		};
+		WebAsyncUtils.getAsyncManager(webRequest).startCallableProcessing(
+				new WebAsyncTask<>(null, executor, callable), mavContainer);
+	}
+
 	private String formatErrorForReturnValue(@Nullable Object returnValue) {
 		return "Error handling return value=[" + returnValue + "]" +
 				(returnValue != null ? ", type=" + returnValue.getClass().getName() : "") +
@@ -200,7 +300,12 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	 * async return values (e.g. Callable, DeferredResult, ListenableFuture).
 	 */
 	ServletInvocableHandlerMethod wrapConcurrentResult(Object result) {
-		return new ConcurrentResultHandlerMethod(result, new ConcurrentResultMethodParameter(result));
+		if (result instanceof InvocationResult invocationResult) {
+			Object returnValue = invocationResult.getReturnValue();
+			return new ConcurrentResultHandlerMethod(returnValue,
+					new ConcurrentResultMethodParameter(returnValue, true), true, invocationResult.isRequestNotModified());
+		}
+		return new ConcurrentResultHandlerMethod(result, new ConcurrentResultMethodParameter(result, false), false, false);
 	}
 
 
@@ -212,9 +317,17 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	 */
 	private class ConcurrentResultHandlerMethod extends ServletInvocableHandlerMethod {
 
+		@Nullable
+		private final Object result;
+
 		private final MethodParameter returnType;
 
-		public ConcurrentResultHandlerMethod(final Object result, ConcurrentResultMethodParameter returnType) {
+		private final boolean invokedOnExecutor;
+
+		private final boolean requestNotModified;
+
+		public ConcurrentResultHandlerMethod(@Nullable final Object result, ConcurrentResultMethodParameter returnType,
+				boolean invokedOnExecutor, boolean requestNotModified) {
 			super((Callable<Object>) () -> {
 				if (result instanceof Exception) {
 					throw (Exception) result;
@@ -228,7 +341,26 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 			if (ServletInvocableHandlerMethod.this.returnValueHandlers != null) {
 				setHandlerMethodReturnValueHandlers(ServletInvocableHandlerMethod.this.returnValueHandlers);
 			}
+			this.result = result;
 			this.returnType = returnType;
+			this.invokedOnExecutor = invokedOnExecutor;
+			this.requestNotModified = requestNotModified;
+		}
+
+		/**
+		 * Complete the request without handling the return value if the
+		 * controller method found the request to be "not modified" while it
+		 * was invoked through the invocation executor.
+		 */
+		@Override
+		public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer,
+				Object... providedArgs) throws Exception {
+
+			if (this.requestNotModified && this.result == null) {
+				mavContainer.setRequestHandled(true);
+				return;
+			}
+			super.invokeAndHandle(webRequest, mavContainer, providedArgs);
 		}
 
 		/**
@@ -248,6 +380,27 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 			return this.returnType;
 		}
 
+		/**
+		 * Bridge to the response status of the controller method, if invoked
+		 * through the invocation executor: otherwise the status has been
+		 * applied when the controller method returned already.
+		 */
+		@Override
+		@Nullable
+		protected HttpStatus getResponseStatus() {
+			return (this.invokedOnExecutor ? ServletInvocableHandlerMethod.this.getResponseStatus() : null);
+		}
+
+		/**
+		 * Bridge to the response status reason of the controller method,
+		 * if invoked through the invocation executor.
+		 */
+		@Override
+		@Nullable
+		protected String getResponseStatusReason() {
+			return (this.invokedOnExecutor ? ServletInvocableHandlerMethod.this.getResponseStatusReason() : null);
+		}
+
 		/**
 		 * Bridge to controller method-level annotations.
 		 */
@@ -278,24 +431,31 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 
 		private final ResolvableType returnType;
 
-		public ConcurrentResultMethodParameter(Object returnValue) {
+		private final boolean declaredReturnType;
+
+		public ConcurrentResultMethodParameter(@Nullable Object returnValue, boolean declaredReturnType) {
 			super(-1);
 			this.returnValue = returnValue;
 			this.returnType = (returnValue instanceof ReactiveTypeHandler.CollectedValuesList ?
 					((ReactiveTypeHandler.CollectedValuesList) returnValue).getReturnType() :
-					KotlinDetector.isSuspendingFunction(super.getMethod()) ?
+					declaredReturnType || KotlinDetector.isSuspendingFunction(super.getMethod()) ?
 					ResolvableType.forMethodParameter(getReturnType()) :
 					ResolvableType.forType(super.getGenericParameterType()).getGeneric());
+			this.declaredReturnType = declaredReturnType;
 		}
 
 		public ConcurrentResultMethodParameter(ConcurrentResultMethodParameter original) {
 			super(original);
 			this.returnValue = original.returnValue;
 			this.returnType = original.returnType;
+			this.declaredReturnType = original.declaredReturnType;
 		}
 
 		@Override
 		public Class<?> getParameterType() {
+			if (this.declaredReturnType) {
+				return super.getParameterType();
+			}
 			if (this.returnValue != null) {
 				return this.returnValue.getClass();
 			}
@@ -325,4 +485,32 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		}
 	}
 
+
+	/**
+	 * Holder for the return value of a handler method invoked through an
+	 * {@link #setInvocationExecutor invocation executor}, which is handled
+	 * against the declared return type of the method.
+	 */
+	private static final class InvocationResult {
+
+		@Nullable
+		private final Object returnValue;
+
+		private final boolean requestNotModified;
+
+		InvocationResult(@Nullable Object returnValue, boolean requestNotModified) {
+			this.returnValue = returnValue;
+			this.requestNotModified = requestNotModified;
+		}
+
+		@Nullable
+		Object getReturnValue() {
+			return this.returnValue;
+		}
+
+		boolean isRequestNotModified() {
+			return this.requestNotModified;
+		}
+	}
+
 }
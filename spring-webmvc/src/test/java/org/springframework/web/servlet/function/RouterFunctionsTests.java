@@ -21,6 +21,7 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.http.HttpMethod;
 import org.springframework.web.servlet.handler.PathPatternsTestUtils;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 
@@ -114,4 +115,51 @@ public class RouterFunctionsTests {
 		assertThat(resultHandlerFunction.get()).isEqualTo(handlerFunction);
 	}
 
+	@Test
+	public void optimize() {
+		HandlerFunction<ServerResponse> user = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> users = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> createUser = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> item = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> fallback = request -> ServerResponse.ok().build();
+
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route()
+				.GET("/users/{id}", user)
+				.GET("/users/**", users)
+				.POST("/users", createUser)
+				.nest(RequestPredicates.path("/api"), builder -> builder.GET("/items/{id}", item))
+				.route(request -> request.path().startsWith("/other"), fallback)
+				.build();
+		RouterFunction<ServerResponse> optimized = RouterFunctions.optimize(routerFunction);
+
+		assertThat(optimized.toString()).isEqualTo(routerFunction.toString());
+		assertThat(route(optimized, HttpMethod.GET, "/users/42")).contains(user);
+		assertThat(route(optimized, HttpMethod.GET, "/users/42/friends")).contains(users);
+		assertThat(route(optimized, HttpMethod.POST, "/users")).contains(createUser);
+		assertThat(route(optimized, HttpMethod.GET, "/api/items/1")).contains(item);
+		assertThat(route(optimized, HttpMethod.DELETE, "/other")).contains(fallback);
+		assertThat(route(optimized, HttpMethod.DELETE, "/users")).isEmpty();
+		assertThat(route(optimized, HttpMethod.GET, "/")).isEmpty();
+	}
+
+	@Test
+	public void optimizeKeepsPathVariables() {
+		HandlerFunction<ServerResponse> handlerFunction = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.optimize(
+				RouterFunctions.nest(RequestPredicates.path("/{foo}"),
+						RouterFunctions.route(RequestPredicates.GET("/baz/{qux}"), handlerFunction)));
+
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/bar/baz/quux");
+		ServerRequest request = new DefaultServerRequest(servletRequest, Collections.emptyList());
+		assertThat(routerFunction.route(request)).contains(handlerFunction);
+		assertThat(request.pathVariables()).containsEntry("foo", "bar").containsEntry("qux", "quux");
+	}
+
+	private static Optional<HandlerFunction<ServerResponse>> route(
+			RouterFunction<ServerResponse> routerFunction, HttpMethod method, String path) {
+
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest(method.name(), path);
+		return routerFunction.route(new DefaultServerRequest(servletRequest, Collections.emptyList()));
+	}
+
 }
@@ -22,6 +22,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -272,6 +274,75 @@ public class ReactiveTypeHandlerTests {
 		assertThat(emitterHandler.getValuesAsText()).isEqualTo("The quick brown fox jumps over the lazy dog");
 	}
 
+	@Test
+	public void noRequestBeforeEmitterInitialized() throws Exception {
+		AtomicLong requested = new AtomicLong();
+		Flux<String> flux = Flux.just("foo", "bar").doOnRequest(requested::addAndGet);
+		ResponseBodyEmitter emitter = handleValue(flux, Flux.class, forClass(String.class));
+
+		assertThat(requested.get()).isEqualTo(0);
+
+		EmitterHandler emitterHandler = new EmitterHandler();
+		emitter.initialize(emitterHandler);
+
+		assertThat(emitterHandler.getValuesAsText()).isEqualTo("foobar");
+		assertThat(requested.get()).isGreaterThan(0);
+	}
+
+	@Test
+	public void subscribeExecutor() throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		this.handler = new ReactiveTypeHandler(ReactiveAdapterRegistry.getSharedInstance(),
+				new SyncTaskExecutor(), new ContentNegotiationManager(), tasks::add, ReactiveReturnValueMetrics.NONE);
+
+		AtomicBoolean subscribed = new AtomicBoolean();
+		Mono<String> mono = Mono.just("foo").doOnSubscribe(subscription -> subscribed.set(true));
+		testDeferredResultSubscriber(mono, Mono.class, forClass(String.class), () -> {
+			assertThat(subscribed.get()).isFalse();
+			assertThat(tasks).hasSize(1);
+			tasks.get(0).run();
+		}, "foo");
+	}
+
+	@Test
+	public void metrics() throws Exception {
+		RecordingMetrics metrics = new RecordingMetrics();
+		this.handler = new ReactiveTypeHandler(ReactiveAdapterRegistry.getSharedInstance(),
+				new SyncTaskExecutor(), new ContentNegotiationManager(), null, metrics);
+
+		Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+		ResponseBodyEmitter emitter = handleValue(sink.asFlux(), Flux.class, forClass(String.class));
+		emitter.initialize(new EmitterHandler());
+
+		sink.tryEmitNext("foo");
+		sink.tryEmitNext("bar");
+		assertThat(metrics.completed).isNull();
+		sink.tryEmitComplete();
+
+		assertThat(metrics.queued).isGreaterThanOrEqualTo(3);
+		assertThat(metrics.started).isEqualTo(metrics.queued);
+		assertThat(metrics.maxQueueDepth).isEqualTo(1);
+		assertThat(metrics.completed).isNotNull();
+		assertThat(metrics.completed.getMethod().getName()).isEqualTo("handleFluxString");
+		assertThat(metrics.elementCount).isEqualTo(2);
+	}
+
+	@Test
+	public void metricsWithDeferredResult() throws Exception {
+		RecordingMetrics metrics = new RecordingMetrics();
+		this.handler = new ReactiveTypeHandler(ReactiveAdapterRegistry.getSharedInstance(),
+				new SyncTaskExecutor(), new ContentNegotiationManager(), null, metrics);
+
+		IllegalStateException ex = new IllegalStateException();
+		Sinks.One<String> sink = Sinks.one();
+		testDeferredResultSubscriber(sink.asMono(), Mono.class, forClass(String.class),
+				() -> sink.emitError(ex, Sinks.EmitFailureHandler.FAIL_FAST), ex);
+
+		assertThat(metrics.queued).isEqualTo(0);
+		assertThat(metrics.elementCount).isEqualTo(0);
+		assertThat(metrics.error).isSameAs(ex);
+	}
+
 	@Test
 	public void writeFluxOfString() throws Exception {
 
@@ -347,6 +418,40 @@ public class ReactiveTypeHandlerTests {
 	}
 
 
+	private static class RecordingMetrics implements ReactiveReturnValueMetrics {
+
+		private int queued;
+
+		private int started;
+
+		private int maxQueueDepth;
+
+		private MethodParameter completed;
+
+		private long elementCount;
+
+		private Throwable error;
+
+		@Override
+		public void taskQueued(MethodParameter returnType, int queueDepth) {
+			this.queued++;
+			this.maxQueueDepth = Math.max(this.maxQueueDepth, queueDepth);
+		}
+
+		@Override
+		public void taskStarted(MethodParameter returnType, long queueTimeNanos) {
+			this.started++;
+		}
+
+		@Override
+		public void completed(MethodParameter returnType, long elementCount, long durationNanos, Throwable error) {
+			this.completed = returnType;
+			this.elementCount = elementCount;
+			this.error = error;
+		}
+	}
+
+
 	private static class EmitterHandler implements ResponseBodyEmitter.Handler {
 
 		private final List<Object> values = new ArrayList<>();
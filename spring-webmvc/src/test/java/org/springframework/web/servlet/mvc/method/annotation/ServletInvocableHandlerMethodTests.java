@@ -35,6 +35,8 @@ import org.springframework.context.support.StaticApplicationContext;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AliasFor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -47,8 +49,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.annotation.RequestParamMethodArgumentResolver;
@@ -408,6 +416,136 @@ public class ServletInvocableHandlerMethodTests {
 		assertThat(this.response.getContentAsString()).isEqualTo("[{\"value\":\"foo\"},{\"value\":\"bar\"}]");
 	}
 
+	@Test
+	public void invokeAndHandle_WithInvocationExecutor() throws Exception {
+		WebAsyncManager asyncManager = initAsyncManager();
+		this.returnValueHandlers.addHandler(new RequestResponseBodyMethodProcessor(this.converters));
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new MethodLevelResponseBodyHandler(), "handleString");
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+
+		assertThat(asyncManager.hasConcurrentResult()).isTrue();
+		assertThat(this.response.getContentAsString()).isEmpty();
+
+		handlerMethod = handlerMethod.wrapConcurrentResult(asyncManager.getConcurrentResult());
+		handlerMethod.invokeAndHandle(this.webRequest, new ModelAndViewContainer());
+
+		assertThat(this.response.getContentAsString()).isEqualTo("bar");
+		assertThat(handlerMethod.getReturnValueType("bar").getParameterType()).isEqualTo(String.class);
+	}
+
+	@Test
+	public void invokeAndHandle_VoidWithResponseStatusAndInvocationExecutor() throws Exception {
+		WebAsyncManager asyncManager = initAsyncManager();
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new Handler(), "responseStatus");
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+		assertThat(asyncManager.hasConcurrentResult()).isTrue();
+
+		ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+		handlerMethod = handlerMethod.wrapConcurrentResult(asyncManager.getConcurrentResult());
+		handlerMethod.invokeAndHandle(this.webRequest, mavContainer);
+
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+		assertThat(mavContainer.isRequestHandled()).isTrue();
+	}
+
+	@Test
+	public void invokeAndHandle_ResponseStatusAndReasonWithInvocationExecutor() throws Exception {
+		WebAsyncManager asyncManager = initAsyncManager();
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new Handler(), "responseStatusWithReason");
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+		assertThat(asyncManager.hasConcurrentResult()).isTrue();
+
+		ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+		handlerMethod = handlerMethod.wrapConcurrentResult(asyncManager.getConcurrentResult());
+		handlerMethod.invokeAndHandle(this.webRequest, mavContainer);
+
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+		assertThat(this.response.getErrorMessage()).isEqualTo("400 Bad Request");
+		assertThat(mavContainer.isRequestHandled()).isTrue();
+	}
+
+	@Test
+	public void invokeAndHandle_NotModifiedWithInvocationExecutor() throws Exception {
+		WebAsyncManager asyncManager = initAsyncManager();
+		this.argumentResolvers.addResolver(new ServletRequestMethodArgumentResolver());
+		this.request.addHeader("If-Modified-Since", 10 * 1000 * 1000);
+
+		ServletInvocableHandlerMethod handlerMethod =
+				getHandlerMethod(new Handler(), "checkNotModified", WebRequest.class);
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+		assertThat(asyncManager.hasConcurrentResult()).isTrue();
+
+		// the async dispatch comes with a new web request
+		ModelAndViewContainer mavContainer = new ModelAndViewContainer();
+		handlerMethod = handlerMethod.wrapConcurrentResult(asyncManager.getConcurrentResult());
+		handlerMethod.invokeAndHandle(new ServletWebRequest(this.request, this.response), mavContainer);
+
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+		assertThat(mavContainer.isRequestHandled()).isTrue();
+	}
+
+	@Test
+	public void invokeAndHandle_AsyncReturnTypeWithInvocationExecutor() throws Exception {
+		WebAsyncManager asyncManager = initAsyncManager();
+		this.returnValueHandlers.addHandler(new ResponseBodyEmitterReturnValueHandler(this.converters));
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new ResponseEntityHandler(), "handleFlux");
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(task -> {
+			throw new IllegalStateException("Unexpected use of invocation executor");
+		}));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+
+		assertThat(asyncManager.hasConcurrentResult()).isFalse();
+		assertThat(this.mavContainer.isRequestHandled()).isTrue();
+	}
+
+	@Test
+	public void invokeAndHandle_RequestContextWithInvocationExecutor() throws Exception {
+		WebAsyncManager asyncManager = initAsyncManager();
+		this.returnValueHandlers.addHandler(new RequestResponseBodyMethodProcessor(this.converters));
+		this.request.setAttribute("name", "foo");
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new MethodLevelResponseBodyHandler(), "handleRequestAttribute");
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+		assertThat(RequestContextHolder.getRequestAttributes()).isNull();
+
+		handlerMethod = handlerMethod.wrapConcurrentResult(asyncManager.getConcurrentResult());
+		handlerMethod.invokeAndHandle(this.webRequest, new ModelAndViewContainer());
+
+		assertThat(this.response.getContentAsString()).isEqualTo("foo");
+	}
+
+	@Test
+	public void wrapConcurrentResult_ResponseStatusAppliedOnlyOnce() throws Exception {
+		this.returnValueHandlers.addHandler(new RequestResponseBodyMethodProcessor(this.converters));
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new Handler(), "deferredResultWithResponseStatus");
+		handlerMethod = handlerMethod.wrapConcurrentResult("bar");
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+
+		assertThat(this.response.getStatus()).isEqualTo(HttpStatus.OK.value());
+		assertThat(this.response.getErrorMessage()).isNull();
+		assertThat(this.response.getContentAsString()).isEqualTo("bar");
+	}
+
+	@Test
+	public void invokeAndHandle_WithInvocationExecutorAndAsyncNotSupported() throws Exception {
+		this.returnValueHandlers.addHandler(new RequestResponseBodyMethodProcessor(this.converters));
+
+		ServletInvocableHandlerMethod handlerMethod = getHandlerMethod(new MethodLevelResponseBodyHandler(), "handleString");
+		handlerMethod.setInvocationExecutor(new TaskExecutorAdapter(new SyncTaskExecutor()));
+		handlerMethod.invokeAndHandle(this.webRequest, this.mavContainer);
+
+		assertThat(this.response.getContentAsString()).isEqualTo("bar");
+	}
+
 	@Test  // SPR-12287 (16/Oct/14 comments)
 	public void responseEntityRawTypeWithNullBody() throws Exception {
 		this.returnValueHandlers.addHandler(new HttpEntityMethodProcessor(this.converters));
@@ -418,6 +556,13 @@ public class ServletInvocableHandlerMethodTests {
 		assertThat(this.response.getContentAsString()).isEqualTo("");
 	}
 
+	private WebAsyncManager initAsyncManager() {
+		this.request.setAsyncSupported(true);
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(this.webRequest);
+		asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(this.request, this.response));
+		return asyncManager;
+	}
+
 	private ServletInvocableHandlerMethod getHandlerMethod(Object controller,
 			String methodName, Class<?>... argTypes) throws NoSuchMethodException {
 
@@ -470,6 +615,16 @@ public class ServletInvocableHandlerMethodTests {
 		public void notModified() {
 		}
 
+		public void checkNotModified(WebRequest request) {
+			request.checkNotModified(1000 * 1000);
+		}
+
+		@ResponseStatus(code = HttpStatus.BAD_REQUEST, reason = "400 Bad Request")
+		@ResponseBody
+		public DeferredResult<String> deferredResultWithResponseStatus() {
+			return null;
+		}
+
 		public Object dynamicReturnValue(@RequestParam(required=false) String param) {
 			return (param != null) ? "view" : new RedirectView("redirectView");
 		}
@@ -489,6 +644,14 @@ public class ServletInvocableHandlerMethodTests {
 		@ResponseBody
 		public DeferredResult<String> handle() { return null; }
 
+		@ResponseBody
+		public String handleString() { return "bar"; }
+
+		@ResponseBody
+		public String handleRequestAttribute() {
+			return (String) RequestContextHolder.currentRequestAttributes().getAttribute("name", RequestAttributes.SCOPE_REQUEST);
+		}
+
 		// Unusual but legal return type
 		// Properly test generic type handling of Flux values collected to a List
 